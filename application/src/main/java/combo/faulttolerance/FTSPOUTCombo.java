@@ -44,6 +44,7 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
     public Tuple tuple;
     public Tuple marker;
     public GeneralMsg generalMsg;
+    private boolean reuseInput;//the composed bolt does not keep the input tuple after execution.
     public int tthread;
     public FTSINKCombo sink = new FTSINKCombo();
     protected int totalEventsPerBatch = 0;
@@ -97,6 +98,7 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
         long end = System.nanoTime();
         if (enable_log) LOG.info("spout initialize takes (ms):" + (end - start) / 1E6);
         ccOption = config.getInt("CCOption", 0);
+        reuseInput = ccOption != CCOption_SStore;//S-Store bolts buffer the input tuples until the punctuation.
         ftOption = config.getInt("FTOption", 0);
         bid = 0;
         counter = 0;
@@ -288,12 +290,12 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                 } else {
                     time = System.nanoTime();
                 }
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                generalMsg = nextMsg(event, time);
             } else {
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                generalMsg = nextMsg(event);
             }
 
-            tuple = new Tuple(bid, this.taskId, context, generalMsg);
+            tuple = nextTuple(bid, generalMsg);
             bolt.execute(tuple);  // public Tuple(long bid, int sourceId, TopologyContext context, Message message)
             counter ++;
 
@@ -357,12 +359,12 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                 } else {
                     time = System.nanoTime();
                 }
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                generalMsg = nextMsg(event, time);
             } else {
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                generalMsg = nextMsg(event);
             }
 
-            tuple = new Tuple(bid, this.taskId, context, generalMsg);
+            tuple = nextTuple(bid, generalMsg);
             bolt.execute(tuple);
             counter ++;
 
@@ -407,12 +409,12 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                 } else {
                     time = System.nanoTime();
                 }
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                generalMsg = nextMsg(event, time);
             } else {
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                generalMsg = nextMsg(event);
             }
 
-            tuple = new Tuple(bid, this.taskId, context, generalMsg);
+            tuple = nextTuple(bid, generalMsg);
             bolt.execute(tuple);  // public Tuple(long bid, int sourceId, TopologyContext context, Message message)
             counter ++;
 
@@ -494,11 +496,11 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                     } else {
                         time = System.nanoTime();
                     }
-                    generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                    generalMsg = nextMsg(event, time);
                 } else {
-                    generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                    generalMsg = nextMsg(event);
                 }
-                tuple = new Tuple(bid, this.taskId, context, generalMsg);
+                tuple = nextTuple(bid, generalMsg);
                 bolt.execute(tuple);
             } else {
                 event = myevents[counter];
@@ -510,11 +512,11 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                     } else {
                         time = System.nanoTime();
                     }
-                    generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                    generalMsg = nextMsg(event, time);
                 } else {
-                    generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                    generalMsg = nextMsg(event);
                 }
-                tuple = new Tuple(bid, this.taskId, context, generalMsg);
+                tuple = nextTuple(bid, generalMsg);
                 bolt.execute(tuple);  // public Tuple(long bid, int sourceId, TopologyContext context, Message message)
             }
             counter ++;
@@ -612,12 +614,12 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                 } else {
                     time = System.nanoTime();
                 }
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                generalMsg = nextMsg(event, time);
             } else {
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                generalMsg = nextMsg(event);
             }
 
-            tuple = new Tuple(bid, this.taskId, context, generalMsg);
+            tuple = nextTuple(bid, generalMsg);
             bolt.execute(tuple);  // public Tuple(long bid, int sourceId, TopologyContext context, Message message)
             counter ++;
 
@@ -702,12 +704,12 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                 } else {
                     time = System.nanoTime();
                 }
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                generalMsg = nextMsg(event, time);
             } else {
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                generalMsg = nextMsg(event);
             }
 
-            tuple = new Tuple(bid, this.taskId, context, generalMsg);
+            tuple = nextTuple(bid, generalMsg);
             bolt.execute(tuple);  // public Tuple(long bid, int sourceId, TopologyContext context, Message message)
             counter ++;
 
@@ -792,12 +794,12 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
                 } else {
                     time = System.nanoTime();
                 }
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+                generalMsg = nextMsg(event, time);
             } else {
-                generalMsg = new GeneralMsg(DEFAULT_STREAM_ID, event);
+                generalMsg = nextMsg(event);
             }
 
-            tuple = new Tuple(bid, this.taskId, context, generalMsg);
+            tuple = nextTuple(bid, generalMsg);
             bolt.execute(tuple);  // public Tuple(long bid, int sourceId, TopologyContext context, Message message)
             counter ++;
 
@@ -830,4 +832,34 @@ public abstract class FTSPOUTCombo extends TransactionalSpout implements FaultTo
         }
     }
 
+    /**
+     * The composed bolt executes the input in this thread before the next event is emitted,
+     * so the message and the tuple handed over to it are reused instead of allocated per event.
+     */
+    @SuppressWarnings("unchecked")
+    private GeneralMsg nextMsg(Object event) {
+        if (reuseInput && generalMsg != null) {
+            generalMsg.setValue(0, event);
+            return generalMsg;
+        }
+        return new GeneralMsg(DEFAULT_STREAM_ID, event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private GeneralMsg nextMsg(Object event, long time) {
+        if (reuseInput && generalMsg != null) {
+            generalMsg.setValue(0, event);
+            generalMsg.setValue(1, time);
+            return generalMsg;
+        }
+        return new GeneralMsg(DEFAULT_STREAM_ID, event, time);
+    }
+
+    private Tuple nextTuple(long bid, GeneralMsg generalMsg) {
+        if (reuseInput && tuple != null && tuple.message == generalMsg) {
+            tuple.setBID(bid);
+            return tuple;
+        }
+        return new Tuple(bid, this.taskId, context, generalMsg);
+    }
 }
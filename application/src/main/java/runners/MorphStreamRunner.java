@@ -40,6 +40,7 @@ import static content.LVTStreamContent.LVTSTREAM_CONTENT;
 import static content.LWMContentImpl.LWM_CONTENT;
 import static content.LockContentImpl.LOCK_CONTENT;
 import static content.SStoreContentImpl.SSTORE_CONTENT;
+import static content.TStreamArrayContentImpl.T_STREAM_ARRAY_CONTENT;
 import static content.TStreamContentImpl.T_STREAMCONTENT;
 import static content.common.ContentCommon.content_type;
 import static content.common.ContentCommon.loggingRecord_type;
@@ -103,6 +104,8 @@ public class MorphStreamRunner extends Runner {
                     case CCOption_MorphStream:
                         if (config.getInt("FTOption") == 4) {
                             content_type = LVTSTREAM_CONTENT;//records the multi-version of table record.
+                        } else if (config.getString("versionChain", "skiplist").equals("array")) {
+                            content_type = T_STREAM_ARRAY_CONTENT;//append-only array version chain.
                         } else {
                             content_type = T_STREAMCONTENT;
                         }
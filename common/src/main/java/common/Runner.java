@@ -53,8 +53,16 @@ public abstract class Runner implements IRunner {
     public boolean shared = true;
     @Parameter(names = {"-bt"}, description = "Batch Emit.", required = false)
     public int batch = 1;
+    @Parameter(names = {"--adaptiveBatch"}, description = "Adapt the batch size of each consumer to its queue occupancy, -bt is the maximum.")
+    public boolean adaptiveBatch = false;
+    @Parameter(names = {"--batchLingerUs"}, description = "Flush a partially filled batch after it lingers for this many microseconds, 0 (default) to wait until it is full.")
+    public int batchLingerUs = 0;
     @Parameter(names = {"-queue_size"}, description = "Output queue size limit.", required = false)
     public int queue_size = 10000;
+    @Parameter(names = {"--tuplePooling"}, description = "Consumed jumbo tuples are returned to the free-list of their producer (default).")
+    public boolean tuplePooling = true;
+    @Parameter(names = {"--waitStrategy"}, description = "How idle executors, full queues and order locks wait. [busySpin, spinYield, spinPark, blocking]")
+    public String waitStrategy = "busySpin";
     /**
      * TStream Specific Parameters.
      */
@@ -69,10 +77,12 @@ public abstract class Runner implements IRunner {
     @Parameter(names = {"--scheduler"}, description = "Scheduler for TStream.")
     public String scheduler = "OP_BFS_A";
     //public String scheduler = "OG_BFS_A";
+//    public String scheduler = "OG_BFS_DC";
 //    public String scheduler = "OG_DFS";
 //    public String scheduler = "OG_DFS_A";
 //    public String scheduler = "OG_NS";
 //    public String scheduler = "OG_NS_A";
+//    public String scheduler = "OG_WS";
 //    public String scheduler = "OP_NS";
 //    public String scheduler = "OP_NS_A";
 //    public String scheduler = "OP_BFS";
@@ -80,6 +90,8 @@ public abstract class Runner implements IRunner {
 //    public String scheduler = "OP_DFS";
 //    public String scheduler = "OP_DFS_A";
 //    public String scheduler = "TStream";
+    @Parameter(names = {"--versionChain"}, description = "Multi-version storage of TStream records. [skiplist, array]")
+    public String versionChain = "skiplist";
     @Parameter(names = {"--fanoutDist"}, description = "Fanout rate distribution scheme. [uniform, zipfinv, zipf, zipfcenter]")
     public String fanoutDist = "uniform";
     @Parameter(names = {"--idGenType"}, description = "State ids distribution scheme.[uniform, normal]")
@@ -100,6 +112,8 @@ public abstract class Runner implements IRunner {
     public String bottomLine = "";
     @Parameter(names = {"--WorkloadConfig"}, description = "WorkloadConfigs(TD,LD,PD,VDD,R_of_A,isCD,isCC,markId)")
     public String WorkloadConfig = "";
+    @Parameter(names = {"--schedulerSelector"}, description = "Policy choosing the scheduler from runtime information. [costModel, decisionTree]")
+    public String schedulerSelector = "costModel";
 
     /**
      * Dynamic workload
@@ -202,6 +216,20 @@ public abstract class Runner implements IRunner {
     public String  compressionAlg = "None";
     @Parameter(names = {"--snapshotInterval"}, description = "Snapshot interval ")
     public Integer snapshotInterval = 0;
+    @Parameter(names = {"--snapshotStrategy"}, description = "Snapshot strategy: Full, Incremental (only the dirty records, chained to a base snapshot)")
+    public String snapshotStrategy = "Full";
+    @Parameter(names = {"--maxDeltaChain"}, description = "Number of chained snapshots triggering a compaction with Incremental snapshot")
+    public Integer maxDeltaChain = 8;
+    @Parameter(names = {"--fsyncPolicy"}, description = "Force policy of the log writer: None, Group (after every group commit), Interval (every fsyncInterval ms)")
+    public String fsyncPolicy = "Group";
+    @Parameter(names = {"--fsyncInterval"}, description = "Interval in ms between two forces of the log segments with the Interval policy")
+    public Integer fsyncInterval = 10;
+    @Parameter(names = {"--groupCommitWindow"}, description = "Time window in ms the log writer batches the logs of the partitions")
+    public Integer groupCommitWindow = 1;
+    @Parameter(names = {"--groupCommitBytes"}, description = "Size in bytes a batch of the log writer is written at")
+    public Integer groupCommitBytes = 4 << 20;
+    @Parameter(names = {"--logSegmentSize"}, description = "Pre-allocated size in MB of a log segment file")
+    public Integer logSegmentSize = 256;
     @Parameter(names = {"--arrivalRate"}, description = "Arrival rate of event, 200k/s ")
     public Integer arrivalRate = 200;
     @Parameter(names = {"--arrivalControl"}, description = "Arrival control of event ")
@@ -243,6 +271,10 @@ public abstract class Runner implements IRunner {
 
     public void initializeCfg(HashMap<String, Object> config) {
         config.put("queue_size", queue_size);
+        config.put("waitStrategy", waitStrategy);
+        config.put("tuplePooling", tuplePooling);
+        config.put("adaptiveBatch", adaptiveBatch);
+        config.put("batchLingerUs", batchLingerUs);
         config.put("common", application);
         config.put("ratio_of_multi_partition", ratio_of_multi_partition);
         config.put("number_partitions", number_partitions);
@@ -288,6 +320,7 @@ public abstract class Runner implements IRunner {
         config.put("NUM_ACCESS", NUM_ACCESS);
         config.put("NUM_ITEMS", NUM_ITEMS);
         config.put("CCOption", CCOption);
+        config.put("versionChain", versionChain);
         config.put("linked", linked);
         config.put("shared", shared);
         config.put("ratio_of_read", ratio_of_read);
@@ -337,6 +370,7 @@ public abstract class Runner implements IRunner {
             config.put("isRuntime", isRuntime);
             config.put("bottomLine", bottomLine);
             config.put("WorkloadConfig", WorkloadConfig);
+            config.put("schedulerSelector", schedulerSelector);
         } else {
             config.put("isDynamic", false);
             config.put("scheduler", scheduler);
@@ -381,6 +415,13 @@ public abstract class Runner implements IRunner {
         config.put("parallelNum", tthread);
         config.put("compressionAlg", compressionAlg);
         config.put("snapshotInterval", snapshotInterval);
+        config.put("snapshotStrategy", snapshotStrategy);
+        config.put("maxDeltaChain", maxDeltaChain);
+        config.put("fsyncPolicy", fsyncPolicy);
+        config.put("fsyncInterval", fsyncInterval);
+        config.put("groupCommitWindow", groupCommitWindow);
+        config.put("groupCommitBytes", groupCommitBytes);
+        config.put("logSegmentSize", logSegmentSize);
         config.put("arrivalRate", arrivalRate);
         config.put("failureTime", failureTime);
         config.put("measureInterval", measureInterval);
@@ -1,6 +1,7 @@
 package common.collections;
 
 import common.util.datatypes.DataTypeUtils;
+import common.util.wait.WaitStrategy;
 import org.apache.commons.lang.math.NumberUtils;
 
 import java.util.HashMap;
@@ -44,6 +45,7 @@ public class Configuration extends HashMap {
     public boolean useLocalEventGenerator;
     protected String configPrefix = "";
     String GENERATOR_COUNT = "generator.count";
+    private transient WaitStrategy waitStrategy;
 
     public static Configuration fromMap(Map map) {
         Configuration config = new Configuration();
@@ -114,6 +116,17 @@ public class Configuration extends HashMap {
         this.useLocalEventGenerator = useLocalEventGenerator;
     }
 
+    /**
+     * The wait strategy of the topology. Executors and order locks wait on their own {@link WaitStrategy#newInstance()} of it,
+     * so that a signal only wakes the threads waiting for the changed condition.
+     */
+    public synchronized WaitStrategy getWaitStrategy() {
+        if (waitStrategy == null) {
+            waitStrategy = WaitStrategy.create(getString("waitStrategy", "busySpin"));
+        }
+        return waitStrategy;
+    }
+
     public String getString(String key) {
         String val = null;
         Object obj = get(key);
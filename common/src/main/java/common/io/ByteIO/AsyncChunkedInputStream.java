@@ -0,0 +1,110 @@
+package common.io.ByteIO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Stream reading a file chunk by chunk into pooled direct buffers, the next chunk is read ahead while the current one is consumed.
+ * The file is never loaded as a whole, so its size is not limited to 2GB.
+ */
+public class AsyncChunkedInputStream extends InputStream {
+    private final AsynchronousFileChannel channel;
+    private final DirectBufferPool pool;
+    private ByteBuffer current;
+    private ByteBuffer next;
+    private Future<Integer> pending;
+    private long position;
+
+    public AsyncChunkedInputStream(Path path, DirectBufferPool pool) throws IOException {
+        this.channel = AsynchronousFileChannel.open(path, READ);
+        this.pool = pool;
+        try {
+            this.current = pool.acquire();
+            this.current.limit(0);
+            readAhead();
+        } catch (InterruptedException e) {
+            channel.close();
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        }
+    }
+
+    private void readAhead() throws InterruptedException {
+        next = pool.acquire();
+        pending = channel.read(next, position);
+    }
+
+    private boolean refill() throws IOException {
+        if (pending == null) {
+            return false;
+        }
+        int n;
+        try {
+            n = pending.get();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while reading a chunk");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        if (n <= 0) {
+            pool.release(next);
+            next = null;
+            pending = null;
+            return false;
+        }
+        position += n;
+        next.flip();
+        ByteBuffer consumed = current;
+        current = next;
+        next = consumed;
+        next.clear();
+        pending = channel.read(next, position);
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!current.hasRemaining() && !refill()) {
+            return -1;
+        }
+        return current.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!current.hasRemaining() && !refill()) {
+            return -1;
+        }
+        int n = Math.min(len, current.remaining());
+        current.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pending != null) {
+            try {
+                pending.get();
+            } catch (InterruptedException | ExecutionException ignored) {
+            }
+            pool.release(next);
+            pending = null;
+            next = null;
+        }
+        if (current != null) {
+            pool.release(current);
+            current = null;
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,177 @@
+package common.io.ByteIO;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
+
+/**
+ * Stream writing a file chunk by chunk: a chunk is filled in a pooled direct buffer and written asynchronously once full,
+ * several chunks can be in flight. Memory is bounded by the buffer pool instead of the size of the file.
+ */
+public class AsyncChunkedOutputStream extends OutputStream {
+    private final AsynchronousFileChannel channel;
+    private final DirectBufferPool pool;
+    private final Phaser inFlight;
+    private final ChunkHandler chunkHandler = new ChunkHandler();
+    private volatile Throwable failure;
+    private volatile Runnable onComplete;
+    private ByteBuffer current;
+    private long position;
+    private boolean closed;
+
+    public AsyncChunkedOutputStream(AsynchronousFileChannel channel, DirectBufferPool pool) {
+        this.channel = channel;
+        this.pool = pool;
+        this.inFlight = new Phaser(1) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                if (registeredParties == 0) {
+                    onComplete.run();//all chunks are written, and the stream is closed.
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (current == null || !current.hasRemaining()) {
+            nextChunk();
+        }
+        current.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (current == null || !current.hasRemaining()) {
+                nextChunk();
+            }
+            int n = Math.min(len, current.remaining());
+            current.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void nextChunk() throws IOException {
+        submit();
+        try {
+            current = pool.acquire();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        }
+    }
+
+    private void submit() throws IOException {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+        if (current == null) {
+            return;
+        }
+        if (current.position() == 0) {
+            pool.release(current);
+            current = null;
+            return;
+        }
+        current.flip();
+        Chunk chunk = new Chunk(current, position);
+        position += current.limit();
+        current = null;
+        inFlight.register();
+        channel.write(chunk.buffer, chunk.position, chunk, chunkHandler);
+    }
+
+    /**
+     * @return number of bytes handed to the stream so far.
+     */
+    public long getPosition() {
+        return current == null ? position : position + current.position();
+    }
+
+    /**
+     * Submit the last chunk and return, the handler is called with the number of bytes written (capped to Integer.MAX_VALUE)
+     * once every chunk is on disk. The channel is not closed.
+     */
+    public <A> void closeAsync(A attachment, CompletionHandler<Integer, A> handler) throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        submit();
+        onComplete = () -> {
+            if (failure == null) {
+                handler.completed((int) Math.min(position, Integer.MAX_VALUE), attachment);
+            } else {
+                handler.failed(failure, attachment);
+            }
+        };
+        inFlight.arriveAndDeregister();
+    }
+
+    /**
+     * Submit the last chunk and wait until every chunk is on disk.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        closeAsync(null, new CompletionHandler<Integer, Object>() {
+            @Override
+            public void completed(Integer result, Object attachment) {
+                latch.countDown();
+            }
+
+            @Override
+            public void failed(Throwable exc, Object attachment) {
+                latch.countDown();
+            }
+        });
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while flushing chunks");
+        }
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+    }
+
+    private static final class Chunk {
+        final ByteBuffer buffer;
+        long position;
+
+        Chunk(ByteBuffer buffer, long position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+    }
+
+    private final class ChunkHandler implements CompletionHandler<Integer, Chunk> {
+        @Override
+        public void completed(Integer result, Chunk chunk) {
+            if (chunk.buffer.hasRemaining()) {
+                chunk.position += result;
+                channel.write(chunk.buffer, chunk.position, chunk, this);//partial write.
+                return;
+            }
+            pool.release(chunk.buffer);
+            inFlight.arriveAndDeregister();
+        }
+
+        @Override
+        public void failed(Throwable exc, Chunk chunk) {
+            failure = exc;
+            pool.release(chunk.buffer);
+            inFlight.arriveAndDeregister();
+        }
+    }
+}
@@ -4,14 +4,24 @@ package common.io.ByteIO;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 public abstract class DataInputView {
-    ByteArrayInputStream in;
+    InputStream in;
     private byte readBuffer[] = new byte[8];
     public DataInputView(ByteBuffer buffer) {
         in = new ByteArrayInputStream(buffer.array());
     }
+    /**
+     * Read from the given stream, so that the input does not need to be loaded as a whole.
+     */
+    public DataInputView(InputStream in) {
+        this.in = in;
+    }
+    public void close() throws IOException {
+        in.close();
+    }
     public final int readInt() throws IOException {
         int ch1 = in.read();
         int ch2 = in.read();
@@ -35,6 +45,17 @@ public abstract class DataInputView {
     public final void readFully(byte b[]) throws IOException {
         readFully(b, 0, b.length);
     }
+    public final void skipFully(long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0) {
+                if (in.read() < 0)
+                    throw new EOFException();
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
     public final long readLong() throws IOException {
         readFully(readBuffer, 0, 8);
         return (((long)readBuffer[0] << 56) +
@@ -67,4 +88,10 @@ public abstract class DataInputView {
     }
     public abstract byte[] decompression(byte[] in, int length);
     public abstract byte[] readFullyDecompression() throws IOException;
+    /**
+     * Skip one unit written by writeCompression, views that know the stored length skip it without decompressing it.
+     */
+    public void skipFullyDecompression() throws IOException {
+        readFullyDecompression();
+    }
 }
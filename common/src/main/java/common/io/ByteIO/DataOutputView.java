@@ -5,10 +5,20 @@ import net.jpountz.lz4.LZ4Factory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public abstract class DataOutputView {
-    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final OutputStream out;
     private byte writeBuffer[] = new byte[8];
+    public DataOutputView() {
+        this.out = new ByteArrayOutputStream();
+    }
+    /**
+     * Write through the given stream instead of buffering the whole output in memory, getByteArray is then unsupported.
+     */
+    public DataOutputView(OutputStream out) {
+        this.out = out;
+    }
     public synchronized void write(byte b[]) throws IOException {
         out.write(b);
     }
@@ -57,7 +67,13 @@ public abstract class DataOutputView {
     }
 
     public byte[] getByteArray() {
-        return this.out.toByteArray();
+        if (!(out instanceof ByteArrayOutputStream)) {
+            throw new UnsupportedOperationException("The output is streamed, it is not kept in memory");
+        }
+        return ((ByteArrayOutputStream) this.out).toByteArray();
+    }
+    public void close() throws IOException {
+        out.close();
     }
 
     public abstract byte[] compression(byte[] in) throws IOException;
@@ -0,0 +1,47 @@
+package common.io.ByteIO;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of direct buffers of a fixed chunk size.
+ * Buffers are allocated lazily up to the capacity, then acquire blocks until one is released,
+ * which bounds the memory of in-flight I/O to capacity * chunkSize.
+ */
+public class DirectBufferPool {
+    private final int chunkSize;
+    private final int capacity;
+    private final AtomicInteger allocated = new AtomicInteger(0);
+    private final ArrayBlockingQueue<ByteBuffer> free;
+
+    public DirectBufferPool(int chunkSize, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A buffer pool needs at least 2 buffers");
+        }
+        this.chunkSize = chunkSize;
+        this.capacity = capacity;
+        this.free = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            if (allocated.incrementAndGet() <= capacity) {
+                return ByteBuffer.allocateDirect(chunkSize);
+            }
+            allocated.decrementAndGet();
+            buffer = free.take();
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        free.offer(buffer);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
@@ -5,6 +5,7 @@ import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 public class LZ4DataInputView extends DataInputView {
@@ -14,6 +15,10 @@ public class LZ4DataInputView extends DataInputView {
         super(buffer);
     }
 
+    public LZ4DataInputView(InputStream in) {
+        super(in);
+    }
+
     @Override
     public byte[] decompression(byte[] in, int length) {
         return new byte[0];
@@ -27,4 +32,10 @@ public class LZ4DataInputView extends DataInputView {
         readFully(compressed);
         return decompressor.decompress(compressed, decompressedLength);
     }
+
+    @Override
+    public void skipFullyDecompression() throws IOException {
+        readInt();
+        skipFully(readInt());
+    }
 }
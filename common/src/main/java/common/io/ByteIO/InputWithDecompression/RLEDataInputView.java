@@ -3,6 +3,7 @@ package common.io.ByteIO.InputWithDecompression;
 import common.io.ByteIO.DataInputView;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 public class RLEDataInputView extends DataInputView {
@@ -10,6 +11,10 @@ public class RLEDataInputView extends DataInputView {
         super(buffer);
     }
 
+    public RLEDataInputView(InputStream in) {
+        super(in);
+    }
+
     @Override
     public byte[] decompression(byte[] in, int length) {
         return in;
@@ -21,4 +26,9 @@ public class RLEDataInputView extends DataInputView {
         readFully(b);
         return b;
     }
+
+    @Override
+    public void skipFullyDecompression() throws IOException {
+        skipFully(readInt());
+    }
 }
@@ -4,6 +4,7 @@ import common.io.ByteIO.DataInputView;
 import org.xerial.snappy.Snappy;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 public class SnappyDataInputView extends DataInputView {
@@ -11,6 +12,10 @@ public class SnappyDataInputView extends DataInputView {
         super(buffer);
     }
 
+    public SnappyDataInputView(InputStream in) {
+        super(in);
+    }
+
     @Override
     public byte[] decompression(byte[] in, int length) {
         return new byte[0];
@@ -23,4 +28,9 @@ public class SnappyDataInputView extends DataInputView {
         readFully(compressed);
         return Snappy.uncompress(compressed);
     }
+
+    @Override
+    public void skipFullyDecompression() throws IOException {
+        skipFully(readInt());
+    }
 }
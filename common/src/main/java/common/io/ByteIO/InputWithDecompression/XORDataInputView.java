@@ -3,6 +3,7 @@ package common.io.ByteIO.InputWithDecompression;
 import common.io.ByteIO.DataInputView;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 
 public class XORDataInputView extends DataInputView {
@@ -11,6 +12,10 @@ public class XORDataInputView extends DataInputView {
         super(buffer);
     }
 
+    public XORDataInputView(InputStream in) {
+        super(in);
+    }
+
     @Override
     public byte[] decompression(byte[] in, int length) {
         int len = in.length;
@@ -29,4 +34,9 @@ public class XORDataInputView extends DataInputView {
         readFully(compressed);
         return decompression(compressed, compressedLength);
     }
+
+    @Override
+    public void skipFullyDecompression() throws IOException {
+        skipFully(readInt());
+    }
 }
@@ -0,0 +1,152 @@
+package common.io.ByteIO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Stream over a memory-mapped file, bytes are read straight from the mapped region without being copied into a heap buffer first.
+ * Files larger than 2GB are mapped as several regions. A stream can be split into ranges, each range being read by its own stream
+ * so that several threads decode the same file at once.
+ */
+public class MappedFileInputStream extends InputStream {
+    private static final long REGION_SIZE = Integer.MAX_VALUE;
+    private final MappedByteBuffer[] regions;//shared by the ranges of a file.
+    private final FileChannel channel;//null for a range, only the stream that opened the file closes it.
+    private final long base;//file offset of the first mapped byte.
+    private final long end;
+    private long position;
+    private ByteBuffer current;
+
+    private MappedFileInputStream(MappedByteBuffer[] regions, FileChannel channel, long base, long from, long to) {
+        this.regions = regions;
+        this.channel = channel;
+        this.base = base;
+        this.end = to;
+        seek(from);
+    }
+
+    public static MappedFileInputStream open(Path path) throws IOException {
+        return open(path, 0, -1);
+    }
+
+    /**
+     * Map only [offset, offset + length) of the file, offsets of the stream stay relative to the file.
+     *
+     * @param length -1 to map up to the end of the file.
+     */
+    public static MappedFileInputStream open(Path path, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(path, READ);
+        long end = length < 0 ? channel.size() : offset + length;
+        long size = end - offset;
+        MappedByteBuffer[] regions = new MappedByteBuffer[(int) Math.max(1, (size + REGION_SIZE - 1) / REGION_SIZE)];
+        for (int i = 0; i < regions.length; i++) {
+            long from = i * REGION_SIZE;
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + from, Math.max(0, Math.min(REGION_SIZE, size - from)));
+        }
+        return new MappedFileInputStream(regions, channel, offset, offset, end);
+    }
+
+    /**
+     * @return a stream over [from, to) of the same file, independent of the position of this one.
+     */
+    public MappedFileInputStream range(long from, long to) {
+        return new MappedFileInputStream(regions, null, base, from, to);
+    }
+
+    private void seek(long position) {
+        this.position = position;
+        int region = (int) ((position - base) / REGION_SIZE);
+        if (region < regions.length) {
+            current = regions[region].duplicate();
+            current.position((int) (position - base - region * REGION_SIZE));
+        } else {
+            current = null;
+        }
+    }
+
+    private boolean ensureReadable() {
+        if (position >= end) {
+            return false;
+        }
+        if (current == null || !current.hasRemaining()) {
+            seek(position);
+        }
+        return current != null && current.hasRemaining();
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    @Override
+    public int read() {
+        if (!ensureReadable()) {
+            return -1;
+        }
+        position++;
+        return current.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureReadable()) {
+            return -1;
+        }
+        int n = (int) Math.min(Math.min(len, current.remaining()), end - position);
+        current.get(b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, end - position));
+        seek(position + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, end - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        current = null;
+        if (channel != null) {
+            channel.close();//the mapping itself is released once the buffers are collected.
+        }
+    }
+
+    /**
+     * Group consecutive units into at most splitNum ranges of about the same number of units.
+     *
+     * @param offsets start offset of every unit, in order.
+     * @param end     end offset of the last unit.
+     * @return the [from, to) offsets of every range.
+     */
+    public static long[][] splitRanges(long[] offsets, long end, int splitNum) {
+        int rangeNum = Math.max(1, Math.min(splitNum, offsets.length));
+        long[][] ranges = new long[rangeNum][2];
+        for (int r = 0; r < rangeNum; r++) {
+            int first = (int) ((long) offsets.length * r / rangeNum);
+            int last = (int) ((long) offsets.length * (r + 1) / rangeNum);
+            ranges[r][0] = offsets.length == 0 ? end : offsets[first];
+            ranges[r][1] = last < offsets.length ? offsets[last] : end;
+        }
+        return ranges;
+    }
+}
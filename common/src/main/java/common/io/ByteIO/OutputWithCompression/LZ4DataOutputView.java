@@ -5,9 +5,17 @@ import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 
 public class LZ4DataOutputView extends DataOutputView {
+    public LZ4DataOutputView() {
+    }
+
+    public LZ4DataOutputView(OutputStream out) {
+        super(out);
+    }
+
     LZ4Factory lz4Factory = LZ4Factory.fastestInstance();
     LZ4Compressor compressor = lz4Factory.fastCompressor();
     public byte[] compression(byte[] in) {
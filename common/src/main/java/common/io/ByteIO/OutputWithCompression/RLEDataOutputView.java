@@ -3,8 +3,16 @@ package common.io.ByteIO.OutputWithCompression;
 import common.io.ByteIO.DataOutputView;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 public class RLEDataOutputView extends DataOutputView {
+    public RLEDataOutputView() {
+    }
+
+    public RLEDataOutputView(OutputStream out) {
+        super(out);
+    }
+
     @Override
     public byte[] compression(byte[] in) {
         return in;
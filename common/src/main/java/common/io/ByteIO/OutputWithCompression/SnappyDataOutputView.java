@@ -4,8 +4,16 @@ import common.io.ByteIO.DataOutputView;
 import org.xerial.snappy.Snappy;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 public class SnappyDataOutputView extends DataOutputView {
+    public SnappyDataOutputView() {
+    }
+
+    public SnappyDataOutputView(OutputStream out) {
+        super(out);
+    }
+
     @Override
     public byte[] compression(byte[] in) throws IOException {
         return Snappy.compress(in);
@@ -3,8 +3,16 @@ package common.io.ByteIO.OutputWithCompression;
 import common.io.ByteIO.DataOutputView;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 public class XORDataOutputView extends DataOutputView {
+    public XORDataOutputView() {
+    }
+
+    public XORDataOutputView(OutputStream out) {
+        super(out);
+    }
+
     @Override
     public byte[] compression(byte[] in) throws IOException {
         int len = in.length;
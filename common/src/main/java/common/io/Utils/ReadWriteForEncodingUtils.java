@@ -199,6 +199,47 @@ public class ReadWriteForEncodingUtils {private static final String TOO_LONG_BYT
         return writeUnsignedVarInt(uValue, buffer);
     }
 
+    /**
+     * write a long value to stream using unsigned var int format, see {@link #writeUnsignedVarInt(int, ByteArrayOutputStream)}.
+     *
+     * @param value value to write into stream
+     * @param out output stream
+     * @return the number of bytes that the value consume.
+     */
+    public static int writeUnsignedVarLong(long value, ByteArrayOutputStream out) {
+        int position = 1;
+        while ((value & 0xFFFFFFFFFFFFFF80L) != 0L) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+            position++;
+        }
+        out.write((int) (value & 0x7F));
+        return position;
+    }
+
+    /**
+     * write a long value to stream using zigzag var int format, the same as the LongZigzagEncoder.
+     */
+    public static int writeVarLong(long value, ByteArrayOutputStream out) {
+        return writeUnsignedVarLong((value << 1) ^ (value >> 63), out);
+    }
+
+    public static long readUnsignedVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int i = 0;
+        long b = 0;
+        while (buffer.hasRemaining() && ((b = buffer.get()) & 0x80) != 0) {
+            value |= (b & 0x7F) << i;
+            i += 7;
+        }
+        return value | (b << i);
+    }
+
+    public static long readVarLong(ByteBuffer buffer) {
+        long value = readUnsignedVarLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
     /**
      * Returns the encoding size in bytes of its input value.
      *
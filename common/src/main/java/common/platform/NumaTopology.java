@@ -0,0 +1,128 @@
+package common.platform;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * NUMA topology of the running machine, discovered from /sys/devices/system/node instead of the machine constants of {@link Platform}.
+ * Every executor thread records the CPU it is bound to, so that the TPG contexts created by the thread know their socket.
+ */
+public final class NumaTopology {
+    private static final String NODE_PATH = "/sys/devices/system/node";
+    private static final ArrayList<Integer>[] nodes = discover();
+    private static final int[] nodeOfCpu = indexCpus(nodes);
+    private static final ThreadLocal<Integer> boundCpu = ThreadLocal.withInitial(() -> -1);
+
+    private NumaTopology() {}
+
+    /**
+     * @return the CPUs of every NUMA node, null if the topology cannot be read.
+     */
+    public static ArrayList[] getNodes() {
+        return nodes;
+    }
+
+    public static int numNodes() {
+        return nodes == null ? 1 : nodes.length;
+    }
+
+    /**
+     * @return the NUMA node of the cpu, -1 if unknown.
+     */
+    public static int nodeOf(int cpu) {
+        if (cpu < 0 || cpu >= nodeOfCpu.length) {
+            return -1;
+        }
+        return nodeOfCpu[cpu];
+    }
+
+    /**
+     * Record the CPU the current thread is pinned to, called right after the thread is bound.
+     */
+    public static void bindCurrentThread(int cpu) {
+        boundCpu.set(cpu);
+    }
+
+    /**
+     * @return the NUMA node of the CPU the current thread is pinned to, -1 if the thread is not pinned.
+     */
+    public static int currentNode() {
+        return nodeOf(boundCpu.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayList<Integer>[] discover() {
+        Path root = Paths.get(NODE_PATH);
+        if (!Files.isDirectory(root)) {
+            return null;
+        }
+        TreeMap<Integer, ArrayList<Integer>> discovered = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "node[0-9]*")) {
+            for (Path node : stream) {
+                Path cpuList = node.resolve("cpulist");
+                if (!Files.isReadable(cpuList)) {
+                    continue;
+                }
+                ArrayList<Integer> cpus = parseCpuList(new String(Files.readAllBytes(cpuList), StandardCharsets.US_ASCII));
+                if (!cpus.isEmpty()) {//memory-only nodes have no CPU.
+                    discovered.put(Integer.parseInt(node.getFileName().toString().substring(4)), cpus);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+        if (discovered.isEmpty()) {
+            return null;
+        }
+        return discovered.values().toArray(new ArrayList[0]);
+    }
+
+    /**
+     * Parse a cpulist such as "0-17,36-53".
+     */
+    static ArrayList<Integer> parseCpuList(String cpuList) {
+        ArrayList<Integer> cpus = new ArrayList<>();
+        for (String range : cpuList.trim().split(",")) {
+            if (range.isEmpty()) {
+                continue;
+            }
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                cpus.add(Integer.parseInt(range));
+            } else {
+                int last = Integer.parseInt(range.substring(dash + 1));
+                for (int cpu = Integer.parseInt(range.substring(0, dash)); cpu <= last; cpu++) {
+                    cpus.add(cpu);
+                }
+            }
+        }
+        return cpus;
+    }
+
+    private static int[] indexCpus(ArrayList<Integer>[] nodes) {
+        if (nodes == null) {
+            return new int[0];
+        }
+        int maxCpu = -1;
+        for (ArrayList<Integer> node : nodes) {
+            for (int cpu : node) {
+                maxCpu = Math.max(maxCpu, cpu);
+            }
+        }
+        int[] index = new int[maxCpu + 1];
+        Arrays.fill(index, -1);
+        for (int node = 0; node < nodes.length; node++) {
+            for (int cpu : nodes[node]) {
+                index[cpu] = node;
+            }
+        }
+        return index;
+    }
+}
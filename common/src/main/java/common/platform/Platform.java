@@ -29,10 +29,16 @@ public class Platform implements Serializable {
     double CoresPerSocket = 0;//numCPUs() / (numNodes() > 2 ? numNodes() : 1);//8 cores per socket
 
     /**
+     * The topology discovered by {@link NumaTopology} is used if available, the constants below are the fallback.
+     *
      * @param machine
      * @return
      */
     public static ArrayList[] getNodes(int machine) {
+        ArrayList[] discovered = NumaTopology.getNodes();
+        if (discovered != null) {
+            return discovered;
+        }
         ArrayList<Integer> node_0;
         if (machine == 1) {//HPI machine
             //WITH HT
@@ -0,0 +1,44 @@
+package common.util.wait;
+
+/**
+ * Spins, then blocks on the monitor of the strategy until {@link #signalAll()} is called.
+ * The waiting threads are counted so that signalling is a volatile read while no thread is blocked.
+ * A signal posted between the failed attempt and blocking is missed, therefore a thread blocks at most TIMEOUT_MS before it retries.
+ */
+public class BlockingWaitStrategy extends WaitStrategy {
+    private static final long serialVersionUID = -6455203627437906386L;
+    private static final long TIMEOUT_MS = 1;
+    private volatile int waiters = 0;
+
+    @Override
+    public int idle(int counter) {
+        if (counter > 0) {
+            return counter - 1;
+        }
+        synchronized (this) {
+            waiters++;
+            try {
+                wait(TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();//the caller checks the interrupted flag.
+            } finally {
+                waiters--;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public WaitStrategy newInstance() {
+        return new BlockingWaitStrategy();
+    }
+
+    @Override
+    public void signalAll() {
+        if (waiters != 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package common.util.wait;
+
+/**
+ * Never gives up the core, the lowest latency if every executor owns a core.
+ */
+public class BusySpinWaitStrategy extends WaitStrategy {
+    private static final long serialVersionUID = 7302446153402398263L;
+
+    @Override
+    public int idle(int counter) {
+        return counter;
+    }
+}
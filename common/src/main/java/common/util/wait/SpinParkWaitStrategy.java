@@ -0,0 +1,25 @@
+package common.util.wait;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins, then yields, then parks for a short period on every further attempt, so an idle thread hardly uses its core.
+ */
+public class SpinParkWaitStrategy extends WaitStrategy {
+    private static final long serialVersionUID = 5930286364861104127L;
+    private static final int YIELD_TRIES = SPIN_TRIES / 2;
+    private static final long PARK_NANOS = 1000L;
+
+    @Override
+    public int idle(int counter) {
+        if (counter > YIELD_TRIES) {
+            return counter - 1;
+        }
+        if (counter > 0) {
+            Thread.yield();
+            return counter - 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return 0;
+    }
+}
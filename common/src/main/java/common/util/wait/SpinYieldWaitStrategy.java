@@ -0,0 +1,17 @@
+package common.util.wait;
+
+/**
+ * Spins SPIN_TRIES times, then yields the core on every further attempt.
+ */
+public class SpinYieldWaitStrategy extends WaitStrategy {
+    private static final long serialVersionUID = -2385418542237512916L;
+
+    @Override
+    public int idle(int counter) {
+        if (counter > 0) {
+            return counter - 1;
+        }
+        Thread.yield();
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package common.util.wait;
+
+import java.io.Serializable;
+
+/**
+ * How a thread waits for a condition it polls, e.g., an executor with an empty input queue, a producer facing a full queue or a transaction waiting for its order lock.
+ * The caller keeps a counter starting from {@link #SPIN_TRIES} and passes it to {@link #idle(int)} after every failed attempt,
+ * strategies spin while the counter is positive and back off once it is exhausted. The counter is reset after a successful attempt.
+ * Threads changing the polled condition call {@link #signalAll()}, which only costs something for the blocking strategy.
+ * A signal wakes every thread waiting on the same instance, so each consumer takes its own instance through {@link #newInstance()}.
+ * Selected per topology by the "waitStrategy" of the Configuration. [busySpin, spinYield, spinPark, blocking]
+ */
+public abstract class WaitStrategy implements Serializable {
+    private static final long serialVersionUID = 4217380955267181375L;
+    public static final int SPIN_TRIES = 100;
+
+    public static WaitStrategy create(String type) {
+        switch (type) {
+            case "busySpin":
+                return new BusySpinWaitStrategy();
+            case "spinYield":
+                return new SpinYieldWaitStrategy();
+            case "spinPark":
+                return new SpinParkWaitStrategy();
+            case "blocking":
+                return new BlockingWaitStrategy();
+            default:
+                throw new UnsupportedOperationException("Unsupported wait strategy: " + type);
+        }
+    }
+
+    /**
+     * Wait once after a failed attempt.
+     *
+     * @param counter the counter returned by the previous call, {@link #SPIN_TRIES} after a successful attempt.
+     * @return the counter for the next call.
+     */
+    public abstract int idle(int counter);
+
+    /**
+     * @return a wait object of the same strategy for another waiting thread, stateless strategies return themselves.
+     */
+    public WaitStrategy newInstance() {
+        return this;
+    }
+
+    /**
+     * Wake up the threads waiting in {@link #idle(int)}, called after the polled condition may have changed.
+     */
+    public void signalAll() {
+    }
+}
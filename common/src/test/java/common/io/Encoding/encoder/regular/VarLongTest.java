@@ -0,0 +1,81 @@
+package common.io.Encoding.encoder.regular;
+
+import common.io.Utils.ReadWriteForEncodingUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class VarLongTest {
+    private static final long[] EDGE_VALUES = {0, 1, -1, 63, -64, 64, -65, 127, 128, 8191, -8192, 16384,
+            Integer.MAX_VALUE, Integer.MIN_VALUE, 1L << 56, -(1L << 56), Long.MAX_VALUE - 1, Long.MIN_VALUE + 1, Long.MAX_VALUE, Long.MIN_VALUE};
+
+    @Test
+    public void testEdgeValues() {
+        for (long value : EDGE_VALUES) {
+            assertEquals(value, roundTrip(value));
+        }
+    }
+
+    @Test
+    public void testRandomValues() {
+        Random rand = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            long value = rand.nextLong() >> rand.nextInt(64);//cover every length.
+            assertEquals(value, roundTrip(value));
+        }
+    }
+
+    @Test
+    public void testEncodedLength() {
+        assertEquals(1, writtenBytes(0));
+        assertEquals(1, writtenBytes(-64));
+        assertEquals(2, writtenBytes(64));
+        assertEquals(2, writtenBytes(-65));
+        assertEquals(10, writtenBytes(Long.MAX_VALUE));
+        assertEquals(10, writtenBytes(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testConsecutiveValues() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : EDGE_VALUES) {
+            ReadWriteForEncodingUtils.writeVarLong(value, out);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        for (long value : EDGE_VALUES) {
+            assertEquals(value, ReadWriteForEncodingUtils.readVarLong(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testUnsignedValues() {
+        long[] values = {0, 127, 128, Long.MAX_VALUE, -1L};//-1 is the largest unsigned value.
+        for (long value : values) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ReadWriteForEncodingUtils.writeUnsignedVarLong(value, out);
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            assertEquals(value, ReadWriteForEncodingUtils.readUnsignedVarLong(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    private static long roundTrip(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = ReadWriteForEncodingUtils.writeVarLong(value, out);
+        assertEquals(written, out.size());
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        long read = ReadWriteForEncodingUtils.readVarLong(buffer);
+        assertFalse(buffer.hasRemaining());
+        return read;
+    }
+
+    private static int writtenBytes(long value) {
+        return ReadWriteForEncodingUtils.writeVarLong(value, new ByteArrayOutputStream());
+    }
+}
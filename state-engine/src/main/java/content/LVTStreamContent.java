@@ -1,5 +1,6 @@
 package content;
 
+import content.common.VersionedContent;
 import lock.OrderLock;
 import storage.SchemaRecord;
 import storage.datatype.DataBox;
@@ -7,6 +8,7 @@ import transaction.context.TxnContext;
 
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 /*
  * This class is used to store the content of a table for a specific version, which supports to implement the LSN Vector protocol.
@@ -14,7 +16,7 @@ import java.util.concurrent.ConcurrentSkipListMap;
  * More detail can be found in the paper "Taurus: Lightweight Parallel Logging for In_Memory Database Management Systems".
  * Project Link: https://github.com/yuxiamit/DBx1000_logging.
  */
-public abstract class LVTStreamContent implements Content {
+public abstract class LVTStreamContent implements Content, VersionedContent {
     public final static String LVTSTREAM_CONTENT = "LVTSTREAM_CONTENT";
     public ConcurrentSkipListMap<Long, SchemaRecord> versions = new ConcurrentSkipListMap<>();//TODO: In fact... there can be at most only one write to the d_record concurrently. It is safe to just use sorted hashmap.
     public int[] readLV;
@@ -123,6 +125,34 @@ public abstract class LVTStreamContent implements Content {
         record.updateValues(versions.firstEntry().getValue().getValues());
     }
 
+    @Override
+    public int reclaimVersions(long watermark) {
+        Long visible = versions.lowerKey(watermark);
+        if (visible == null) {
+            return 0;
+        }
+        NavigableMap<Long, SchemaRecord> stale = versions.headMap(visible, false);
+        int reclaimed = stale.size();
+        stale.clear();
+        return reclaimed;
+    }
+
+    @Override
+    public int getRetainedVersions() {
+        return versions.size();
+    }
+
+    @Override
+    public long getVisibleBid(long snapshotId) {
+        Long visible = versions.lowerKey(snapshotId);
+        return visible == null ? Long.MIN_VALUE : visible;
+    }
+
+    @Override
+    public boolean rollbackVersion(long bid) {
+        return versions.lowerKey(bid) != null && versions.remove(bid) != null;
+    }
+
     @Override
     public void updateValues(long ts, long previous_mark_ID, boolean clean, SchemaRecord record) {
         this.record = record;
@@ -0,0 +1,226 @@
+package content;
+
+import content.common.VersionChain;
+import content.common.VersionedContent;
+import lock.OrderLock;
+import storage.SchemaRecord;
+import storage.datatype.DataBox;
+import transaction.context.TxnContext;
+
+import java.util.List;
+
+/**
+ * Same semantics as {@link TStreamContent}, but versions are kept in an append-only {@link VersionChain}
+ * instead of a skip list: reads are a binary search and writes allocate no node.
+ */
+public abstract class TStreamArrayContent implements Content, VersionedContent {
+    public final static String T_STREAM_ARRAY_CONTENT = "T_STREAM_ARRAY_CONTENT";
+    public final VersionChain versions = new VersionChain();//there can be at most only one write to the d_record concurrently.
+    public SchemaRecord record;
+
+    @Override
+    public boolean TryReadLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean TryWriteLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void SetTimestamp(long timestamp) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long GetTimestamp() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void ReleaseReadLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void ReleaseWriteLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean TryWriteLock(OrderLock lock, TxnContext txn_context) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean TryReadLock(OrderLock lock, TxnContext txn_context) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean AcquireReadLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean AcquireWriteLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean RequestWriteAccess(long timestamp, List<DataBox> data) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean RequestReadAccess(long timestamp, List<DataBox> data, boolean[] is_ready) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void RequestCommit(long timestamp, boolean[] is_ready) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void RequestAbort(long timestamp) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long GetLWM() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param ts
+     * @return
+     */
+    @Override
+    public SchemaRecord readPreValues(long ts) {
+        SchemaRecord record_at_ts = versions.lowerOrEqual(ts);//always get the original (previous) version.
+        assert record_at_ts != null && record_at_ts.getValues() != null : "no version of the record at " + ts;
+        return record_at_ts;
+    }
+
+    /**
+     * @param ts
+     * @return null if the value does not reach the expected min_ts. otherwise, return the value.
+     */
+    @Override
+    public SchemaRecord readPreValues(long ts, long min_ts) {
+        SchemaRecord record_at_ts = versions.lowerOrEqual(ts);
+        assert record_at_ts != null && record_at_ts.getValues() != null : "no version of the record at " + ts;
+        long lowerBid = versions.lowerBid(ts);
+        assert lowerBid != Long.MIN_VALUE;
+        if (lowerBid < min_ts) {
+            return null;
+        }
+        return record_at_ts;
+    }
+
+    @Override
+    public void updateMultiValues(long ts, long previous_mark_ID, boolean clean, SchemaRecord record) {
+        versions.put(ts, record);
+    }
+
+    public SchemaRecord readValues(long ts, long previous_mark_ID, boolean clean) {
+        return record;
+    }
+
+    public SchemaRecord readValues(long snapshotId, boolean clean) {
+        return versions.lower(snapshotId);//old versions are reclaimed behind the watermark, see reclaimVersions().
+    }
+
+    @Override
+    public void clean_map() {
+        versions.truncateToLatest();
+        //update the record
+        record.updateValues(versions.latest().getValues());
+    }
+
+    @Override
+    public int reclaimVersions(long watermark) {
+        return versions.truncate(watermark);
+    }
+
+    @Override
+    public int getRetainedVersions() {
+        return versions.size();
+    }
+
+    @Override
+    public long getVisibleBid(long snapshotId) {
+        return versions.lowerBid(snapshotId);
+    }
+
+    @Override
+    public boolean rollbackVersion(long bid) {
+        return versions.remove(bid);
+    }
+
+    @Override
+    public void updateValues(long ts, long previous_mark_ID, boolean clean, SchemaRecord record) {
+        this.record = record;
+    }
+
+    @Override
+    public boolean AcquireCertifyLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void ReleaseCertifyLock() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void AddLWM(long ts) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void DeleteLWM(long ts) {
+        throw new UnsupportedOperationException();
+    }
+
+    //used in SStore
+    @Override
+    public boolean TryLockPartitions() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void LockPartitions() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void UnlockPartitions() {
+        throw new UnsupportedOperationException();
+    }
+    @Override
+    public int[] getReadLVs() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int[] getWriteLVs() {
+        throw new UnsupportedOperationException();
+    }
+    @Override
+    public int[] getLVs() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateReadLv(int lsn, int partition) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateWriteLv(int lsn, int partition) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,32 @@
+package content;
+
+import content.common.CommonMetaTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import storage.SchemaRecord;
+import transaction.context.TxnContext;
+
+public class TStreamArrayContentImpl extends TStreamArrayContent {
+    private static final Logger LOG = LoggerFactory.getLogger(TStreamArrayContentImpl.class);
+
+    @Override
+    public SchemaRecord ReadAccess(TxnContext context, CommonMetaTypes.AccessType accessType) {
+        return readValues(context.getBID(), -1, false);
+    }
+
+    @Override
+    public SchemaRecord ReadAccess(long ts, long previous_mark_ID, boolean clean, CommonMetaTypes.AccessType accessType) {
+        SchemaRecord rt = readValues(ts, previous_mark_ID, clean);
+        return rt;
+    }
+
+    @Override
+    public SchemaRecord ReadAccess(long snapshotId, boolean clean) {
+        return readValues(snapshotId, clean);
+    }
+
+    @Override
+    public void WriteAccess(long ts, long previous_mark_ID, boolean clean, SchemaRecord local_record_) {
+        updateValues(ts, previous_mark_ID, clean, local_record_);//mvcc, value_list @ts=0
+    }
+}
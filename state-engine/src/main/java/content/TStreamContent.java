@@ -1,5 +1,6 @@
 package content;
 
+import content.common.VersionedContent;
 import lock.OrderLock;
 import storage.SchemaRecord;
 import storage.datatype.DataBox;
@@ -7,9 +8,10 @@ import transaction.context.TxnContext;
 
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
-public abstract class TStreamContent implements Content {
+public abstract class TStreamContent implements Content, VersionedContent {
     public final static String T_STREAMCONTENT = "T_STREAMCONTENT";
     public ConcurrentSkipListMap<Long, SchemaRecord> versions = new ConcurrentSkipListMap<>();//TODO: In fact... there can be at most only one write to the d_record concurrently. It is safe to just use sorted hashmap.
     public SchemaRecord record;
@@ -154,6 +156,34 @@ public abstract class TStreamContent implements Content {
         record.updateValues(versions.firstEntry().getValue().getValues());
     }
 
+    @Override
+    public int reclaimVersions(long watermark) {
+        Long visible = versions.lowerKey(watermark);
+        if (visible == null) {
+            return 0;
+        }
+        NavigableMap<Long, SchemaRecord> stale = versions.headMap(visible, false);
+        int reclaimed = stale.size();
+        stale.clear();
+        return reclaimed;
+    }
+
+    @Override
+    public int getRetainedVersions() {
+        return versions.size();
+    }
+
+    @Override
+    public long getVisibleBid(long snapshotId) {
+        Long visible = versions.lowerKey(snapshotId);
+        return visible == null ? Long.MIN_VALUE : visible;
+    }
+
+    @Override
+    public boolean rollbackVersion(long bid) {
+        return versions.lowerKey(bid) != null && versions.remove(bid) != null;
+    }
+
     @Override
     public void updateValues(long ts, long previous_mark_ID, boolean clean, SchemaRecord record) {
         this.record = record;
@@ -0,0 +1,213 @@
+package content.common;
+
+import storage.SchemaRecord;
+
+/**
+ * Append-only multi-version chain of one record, ordered by bid.
+ * There is at most one writer of a record at a time (the thread owning its operation chain),
+ * readers from other threads binary search a published snapshot without taking any lock.
+ * Truncation mutates the chain as well, so it must come from the writer or happen at a marker when no writer is active.
+ * Versions live in two parallel arrays, no node is allocated per version.
+ */
+public class VersionChain {
+    private static final int INITIAL_CAPACITY = 4;
+    private volatile Chain chain = new Chain(INITIAL_CAPACITY);
+
+    /**
+     * Add (or overwrite) the version of bid. Must be called by the single writer of the record.
+     */
+    public void put(long bid, SchemaRecord value) {
+        Chain c = chain;
+        int size = c.size;
+        if (size > 0) {
+            long last = c.bids[size - 1];
+            if (bid == last) {
+                c.values[size - 1] = value;
+                c.size = size;//re-publish the overwritten slot.
+                return;
+            }
+            if (bid < last) {
+                putOutOfOrder(c, bid, value);//only happens when an aborted batch is redone.
+                return;
+            }
+        }
+        if (size == c.bids.length) {
+            c = c.grow(size << 1);
+        }
+        c.bids[size] = bid;
+        c.values[size] = value;
+        c.size = size + 1;//publish after the slot is written.
+        chain = c;
+    }
+
+    private void putOutOfOrder(Chain c, long bid, SchemaRecord value) {
+        int idx = c.search(bid);
+        if (idx >= 0) {
+            c.values[idx] = value;
+            c.size = c.size;//re-publish the overwritten slot.
+            return;
+        }
+        int insertion = -idx - 1;
+        Chain copy = new Chain(Math.max(c.bids.length, c.size + 1));
+        System.arraycopy(c.bids, 0, copy.bids, 0, insertion);
+        System.arraycopy(c.values, 0, copy.values, 0, insertion);
+        copy.bids[insertion] = bid;
+        copy.values[insertion] = value;
+        System.arraycopy(c.bids, insertion, copy.bids, insertion + 1, c.size - insertion);
+        System.arraycopy(c.values, insertion, copy.values, insertion + 1, c.size - insertion);
+        copy.size = c.size + 1;
+        chain = copy;
+    }
+
+    /**
+     * @return the version with the greatest bid strictly smaller than ts, or the version at ts if there is none.
+     */
+    public SchemaRecord lowerOrEqual(long ts) {
+        Chain c = chain;
+        int idx = c.lowerIndex(ts);
+        if (idx >= 0) {
+            return c.values[idx];
+        }
+        if (c.size > 0 && c.bids[0] == ts) {
+            return c.values[0];
+        }
+        return null;
+    }
+
+    /**
+     * @return the version with the greatest bid strictly smaller than ts, or null.
+     */
+    public SchemaRecord lower(long ts) {
+        Chain c = chain;
+        int idx = c.lowerIndex(ts);
+        return idx >= 0 ? c.values[idx] : null;
+    }
+
+    /**
+     * @return the bid of the version with the greatest bid strictly smaller than ts, or Long.MIN_VALUE.
+     */
+    public long lowerBid(long ts) {
+        Chain c = chain;
+        int idx = c.lowerIndex(ts);
+        return idx >= 0 ? c.bids[idx] : Long.MIN_VALUE;
+    }
+
+    public SchemaRecord latest() {
+        Chain c = chain;
+        return c.size == 0 ? null : c.values[c.size - 1];
+    }
+
+    /**
+     * Drop every version that can no longer be read by a snapshot at or after the watermark.
+     * The newest version below the watermark is kept as it is still the visible one.
+     *
+     * @return number of versions dropped.
+     */
+    public int truncate(long watermark) {
+        Chain c = chain;
+        int keepFrom = c.lowerIndex(watermark);
+        if (keepFrom <= 0) {
+            return 0;
+        }
+        int remaining = c.size - keepFrom;
+        Chain compacted = new Chain(Math.max(INITIAL_CAPACITY, remaining));
+        System.arraycopy(c.bids, keepFrom, compacted.bids, 0, remaining);
+        System.arraycopy(c.values, keepFrom, compacted.values, 0, remaining);
+        compacted.size = remaining;
+        chain = compacted;
+        return keepFrom;
+    }
+
+    /**
+     * Keep only the latest version.
+     */
+    public void truncateToLatest() {
+        Chain c = chain;
+        if (c.size <= 1) {
+            return;
+        }
+        Chain compacted = new Chain(INITIAL_CAPACITY);
+        compacted.bids[0] = c.bids[c.size - 1];
+        compacted.values[0] = c.values[c.size - 1];
+        compacted.size = 1;
+        chain = compacted;
+    }
+
+    /**
+     * Drop the version of bid, the oldest version is kept as the base of the record.
+     * The chain is copied so that readers of the published snapshot are not affected.
+     *
+     * @return true if a version is dropped.
+     */
+    public boolean remove(long bid) {
+        Chain c = chain;
+        int idx = c.search(bid);
+        if (idx <= 0) {
+            return false;
+        }
+        Chain copy = new Chain(c.bids.length);
+        System.arraycopy(c.bids, 0, copy.bids, 0, idx);
+        System.arraycopy(c.values, 0, copy.values, 0, idx);
+        System.arraycopy(c.bids, idx + 1, copy.bids, idx, c.size - idx - 1);
+        System.arraycopy(c.values, idx + 1, copy.values, idx, c.size - idx - 1);
+        copy.size = c.size - 1;
+        chain = copy;
+        return true;
+    }
+
+    public int size() {
+        return chain.size;
+    }
+
+    private static final class Chain {
+        final long[] bids;
+        final SchemaRecord[] values;
+        volatile int size;
+
+        Chain(int capacity) {
+            bids = new long[capacity];
+            values = new SchemaRecord[capacity];
+        }
+
+        Chain grow(int capacity) {
+            Chain bigger = new Chain(capacity);
+            System.arraycopy(bids, 0, bigger.bids, 0, size);
+            System.arraycopy(values, 0, bigger.values, 0, size);
+            bigger.size = size;
+            return bigger;
+        }
+
+        /**
+         * @return index of the greatest bid strictly smaller than ts, -1 if none.
+         */
+        int lowerIndex(long ts) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (bids[mid] < ts) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low - 1;
+        }
+
+        int search(long bid) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (bids[mid] < bid) {
+                    low = mid + 1;
+                } else if (bids[mid] > bid) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
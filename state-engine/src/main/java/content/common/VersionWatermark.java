@@ -0,0 +1,41 @@
+package content.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Oldest bid that can still be read from any version chain.
+ * With fault tolerance enabled, it only advances when a snapshot is committed, as in-flight snapshots read old versions.
+ * Otherwise, it advances at every marker as nothing reads behind the current batch.
+ */
+public class VersionWatermark {
+    private static final AtomicLong watermark = new AtomicLong(0);
+    private static volatile boolean commitDriven = false;
+
+    public static void setCommitDriven(boolean isCommitDriven) {
+        commitDriven = isCommitDriven;
+    }
+
+    /**
+     * Called by FTManager once a snapshot is durable on all partitions.
+     */
+    public static void onSnapshotCommitted(long snapshotId) {
+        advance(snapshotId);
+    }
+
+    /**
+     * Called by executors when they start to evaluate the batch ending at the marker, versions are only reclaimed after the batch.
+     */
+    public static void onMarker(long markId) {
+        if (!commitDriven) {
+            advance(markId);
+        }
+    }
+
+    public static long get() {
+        return watermark.get();
+    }
+
+    private static void advance(long to) {
+        watermark.accumulateAndGet(to, Math::max);
+    }
+}
@@ -0,0 +1,30 @@
+package content.common;
+
+/**
+ * Implemented by multi-version contents whose old versions can be reclaimed.
+ */
+public interface VersionedContent {
+    /**
+     * Drop every version older than the watermark, except the newest one below it which is still visible.
+     * Must be called by the thread owning the record, or while no writer is active.
+     *
+     * @param watermark the oldest bid that may still be read.
+     * @return number of versions dropped.
+     */
+    int reclaimVersions(long watermark);
+
+    int getRetainedVersions();
+
+    /**
+     * @return bid of the version read by a snapshot at snapshotId, Long.MIN_VALUE if there is none.
+     */
+    long getVisibleBid(long snapshotId);
+
+    /**
+     * Drop the version written at bid, used to roll back the write of an aborted operation.
+     * The oldest version is the base of the record and is never dropped. Must be called by the thread owning the record.
+     *
+     * @return true if a version is dropped.
+     */
+    boolean rollbackVersion(long bid);
+}
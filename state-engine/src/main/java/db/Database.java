@@ -1,6 +1,7 @@
 package db;
 
 import durability.ftmanager.FTManager;
+import durability.logging.LoggingStrategy.ImplLoggingManager.PathLoggingManager;
 import durability.logging.LoggingStrategy.ImplLoggingManager.WALManager;
 import durability.logging.LoggingStrategy.LoggingManager;
 import durability.recovery.RedoLogResult;
@@ -47,7 +48,7 @@ public abstract class Database {
     public void createTable(RecordSchema tableSchema, String tableName, int partition_num, int num_items) {
         try {
             storageManager.createTable(tableSchema, tableName, partition_num, num_items);
-            if (loggingManager instanceof WALManager) {
+            if (loggingManager instanceof WALManager || loggingManager instanceof PathLoggingManager) {
                 loggingManager.registerTable(tableSchema, tableName);
             }
         } catch (DatabaseException e) {
@@ -5,6 +5,7 @@ import common.collections.OsUtils;
 import common.io.LocalFS.FileSystem;
 import common.io.LocalFS.LocalDataOutputStream;
 import common.tools.Serialize;
+import content.common.VersionWatermark;
 import durability.ftmanager.FTManager;
 import durability.recovery.RecoveryHelperProvider;
 import durability.snapshot.SnapshotResult.SnapshotCommitInformation;
@@ -58,6 +59,7 @@ public class CheckpointManager extends FTManager {
         isRecovery = config.getBoolean("isRecovery");
         isFailure = config.getBoolean("isFailure");
         lastTask = new long[parallelNum];
+        VersionWatermark.setCommitDriven(true);
         File file = new File(this.basePath);
         if (!file.exists()) {
             file.mkdirs();
@@ -190,6 +192,7 @@ public class CheckpointManager extends FTManager {
         dataOutputStream.write(result);
         dataOutputStream.close();
         this.registerSnapshot.remove(snapshotId);
+        VersionWatermark.onSnapshotCommitted(snapshotId);
         LOG.info("CheckpointManager commit the snapshot to the current.log");
     }
 }
@@ -85,7 +85,7 @@ public class CommandManager extends FTManager {
         redoLogResult.threadId = taskId;
         for (LoggingCommitInformation loggingCommitInformation : LoggingCommitInformation) {
             if (loggingCommitInformation.groupId > snapshotOffset) {
-                redoLogResult.addPath(loggingCommitInformation.loggingResults.get(taskId).path, loggingCommitInformation.groupId);
+                redoLogResult.addLog(loggingCommitInformation.loggingResults.get(taskId), loggingCommitInformation.groupId);
                 redoLogResult.setLastedGroupId(loggingCommitInformation.groupId);
             }
         }
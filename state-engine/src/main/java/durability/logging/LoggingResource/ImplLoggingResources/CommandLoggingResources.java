@@ -6,12 +6,12 @@ import common.io.ByteIO.OutputWithCompression.SnappyDataOutputView;
 import common.util.io.IOUtils;
 import durability.logging.LoggingResource.LoggingResources;
 import durability.snapshot.LoggingOptions;
+import durability.struct.Logging.LogRecordCodec;
 import durability.struct.Logging.NativeCommandLog;
 import utils.FaultToleranceConstants;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.Vector;
 
 public class CommandLoggingResources implements LoggingResources {
@@ -32,13 +32,8 @@ public class CommandLoggingResources implements LoggingResources {
         return ByteBuffer.wrap(dataOutputView.getByteArray());
     }
     private void writeLogRecord(DataOutputView dataOutputView) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
         //IOUtils.println("Partition " + partitionId + " has " + commandLogs.size() + " command logs");
-        for (NativeCommandLog nativeCommandLog: commandLogs) {
-            if (!nativeCommandLog.isAborted)
-                stringBuilder.append(nativeCommandLog.toString()).append(" ");
-        }
-        dataOutputView.writeCompression(stringBuilder.toString().getBytes(StandardCharsets.UTF_8));
+        dataOutputView.writeCompression(LogRecordCodec.encodeCommandLogs(commandLogs));
         this.commandLogs.clear();
     }
 }
@@ -7,14 +7,15 @@ import common.util.io.IOUtils;
 import durability.logging.LoggingResource.LoggingResources;
 import durability.snapshot.LoggingOptions;
 import durability.struct.Logging.DependencyLog;
+import durability.struct.Logging.LogRecordCodec;
 import utils.FaultToleranceConstants;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.Vector;
 
 public class DependencyLoggingResources implements LoggingResources {
+    public static final int LOGS_PER_UNIT = 1024;
     private final int partitionId;
     private final Vector<DependencyLog> dependencyLogs;
 
@@ -32,13 +33,18 @@ public class DependencyLoggingResources implements LoggingResources {
         writeLogRecord(dataOutputView);
         return ByteBuffer.wrap(dataOutputView.getByteArray());
     }
-    private void writeLogRecord(DataOutputView dataOutputView) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
+
+    /**
+     * Write the logs through the given view as unitNum, then units of at most LOGS_PER_UNIT binary logs,
+     * each unit compressed on its own, see {@link LogRecordCodec}.
+     */
+    public void writeLogRecord(DataOutputView dataOutputView) throws IOException {
         //IOUtils.println("Partition " + partitionId + " has " + dependencyLogs.size() + " dependency logs");
-        for (DependencyLog dependencyLog : dependencyLogs) {
-            stringBuilder.append(dependencyLog.toString()).append(" ");
+        int logNum = dependencyLogs.size();
+        dataOutputView.writeInt((logNum + LOGS_PER_UNIT - 1) / LOGS_PER_UNIT);
+        for (int i = 0; i < logNum; i += LOGS_PER_UNIT) {
+            dataOutputView.writeCompression(LogRecordCodec.encodeDependencyLogs(dependencyLogs, i, Math.min(i + LOGS_PER_UNIT, logNum)));
         }
-        dataOutputView.writeCompression(stringBuilder.toString().getBytes(StandardCharsets.UTF_8));
         this.dependencyLogs.clear();
     }
 }
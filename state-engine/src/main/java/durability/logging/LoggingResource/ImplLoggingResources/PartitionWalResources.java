@@ -53,9 +53,16 @@ public class PartitionWalResources implements LoggingResources {
         } else {
             dataOutputView = new NativeDataOutputView();
         }
+        writeTo(dataOutputView);
+        return ByteBuffer.wrap(dataOutputView.getByteArray());
+    }
+
+    /**
+     * Write the logs through the given view, records are handed to it one by one.
+     */
+    public void writeTo(DataOutputView dataOutputView) throws IOException {
         writeLogMetaData(dataOutputView);
         writeLogRecord(dataOutputView);
-        return ByteBuffer.wrap(dataOutputView.getByteArray());
     }
 
     private void writeLogMetaData(DataOutputView dataOutputView) throws IOException {
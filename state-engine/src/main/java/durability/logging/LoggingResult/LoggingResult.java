@@ -8,12 +8,20 @@ public class LoggingResult implements Serializable, persistResult {
     public final String path;
     public final long groupId;
     public final int partitionId;
+    public final long offset;
+    public final long length;//-1 if the log is the whole file.
     public transient double size;// in KB
 
 
     public LoggingResult(long groupId, int partitionId, String path) {
+        this(groupId, partitionId, path, 0, -1);
+    }
+
+    public LoggingResult(long groupId, int partitionId, String path, long offset, long length) {
         this.groupId = groupId;
         this.partitionId = partitionId;
         this.path = path;
+        this.offset = offset;
+        this.length = length;
     }
 }
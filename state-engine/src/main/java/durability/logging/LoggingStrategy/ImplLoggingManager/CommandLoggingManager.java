@@ -2,20 +2,22 @@ package durability.logging.LoggingStrategy.ImplLoggingManager;
 
 import common.collections.Configuration;
 import common.collections.OsUtils;
+import common.io.ByteIO.DirectBufferPool;
+import common.io.ByteIO.MappedFileInputStream;
 import common.io.ByteIO.DataInputView;
 import common.io.ByteIO.InputWithDecompression.NativeDataInputView;
 import common.io.ByteIO.InputWithDecompression.SnappyDataInputView;
 import durability.ftmanager.FTManager;
 import durability.logging.LoggingResource.ImplLoggingResources.CommandLoggingResources;
-import durability.logging.LoggingResult.Attachment;
-import durability.logging.LoggingResult.LoggingHandler;
 import durability.logging.LoggingStrategy.LoggingManager;
-import durability.logging.LoggingStream.ImplLoggingStreamFactory.NIOCommandStreamFactory;
+import durability.logging.LoggingStream.GroupCommitLogWriter;
+import durability.recovery.RecoveryHelperProvider;
 import durability.recovery.RedoLogResult;
 import durability.recovery.command.CommandPrecedenceGraph;
 import durability.recovery.histroyviews.HistoryViews;
 import durability.snapshot.LoggingOptions;
 import durability.struct.Logging.LoggingEntry;
+import durability.struct.Logging.LogRecordCodec;
 import durability.struct.Logging.NativeCommandLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,17 +36,10 @@ import utils.SOURCE_CONTROL;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.AsynchronousFileChannel;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
-import static java.nio.file.StandardOpenOption.READ;
 import static utils.FaultToleranceConstants.CompressionType.None;
 
 public class CommandLoggingManager implements LoggingManager {
@@ -52,6 +47,8 @@ public class CommandLoggingManager implements LoggingManager {
     @Nonnull
     protected String loggingPath;
     @Nonnull protected LoggingOptions loggingOptions;
+    @Nonnull protected DirectBufferPool bufferPool;
+    @Nonnull protected GroupCommitLogWriter logWriter;
     protected int parallelNum;
     protected final int num_items;
     protected final int delta;
@@ -64,6 +61,10 @@ public class CommandLoggingManager implements LoggingManager {
         loggingPath = configuration.getString("rootFilePath") + OsUtils.OS_wrapper("logging");
         parallelNum = configuration.getInt("parallelNum");
         loggingOptions = new LoggingOptions(parallelNum, configuration.getString("compressionAlg"));
+        loggingOptions.setGroupCommit(configuration.getString("fsyncPolicy", "Group"), configuration.getInt("fsyncInterval", 10),
+                configuration.getInt("groupCommitWindow", 1), configuration.getInt("groupCommitBytes", 4 << 20), (long) configuration.getInt("logSegmentSize", 256) << 20);
+        bufferPool = new DirectBufferPool(LoggingOptions.CHUNK_SIZE, 2 * parallelNum + 2);
+        logWriter = new GroupCommitLogWriter(loggingPath, parallelNum, loggingOptions, bufferPool);
         num_items = configuration.getInt("NUM_ITEMS");
         app = configuration.getInt("app");
         delta = num_items / parallelNum;
@@ -81,33 +82,24 @@ public class CommandLoggingManager implements LoggingManager {
     }
     @Override
     public void commitLog(long groupId, int partitionId, FTManager ftManager) throws IOException {
-        NIOCommandStreamFactory commandStreamFactory = new NIOCommandStreamFactory(loggingPath);
-        CommandLoggingResources commandLoggingResources = syncPrepareResource(partitionId);
-        AsynchronousFileChannel afc = commandStreamFactory.createLoggingStream();
-        Attachment attachment = new Attachment(commandStreamFactory.getPath(), groupId, partitionId, afc, ftManager);
-        ByteBuffer dataBuffer = commandLoggingResources.createWriteBuffer(loggingOptions);
-        afc.write(dataBuffer, 0, attachment, new LoggingHandler());
+        GroupCommitLogWriter.LogStream out = logWriter.open(groupId, partitionId, ftManager);
+        out.write(syncPrepareResource(partitionId).createWriteBuffer(loggingOptions).array());
+        out.close();
     }
     @Override
     public void syncRetrieveLogs(RedoLogResult redoLogResult) throws IOException, ExecutionException, InterruptedException {
         for (int i = 0; i < redoLogResult.redoLogPaths.size(); i++) {
             MeasureTools.BEGIN_TPG_CONSTRUCTION_TIME_MEASURE(redoLogResult.threadId);
-            Path walPath = Paths.get(redoLogResult.redoLogPaths.get(i));
-            AsynchronousFileChannel afc = AsynchronousFileChannel.open(walPath, READ);
-            int fileSize = (int) afc.size();
-            ByteBuffer dataBuffer = ByteBuffer.allocate(fileSize);
-            Future<Integer> result = afc.read(dataBuffer, 0);
-            result.get();
+            MappedFileInputStream in = RecoveryHelperProvider.openRedoLog(redoLogResult, i);
             DataInputView inputView;
             if (loggingOptions.getCompressionAlg() != None) {
-                inputView = new SnappyDataInputView(dataBuffer);//Default to use Snappy compression
+                inputView = new SnappyDataInputView(in);//Default to use Snappy compression
             } else {
-                inputView = new NativeDataInputView(dataBuffer);
+                inputView = new NativeDataInputView(in);
             }
-            byte[] object = inputView.readFullyDecompression();
-            String[] strings = new String(object, StandardCharsets.UTF_8).split(" ");
-            for (String log : strings) {
-                NativeCommandLog nativeCommandLog = NativeCommandLog.getNativeCommandLog(log);
+            byte[] object = inputView.readFullyDecompression();//decompressed straight from the mapped log.
+            in.close();
+            for (NativeCommandLog nativeCommandLog : LogRecordCodec.decodeCommandLogs(object)) {
                 this.cpg.addTask(nativeCommandLog);
             }
             LOG.info("Thread " + redoLogResult.threadId + " has finished reading logs");
@@ -186,32 +178,34 @@ public class CommandLoggingManager implements LoggingManager {
         throw  new UnsupportedOperationException();
     }
 
+    @Override
+    public void close() throws InterruptedException {
+        logWriter.close();
+    }
+
     private void SLExecute(NativeCommandLog task) {
         if (task == null) return;
         String table = task.tableName;
         String pKey = task.key;
-        double value = Double.parseDouble(task.id);
-        long bid = (long) Math.floor(value);
+        long bid = task.bid;
         if (task.condition.length > 0) {
             SchemaRecord preValue = this.tables.get(table).SelectKeyRecord(task.condition[0]).content_.readPreValues(bid);
-            long sourceAccountBalance = preValue.getValues().get(1).getLong();
+            long sourceAccountBalance = preValue.getLong(1);
             AppConfig.randomDelay();
             SchemaRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey).record_;
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
             if (task.OperationFunction.equals(INC.class.getName())) {
-                tempo_record.getValues().get(1).incLong(sourceAccountBalance, Long.parseLong(task.parameter));//compute.
+                tempo_record = tempo_record.withLong(1, sourceAccountBalance + Long.parseLong(task.parameter));//compute.
             } else if (task.OperationFunction.equals(DEC.class.getName())) {
-                tempo_record.getValues().get(1).decLong(sourceAccountBalance, Long.parseLong(task.parameter));//compute.
+                tempo_record = tempo_record.withLong(1, sourceAccountBalance - Long.parseLong(task.parameter));//compute.
             }
             this.tables.get(table).SelectKeyRecord(pKey).content_.updateMultiValues(bid, 0, false, tempo_record);
         } else {
             TableRecord src = this.tables.get(table).SelectKeyRecord(pKey);
             SchemaRecord srcRecord = src.content_.readPreValues(bid);
-            List<DataBox> values = srcRecord.getValues();
             AppConfig.randomDelay();
             SchemaRecord tempo_record;
-            tempo_record = new SchemaRecord(values);//tempo record
-            tempo_record.getValues().get(1).incLong(Long.parseLong(task.parameter));//compute.
+            tempo_record = srcRecord.withLong(1, srcRecord.getLong(1) + Long.parseLong(task.parameter));//tempo record, copied on write.
             src.content_.updateMultiValues(bid, 0, false, tempo_record);
         }
     }
@@ -219,22 +213,21 @@ public class CommandLoggingManager implements LoggingManager {
         if (task == null || task.isAborted) return;
         String table = task.tableName;
         String pKey = task.key;
-        double value = Double.parseDouble(task.id);
-        long bid = (long) Math.floor(value);
+        long bid = task.bid;
         int keysLength = task.condition.length;
         SchemaRecord[] preValues = new SchemaRecord[keysLength];
         long sum = 0;
         AppConfig.randomDelay();
         for (int i = 0; i < keysLength; i++) {
             preValues[i] = this.tables.get(table).SelectKeyRecord(task.condition[i]).content_.readPreValues(bid);
-            sum += preValues[i].getValues().get(1).getLong();
+            sum += preValues[i].getLong(1);
         }
         sum /= keysLength;
         TableRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey);
         SchemaRecord schemaRecord = srcRecord.content_.readPreValues(bid);
-        SchemaRecord tempo_record = new SchemaRecord(schemaRecord);//tempo record
+        SchemaRecord tempo_record = schemaRecord;//tempo record, copied on write
         if (task.OperationFunction.equals(SUM.class.getName())) {
-            tempo_record.getValues().get(1).setLong(sum);//compute.
+            tempo_record = tempo_record.withLong(1, sum);//compute.
         } else
             throw new UnsupportedOperationException();
     }
@@ -242,18 +235,17 @@ public class CommandLoggingManager implements LoggingManager {
         if (task == null || task.isAborted) return;
         String table = task.tableName;
         String pKey = task.key;
-        double value = Double.parseDouble(task.id);
         AppConfig.randomDelay();
         TableRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey);
         if (task.OperationFunction.equals(AVG.class.getName())) {
-            double latestAvgSpeeds = srcRecord.record_.getValues().get(1).getDouble();
+            double latestAvgSpeeds = srcRecord.record_.getDouble(1);
             double lav;
             if (latestAvgSpeeds == 0) {//not initialized
                 lav = Double.parseDouble(task.parameter);
             } else
                 lav = (latestAvgSpeeds + Double.parseDouble(task.parameter)) / 2;
 
-            srcRecord.record_.getValues().get(1).setDouble(lav);//write to state.
+            srcRecord.record_.setDouble(1, lav);//write to state.
         } else {
             HashSet cnt_segment = srcRecord.record_.getValues().get(1).getHashSet();
             cnt_segment.add(Integer.parseInt(task.parameter));
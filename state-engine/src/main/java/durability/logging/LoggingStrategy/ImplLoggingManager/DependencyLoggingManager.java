@@ -3,8 +3,13 @@ package durability.logging.LoggingStrategy.ImplLoggingManager;
 import common.collections.Configuration;
 import common.collections.OsUtils;
 import common.io.ByteIO.DataInputView;
+import common.io.ByteIO.DataOutputView;
+import common.io.ByteIO.DirectBufferPool;
 import common.io.ByteIO.InputWithDecompression.NativeDataInputView;
 import common.io.ByteIO.InputWithDecompression.SnappyDataInputView;
+import common.io.ByteIO.MappedFileInputStream;
+import common.io.ByteIO.OutputWithCompression.NativeDataOutputView;
+import common.io.ByteIO.OutputWithCompression.SnappyDataOutputView;
 import profiler.MeasureTools;
 import storage.TableRecord;
 import storage.datatype.DataBox;
@@ -13,10 +18,9 @@ import transaction.function.DEC;
 import transaction.function.INC;
 import durability.ftmanager.FTManager;
 import durability.logging.LoggingResource.ImplLoggingResources.DependencyLoggingResources;
-import durability.logging.LoggingResult.Attachment;
-import durability.logging.LoggingResult.LoggingHandler;
 import durability.logging.LoggingStrategy.LoggingManager;
-import durability.logging.LoggingStream.ImplLoggingStreamFactory.NIODependencyStreamFactory;
+import durability.logging.LoggingStream.GroupCommitLogWriter;
+import durability.recovery.RecoveryHelperProvider;
 import durability.recovery.RedoLogResult;
 import durability.recovery.dependency.CSContext;
 import durability.recovery.dependency.CommandPrecedenceGraph;
@@ -24,6 +28,7 @@ import durability.recovery.dependency.CommandTask;
 import durability.recovery.histroyviews.HistoryViews;
 import durability.snapshot.LoggingOptions;
 import durability.struct.Logging.DependencyLog;
+import durability.struct.Logging.LogRecordCodec;
 import durability.struct.Logging.LoggingEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,16 +42,12 @@ import utils.lib.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.AsynchronousFileChannel;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
-import static java.nio.file.StandardOpenOption.READ;
 import static utils.FaultToleranceConstants.CompressionType.None;
 
 public class DependencyLoggingManager implements LoggingManager {
@@ -60,6 +61,9 @@ public class DependencyLoggingManager implements LoggingManager {
     protected Map<String, BaseTable> tables;
     protected int app;
     protected ConcurrentHashMap<Integer, Vector<DependencyLog>> threadToDependencyLog = new ConcurrentHashMap<>();
+    private static final int MIN_UNITS_PER_SPLIT = 4;
+    @Nonnull protected DirectBufferPool bufferPool;
+    @Nonnull protected GroupCommitLogWriter logWriter;
     //Used when recovery
     public CommandPrecedenceGraph cpg = new CommandPrecedenceGraph();
     public DependencyLoggingManager(Map<String, BaseTable> tables, Configuration configuration) {
@@ -67,6 +71,10 @@ public class DependencyLoggingManager implements LoggingManager {
         loggingPath = configuration.getString("rootFilePath") + OsUtils.OS_wrapper("logging");
         parallelNum = configuration.getInt("parallelNum");
         loggingOptions = new LoggingOptions(parallelNum, configuration.getString("compressionAlg"));
+        loggingOptions.setGroupCommit(configuration.getString("fsyncPolicy", "Group"), configuration.getInt("fsyncInterval", 10),
+                configuration.getInt("groupCommitWindow", 1), configuration.getInt("groupCommitBytes", 4 << 20), (long) configuration.getInt("logSegmentSize", 256) << 20);
+        bufferPool = new DirectBufferPool(LoggingOptions.CHUNK_SIZE, 2 * parallelNum + 2);
+        logWriter = new GroupCommitLogWriter(loggingPath, parallelNum, loggingOptions, bufferPool);
         num_items = configuration.getInt("NUM_ITEMS");
         app = configuration.getInt("app");
         delta = num_items / parallelNum;
@@ -87,12 +95,16 @@ public class DependencyLoggingManager implements LoggingManager {
 
     @Override
     public void commitLog(long groupId, int partitionId, FTManager ftManager) throws IOException {
-        NIODependencyStreamFactory dependencyStreamFactory = new NIODependencyStreamFactory(loggingPath);
         DependencyLoggingResources dependencyLoggingResources = syncPrepareResource(partitionId);
-        AsynchronousFileChannel afc = dependencyStreamFactory.createLoggingStream();
-        Attachment attachment = new Attachment(dependencyStreamFactory.getPath(), groupId, partitionId, afc, ftManager);
-        ByteBuffer dataBuffer = dependencyLoggingResources.createWriteBuffer(loggingOptions);
-        afc.write(dataBuffer, 0, attachment, new LoggingHandler());
+        GroupCommitLogWriter.LogStream out = logWriter.open(groupId, partitionId, ftManager);
+        DataOutputView dataOutputView;
+        if (loggingOptions.getCompressionAlg() != None) {
+            dataOutputView = new SnappyDataOutputView(out);//Default to use Snappy compression
+        } else {
+            dataOutputView = new NativeDataOutputView(out);
+        }
+        dependencyLoggingResources.writeLogRecord(dataOutputView);
+        out.close();
     }
 
     @Override
@@ -100,24 +112,26 @@ public class DependencyLoggingManager implements LoggingManager {
         this.cpg.addContext(redoLogResult.threadId, new CSContext(redoLogResult.threadId));
         for (int i = 0; i < redoLogResult.redoLogPaths.size(); i++) {
             MeasureTools.BEGIN_TPG_CONSTRUCTION_TIME_MEASURE(redoLogResult.threadId);
-            Path walPath = Paths.get(redoLogResult.redoLogPaths.get(i));
-            AsynchronousFileChannel afc = AsynchronousFileChannel.open(walPath, READ);
-            int fileSize = (int) afc.size();
-            ByteBuffer dataBuffer = ByteBuffer.allocate(fileSize);
-            Future<Integer> result = afc.read(dataBuffer, 0);
-            result.get();
-            DataInputView inputView;
-            if (loggingOptions.getCompressionAlg() != None) {
-                inputView = new SnappyDataInputView(dataBuffer);//Default to use Snappy compression
-            } else {
-                inputView = new NativeDataInputView(dataBuffer);
+            MappedFileInputStream in = RecoveryHelperProvider.openRedoLog(redoLogResult, i);
+            DataInputView inputView = createInputView(in);
+            int unitNum = inputView.readInt();
+            long[] units = new long[unitNum];
+            for (int u = 0; u < unitNum; u++) {//find the units without decompressing them.
+                units[u] = in.position();
+                inputView.skipFullyDecompression();
+            }
+            long[][] ranges = MappedFileInputStream.splitRanges(units, in.position(), Math.min(Runtime.getRuntime().availableProcessors(), unitNum / MIN_UNITS_PER_SPLIT));
+            List<Future<List<DependencyLog>>> decoded = new ArrayList<>();
+            for (long[] range : ranges) {
+                MappedFileInputStream rangeIn = in.range(range[0], range[1]);
+                decoded.add(ForkJoinPool.commonPool().submit(() -> decodeDependencyLogs(rangeIn)));
             }
-            byte[] object = inputView.readFullyDecompression();
-            String[] strings = new String(object, StandardCharsets.UTF_8).split(" ");
-            for (String log : strings) {
-                DependencyLog dependencyLog = DependencyLog.getDependencyFromString(log);
-                this.cpg.addTask(redoLogResult.threadId, new CommandTask(dependencyLog));
+            for (Future<List<DependencyLog>> logs : decoded) {//tasks are added in the log order.
+                for (DependencyLog dependencyLog : logs.get()) {
+                    this.cpg.addTask(redoLogResult.threadId, new CommandTask(dependencyLog));
+                }
             }
+            in.close();
             LOG.info("Thread " + redoLogResult.threadId + " has finished reading logs");
             MeasureTools.END_TPG_CONSTRUCTION_TIME_MEASURE(redoLogResult.threadId);
             SOURCE_CONTROL.getInstance().waitForOtherThreads(redoLogResult.threadId);
@@ -128,6 +142,21 @@ public class DependencyLoggingManager implements LoggingManager {
             SOURCE_CONTROL.getInstance().waitForOtherThreads(redoLogResult.threadId);
         }
     }
+    private DataInputView createInputView(InputStream in) {
+        if (loggingOptions.getCompressionAlg() != None) {
+            return new SnappyDataInputView(in);//Default to use Snappy compression
+        } else {
+            return new NativeDataInputView(in);
+        }
+    }
+    private List<DependencyLog> decodeDependencyLogs(MappedFileInputStream in) throws IOException {
+        DataInputView inputView = createInputView(in);
+        List<DependencyLog> dependencyLogs = new ArrayList<>();
+        while (in.position() < in.getEnd()) {
+            dependencyLogs.addAll(LogRecordCodec.decodeDependencyLogs(inputView.readFullyDecompression()));
+        }
+        return dependencyLogs;
+    }
     private void start_evaluate(CSContext context) {
        INITIALIZE(context);
        do {
@@ -233,6 +262,11 @@ public class DependencyLoggingManager implements LoggingManager {
         throw  new UnsupportedOperationException();
     }
 
+    @Override
+    public void close() throws InterruptedException {
+        logWriter.close();
+    }
+
     public int getPartitionId(String primary_key) {
         int key = Integer.parseInt(primary_key);
         return key / delta;
@@ -241,28 +275,25 @@ public class DependencyLoggingManager implements LoggingManager {
         if (task == null || task.dependencyLog.isAborted) return;
         String table = task.dependencyLog.tableName;
         String pKey = task.dependencyLog.key;
-        double value = Double.parseDouble(task.dependencyLog.id);
-        long bid = (long) Math.floor(value);
+        long bid = task.dependencyLog.bid;
         if (task.dependencyLog.condition.length > 0) {
             SchemaRecord preValue = this.tables.get(table).SelectKeyRecord(task.dependencyLog.condition[0]).content_.readPreValues(bid);
-            long sourceAccountBalance = preValue.getValues().get(1).getLong();
+            long sourceAccountBalance = preValue.getLong(1);
             AppConfig.randomDelay();
             SchemaRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey).record_;
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
             if (task.dependencyLog.OperationFunction.equals(INC.class.getName())) {
-                tempo_record.getValues().get(1).incLong(sourceAccountBalance, Long.parseLong(task.dependencyLog.parameter));//compute.
+                tempo_record = tempo_record.withLong(1, sourceAccountBalance + Long.parseLong(task.dependencyLog.parameter));//compute.
             } else if (task.dependencyLog.OperationFunction.equals(DEC.class.getName())) {
-                tempo_record.getValues().get(1).decLong(sourceAccountBalance, Long.parseLong(task.dependencyLog.parameter));//compute.
+                tempo_record = tempo_record.withLong(1, sourceAccountBalance - Long.parseLong(task.dependencyLog.parameter));//compute.
             }
             this.tables.get(table).SelectKeyRecord(pKey).content_.updateMultiValues(bid, 0, false, tempo_record);
         } else {
             TableRecord src = this.tables.get(table).SelectKeyRecord(pKey);
             SchemaRecord srcRecord = src.content_.readPreValues(bid);
-            List<DataBox> values = srcRecord.getValues();
             AppConfig.randomDelay();
             SchemaRecord tempo_record;
-            tempo_record = new SchemaRecord(values);//tempo record
-            tempo_record.getValues().get(1).incLong(Long.parseLong(task.dependencyLog.parameter));//compute.
+            tempo_record = srcRecord.withLong(1, srcRecord.getLong(1) + Long.parseLong(task.dependencyLog.parameter));//tempo record, copied on write.
             src.content_.updateMultiValues(bid, 0, false, tempo_record);
         }
     }
@@ -270,22 +301,21 @@ public class DependencyLoggingManager implements LoggingManager {
         if (task == null || task.dependencyLog.isAborted) return;
         String table = task.dependencyLog.tableName;
         String pKey = task.dependencyLog.key;
-        double value = Double.parseDouble(task.dependencyLog.id);
-        long bid = (long) Math.floor(value);
+        long bid = task.dependencyLog.bid;
         int keysLength = task.dependencyLog.condition.length;
         SchemaRecord[] preValues = new SchemaRecord[keysLength];
         long sum = 0;
         AppConfig.randomDelay();
         for (int i = 0; i < keysLength; i++) {
             preValues[i] = this.tables.get(table).SelectKeyRecord(task.dependencyLog.condition[i]).content_.readPreValues(bid);
-            sum += preValues[i].getValues().get(1).getLong();
+            sum += preValues[i].getLong(1);
         }
         sum /= keysLength;
         TableRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey);
         SchemaRecord schemaRecord = srcRecord.content_.readPreValues(bid);
-        SchemaRecord tempo_record = new SchemaRecord(schemaRecord);//tempo record
+        SchemaRecord tempo_record = schemaRecord;//tempo record, copied on write
         if (task.dependencyLog.OperationFunction.equals(SUM.class.getName())) {
-            tempo_record.getValues().get(1).setLong(sum);//compute.
+            tempo_record = tempo_record.withLong(1, sum);//compute.
         } else
             throw new UnsupportedOperationException();
     }
@@ -293,19 +323,18 @@ public class DependencyLoggingManager implements LoggingManager {
         if (task == null || task.dependencyLog.isAborted) return;
         String table = task.dependencyLog.tableName;
         String pKey = task.dependencyLog.key;
-        double value = Double.parseDouble(task.dependencyLog.id);
-        long bid = (long) Math.floor(value);
+        long bid = task.dependencyLog.bid;
         AppConfig.randomDelay();
         TableRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey);
         if (task.dependencyLog.OperationFunction.equals(AVG.class.getName())) {
-            double latestAvgSpeeds = srcRecord.record_.getValues().get(1).getDouble();
+            double latestAvgSpeeds = srcRecord.record_.getDouble(1);
             double lav;
             if (latestAvgSpeeds == 0) {//not initialized
                 lav = Double.parseDouble(task.dependencyLog.parameter);
             } else
                 lav = (latestAvgSpeeds + Double.parseDouble(task.dependencyLog.parameter)) / 2;
 
-            srcRecord.record_.getValues().get(1).setDouble(lav);//write to state.
+            srcRecord.record_.setDouble(1, lav);//write to state.
         } else {
             HashSet cnt_segment = srcRecord.record_.getValues().get(1).getHashSet();
             cnt_segment.add(Integer.parseInt(task.dependencyLog.parameter));
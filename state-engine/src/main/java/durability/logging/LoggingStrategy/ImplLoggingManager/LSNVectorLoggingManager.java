@@ -2,16 +2,17 @@ package durability.logging.LoggingStrategy.ImplLoggingManager;
 
 import common.collections.Configuration;
 import common.collections.OsUtils;
+import common.io.ByteIO.DirectBufferPool;
+import common.io.ByteIO.MappedFileInputStream;
 import common.io.ByteIO.DataInputView;
 import common.io.ByteIO.InputWithDecompression.NativeDataInputView;
 import common.io.ByteIO.InputWithDecompression.SnappyDataInputView;
 import durability.ftmanager.FTManager;
 import durability.logging.LoggingEntry.LVLogRecord;
 import durability.logging.LoggingResource.ImplLoggingResources.LSNVectorLoggingResources;
-import durability.logging.LoggingResult.Attachment;
-import durability.logging.LoggingResult.LoggingHandler;
 import durability.logging.LoggingStrategy.LoggingManager;
-import durability.logging.LoggingStream.ImplLoggingStreamFactory.NIOLSNVectorStreamFactory;
+import durability.logging.LoggingStream.GroupCommitLogWriter;
+import durability.recovery.RecoveryHelperProvider;
 import durability.recovery.RedoLogResult;
 import durability.recovery.histroyviews.HistoryViews;
 import durability.recovery.lsnvector.CSContext;
@@ -30,11 +31,7 @@ import storage.table.RecordSchema;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.AsynchronousFileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -49,10 +46,8 @@ import utils.lib.ConcurrentHashMap;
 
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.nio.file.StandardOpenOption.READ;
 import static utils.FaultToleranceConstants.CompressionType.None;
 
 public class LSNVectorLoggingManager implements LoggingManager {
@@ -61,6 +56,8 @@ public class LSNVectorLoggingManager implements LoggingManager {
     protected String loggingPath;
     protected int app;
     @Nonnull protected LoggingOptions loggingOptions;
+    @Nonnull protected DirectBufferPool bufferPool;
+    @Nonnull protected GroupCommitLogWriter logWriter;
     public ConcurrentHashMap<Integer, LVLogRecord> threadToLVLogRecord = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, AtomicInteger> num = new ConcurrentHashMap<>();
     protected int parallelNum;
@@ -72,6 +69,10 @@ public class LSNVectorLoggingManager implements LoggingManager {
         loggingPath = configuration.getString("rootFilePath") + OsUtils.OS_wrapper("logging");
         parallelNum = configuration.getInt("parallelNum");
         loggingOptions = new LoggingOptions(parallelNum, configuration.getString("compressionAlg"));
+        loggingOptions.setGroupCommit(configuration.getString("fsyncPolicy", "Group"), configuration.getInt("fsyncInterval", 10),
+                configuration.getInt("groupCommitWindow", 1), configuration.getInt("groupCommitBytes", 4 << 20), (long) configuration.getInt("logSegmentSize", 256) << 20);
+        bufferPool = new DirectBufferPool(LoggingOptions.CHUNK_SIZE, 2 * parallelNum + 2);
+        logWriter = new GroupCommitLogWriter(loggingPath, parallelNum, loggingOptions, bufferPool);
         app = configuration.getInt("app");
         for (int i = 0; i < parallelNum; i ++) {
             this.threadToLVLogRecord.put(i, new LVLogRecord(i));
@@ -97,12 +98,9 @@ public class LSNVectorLoggingManager implements LoggingManager {
     @Override
     public void commitLog(long groupId, int partitionId, FTManager ftManager) throws IOException {
         this.num.get(partitionId).set(0);
-        NIOLSNVectorStreamFactory lsnVectorStreamFactory = new NIOLSNVectorStreamFactory(loggingPath);
-        LSNVectorLoggingResources resources = syncPrepareResource(partitionId);
-        AsynchronousFileChannel afc = lsnVectorStreamFactory.createLoggingStream();
-        Attachment attachment = new Attachment(lsnVectorStreamFactory.getPath(), groupId, partitionId,afc, ftManager);
-        ByteBuffer dataBuffer = resources.createWriteBuffer(loggingOptions);
-        afc.write(dataBuffer, 0, attachment, new LoggingHandler());
+        GroupCommitLogWriter.LogStream out = logWriter.open(groupId, partitionId, ftManager);
+        out.write(syncPrepareResource(partitionId).createWriteBuffer(loggingOptions).array());
+        out.close();
     }
 
     @Override
@@ -110,19 +108,15 @@ public class LSNVectorLoggingManager implements LoggingManager {
         this.cpg.addContext(redoLogResult.threadId, new CSContext(redoLogResult.threadId));
         for (int i = 0; i < redoLogResult.redoLogPaths.size(); i ++) {
             MeasureTools.BEGIN_TPG_CONSTRUCTION_TIME_MEASURE(redoLogResult.threadId);
-            Path walPath = Paths.get(redoLogResult.redoLogPaths.get(i));
-            AsynchronousFileChannel afc = AsynchronousFileChannel.open(walPath, READ);
-            int fileSize = (int) afc.size();
-            ByteBuffer dataBuffer = ByteBuffer.allocate(fileSize);
-            Future<Integer> result = afc.read(dataBuffer, 0);
-            result.get();
+            MappedFileInputStream in = RecoveryHelperProvider.openRedoLog(redoLogResult, i);
             DataInputView inputView;
             if (loggingOptions.getCompressionAlg() != None) {
-                inputView = new SnappyDataInputView(dataBuffer);//Default to use Snappy compression
+                inputView = new SnappyDataInputView(in);//Default to use Snappy compression
             } else {
-                inputView = new NativeDataInputView(dataBuffer);
+                inputView = new NativeDataInputView(in);
             }
-            byte[] object = inputView.readFullyDecompression();
+            byte[] object = inputView.readFullyDecompression();//decompressed straight from the mapped log.
+            in.close();
             String[] strings = new String(object, StandardCharsets.UTF_8).split(" ");
             for (String log : strings) {
                 LVCLog lvcLog = LVCLog.getLVCLogFromString(log);
@@ -189,24 +183,22 @@ public class LSNVectorLoggingManager implements LoggingManager {
         long bid = task.bid;
         if (task.condition.length > 0) {
             SchemaRecord preValue = this.tables.get(table).SelectKeyRecord(task.condition[0]).content_.readPreValues(bid);
-            long sourceAccountBalance = preValue.getValues().get(1).getLong();
+            long sourceAccountBalance = preValue.getLong(1);
             AppConfig.randomDelay();
             SchemaRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey).record_;
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
             if (task.OperationFunction.equals(INC.class.getName())) {
-                tempo_record.getValues().get(1).incLong(sourceAccountBalance, Long.parseLong(task.parameter));//compute.
+                tempo_record = tempo_record.withLong(1, sourceAccountBalance + Long.parseLong(task.parameter));//compute.
             } else if (task.OperationFunction.equals(DEC.class.getName())) {
-                tempo_record.getValues().get(1).decLong(sourceAccountBalance, Long.parseLong(task.parameter));//compute.
+                tempo_record = tempo_record.withLong(1, sourceAccountBalance - Long.parseLong(task.parameter));//compute.
             }
             this.tables.get(table).SelectKeyRecord(pKey).content_.updateMultiValues(bid, 0, false, tempo_record);
         } else {
             TableRecord src = this.tables.get(table).SelectKeyRecord(pKey);
             SchemaRecord srcRecord = src.content_.readPreValues(bid);
-            List<DataBox> values = srcRecord.getValues();
             AppConfig.randomDelay();
             SchemaRecord tempo_record;
-            tempo_record = new SchemaRecord(values);//tempo record
-            tempo_record.getValues().get(1).incLong(Long.parseLong(task.parameter));//compute.
+            tempo_record = srcRecord.withLong(1, srcRecord.getLong(1) + Long.parseLong(task.parameter));//tempo record, copied on write.
             src.content_.updateMultiValues(bid, 0, false, tempo_record);
         }
     }
@@ -222,14 +214,14 @@ public class LSNVectorLoggingManager implements LoggingManager {
         AppConfig.randomDelay();
         for (int i = 0; i < keysLength; i++) {
             preValues[i] = this.tables.get(table).SelectKeyRecord(task.condition[i]).content_.readPreValues(bid);
-            sum += preValues[i].getValues().get(1).getLong();
+            sum += preValues[i].getLong(1);
         }
         sum /= keysLength;
         TableRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey);
         SchemaRecord schemaRecord = srcRecord.content_.readPreValues(bid);
-        SchemaRecord tempo_record = new SchemaRecord(schemaRecord);//tempo record
+        SchemaRecord tempo_record = schemaRecord;//tempo record, copied on write
         if (task.OperationFunction.equals(SUM.class.getName())) {
-            tempo_record.getValues().get(1).setLong(sum);//compute.
+            tempo_record = tempo_record.withLong(1, sum);//compute.
         } else
             throw new UnsupportedOperationException();
     }
@@ -241,14 +233,14 @@ public class LSNVectorLoggingManager implements LoggingManager {
         AppConfig.randomDelay();
         TableRecord srcRecord = this.tables.get(table).SelectKeyRecord(pKey);
         if (task.OperationFunction.equals(AVG.class.getName())) {
-            double latestAvgSpeeds = srcRecord.record_.getValues().get(1).getDouble();
+            double latestAvgSpeeds = srcRecord.record_.getDouble(1);
             double lav;
             if (latestAvgSpeeds == 0) {//not initialized
                 lav = Double.parseDouble(task.parameter);
             } else
                 lav = (latestAvgSpeeds + Double.parseDouble(task.parameter)) / 2;
 
-            srcRecord.record_.getValues().get(1).setDouble(lav);//write to state.
+            srcRecord.record_.setDouble(1, lav);//write to state.
         } else {
             HashSet cnt_segment = srcRecord.record_.getValues().get(1).getHashSet();
             cnt_segment.add(Integer.parseInt(task.parameter));
@@ -288,4 +280,9 @@ public class LSNVectorLoggingManager implements LoggingManager {
     public void selectiveLoggingPartition(int partitionId) {
         throw  new UnsupportedOperationException();
     }
+
+    @Override
+    public void close() throws InterruptedException {
+        logWriter.close();
+    }
 }
@@ -2,7 +2,9 @@ package durability.logging.LoggingStrategy.ImplLoggingManager;
 
 import common.collections.Configuration;
 import common.collections.OsUtils;
+import common.io.ByteIO.DirectBufferPool;
 import common.io.ByteIO.DataInputView;
+import common.io.ByteIO.MappedFileInputStream;
 import common.io.ByteIO.InputWithDecompression.NativeDataInputView;
 import common.io.ByteIO.InputWithDecompression.SnappyDataInputView;
 import common.util.graph.Graph;
@@ -10,10 +12,9 @@ import common.util.io.IOUtils;
 import durability.ftmanager.FTManager;
 import durability.logging.LoggingEntry.PathRecord;
 import durability.logging.LoggingResource.ImplLoggingResources.DependencyMaintainResources;
-import durability.logging.LoggingResult.Attachment;
-import durability.logging.LoggingResult.LoggingHandler;
 import durability.logging.LoggingStrategy.LoggingManager;
-import durability.logging.LoggingStream.ImplLoggingStreamFactory.NIOPathStreamFactory;
+import durability.logging.LoggingStream.GroupCommitLogWriter;
+import durability.recovery.RecoveryHelperProvider;
 import durability.recovery.RedoLogResult;
 import durability.recovery.histroyviews.HistoryViews;
 import durability.snapshot.LoggingOptions;
@@ -28,48 +29,38 @@ import utils.lib.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.AsynchronousFileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
-import static java.nio.file.StandardOpenOption.READ;
 import static utils.FaultToleranceConstants.CompressionType.None;
 
 public class PathLoggingManager implements LoggingManager {
     private static final Logger LOG = LoggerFactory.getLogger(PathLoggingManager.class);
     @Nonnull protected String loggingPath;
     @Nonnull protected LoggingOptions loggingOptions;
+    @Nonnull protected DirectBufferPool bufferPool;
+    @Nonnull protected GroupCommitLogWriter logWriter;
     protected int parallelNum;
+    protected int num_items;
     private ConcurrentHashMap<String, Graph> graphs = new ConcurrentHashMap<>();//TableToGraph
     public ConcurrentHashMap<Integer, PathRecord> threadToPathRecord = new ConcurrentHashMap<>();
     public HistoryViews historyViews = new HistoryViews();//Used when recovery
     public PathLoggingManager(Configuration configuration) {
         loggingPath = configuration.getString("rootFilePath") + OsUtils.OS_wrapper("logging");
         parallelNum = configuration.getInt("parallelNum");
+        num_items = configuration.getInt("NUM_ITEMS");
         loggingOptions = new LoggingOptions(parallelNum, configuration.getString("compressionAlg"), configuration.getBoolean("isSelectiveLogging"), configuration.getInt("maxItr"));
+        loggingOptions.setGroupCommit(configuration.getString("fsyncPolicy", "Group"), configuration.getInt("fsyncInterval", 10),
+                configuration.getInt("groupCommitWindow", 1), configuration.getInt("groupCommitBytes", 4 << 20), (long) configuration.getInt("logSegmentSize", 256) << 20);
+        bufferPool = new DirectBufferPool(LoggingOptions.CHUNK_SIZE, 2 * parallelNum + 2);
+        logWriter = new GroupCommitLogWriter(loggingPath, parallelNum, loggingOptions, bufferPool);
         for (int i = 0; i < parallelNum; i ++) {
             this.threadToPathRecord.put(i, new PathRecord());
         }
-        int app = configuration.getInt("app");
-        if (app == 0) {//GS
-            graphs.put("MicroTable", new Graph(configuration.getInt("NUM_ITEMS"), parallelNum));
-        } else if (app == 1) {//SL
-            graphs.put("accounts", new Graph(configuration.getInt("NUM_ITEMS"), parallelNum));
-            graphs.put("bookEntries", new Graph(configuration.getInt("NUM_ITEMS"), parallelNum));
-        } else if (app == 2){//TP
-            graphs.put("segment_speed", new Graph(configuration.getInt("NUM_ITEMS"), parallelNum));
-            graphs.put("segment_cnt", new Graph(configuration.getInt("NUM_ITEMS"), parallelNum));
-        } else if (app == 3) {//OB
-            graphs.put("goods", new Graph(configuration.getInt("NUM_ITEMS"), parallelNum));
-        }
     }
     public DependencyMaintainResources syncPrepareResource(int partitionId) {
         return new DependencyMaintainResources(partitionId, this.threadToPathRecord.get(partitionId));
@@ -77,7 +68,7 @@ public class PathLoggingManager implements LoggingManager {
 
     @Override
     public void registerTable(RecordSchema recordSchema, String tableName) {
-        throw new UnsupportedOperationException("Not supported yet");
+        graphs.put(tableName, new Graph(num_items, parallelNum));
     }
 
     @Override
@@ -98,30 +89,23 @@ public class PathLoggingManager implements LoggingManager {
                 }
             }
         }
-        NIOPathStreamFactory nioPathStreamFactory = new NIOPathStreamFactory(this.loggingPath);
-        DependencyMaintainResources dependencyMaintainResources = syncPrepareResource(partitionId);
-        AsynchronousFileChannel afc = nioPathStreamFactory.createLoggingStream();
-        Attachment attachment = new Attachment(nioPathStreamFactory.getPath(), groupId, partitionId, afc, ftManager);
-        ByteBuffer dataBuffer = dependencyMaintainResources.createWriteBuffer(loggingOptions);
-        afc.write(dataBuffer, 0, attachment, new LoggingHandler());
+        GroupCommitLogWriter.LogStream out = logWriter.open(groupId, partitionId, ftManager);
+        out.write(syncPrepareResource(partitionId).createWriteBuffer(loggingOptions).array());
+        out.close();
     }
 
     @Override
     public void syncRetrieveLogs(RedoLogResult redoLogResult) throws IOException, ExecutionException, InterruptedException {
         for (int i = 0; i < redoLogResult.redoLogPaths.size(); i++) {
-            Path walPath = Paths.get(redoLogResult.redoLogPaths.get(i));
-            AsynchronousFileChannel afc = AsynchronousFileChannel.open(walPath, READ);
-            int fileSize = (int) afc.size();
-            ByteBuffer dataBuffer = ByteBuffer.allocate(fileSize);
-            Future<Integer> result = afc.read(dataBuffer, 0);
-            result.get();
+            MappedFileInputStream in = RecoveryHelperProvider.openRedoLog(redoLogResult, i);
             DataInputView inputView;
             if (loggingOptions.getCompressionAlg() != None) {
-                inputView = new SnappyDataInputView(dataBuffer);//Default to use Snappy compression
+                inputView = new SnappyDataInputView(in);//Default to use Snappy compression
             } else {
-                inputView = new NativeDataInputView(dataBuffer);
+                inputView = new NativeDataInputView(in);
             }
-            byte[] object = inputView.readFullyDecompression();
+            byte[] object = inputView.readFullyDecompression();//decompressed straight from the mapped log.
+            in.close();
             String[] strings = new String(object, StandardCharsets.UTF_8).split(" ");
             if (strings.length == 0)
                 continue;
@@ -230,4 +214,9 @@ public class PathLoggingManager implements LoggingManager {
     public void selectiveLoggingPartition(int partitionId) {
         graphPartition(partitionId, loggingOptions.getMax_itr());
     }
+
+    @Override
+    public void close() throws InterruptedException {
+        logWriter.close();
+    }
 }
@@ -3,17 +3,21 @@ package durability.logging.LoggingStrategy.ImplLoggingManager;
 import common.collections.Configuration;
 import common.collections.OsUtils;
 import common.io.ByteIO.DataInputView;
+import common.io.ByteIO.DataOutputView;
+import common.io.ByteIO.DirectBufferPool;
 import common.io.ByteIO.InputWithDecompression.*;
+import common.io.ByteIO.MappedFileInputStream;
+import common.io.ByteIO.OutputWithCompression.NativeDataOutputView;
+import common.io.ByteIO.OutputWithCompression.SnappyDataOutputView;
 import common.tools.Deserialize;
 import durability.ftmanager.AbstractRecoveryManager;
 import durability.logging.LoggingResource.WalMetaInfoSnapshot;
-import durability.logging.LoggingResult.Attachment;
-import durability.logging.LoggingResult.LoggingHandler;
 import durability.logging.LoggingStrategy.LoggingManager;
+import durability.logging.LoggingStream.GroupCommitLogWriter;
 import durability.ftmanager.FTManager;
 import durability.logging.LoggingEntry.LogRecord;
 import durability.logging.LoggingResource.ImplLoggingResources.PartitionWalResources;
-import durability.logging.LoggingStream.ImplLoggingStreamFactory.NIOWalStreamFactory;
+import durability.recovery.RecoveryHelperProvider;
 import durability.recovery.RedoLogResult;
 import durability.recovery.histroyviews.HistoryViews;
 import durability.snapshot.LoggingOptions;
@@ -27,19 +31,13 @@ import storage.table.RecordSchema;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.io.Serializable;
-import java.nio.ByteBuffer;
-import java.nio.channels.AsynchronousFileChannel;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
-import static java.nio.file.StandardOpenOption.READ;
 import static utils.FaultToleranceConstants.CompressionType.None;
 
 public class WALManager implements LoggingManager {
@@ -53,6 +51,8 @@ public class WALManager implements LoggingManager {
     protected final int num_items;
     protected final int delta;
     @Nonnull protected Map<String, BaseTable> tables;
+    @Nonnull protected DirectBufferPool bufferPool;
+    @Nonnull protected GroupCommitLogWriter logWriter;
     public WALManager(Map<String, BaseTable> tables, Configuration configuration) {
         this.tables = tables;
         parallelNum = configuration.getInt("parallelNum");
@@ -62,6 +62,10 @@ public class WALManager implements LoggingManager {
         metaInformation = new ConcurrentHashMap<>();
         pendingEntries = new ConcurrentHashMap<>();
         loggingOptions = new LoggingOptions(parallelNum, configuration.getString("compressionAlg"));
+        loggingOptions.setGroupCommit(configuration.getString("fsyncPolicy", "Group"), configuration.getInt("fsyncInterval", 10),
+                configuration.getInt("groupCommitWindow", 1), configuration.getInt("groupCommitBytes", 4 << 20), (long) configuration.getInt("logSegmentSize", 256) << 20);
+        bufferPool = new DirectBufferPool(LoggingOptions.CHUNK_SIZE, 2 * parallelNum + 2);
+        logWriter = new GroupCommitLogWriter(walPath, parallelNum, loggingOptions, bufferPool);
     }
 
     @Override
@@ -84,29 +88,28 @@ public class WALManager implements LoggingManager {
 
     @Override
     public void commitLog(long groupId, int partitionId, FTManager ftManager) throws IOException {
-        NIOWalStreamFactory nioWalStreamFactory = new NIOWalStreamFactory(this.walPath);
         PartitionWalResources partitionWalResources = syncPrepareResource(groupId, partitionId);
-        AsynchronousFileChannel afc = nioWalStreamFactory.createLoggingStream();
-        Attachment attachment = new Attachment(nioWalStreamFactory.getWalPath(), groupId, partitionId, afc, ftManager);
-        ByteBuffer dataBuffer = partitionWalResources.createWriteBuffer(loggingOptions);
-        afc.write(dataBuffer, 0, attachment, new LoggingHandler());
+        GroupCommitLogWriter.LogStream out = logWriter.open(groupId, partitionId, ftManager);
+        DataOutputView dataOutputView;
+        if (loggingOptions.getCompressionAlg() != None) {
+            dataOutputView = new SnappyDataOutputView(out);//Default to use Snappy compression
+        } else {
+            dataOutputView = new NativeDataOutputView(out);
+        }
+        partitionWalResources.writeTo(dataOutputView);
+        out.close();
     }
 
     @Override
     public void syncRetrieveLogs(RedoLogResult redoLogResult) throws IOException, ExecutionException, InterruptedException {
         //Redo the data value logs
-        for (String path : redoLogResult.redoLogPaths) {
-            Path walPath = Paths.get(path);
-            AsynchronousFileChannel afc = AsynchronousFileChannel.open(walPath, READ);
-            int fileSize = (int) afc.size();
-            ByteBuffer dataBuffer = ByteBuffer.allocate(fileSize);
-            Future<Integer> result = afc.read(dataBuffer, 0);
-            result.get();
+        for (int l = 0; l < redoLogResult.redoLogPaths.size(); l++) {
+            MappedFileInputStream in = RecoveryHelperProvider.openRedoLog(redoLogResult, l);//records are decoded from the mapped log.
             DataInputView inputView;
             if (loggingOptions.getCompressionAlg() != None) {
-                inputView = new SnappyDataInputView(dataBuffer);//Default to use Snappy compression
+                inputView = new SnappyDataInputView(in);//Default to use Snappy compression
             } else {
-                inputView = new NativeDataInputView(dataBuffer);
+                inputView = new NativeDataInputView(in);
             }
             int walMetaInfoSize = inputView.readInt();
             WalMetaInfoSnapshot[] walMetaInfoSnapshots = new WalMetaInfoSnapshot[walMetaInfoSize];
@@ -126,6 +129,7 @@ public class WALManager implements LoggingManager {
                     recordNum --;
                 }
             }
+            inputView.close();
         }
         LOG.info("Redo write-ahead log complete");
     }
@@ -159,6 +163,11 @@ public class WALManager implements LoggingManager {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void close() throws InterruptedException {
+        logWriter.close();
+    }
+
     public static class WriteAheadLogTableInfo implements Serializable {
         public final String tableName;
         public final RecordSchema recordSchema;
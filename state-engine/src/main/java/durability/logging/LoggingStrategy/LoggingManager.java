@@ -22,4 +22,8 @@ public interface LoggingManager {
     HashMap<String, List<Integer>> inspectTaskPlacing(long groupId, int threadId);
     HistoryViews getHistoryViews();
     void selectiveLoggingPartition(int partitionId);
+    /**
+     * Stop the log writer once every submitted log is durable, on shutdown.
+     */
+    void close() throws InterruptedException;
 }
@@ -0,0 +1,380 @@
+package durability.logging.LoggingStream;
+
+import common.collections.OsUtils;
+import common.io.ByteIO.DirectBufferPool;
+import durability.ftmanager.FTManager;
+import durability.logging.LoggingResult.LoggingResult;
+import durability.snapshot.LoggingOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.FaultToleranceConstants;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Single writer thread appending the logs of every partition to one pre-allocated segment file per partition.
+ * A partition serializes its log of a group into pooled chunks through a LogStream, the chunks are handed to the writer as soon as they are full.
+ * The writer drains chunks in batches bounded by a time and a size window, then forces the touched segments according to the fsync policy:
+ * None never forces, Group forces after every batch and Interval forces at most every fsyncInterval ms.
+ * A group commit is reported to the FTManager once its log is durable under the policy.
+ * A log that cannot be appended or forced is never reported, the failure is rethrown to its partition on the next open() so that the commit fails instead of waiting forever.
+ * A segment that fails to be forced is retired: the pages it lost are not written again by a later force, so the partition continues in a new segment.
+ */
+public class GroupCommitLogWriter implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(GroupCommitLogWriter.class);
+    private final String loggingPath;
+    private final LoggingOptions loggingOptions;
+    private final DirectBufferPool bufferPool;
+    private final Segment[] segments;
+    private final boolean[] failedLogs;//the log being written by a partition has lost a chunk.
+    private final AtomicReferenceArray<IOException> failures;//the first append failure of a partition, not yet seen by the partition.
+    private final LinkedBlockingQueue<Fragment> queue = new LinkedBlockingQueue<>();
+    private final List<Commit> pendingCommits = new ArrayList<>();//written, waiting for the next force.
+    private final Set<Segment> dirtySegments = new HashSet<>();
+    private long lastForce = System.nanoTime();
+    private volatile boolean running = true;
+    private final Thread thread;
+
+    public GroupCommitLogWriter(String loggingPath, int partitionNum, LoggingOptions loggingOptions, DirectBufferPool bufferPool) {
+        this.loggingPath = loggingPath;
+        this.loggingOptions = loggingOptions;
+        this.bufferPool = bufferPool;
+        this.segments = new Segment[partitionNum];
+        this.failedLogs = new boolean[partitionNum];
+        this.failures = new AtomicReferenceArray<>(partitionNum);
+        this.thread = new Thread(this, "GroupCommitLogWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @return the stream the log of a group is written through, closing it commits the group asynchronously.
+     * @throws IOException if a previous log of the partition failed to be appended, that group is never reported to the FTManager.
+     */
+    public LogStream open(long groupId, int partitionId, FTManager ftManager) throws IOException {
+        IOException failure = failures.getAndSet(partitionId, null);
+        if (failure != null) {
+            throw new IOException("A previous log of partition " + partitionId + " is not durable", failure);
+        }
+        return new LogStream(groupId, partitionId, ftManager);
+    }
+
+    public void close() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        List<Fragment> batch = new ArrayList<>();
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(loggingOptions.getGroupCommitWindow());
+        try {
+            while (running || !queue.isEmpty() || !pendingCommits.isEmpty()) {
+                Fragment first = queue.poll(pollTimeout(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long batchBytes = first.buffer.remaining();
+                    long deadline = System.nanoTime() + windowNanos;
+                    while (batchBytes < loggingOptions.getGroupCommitBytes()) {
+                        long remaining = deadline - System.nanoTime();
+                        Fragment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        batchBytes += next.buffer.remaining();
+                    }
+                    writeBatch(batch);
+                    batch.clear();
+                }
+                forceAndReport();
+                if (!running && queue.isEmpty()) {
+                    force();//flush the last commits whatever the policy.
+                    report();
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.info("GroupCommitLogWriter is interrupted");
+        } finally {
+            for (Segment segment : segments) {
+                if (segment != null) {
+                    try {
+                        segment.close();
+                    } catch (IOException e) {
+                        LOG.warn("Fail to close segment " + segment.path, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private long pollTimeout() {
+        if (pendingCommits.isEmpty() || loggingOptions.getFsyncPolicy() != LoggingOptions.FsyncPolicy.Interval) {
+            return 10;
+        }
+        long sinceForce = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastForce);
+        return Math.max(0, loggingOptions.getFsyncInterval() - sinceForce);
+    }
+
+    private void writeBatch(List<Fragment> batch) {
+        for (Fragment fragment : batch) {
+            try {
+                Segment segment = segmentOf(fragment.partitionId);
+                if (fragment.first) {
+                    if (segment.position >= loggingOptions.getLogSegmentSize()) {
+                        dirtySegments.remove(segment);//forced by close().
+                        try {
+                            segment.close();//a log never spans segments, roll before it starts.
+                        } catch (IOException e) {
+                            failSegment(segment, e);
+                        }
+                        segment = rollSegment(fragment.partitionId);
+                    }
+                    segment.recordStart = segment.position;
+                    failedLogs[fragment.partitionId] = false;
+                }
+                if (!failedLogs[fragment.partitionId]) {
+                    while (fragment.buffer.hasRemaining()) {
+                        segment.position += segment.channel.write(fragment.buffer, segment.position);
+                    }
+                    dirtySegments.add(segment);
+                }
+                if (fragment.commit != null) {
+                    if (failedLogs[fragment.partitionId]) {
+                        LOG.error("Log of group " + fragment.commit.groupId + " of partition " + fragment.partitionId + " is not committed");
+                    } else {
+                        fragment.commit.path = segment.path;
+                        fragment.commit.offset = segment.recordStart;
+                        fragment.commit.length = segment.position - segment.recordStart;
+                        pendingCommits.add(fragment.commit);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.error("Fail to append the log of partition " + fragment.partitionId, e);
+                failedLogs[fragment.partitionId] = true;
+                failures.compareAndSet(fragment.partitionId, null, e);
+            } finally {
+                bufferPool.release(fragment.buffer);
+            }
+        }
+    }
+
+    private void forceAndReport() {
+        switch (loggingOptions.getFsyncPolicy()) {
+            case None:
+                report();
+                break;
+            case Group:
+                force();
+                report();
+                break;
+            case Interval:
+                if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastForce) >= loggingOptions.getFsyncInterval()) {
+                    force();
+                    report();
+                }
+                break;
+        }
+    }
+
+    private void force() {
+        for (Segment segment : dirtySegments) {
+            try {
+                segment.channel.force(segment.position > segment.allocated);//metadata only changes once the segment outgrows its pre-allocation.
+            } catch (IOException e) {
+                failSegment(segment, e);
+                if (segments[segment.partitionId] == segment) {
+                    segments[segment.partitionId] = null;//the next log opens a new segment.
+                    failedLogs[segment.partitionId] = true;//the log in progress has lost its written chunks.
+                    try {
+                        segment.file.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+        dirtySegments.clear();
+        lastForce = System.nanoTime();
+    }
+
+    /**
+     * The logs written to a segment that failed to be forced are not durable: drop their commits and fail the partition.
+     */
+    private void failSegment(Segment segment, IOException e) {
+        LOG.error("Fail to force segment " + segment.path, e);
+        failures.compareAndSet(segment.partitionId, null, e);
+        pendingCommits.removeIf(commit -> {
+            if (commit.path.equals(segment.path)) {
+                LOG.error("Log of group " + commit.groupId + " of partition " + commit.partitionId + " is not committed");
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void report() {
+        for (Commit commit : pendingCommits) {
+            LoggingResult loggingResult = new LoggingResult(commit.groupId, commit.partitionId, commit.path, commit.offset, commit.length);
+            loggingResult.size = commit.length / 1024.0;
+            commit.ftManager.boltRegister(commit.partitionId, FaultToleranceConstants.FaultToleranceStatus.Persist, loggingResult);
+        }
+        pendingCommits.clear();
+    }
+
+    private Segment segmentOf(int partitionId) throws IOException {
+        Segment segment = segments[partitionId];
+        if (segment == null) {
+            segment = rollSegment(partitionId);
+        }
+        return segment;
+    }
+
+    private Segment rollSegment(int partitionId) throws IOException {
+        String path = loggingPath + OsUtils.OS_wrapper("partition" + partitionId + "-" + UUID.randomUUID() + ".log");
+        Segment segment = new Segment(path, partitionId, loggingOptions.getLogSegmentSize());
+        segments[partitionId] = segment;
+        return segment;
+    }
+
+    private static final class Segment {
+        final String path;
+        final int partitionId;
+        final RandomAccessFile file;
+        final FileChannel channel;
+        final long allocated;
+        long position;
+        long recordStart;
+
+        Segment(String path, int partitionId, long allocated) throws IOException {
+            this.path = path;
+            this.partitionId = partitionId;
+            this.file = new RandomAccessFile(path, "rw");
+            this.file.setLength(allocated);//pre-allocate, appends do not change the file size.
+            this.channel = file.getChannel();
+            this.allocated = allocated;
+        }
+
+        void close() throws IOException {
+            try {
+                channel.force(true);
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    private static final class Fragment {
+        final int partitionId;
+        final ByteBuffer buffer;
+        final boolean first;
+        final Commit commit;//not null on the last fragment of a log.
+
+        Fragment(int partitionId, ByteBuffer buffer, boolean first, Commit commit) {
+            this.partitionId = partitionId;
+            this.buffer = buffer;
+            this.first = first;
+            this.commit = commit;
+        }
+    }
+
+    private static final class Commit {
+        final long groupId;
+        final int partitionId;
+        final FTManager ftManager;
+        String path;
+        long offset;
+        long length;
+
+        Commit(long groupId, int partitionId, FTManager ftManager) {
+            this.groupId = groupId;
+            this.partitionId = partitionId;
+            this.ftManager = ftManager;
+        }
+    }
+
+    /**
+     * Log of one group of one partition. Chunks are handed to the writer once full, so a log is never held in memory as a whole;
+     * the partition blocks on the buffer pool when the writer falls behind.
+     */
+    public final class LogStream extends OutputStream {
+        private final long groupId;
+        private final int partitionId;
+        private final FTManager ftManager;
+        private ByteBuffer current;
+        private boolean first = true;
+        private boolean closed;
+
+        private LogStream(long groupId, int partitionId, FTManager ftManager) {
+            this.groupId = groupId;
+            this.partitionId = partitionId;
+            this.ftManager = ftManager;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (current == null || !current.hasRemaining()) {
+                nextChunk();
+            }
+            current.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (current == null || !current.hasRemaining()) {
+                    nextChunk();
+                }
+                int n = Math.min(len, current.remaining());
+                current.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void nextChunk() throws IOException {
+            if (current != null) {
+                submit(null);
+            }
+            try {
+                current = bufferPool.acquire();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Interrupted while waiting for a buffer");
+            }
+        }
+
+        private void submit(Commit commit) {
+            current.flip();
+            queue.add(new Fragment(partitionId, current, first, commit));
+            current = null;
+            first = false;
+        }
+
+        /**
+         * Hand the last chunk to the writer, the group is reported to the FTManager once it is durable.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (current == null) {
+                nextChunk();//an empty log still commits the group.
+            }
+            submit(new Commit(groupId, partitionId, ftManager));
+        }
+    }
+}
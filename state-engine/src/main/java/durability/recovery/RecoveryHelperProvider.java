@@ -1,16 +1,20 @@
 package durability.recovery;
 
 import common.collections.OsUtils;
+import common.io.ByteIO.MappedFileInputStream;
 import common.io.LocalFS.LocalDataInputStream;
 import common.tools.Deserialize;
 import durability.logging.LoggingResult.LoggingCommitInformation;
 import durability.snapshot.SnapshotResult.SnapshotCommitInformation;
+import durability.snapshot.SnapshotResult.SnapshotResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import utils.lib.ConcurrentHashMap;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class RecoveryHelperProvider {
@@ -34,6 +38,24 @@ public class RecoveryHelperProvider {
         }
         return commitInformation.get(commitInformation.size() - 1);
     }
+    /**
+     * @return snapshot files to reload in order: the base snapshot, the deltas chained to it, then the snapshot itself.
+     */
+    public static List<String> getSnapshotChain(SnapshotResult snapshotResult) {
+        List<String> chain = new ArrayList<>();
+        if (snapshotResult.baseChain != null) {
+            chain.addAll(Arrays.asList(snapshotResult.baseChain));
+        }
+        chain.add(snapshotResult.path);
+        return chain;
+    }
+    /**
+     * Map the i-th log of a redo log result, logs of several groups may share a segment file.
+     */
+    public static MappedFileInputStream openRedoLog(RedoLogResult redoLogResult, int i) throws IOException {
+        long[] range = redoLogResult.redoLogRanges.get(i);
+        return MappedFileInputStream.open(Paths.get(redoLogResult.redoLogPaths.get(i)), range[0], range[1]);
+    }
     public static void getCommittedLogMetaData(File recoveryFile, List<LoggingCommitInformation> committedMetaData) throws IOException {
         LocalDataInputStream inputStream = new LocalDataInputStream(recoveryFile);
         try (DataInputStream dataInputStream = new DataInputStream(inputStream)) {
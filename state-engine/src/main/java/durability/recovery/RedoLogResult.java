@@ -1,5 +1,6 @@
 package durability.recovery;
 
+import durability.logging.LoggingResult.LoggingResult;
 import durability.struct.Result.persistResult;
 
 import java.util.ArrayList;
@@ -9,10 +10,17 @@ public class RedoLogResult implements persistResult {
     public int threadId;
     public List<String> redoLogPaths = new ArrayList<>();
     public List<Long> groupIds = new ArrayList<>();
+    public List<long[]> redoLogRanges = new ArrayList<>();//<offset, length> of the log in its file.
     public long lastedGroupId;
     public void addPath(String path, long groupId) {
         this.redoLogPaths.add(path);
         this.groupIds.add(groupId);
+        this.redoLogRanges.add(new long[]{0, -1});
+    }
+    public void addLog(LoggingResult loggingResult, long groupId) {
+        this.redoLogPaths.add(loggingResult.path);
+        this.groupIds.add(groupId);
+        this.redoLogRanges.add(new long[]{loggingResult.offset, loggingResult.length});
     }
 
     public void setLastedGroupId(long lastedGroupId) {
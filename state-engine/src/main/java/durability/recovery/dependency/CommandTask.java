@@ -21,9 +21,7 @@ public class CommandTask implements Comparable<CommandTask> {
 
     @Override
     public int compareTo(CommandTask o) {
-        double thisPriority = Double.parseDouble(this.dependencyLog.id);
-        double otherPriority = Double.parseDouble(o.dependencyLog.id);
-        return Double.compare(thisPriority, otherPriority);
+        return this.dependencyLog.compareTo(o.dependencyLog);
     }
     public void addChild(CommandTask child) {
         children.add(child);
@@ -0,0 +1,401 @@
+package durability.snapshot;
+
+import common.io.ByteIO.DataInputView;
+import common.io.ByteIO.DataOutputView;
+import common.io.ByteIO.MappedFileInputStream;
+import storage.SchemaRecord;
+import storage.TableRecord;
+import storage.datatype.DataBox;
+import storage.datatype.DoubleDataBox;
+import storage.datatype.HashSetDataBox;
+import storage.datatype.StringDataBox;
+import storage.table.BaseTable;
+import storage.table.RecordSchema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot layout of one table partition.
+ * Records are sorted by key and cut into blocks, the table starts with blockNum,
+ * then every block is written as its header (recordNum, checksum) followed by the compressed block.
+ * Headers are kept inline so that a table is written and read one block at a time, whatever its size.
+ * In a block, a record is its long key followed by the other columns of the RecordSchema,
+ * primitive columns are fixed-width, string and set columns are length-prefixed.
+ */
+public class BinarySnapshotFormat {
+    public static final int RECORDS_PER_BLOCK = 1024;
+    public static final int MIN_BLOCKS_PER_SPLIT = 16;//below, decoding a range is cheaper than handing it to another thread.
+    private static final byte LONG = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte FLOAT = 2;
+    private static final byte INT = 3;
+    private static final byte BOOL = 4;
+    private static final byte STRING = 5;
+    private static final byte SET = 6;
+
+    private static byte[] columnKinds(RecordSchema recordSchema) {
+        List<DataBox> fieldTypes = recordSchema.getFieldTypes();
+        byte[] kinds = new byte[fieldTypes.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            DataBox field = fieldTypes.get(i);
+            switch (field.type()) {
+                case LONG:
+                    kinds[i] = LONG;
+                    break;
+                case FLOAT:
+                    kinds[i] = field instanceof DoubleDataBox ? DOUBLE : FLOAT;
+                    break;
+                case INT:
+                    kinds[i] = INT;
+                    break;
+                case BOOL:
+                    kinds[i] = BOOL;
+                    break;
+                case STRING:
+                    kinds[i] = STRING;
+                    break;
+                case OTHERS:
+                    kinds[i] = SET;
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Column " + i + " of type " + field.type() + " can not be snapshot");
+            }
+        }
+        return kinds;
+    }
+
+    public static void writeTable(DataOutputView dataOutputView, RecordSchema recordSchema, Collection<TableRecord> records, long snapshotId) throws IOException {
+        byte[] kinds = columnKinds(recordSchema);
+        List<TableRecord> sorted = new ArrayList<>(records);
+        sorted.sort((o1, o2) -> Long.compare(o1.getLongKey(), o2.getLongKey()));
+        int blockNum = (sorted.size() + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK;
+        dataOutputView.writeInt(blockNum);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream block = new DataOutputStream(bytes);
+        for (int b = 0; b < blockNum; b++) {
+            int from = b * RECORDS_PER_BLOCK;
+            int to = Math.min(from + RECORDS_PER_BLOCK, sorted.size());
+            bytes.reset();
+            for (int r = from; r < to; r++) {
+                TableRecord tableRecord = sorted.get(r);
+                writeRecord(block, kinds, tableRecord.getLongKey(), tableRecord.content_.ReadAccess(snapshotId, false));
+            }
+            block.flush();
+            writeBlock(dataOutputView, to - from, bytes.toByteArray());
+        }
+    }
+
+    /**
+     * Merge the same table read from a chain of snapshot files, the record of a later reader replaces the one of an earlier reader.
+     * Readers are consumed in key order one block at a time, so the merge never holds a table in memory.
+     *
+     * @param recordNum number of merged records, counted beforehand by countMergedRecords as blockNum comes first.
+     */
+    public static void writeMergedTable(DataOutputView dataOutputView, RawTableReader[] readers, int recordNum) throws IOException {
+        dataOutputView.writeInt((recordNum + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int written = 0;
+        int inBlock = 0;
+        for (int r = nextMerged(readers); r != -1; r = nextMerged(readers)) {
+            readers[r].copyRecord(bytes);
+            readers[r].advance();
+            written++;
+            if (++inBlock == RECORDS_PER_BLOCK) {
+                writeBlock(dataOutputView, inBlock, bytes.toByteArray());
+                bytes.reset();
+                inBlock = 0;
+            }
+        }
+        if (inBlock > 0) {
+            writeBlock(dataOutputView, inBlock, bytes.toByteArray());
+        }
+        if (written != recordNum) {
+            throw new IOException("Merged " + written + " records instead of " + recordNum);
+        }
+    }
+
+    /**
+     * @return number of distinct keys of the tables, the readers are left at the end of the table.
+     */
+    public static int countMergedRecords(RawTableReader[] readers) throws IOException {
+        int recordNum = 0;
+        for (int r = nextMerged(readers); r != -1; r = nextMerged(readers)) {
+            readers[r].advance();
+            recordNum++;
+        }
+        return recordNum;
+    }
+
+    /**
+     * Find the smallest key of the readers, the readers holding it are advanced except the latest one, whose record is kept.
+     *
+     * @return index of the reader holding the kept record, -1 once every reader is exhausted.
+     */
+    private static int nextMerged(RawTableReader[] readers) throws IOException {
+        int latest = -1;
+        for (int i = 0; i < readers.length; i++) {
+            if (readers[i].hasRecord() && (latest == -1 || readers[i].key() <= readers[latest].key())) {
+                latest = i;
+            }
+        }
+        for (int i = 0; i < latest; i++) {
+            if (readers[i].hasRecord() && readers[i].key() == readers[latest].key()) {
+                readers[i].advance();
+            }
+        }
+        return latest;
+    }
+
+    private static void writeBlock(DataOutputView dataOutputView, int recordNum, byte[] block) throws IOException {
+        CRC32 crc32 = new CRC32();
+        crc32.update(block, 0, block.length);
+        dataOutputView.writeInt(recordNum);
+        dataOutputView.writeLong(crc32.getValue());
+        dataOutputView.writeCompression(block);
+    }
+
+    private static void writeRecord(DataOutputStream block, byte[] kinds, long key, SchemaRecord record) throws IOException {
+        block.writeLong(key);
+        for (int i = 1; i < kinds.length; i++) {//the key is always the first column.
+            switch (kinds[i]) {
+                case LONG:
+                    block.writeLong(record.getLong(i));
+                    break;
+                case DOUBLE:
+                    block.writeDouble(record.getDouble(i));
+                    break;
+                case FLOAT:
+                    block.writeFloat(record.getColumn(i).getFloat());
+                    break;
+                case INT:
+                    block.writeInt(record.getColumn(i).getInt());
+                    break;
+                case BOOL:
+                    block.writeBoolean(record.getColumn(i).getBool());
+                    break;
+                case STRING:
+                    byte[] string = record.getColumn(i).getString().getBytes(StandardCharsets.UTF_8);
+                    block.writeInt(string.length);
+                    block.write(string);
+                    break;
+                case SET:
+                    HashSet<?> set = record.getColumn(i).getHashSet();
+                    block.writeInt(set.size());
+                    for (Object item : set) {
+                        block.writeInt((Integer) item);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reload a table written by writeTable, every record becomes the version of its TableRecord at snapshotId.
+     *
+     * @return number of records reloaded.
+     */
+    public static int readTable(DataInputView inputView, RecordSchema recordSchema, BaseTable table, String tableName, long snapshotId) throws IOException {
+        byte[] kinds = columnKinds(recordSchema);
+        int blockNum = inputView.readInt();
+        int reloaded = 0;
+        for (int b = 0; b < blockNum; b++) {
+            reloaded += readBlock(inputView, kinds, table, tableName, b, snapshotId);
+        }
+        return reloaded;
+    }
+
+    /**
+     * Find the blocks of a table by reading their headers only, compressed blocks are skipped.
+     * The view is left at the end of the table.
+     *
+     * @return start offset of every block in the mapped file.
+     */
+    public static long[] scanBlocks(DataInputView inputView, MappedFileInputStream in) throws IOException {
+        long[] offsets = new long[inputView.readInt()];
+        for (int b = 0; b < offsets.length; b++) {
+            offsets[b] = in.position();
+            BlockHeader.read(inputView);
+            inputView.skipFullyDecompression();
+        }
+        return offsets;
+    }
+
+    /**
+     * Reload the blocks of a range found by scanBlocks, ranges of a table hold distinct keys and can be reloaded concurrently.
+     *
+     * @param in the range, read through inputView.
+     * @return number of records reloaded.
+     */
+    public static int readBlocks(DataInputView inputView, MappedFileInputStream in, RecordSchema recordSchema, BaseTable table, String tableName, long snapshotId) throws IOException {
+        byte[] kinds = columnKinds(recordSchema);
+        int reloaded = 0;
+        for (int b = 0; in.position() < in.getEnd(); b++) {
+            reloaded += readBlock(inputView, kinds, table, tableName, b, snapshotId);
+        }
+        return reloaded;
+    }
+
+    private static int readBlock(DataInputView inputView, byte[] kinds, BaseTable table, String tableName, int b, long snapshotId) throws IOException {
+        BlockHeader header = BlockHeader.read(inputView);
+        ByteBuffer block = header.readBlock(inputView, b, tableName);
+        for (int r = 0; r < header.recordNum; r++) {
+            long key = block.getLong();
+            TableRecord tableRecord = table.SelectKeyRecord(key);
+            if (tableRecord == null) {//tables hold every key before the snapshot is reloaded, a missing one means the snapshot is not of these tables.
+                throw new IOException("Record " + key + " of snapshot block " + b + " of table " + tableName + " is not in the table");
+            }
+            SchemaRecord record = readRecord(block, kinds, tableRecord.record_);
+            tableRecord.content_.updateMultiValues(snapshotId, 0L, false, record);
+        }
+        return header.recordNum;
+    }
+
+    private static void skipRecord(ByteBuffer block, byte[] kinds) {
+        for (int i = 1; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case LONG:
+                case DOUBLE:
+                    block.position(block.position() + 8);
+                    break;
+                case FLOAT:
+                case INT:
+                    block.position(block.position() + 4);
+                    break;
+                case BOOL:
+                    block.position(block.position() + 1);
+                    break;
+                case STRING:
+                    int length = block.getInt();
+                    block.position(block.position() + length);
+                    break;
+                case SET:
+                    int size = block.getInt();
+                    block.position(block.position() + 4 * size);
+                    break;
+            }
+        }
+    }
+
+    private static SchemaRecord readRecord(ByteBuffer block, byte[] kinds, SchemaRecord base) {
+        SchemaRecord record = new SchemaRecord(base);//reuse the key column of the table record.
+        for (int i = 1; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case LONG:
+                    record.setLong(i, block.getLong());
+                    break;
+                case DOUBLE:
+                    record.setDouble(i, block.getDouble());
+                    break;
+                case FLOAT:
+                    record.getColumn(i).setFloat(block.getFloat());
+                    break;
+                case INT:
+                    record.getColumn(i).setInt(block.getInt());
+                    break;
+                case BOOL:
+                    record.getColumn(i).setBool(block.get() != 0);
+                    break;
+                case STRING:
+                    byte[] string = new byte[block.getInt()];
+                    block.get(string);
+                    String s = new String(string, StandardCharsets.UTF_8);
+                    record.setColumn(i, new StringDataBox(s, s.length()));
+                    break;
+                case SET:
+                    int size = block.getInt();
+                    HashSet<Integer> set = new HashSet<>(size * 2);
+                    for (int j = 0; j < size; j++) {
+                        set.add(block.getInt());
+                    }
+                    record.setColumn(i, new HashSetDataBox(set));
+                    break;
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Records of a table in key order without decoding them, blocks are decompressed one at a time.
+     * The reader is positioned on the first record once created, and at the end of the table once exhausted.
+     */
+    public static final class RawTableReader {
+        private final DataInputView inputView;
+        private final byte[] kinds;
+        private final String tableName;
+        private final int blockNum;
+        private int blockIndex;
+        private ByteBuffer block;
+        private int remaining;//records left in block.
+        private int start;
+        private boolean hasRecord;
+        private long key;
+
+        public RawTableReader(DataInputView inputView, RecordSchema recordSchema, String tableName) throws IOException {
+            this.inputView = inputView;
+            this.kinds = columnKinds(recordSchema);
+            this.tableName = tableName;
+            this.blockNum = inputView.readInt();
+            advance();
+        }
+
+        void advance() throws IOException {
+            while (remaining == 0) {
+                if (blockIndex == blockNum) {
+                    hasRecord = false;
+                    return;
+                }
+                BlockHeader header = BlockHeader.read(inputView);
+                block = header.readBlock(inputView, blockIndex++, tableName);
+                remaining = header.recordNum;
+            }
+            start = block.position();
+            key = block.getLong();
+            skipRecord(block, kinds);
+            remaining--;
+            hasRecord = true;
+        }
+
+        boolean hasRecord() {
+            return hasRecord;
+        }
+
+        long key() {
+            return key;
+        }
+
+        void copyRecord(ByteArrayOutputStream out) {
+            out.write(block.array(), start, block.position() - start);
+        }
+    }
+
+    private static final class BlockHeader {
+        int recordNum;
+        long checksum;
+
+        static BlockHeader read(DataInputView inputView) throws IOException {
+            BlockHeader header = new BlockHeader();
+            header.recordNum = inputView.readInt();
+            header.checksum = inputView.readLong();
+            return header;
+        }
+
+        ByteBuffer readBlock(DataInputView inputView, int b, String tableName) throws IOException {
+            byte[] bytes = inputView.readFullyDecompression();
+            CRC32 crc32 = new CRC32();
+            crc32.update(bytes, 0, bytes.length);
+            if (crc32.getValue() != checksum) {
+                throw new IOException("Snapshot block " + b + " of table " + tableName + " is corrupted");
+            }
+            return ByteBuffer.wrap(bytes);
+        }
+    }
+}
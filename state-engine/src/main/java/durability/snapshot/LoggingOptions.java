@@ -3,10 +3,19 @@ package durability.snapshot;
 import utils.FaultToleranceConstants;
 
 public class LoggingOptions {
+    public static final int CHUNK_SIZE = 1 << 20;//size of the direct buffers files are written and read through.
     private int parallelNum;
     private FaultToleranceConstants.CompressionType compressionAlg;
     private boolean isSelectiveLog = false;
     private int max_itr = 0;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.Group;
+    private int fsyncInterval = 10;//ms, with the Interval policy.
+    private int groupCommitWindow = 1;//ms a batch of the log writer waits for more chunks.
+    private long groupCommitBytes = 4L << 20;//a batch of the log writer is written once it holds that many bytes.
+    private long logSegmentSize = 256L << 20;
+    public enum FsyncPolicy {
+        None, Group, Interval
+    }
     public LoggingOptions() {
         parallelNum = 1;
         compressionAlg = FaultToleranceConstants.CompressionType.None;
@@ -60,4 +69,26 @@ public class LoggingOptions {
     public FaultToleranceConstants.CompressionType getCompressionAlg() {
         return compressionAlg;
     }
+    public void setGroupCommit(String fsyncPolicy, int fsyncInterval, int groupCommitWindow, long groupCommitBytes, long logSegmentSize) {
+        this.fsyncPolicy = FsyncPolicy.valueOf(fsyncPolicy);
+        this.fsyncInterval = fsyncInterval;
+        this.groupCommitWindow = groupCommitWindow;
+        this.groupCommitBytes = groupCommitBytes;
+        this.logSegmentSize = logSegmentSize;
+    }
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+    public int getFsyncInterval() {
+        return fsyncInterval;
+    }
+    public int getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+    public long getGroupCommitBytes() {
+        return groupCommitBytes;
+    }
+    public long getLogSegmentSize() {
+        return logSegmentSize;
+    }
 }
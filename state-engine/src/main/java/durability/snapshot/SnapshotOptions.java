@@ -3,6 +3,7 @@ package durability.snapshot;
 import utils.FaultToleranceConstants;
 
 public class SnapshotOptions {
+    public static final int CHUNK_SIZE = 1 << 20;//size of the direct buffers files are written and read through.
     private int parallelNum;
     private FaultToleranceConstants.CompressionType compressionAlg;
     public SnapshotOptions() {
@@ -0,0 +1,26 @@
+package durability.snapshot.SnapshotResources.ImplSnapshotResources;
+
+import content.common.VersionedContent;
+import durability.snapshot.SnapshotStrategy.ImplSnapshotStrategy.InMemorySnapshotStrategy;
+import storage.TableRecord;
+import storage.table.BaseTable;
+
+import java.util.Map;
+
+/**
+ * Only the records dirtied since the previous snapshot of the partition.
+ * A record is dirty if the version read by this snapshot was written after the previous snapshot.
+ */
+public class InMemoryDeltaSnapshotResources extends InMemoryFullSnapshotResources {
+
+    public InMemoryDeltaSnapshotResources(long snapshotId, int partitionId, Map<String, InMemorySnapshotStrategy.InMemoryKvStateInfo> kvStateInformation, Map<String, BaseTable> tables, long previousSnapshotId) {
+        super(snapshotId, partitionId, kvStateInformation, tables, tableRecord -> isDirty(tableRecord, snapshotId, previousSnapshotId));
+    }
+
+    private static boolean isDirty(TableRecord tableRecord, long snapshotId, long previousSnapshotId) {
+        if (!(tableRecord.content_ instanceof VersionedContent)) {
+            return true;
+        }
+        return ((VersionedContent) tableRecord.content_).getVisibleBid(snapshotId) >= previousSnapshotId;
+    }
+}
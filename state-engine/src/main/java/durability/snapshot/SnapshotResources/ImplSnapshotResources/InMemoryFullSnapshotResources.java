@@ -4,6 +4,7 @@ import common.io.ByteIO.DataOutputView;
 import common.io.ByteIO.OutputWithCompression.*;
 import common.io.Compressor.RLECompressor;
 import common.tools.Serialize;
+import durability.snapshot.BinarySnapshotFormat;
 import durability.snapshot.SnapshotOptions;
 import durability.snapshot.SnapshotResources.SnapshotResources;
 import durability.snapshot.SnapshotResources.StateMetaInfoSnapshot;
@@ -14,8 +15,8 @@ import utils.FaultToleranceConstants;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Predicate;
 
 import static utils.FaultToleranceConstants.END_OF_TABLE_GROUP_MARK;
 
@@ -27,9 +28,16 @@ public class InMemoryFullSnapshotResources implements SnapshotResources {
     private int partitionId;
 
     public InMemoryFullSnapshotResources(long snapshotId, int partitionId, Map<String, InMemorySnapshotStrategy.InMemoryKvStateInfo> kvStateInformation, Map<String, BaseTable> tables) {
+        this(snapshotId, partitionId, kvStateInformation, tables, null);
+    }
+
+    /**
+     * @param filter only the records it accepts are written, null to write all of them.
+     */
+    protected InMemoryFullSnapshotResources(long snapshotId, int partitionId, Map<String, InMemorySnapshotStrategy.InMemoryKvStateInfo> kvStateInformation, Map<String, BaseTable> tables, Predicate<TableRecord> filter) {
         this.snapshotId = snapshotId;
         this.partitionId = partitionId;
-        createSnapshotResources(tables);
+        createSnapshotResources(tables, filter);
         createStateMetaInfoSnapshot(kvStateInformation);
     }
 
@@ -40,9 +48,19 @@ public class InMemoryFullSnapshotResources implements SnapshotResources {
             this.stateMetaInfoSnapshots.add(stateMetaInfoSnapshot);
         }
     }
-    private void createSnapshotResources(Map<String, BaseTable> tables) {
+    private void createSnapshotResources(Map<String, BaseTable> tables, Predicate<TableRecord> filter) {
         for (Map.Entry<String, BaseTable> table:tables.entrySet()) {
-            snapshotResource.put(table.getKey(), table.getValue().getTableIndexByPartitionId(this.partitionId));
+            HashMap<String, TableRecord> records = table.getValue().getTableIndexByPartitionId(this.partitionId);
+            if (filter != null) {
+                HashMap<String, TableRecord> selected = new HashMap<>();
+                for (Map.Entry<String, TableRecord> record : records.entrySet()) {
+                    if (filter.test(record.getValue())) {
+                        selected.put(record.getKey(), record.getValue());
+                    }
+                }
+                records = selected;
+            }
+            snapshotResource.put(table.getKey(), records);
         }
     }
 
@@ -53,9 +71,16 @@ public class InMemoryFullSnapshotResources implements SnapshotResources {
         } else {
             dataOutputView = new NativeDataOutputView();
         }
+        writeTo(dataOutputView);
+        return ByteBuffer.wrap(dataOutputView.getByteArray());
+    }
+
+    /**
+     * Write the snapshot through the given view, blocks are handed to it one by one.
+     */
+    public void writeTo(DataOutputView dataOutputView) throws IOException {
         writeKVStateMetaData(dataOutputView);
         writeKVStateDate(dataOutputView);
-        return ByteBuffer.wrap(dataOutputView.getByteArray());
     }
 
     private void writeKVStateMetaData(DataOutputView dataOutputView) throws IOException {
@@ -72,12 +97,7 @@ public class InMemoryFullSnapshotResources implements SnapshotResources {
     private void writeKVStateDate(DataOutputView dataOutputView) throws IOException {
         for (StateMetaInfoSnapshot stateMetaInfoSnapshot : stateMetaInfoSnapshots) {
             HashMap<String, TableRecord> tables = snapshotResource.get(stateMetaInfoSnapshot.tableName);
-            Iterator<TableRecord> recordIterator = tables.values().iterator();
-            while (recordIterator.hasNext()) {
-                TableRecord tableRecord = recordIterator.next();
-                String str = tableRecord.toSerializableString(this.snapshotId);
-                dataOutputView.writeCompression(str.getBytes(StandardCharsets.UTF_8));
-            }
+            BinarySnapshotFormat.writeTable(dataOutputView, stateMetaInfoSnapshot.recordSchema, tables.values(), this.snapshotId);
         }
     }
 
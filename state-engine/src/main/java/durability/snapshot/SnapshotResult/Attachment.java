@@ -11,6 +11,7 @@ public class Attachment {
     public int partitionId;
     public AsynchronousFileChannel asyncChannel;
     public FTManager ftManager;
+    public String[] baseChain;
 
     public Attachment(Path path, long snapshotId, int partitionId, AsynchronousFileChannel asyncChannel, FTManager ftManager) {
         this.asyncChannel = asyncChannel;
@@ -20,6 +21,8 @@ public class Attachment {
         this.ftManager = ftManager;
     }
     public SnapshotResult getSnapshotResult() {
-        return new SnapshotResult(this.snapshotId, this.partitionId, this.path.toString());
+        SnapshotResult snapshotResult = new SnapshotResult(this.snapshotId, this.partitionId, this.path.toString());
+        snapshotResult.baseChain = this.baseChain;
+        return snapshotResult;
     }
 }
\ No newline at end of file
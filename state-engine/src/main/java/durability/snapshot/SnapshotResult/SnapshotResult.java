@@ -15,6 +15,7 @@ public class SnapshotResult implements Serializable, persistResult {
     public final long snapshotId;
     public final int partitionId;
     public transient double size;//in KB
+    public String[] baseChain;//base snapshot and earlier deltas to reload before this one, null for a full snapshot.
 
 
     public SnapshotResult(long snapshotId, int partitionId, String path) {
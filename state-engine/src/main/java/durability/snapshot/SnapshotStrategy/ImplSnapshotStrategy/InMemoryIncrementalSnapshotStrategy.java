@@ -0,0 +1,225 @@
+package durability.snapshot.SnapshotStrategy.ImplSnapshotStrategy;
+
+import common.io.ByteIO.AsyncChunkedOutputStream;
+import common.io.ByteIO.DataInputView;
+import common.io.ByteIO.DataOutputView;
+import common.tools.Serialize;
+import content.common.VersionWatermark;
+import durability.ftmanager.FTManager;
+import durability.snapshot.BinarySnapshotFormat;
+import durability.snapshot.SnapshotOptions;
+import durability.snapshot.SnapshotResources.ImplSnapshotResources.InMemoryDeltaSnapshotResources;
+import durability.snapshot.SnapshotResources.ImplSnapshotResources.InMemoryFullSnapshotResources;
+import durability.snapshot.SnapshotResources.StateMetaInfoSnapshot;
+import durability.snapshot.SnapshotStream.ImplSnapshotStreamFactory.NIOSnapshotStreamFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import storage.table.BaseTable;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The first snapshot of a partition is a full one, the following ones only hold the records dirtied since the previous snapshot
+ * and are chained to it. Once a chain grows over maxDeltaChain files, the files are merged into a new base in the background.
+ * The merged files are deleted once a snapshot chained to the new base is committed, the committed snapshots before it still reload them.
+ */
+public class InMemoryIncrementalSnapshotStrategy extends InMemorySnapshotStrategy {
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryIncrementalSnapshotStrategy.class);
+    private static final String DESCRIPTION = "Incremental snapshot of In-Memory Database";
+    private final int maxDeltaChain;
+    //<partitionId, chain of snapshot files>
+    private final ConcurrentHashMap<Integer, SnapshotChain> chains = new ConcurrentHashMap<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "SnapshotCompactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InMemoryIncrementalSnapshotStrategy(Map<String, BaseTable> tables, SnapshotOptions snapshotOptions, String snapshotPath, int maxDeltaChain) {
+        super(tables, snapshotOptions, snapshotPath);
+        this.maxDeltaChain = maxDeltaChain;
+    }
+
+    @Override
+    public void asyncSnapshot(long snapshotId, int partitionId, FTManager ftManager) throws IOException {
+        SnapshotChain chain = chains.computeIfAbsent(partitionId, k -> new SnapshotChain());
+        synchronized (chain) {
+            deleteSuperseded(chain);
+            InMemoryFullSnapshotResources resources;
+            String[] baseChain;
+            if (chain.paths.isEmpty()) {
+                resources = syncPrepareResources(snapshotId, partitionId);
+                baseChain = null;
+            } else {
+                resources = new InMemoryDeltaSnapshotResources(snapshotId, partitionId, kvStateInformation, tables, chain.lastSnapshotId);
+                baseChain = chain.paths.toArray(new String[0]);
+            }
+            Path path = writeSnapshot(resources, snapshotId, partitionId, baseChain, ftManager);
+            if (chain.paths.size() >= maxDeltaChain && !chain.compacting) {
+                //the file just written may still be in flight, it is left out of the compaction.
+                chain.compacting = true;
+                List<String> toMerge = new ArrayList<>(chain.paths);
+                compactor.submit(() -> compact(chain, toMerge));
+            }
+            chain.paths.add(path.toString());
+            chain.lastSnapshotId = snapshotId;
+            if (!chain.superseded.isEmpty() && chain.supersededUntil == 0) {
+                chain.supersededUntil = snapshotId;//the first snapshot that does not reload the superseded files.
+            }
+        }
+    }
+
+    /**
+     * Delete the merged files once the first snapshot chained to their merge is committed,
+     * the watermark follows the committed snapshots when the FTManager commits them (see VersionWatermark).
+     */
+    private void deleteSuperseded(SnapshotChain chain) {
+        if (chain.supersededUntil == 0 || VersionWatermark.get() < chain.supersededUntil) {
+            return;
+        }
+        for (String path : chain.superseded) {
+            try {
+                Files.deleteIfExists(Paths.get(path));
+            } catch (IOException e) {
+                LOG.warn("Fail to delete the compacted snapshot " + path, e);
+            }
+        }
+        chain.superseded.clear();
+        chain.supersededUntil = 0;
+    }
+
+    private void compact(SnapshotChain chain, List<String> toMerge) {
+        try {
+            String merged = mergeSnapshotFiles(toMerge);
+            synchronized (chain) {
+                List<String> prefix = chain.paths.subList(0, toMerge.size());
+                if (prefix.equals(toMerge)) {
+                    prefix.clear();
+                    chain.paths.add(0, merged);
+                    chain.superseded.addAll(toMerge);
+                    chain.supersededUntil = 0;//wait for a snapshot chained to merged.
+                } else {
+                    Files.deleteIfExists(Paths.get(merged));
+                }
+            }
+            LOG.info("Compact " + toMerge.size() + " snapshot files into " + merged);
+        } catch (Exception e) {
+            LOG.warn("Snapshot compaction fails, keep the chain", e);
+        } finally {
+            synchronized (chain) {
+                chain.compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Merge a chain of snapshot files, the records of a later file replace the ones of an earlier file.
+     * Tables are merged in key order from all files at once, the files are read twice: to count the merged records, then to write them.
+     *
+     * @return path of the merged file.
+     */
+    private String mergeSnapshotFiles(List<String> paths) throws Exception {
+        StateMetaInfoSnapshot[] stateMetaInfo = null;
+        int[] recordNums = null;
+        DataInputView[] inputViews = openSnapshotFiles(paths);
+        try {
+            stateMetaInfo = readChainStateMetaInfo(inputViews, paths);
+            recordNums = new int[stateMetaInfo.length];
+            for (int t = 0; t < stateMetaInfo.length; t++) {
+                recordNums[t] = BinarySnapshotFormat.countMergedRecords(openTable(inputViews, stateMetaInfo[t]));
+            }
+        } finally {
+            closeAll(inputViews);
+        }
+        NIOSnapshotStreamFactory nioSnapshotStreamFactory = new NIOSnapshotStreamFactory(this.snapshotPath, snapshotOptions.getCompressionAlg());
+        AsynchronousFileChannel afc = nioSnapshotStreamFactory.createSnapshotStream();
+        DataOutputView dataOutputView = createOutputView(new AsyncChunkedOutputStream(afc, bufferPool));
+        dataOutputView.writeInt(stateMetaInfo.length);
+        for (int t = 0; t < stateMetaInfo.length; t++) {
+            stateMetaInfo[t].setRecordNum(recordNums[t]);
+            dataOutputView.writeCompression(Serialize.serializeObject(stateMetaInfo[t]));
+        }
+        inputViews = openSnapshotFiles(paths);
+        try {
+            readChainStateMetaInfo(inputViews, paths);
+            for (int t = 0; t < stateMetaInfo.length; t++) {
+                BinarySnapshotFormat.writeMergedTable(dataOutputView, openTable(inputViews, stateMetaInfo[t]), recordNums[t]);
+            }
+        } finally {
+            closeAll(inputViews);
+        }
+        dataOutputView.close();//wait until the merged file is on disk.
+        afc.close();
+        return nioSnapshotStreamFactory.getSnapshotPath().toString();
+    }
+
+    private DataInputView[] openSnapshotFiles(List<String> paths) throws IOException {
+        DataInputView[] inputViews = new DataInputView[paths.size()];
+        try {
+            for (int i = 0; i < inputViews.length; i++) {
+                inputViews[i] = openSnapshotFile(paths.get(i));
+            }
+        } catch (IOException e) {
+            closeAll(inputViews);
+            throw e;
+        }
+        return inputViews;
+    }
+
+    private static void closeAll(DataInputView[] inputViews) throws IOException {
+        for (DataInputView inputView : inputViews) {
+            if (inputView != null) {
+                inputView.close();
+            }
+        }
+    }
+
+    /**
+     * Every file of a chain holds the registered tables in the same order, their tables are read side by side.
+     */
+    private static StateMetaInfoSnapshot[] readChainStateMetaInfo(DataInputView[] inputViews, List<String> paths) throws IOException {
+        StateMetaInfoSnapshot[] base = readStateMetaInfo(inputViews[0]);
+        for (int i = 1; i < inputViews.length; i++) {
+            StateMetaInfoSnapshot[] delta = readStateMetaInfo(inputViews[i]);
+            boolean same = delta.length == base.length;
+            for (int t = 0; same && t < base.length; t++) {
+                same = delta[t].tableName.equals(base[t].tableName);
+            }
+            if (!same) {
+                throw new IOException("Snapshot " + paths.get(i) + " does not hold the tables of " + paths.get(0));
+            }
+        }
+        return base;
+    }
+
+    private static BinarySnapshotFormat.RawTableReader[] openTable(DataInputView[] inputViews, StateMetaInfoSnapshot stateMetaInfoSnapshot) throws IOException {
+        BinarySnapshotFormat.RawTableReader[] readers = new BinarySnapshotFormat.RawTableReader[inputViews.length];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new BinarySnapshotFormat.RawTableReader(inputViews[i], stateMetaInfoSnapshot.recordSchema, stateMetaInfoSnapshot.tableName);
+        }
+        return readers;
+    }
+
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
+    }
+
+    private static class SnapshotChain {
+        private final List<String> paths = new ArrayList<>();//base first.
+        private final List<String> superseded = new ArrayList<>();//merged files still reloaded by committed snapshots.
+        private long supersededUntil;//snapshot to commit before deleting superseded, 0 until it is taken.
+        private long lastSnapshotId;
+        private boolean compacting;
+    }
+}
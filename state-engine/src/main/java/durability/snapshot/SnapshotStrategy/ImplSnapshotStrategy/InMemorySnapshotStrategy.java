@@ -1,12 +1,18 @@
 package durability.snapshot.SnapshotStrategy.ImplSnapshotStrategy;
 
+import common.io.ByteIO.AsyncChunkedInputStream;
+import common.io.ByteIO.AsyncChunkedOutputStream;
 import common.io.ByteIO.DataInputView;
+import common.io.ByteIO.DataOutputView;
+import common.io.ByteIO.DirectBufferPool;
+import common.io.ByteIO.MappedFileInputStream;
 import common.io.ByteIO.InputWithDecompression.*;
 import common.io.ByteIO.OutputWithCompression.*;
 import common.io.Compressor.RLECompressor;
 import common.tools.Deserialize;
-import durability.ftmanager.AbstractRecoveryManager;
 import durability.ftmanager.FTManager;
+import durability.recovery.RecoveryHelperProvider;
+import durability.snapshot.BinarySnapshotFormat;
 import durability.snapshot.SnapshotOptions;
 import durability.snapshot.SnapshotResources.ImplSnapshotResources.InMemoryFullSnapshotResources;
 import durability.snapshot.SnapshotResources.StateMetaInfoSnapshot;
@@ -17,24 +23,25 @@ import durability.snapshot.SnapshotStrategy.SnapshotStrategy;
 import durability.snapshot.SnapshotStream.ImplSnapshotStreamFactory.NIOSnapshotStreamFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import storage.SchemaRecord;
 import storage.table.BaseTable;
 import storage.table.RecordSchema;
 import utils.FaultToleranceConstants;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
-import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
-import static java.nio.file.StandardOpenOption.READ;
 import static utils.FaultToleranceConstants.CompressionType.None;
 import static utils.FaultToleranceConstants.CompressionType.RLE;
 
@@ -44,12 +51,15 @@ public class InMemorySnapshotStrategy implements SnapshotStrategy<InMemoryFullSn
     @Nonnull protected SnapshotOptions snapshotOptions;
     @Nonnull protected String snapshotPath;
     @Nonnull protected ConcurrentHashMap<String, InMemoryKvStateInfo> kvStateInformation = new ConcurrentHashMap<>();
+    @Nonnull protected DirectBufferPool bufferPool;
     private static final String DESCRIPTION = "Full snapshot of In-Memory Database";
 
     public InMemorySnapshotStrategy(Map<String, BaseTable> tables, SnapshotOptions snapshotOptions, String snapshotPath) {
         this.tables = tables;
         this.snapshotOptions = snapshotOptions;
         this.snapshotPath = snapshotPath;
+        //a reader holds two chunks, a writer one being filled plus the ones in flight.
+        this.bufferPool = new DirectBufferPool(SnapshotOptions.CHUNK_SIZE, 2 * snapshotOptions.getParallelNum() + 2);
     }
     @Override
     public InMemoryFullSnapshotResources syncPrepareResources(long snapshotId, int partitionId) {
@@ -64,12 +74,30 @@ public class InMemorySnapshotStrategy implements SnapshotStrategy<InMemoryFullSn
 
     @Override
     public void asyncSnapshot(long snapshotId, int partitionId, FTManager ftManager) throws IOException {
+        writeSnapshot(syncPrepareResources(snapshotId, partitionId), snapshotId, partitionId, null, ftManager);
+    }
+
+    /**
+     * @param baseChain snapshot files the written one applies on, null if it is self-contained.
+     * @return path of the snapshot file.
+     */
+    protected Path writeSnapshot(InMemoryFullSnapshotResources resources, long snapshotId, int partitionId, String[] baseChain, FTManager ftManager) throws IOException {
         NIOSnapshotStreamFactory nioSnapshotStreamFactory = new NIOSnapshotStreamFactory(this.snapshotPath, snapshotOptions.getCompressionAlg());
-        InMemoryFullSnapshotResources inMemoryFullSnapshotResources = syncPrepareResources(snapshotId, partitionId);
         AsynchronousFileChannel afc = nioSnapshotStreamFactory.createSnapshotStream();
         Attachment attachment = new Attachment(nioSnapshotStreamFactory.getSnapshotPath(), snapshotId, partitionId, afc, ftManager);
-        ByteBuffer dataBuffer = inMemoryFullSnapshotResources.createWriteBuffer(snapshotOptions);
-        afc.write(dataBuffer, 0, attachment, new SnapshotHandler());
+        attachment.baseChain = baseChain;
+        AsyncChunkedOutputStream out = new AsyncChunkedOutputStream(afc, bufferPool);
+        resources.writeTo(createOutputView(out));
+        out.closeAsync(attachment, new SnapshotHandler());
+        return nioSnapshotStreamFactory.getSnapshotPath();
+    }
+
+    protected DataOutputView createOutputView(AsyncChunkedOutputStream out) {
+        if (snapshotOptions.getCompressionAlg() != None) {
+            return new SnappyDataOutputView(out);//Default to use Snappy compression
+        } else {
+            return new NativeDataOutputView(out);
+        }
     }
 
     @Override
@@ -85,36 +113,68 @@ public class InMemorySnapshotStrategy implements SnapshotStrategy<InMemoryFullSn
             this.recordSchema = recordSchema;
         }
     }
+    @Override
     public void syncRecoveryFromSnapshot(SnapshotResult snapshotResult) throws IOException, ExecutionException, InterruptedException {
-        String path = snapshotResult.path;
-        Path snapshotPath = Paths.get(path);
-        AsynchronousFileChannel afc = AsynchronousFileChannel.open(snapshotPath, READ);
-        int fileSize = (int) afc.size();
-        ByteBuffer dataBuffer = ByteBuffer.allocate(fileSize);
-        Future<Integer> result = afc.read(dataBuffer, 0);
-        int readBytes = result.get();
-        DataInputView inputView;
+        for (String path : RecoveryHelperProvider.getSnapshotChain(snapshotResult)) {
+            reloadSnapshotFile(path, snapshotResult.snapshotId);
+        }
+        LOG.info("Reload Database complete: " + snapshotResult.partitionId);
+    }
+
+    /**
+     * Apply the records of a snapshot file as the versions at snapshotId.
+     * The file is memory-mapped, the blocks of a large table are split into ranges decoded by several threads.
+     */
+    protected void reloadSnapshotFile(String path, long snapshotId) throws IOException, ExecutionException, InterruptedException {
+        MappedFileInputStream in = MappedFileInputStream.open(Paths.get(path));
+        try {
+            DataInputView inputView = createInputView(in);
+            for (StateMetaInfoSnapshot stateMetaInfoSnapshot : readStateMetaInfo(inputView)) {
+                long[] blocks = BinarySnapshotFormat.scanBlocks(inputView, in);
+                int splitNum = Math.min(Runtime.getRuntime().availableProcessors(), blocks.length / BinarySnapshotFormat.MIN_BLOCKS_PER_SPLIT);
+                long[][] ranges = MappedFileInputStream.splitRanges(blocks, in.position(), splitNum);
+                List<Future<Integer>> pending = new ArrayList<>();
+                for (int r = 1; r < ranges.length; r++) {
+                    MappedFileInputStream range = in.range(ranges[r][0], ranges[r][1]);
+                    pending.add(ForkJoinPool.commonPool().submit(() -> reloadRange(range, stateMetaInfoSnapshot, snapshotId)));
+                }
+                reloadRange(in.range(ranges[0][0], ranges[0][1]), stateMetaInfoSnapshot, snapshotId);//the first range is decoded by the caller.
+                for (Future<Integer> future : pending) {
+                    future.get();
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private int reloadRange(MappedFileInputStream range, StateMetaInfoSnapshot stateMetaInfoSnapshot, long snapshotId) throws IOException {
+        return BinarySnapshotFormat.readBlocks(createInputView(range), range, stateMetaInfoSnapshot.recordSchema,
+                this.tables.get(stateMetaInfoSnapshot.tableName), stateMetaInfoSnapshot.tableName, snapshotId);
+    }
+
+    /**
+     * The file is read chunk by chunk and blocks are decompressed as they are consumed, the caller closes the view.
+     */
+    protected DataInputView openSnapshotFile(String path) throws IOException {
+        return createInputView(new AsyncChunkedInputStream(Paths.get(path), bufferPool));
+    }
+
+    protected DataInputView createInputView(InputStream in) {
         if (snapshotOptions.getCompressionAlg() != None){
-            inputView = new SnappyDataInputView(dataBuffer);//Default to use Snappy compression
+            return new SnappyDataInputView(in);//Default to use Snappy compression
         } else {
-            inputView = new NativeDataInputView(dataBuffer);
+            return new NativeDataInputView(in);
         }
+    }
+
+    protected static StateMetaInfoSnapshot[] readStateMetaInfo(DataInputView inputView) throws IOException {
         int stateMetaInfoSize = inputView.readInt();
         StateMetaInfoSnapshot[] stateMetaInfoSnapshots = new StateMetaInfoSnapshot[stateMetaInfoSize];
         for (int i = 0; i < stateMetaInfoSize; i++) {
             byte[] objects = inputView.readFullyDecompression();
             stateMetaInfoSnapshots[i] = (StateMetaInfoSnapshot) Deserialize.Deserialize(objects);
         }
-        for (StateMetaInfoSnapshot stateMetaInfoSnapshot : stateMetaInfoSnapshots) {
-            int recordNum = stateMetaInfoSnapshot.recordNum;
-            while(recordNum != 0) {
-                byte[] objects = inputView.readFullyDecompression();
-                SchemaRecord schemaRecord;
-                schemaRecord = AbstractRecoveryManager.getRecord(stateMetaInfoSnapshot.recordSchema, objects);
-                this.tables.get(stateMetaInfoSnapshot.tableName).SelectKeyRecord(schemaRecord.GetPrimaryKey()).content_.updateMultiValues(snapshotResult.snapshotId, 0L, false, schemaRecord);
-                recordNum --;
-            }
-        }
-        LOG.info("Reload Database complete: " + snapshotResult.partitionId);
+        return stateMetaInfoSnapshots;
     }
-}
\ No newline at end of file
+}
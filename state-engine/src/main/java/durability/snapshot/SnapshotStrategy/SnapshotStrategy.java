@@ -2,9 +2,11 @@ package durability.snapshot.SnapshotStrategy;
 
 import durability.ftmanager.FTManager;
 import durability.snapshot.SnapshotResources.SnapshotResources;
+import durability.snapshot.SnapshotResult.SnapshotResult;
 import storage.table.RecordSchema;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 
 public interface SnapshotStrategy<SR extends SnapshotResources> {
 
@@ -19,4 +21,8 @@ public interface SnapshotStrategy<SR extends SnapshotResources> {
     void registerTable(String tableName, RecordSchema r);
     void asyncSnapshot(long snapshotId, int partitionId, FTManager ftManager) throws IOException;
     String getDescription();
+    /**
+     * Reload the partition of a committed snapshot into the tables.
+     */
+    void syncRecoveryFromSnapshot(SnapshotResult snapshotResult) throws IOException, ExecutionException, InterruptedException;
 }
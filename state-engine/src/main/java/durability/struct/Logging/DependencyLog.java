@@ -10,6 +10,8 @@ import java.util.List;
 //bid.1 is the second operation in the transaction
 public class DependencyLog extends CommandLog{
     public String id;
+    public long bid;
+    public int opId;
     List<String> inEdges = new ArrayList<>();
     List<String> outEdges = new ArrayList<>();
     public boolean isAborted = false;
@@ -18,6 +20,13 @@ public class DependencyLog extends CommandLog{
     }
     public void setId(String txn_id){
         this.id = txn_id;
+        this.bid = LogRecordCodec.bidOf(txn_id);
+        this.opId = LogRecordCodec.opIdOf(txn_id);
+    }
+    public void setId(long bid, int opId){
+        this.id = bid + "." + opId;
+        this.bid = bid;
+        this.opId = opId;
     }
     public void addInEdge(String bid){
         inEdges.add(bid);
@@ -45,72 +54,20 @@ public class DependencyLog extends CommandLog{
     }
     @Override
     public String toString() {
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(id).append(";");//LSN
-        for (String id : inEdges) {
-            stringBuilder.append(id).append(",");
-        }
-        stringBuilder.append(";");
-        for (String id : outEdges) {
-            stringBuilder.append(id).append(",");
-        }
-        stringBuilder.append(";");
-        stringBuilder.append(tableName).append(";");
-        stringBuilder.append(key).append(";");
-        for (String ckeys : condition) {
-            stringBuilder.append(ckeys).append(",");
-        }
-        stringBuilder.append(";");
-        stringBuilder.append(OperationFunction).append(";");
-        stringBuilder.append(parameter.toString()).append(";");
-        if (isAborted) {
-            stringBuilder.append(1).append(";");
-        } else {
-            stringBuilder.append(0).append(";");
-        }
-        return stringBuilder.toString();
-    }
-    public static DependencyLog getDependencyFromString(String string) {
-        String[] strings = string.split(";");
-        String id = strings[0];
-        String inEdgesString = strings[1];
-        List<String> inEdges = new ArrayList<>();
-        for (String in : inEdgesString.split(",")) {
-            if (in.equals(""))
-                continue;
-            inEdges.add(in);
-        }
-        String outEdgesString = strings[2];
-        List<String> outEdges = new ArrayList<>();
-        for (String out : outEdgesString.split(",")) {
-            if (out.equals(""))
-                continue;
-            outEdges.add(out);
-        }
-        String tableName = strings[3];
-        String key = strings[4];
-        String[] condition = strings[5].split(",");
-        ArrayList<String> conditions = new ArrayList<>();
-        for (String c : condition) {
-            if (c.equals(""))
-                continue;
-            conditions.add(c);
-        }
-        String operationFunction = strings[6];
-        String parameter = strings[7];
-        int isAborted = Integer.parseInt(strings[8]);
-        return new DependencyLog(id, tableName, key, inEdges, outEdges, conditions.toArray(new String[0]), operationFunction, parameter, isAborted);
+        return id + ";" + inEdges + ";" + outEdges + ";" + tableName + ";" + key + ";" + OperationFunction + ";" + parameter + ";" + isAborted;
     }
     public DependencyLog(String id, String tableName, String key, List<String> inEdges, List<String> outEdges, String[] conditions, String operationFunction, String para, int isAborted) {
         super(0,tableName,key,operationFunction,conditions, para);
         this.inEdges = inEdges;
         this.outEdges = outEdges;
-        this.id = id;
+        setId(id);
         this.isAborted = isAborted == 1;
     }
 
     @Override
     public int compareTo(CommandLog o) {
-        return Double.compare(Double.parseDouble(this.id), Double.parseDouble(((DependencyLog) o).id));
+        DependencyLog other = (DependencyLog) o;
+        int result = Long.compare(this.bid, other.bid);
+        return result != 0 ? result : Integer.compare(this.opId, other.opId);
     }
 }
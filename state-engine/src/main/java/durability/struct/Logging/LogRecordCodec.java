@@ -0,0 +1,255 @@
+package durability.struct.Logging;
+
+import common.io.Utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary codec of the command and dependency logs.
+ * A unit is encoded as dictionaryNum, the dictionary, logNum, then the logs. Table names and operation functions are interned in the dictionary of the unit,
+ * bids are zigzag deltas against the previous log, edges are zigzag deltas against the bid of their own log,
+ * keys are varints when they are plain numbers and strings otherwise.
+ */
+public final class LogRecordCodec {
+    private static final int ABORTED = 1;
+
+    private LogRecordCodec() {}
+
+    public static byte[] encodeDependencyLogs(List<DependencyLog> logs, int from, int to) throws IOException {
+        Dictionary dictionary = new Dictionary();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        long lastBid = 0;
+        for (int i = from; i < to; i++) {
+            DependencyLog log = logs.get(i);
+            lastBid = writeId(log.bid, log.opId, lastBid, body);
+            body.write(log.isAborted ? ABORTED : 0);
+            writeCommand(log, dictionary, body);
+            writeEdges(log.getInEdges(), log.bid, body);
+            writeEdges(log.getOutEdges(), log.bid, body);
+        }
+        return dictionary.prepend(to - from, body);
+    }
+
+    public static List<DependencyLog> decodeDependencyLogs(byte[] unit) {
+        ByteBuffer buffer = ByteBuffer.wrap(unit);
+        String[] dictionary = readDictionary(buffer);
+        int logNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        List<DependencyLog> logs = new ArrayList<>(logNum);
+        long lastBid = 0;
+        for (int i = 0; i < logNum; i++) {
+            long bid = lastBid + ReadWriteForEncodingUtils.readVarLong(buffer);
+            int opId = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+            lastBid = bid;
+            boolean isAborted = buffer.get() == ABORTED;
+            String tableName = dictionary[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+            String operationFunction = dictionary[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+            String key = readKey(buffer);
+            String[] conditions = readConditions(buffer);
+            String parameter = readString(buffer);
+            DependencyLog log = new DependencyLog(0, tableName, key, operationFunction, conditions, parameter);
+            log.setId(bid, opId);
+            log.isAborted = isAborted;
+            log.inEdges = readEdges(buffer, bid);
+            log.outEdges = readEdges(buffer, bid);
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    /**
+     * Aborted command logs are not encoded, they are never redone.
+     */
+    public static byte[] encodeCommandLogs(List<NativeCommandLog> logs) throws IOException {
+        Dictionary dictionary = new Dictionary();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        long lastBid = 0;
+        int logNum = 0;
+        for (NativeCommandLog log : logs) {
+            if (log.isAborted)
+                continue;
+            lastBid = writeId(log.bid, log.opId, lastBid, body);
+            writeCommand(log, dictionary, body);
+            logNum++;
+        }
+        return dictionary.prepend(logNum, body);
+    }
+
+    public static List<NativeCommandLog> decodeCommandLogs(byte[] unit) {
+        ByteBuffer buffer = ByteBuffer.wrap(unit);
+        String[] dictionary = readDictionary(buffer);
+        int logNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        List<NativeCommandLog> logs = new ArrayList<>(logNum);
+        long lastBid = 0;
+        for (int i = 0; i < logNum; i++) {
+            long bid = lastBid + ReadWriteForEncodingUtils.readVarLong(buffer);
+            int opId = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+            lastBid = bid;
+            String tableName = dictionary[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+            String operationFunction = dictionary[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+            String key = readKey(buffer);
+            String[] conditions = readConditions(buffer);
+            String parameter = readString(buffer);
+            NativeCommandLog log = new NativeCommandLog(0, tableName, key, operationFunction, conditions, parameter);
+            log.setId(bid, opId);
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    /**
+     * @return the bid of the id "bid.opId".
+     */
+    public static long bidOf(String id) {
+        int dot = id.indexOf('.');
+        return Long.parseLong(dot < 0 ? id : id.substring(0, dot));
+    }
+
+    /**
+     * @return the operation id of the id "bid.opId".
+     */
+    public static int opIdOf(String id) {
+        int dot = id.indexOf('.');
+        return dot < 0 ? 0 : Integer.parseInt(id.substring(dot + 1));
+    }
+
+    private static long writeId(long bid, int opId, long lastBid, ByteArrayOutputStream out) {
+        ReadWriteForEncodingUtils.writeVarLong(bid - lastBid, out);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(opId, out);
+        return bid;
+    }
+
+    private static void writeCommand(CommandLog log, Dictionary dictionary, ByteArrayOutputStream out) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(dictionary.intern(log.tableName), out);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(dictionary.intern(log.OperationFunction), out);
+        writeKey(log.key, out);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(log.condition.length, out);
+        for (String condition : log.condition) {
+            writeKey(condition, out);
+        }
+        writeString(String.valueOf(log.parameter), out);
+    }
+
+    private static void writeEdges(List<String> edges, long bid, ByteArrayOutputStream out) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(edges.size(), out);
+        for (String edge : edges) {
+            ReadWriteForEncodingUtils.writeVarLong(bidOf(edge) - bid, out);
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(opIdOf(edge), out);
+        }
+    }
+
+    private static List<String> readEdges(ByteBuffer buffer, long bid) {
+        int edgeNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        List<String> edges = new ArrayList<>(edgeNum);
+        for (int i = 0; i < edgeNum; i++) {
+            long edgeBid = bid + ReadWriteForEncodingUtils.readVarLong(buffer);
+            edges.add(edgeBid + "." + ReadWriteForEncodingUtils.readUnsignedVarInt(buffer));
+        }
+        return edges;
+    }
+
+    private static String[] readConditions(ByteBuffer buffer) {
+        String[] conditions = new String[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+        for (int i = 0; i < conditions.length; i++) {
+            conditions[i] = readKey(buffer);
+        }
+        return conditions;
+    }
+
+    /**
+     * A key is tagged by the lowest bit: 0 for a number written as a zigzag varint, 1 for a string written as its length and UTF-8 bytes.
+     */
+    private static void writeKey(String key, ByteArrayOutputStream out) {
+        if (isPlainNumber(key)) {
+            long value = Long.parseLong(key);
+            ReadWriteForEncodingUtils.writeUnsignedVarLong(((value << 1) ^ (value >> 63)) << 1, out);
+        } else {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            ReadWriteForEncodingUtils.writeUnsignedVarLong(((long) bytes.length << 1) | 1, out);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static String readKey(ByteBuffer buffer) {
+        long tag = ReadWriteForEncodingUtils.readUnsignedVarLong(buffer);
+        if ((tag & 1) == 0) {
+            long value = tag >>> 1;
+            return String.valueOf((value >>> 1) ^ -(value & 1));
+        }
+        return readBytes(buffer, (int) (tag >>> 1));
+    }
+
+    /**
+     * Only keys printed back unchanged by Long.toString are written as numbers, e.g. "007" or "+1" stay strings.
+     */
+    private static boolean isPlainNumber(String key) {
+        int length = key.length();
+        int start = length > 0 && key.charAt(0) == '-' ? 1 : 0;
+        if (length == start || length - start > 18 || (key.charAt(start) == '0' && length - start > 1) || (start == 1 && key.charAt(1) == '0')) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(String value, ByteArrayOutputStream out) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, out);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return readBytes(buffer, ReadWriteForEncodingUtils.readUnsignedVarInt(buffer));
+    }
+
+    private static String readBytes(ByteBuffer buffer, int length) {
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer) {
+        String[] dictionary = new String[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(buffer);
+        }
+        return dictionary;
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> entries = new ArrayList<>();
+
+        int intern(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = entries.size();
+                ids.put(value, id);
+                entries.add(value);
+            }
+            return id;
+        }
+
+        byte[] prepend(int logNum, ByteArrayOutputStream body) throws IOException {
+            ByteArrayOutputStream unit = new ByteArrayOutputStream(body.size() + 16 * entries.size() + 8);
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(entries.size(), unit);
+            for (String entry : entries) {
+                writeString(entry, unit);
+            }
+            ReadWriteForEncodingUtils.writeUnsignedVarInt(logNum, unit);
+            body.writeTo(unit);
+            return unit.toByteArray();
+        }
+    }
+}
@@ -11,6 +11,8 @@ public abstract class BaseUnorderedIndex implements Iterable<TableRecord> {
     private final int delta;
     public abstract TableRecord SearchRecord(String primary_key);
 
+    public abstract TableRecord SearchRecord(long primary_key);
+
     public abstract boolean InsertRecord(String key, TableRecord record, int partition_id);
 
     public abstract boolean InsertRecord(String key, TableRecord record);
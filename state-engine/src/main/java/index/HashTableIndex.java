@@ -25,6 +25,11 @@ public class HashTableIndex extends BaseUnorderedIndex {
         return hash_index_by_partition.get(getPartitionId(primary_key)).get(primary_key);
     }
 
+    @Override
+    public TableRecord SearchRecord(long primary_key) {
+        return SearchRecord(String.valueOf(primary_key));
+    }
+
     @Override
     public boolean InsertRecord(String key, TableRecord record, int partition_id) {
         hash_index_by_partition.get(partition_id).put(key, record);
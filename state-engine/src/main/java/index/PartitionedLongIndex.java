@@ -0,0 +1,225 @@
+package index;
+
+import storage.TableRecord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Primary index keyed by primitive long.
+ * Each partition owns a dense array for its contiguous key range [p * delta, (p + 1) * delta),
+ * keys outside of the range fall into a per-partition open-addressing table.
+ * Lookups never box the key nor hash a String.
+ */
+public class PartitionedLongIndex extends BaseUnorderedIndex {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private final int rangeDelta;
+    private final Partition[] partitions;
+
+    public PartitionedLongIndex(int partition_num, int num_items) {
+        super(partition_num, num_items);
+        this.rangeDelta = Math.max(1, num_items / partition_num);
+        this.partitions = new Partition[partition_num];
+        for (int i = 0; i < partition_num; i++) {
+            long lowerBound = (long) i * rangeDelta;
+            long upperBound = (i == partition_num - 1) ? Math.max(num_items, lowerBound) : lowerBound + rangeDelta;
+            partitions[i] = new Partition(lowerBound, (int) (upperBound - lowerBound));
+        }
+    }
+
+    public int getPartitionId(long primary_key) {
+        long pid = primary_key / rangeDelta;
+        if (pid >= partition_num) {
+            return partition_num - 1;//last partition holds the left-over.
+        }
+        return (int) pid;
+    }
+
+    @Override
+    public TableRecord SearchRecord(long primary_key) {
+        return partitions[getPartitionId(primary_key)].get(primary_key);
+    }
+
+    @Override
+    public TableRecord SearchRecord(String primary_key) {
+        return SearchRecord(Long.parseLong(primary_key));
+    }
+
+    public boolean InsertRecord(long key, TableRecord record, int partition_id) {
+        record.setLongKey(key);
+        partitions[partition_id].put(key, record);
+        return true;
+    }
+
+    @Override
+    public boolean InsertRecord(String key, TableRecord record, int partition_id) {
+        return InsertRecord(Long.parseLong(key), record, partition_id);
+    }
+
+    @Override
+    public boolean InsertRecord(String key, TableRecord record) {
+        long _key = Long.parseLong(key);
+        return InsertRecord(_key, record, getPartitionId(_key));
+    }
+
+    /**
+     * Only used by snapshot, the String-keyed view of a partition is cached until the partition changes.
+     * The view is shared, callers must not modify it.
+     */
+    @Override
+    public HashMap<String, TableRecord> getTableIndexByPartitionId(int partitionId) {
+        return partitions[partitionId].view();
+    }
+
+    @Override
+    public Iterator<TableRecord> iterator() {
+        List<TableRecord> temp = new ArrayList<>();
+        for (Partition partition : partitions) {
+            temp.addAll(partition.records());
+        }
+        return temp.iterator();
+    }
+
+    /**
+     * Lookups are lock-free while put is serialized per partition.
+     * A slot publishes its record before its key, and a rehash publishes the new keys and values together through one volatile field,
+     * so a lookup either misses a key being inserted or finds its record, never the record of another key.
+     */
+    private static final class Partition {
+        private final long lowerBound;
+        private final AtomicReferenceArray<TableRecord> dense;
+        private volatile Overflow overflow;//open addressing for keys outside the dense range, lazily created.
+        private int overflowSize;
+        private HashMap<String, TableRecord> view;//cleared by put.
+
+        Partition(long lowerBound, int range) {
+            this.lowerBound = lowerBound;
+            this.dense = new AtomicReferenceArray<>(range);
+        }
+
+        TableRecord get(long key) {
+            long offset = key - lowerBound;
+            if (offset >= 0 && offset < dense.length()) {
+                return dense.get((int) offset);
+            }
+            Overflow table = overflow;
+            if (table == null) {
+                return null;
+            }
+            int mask = table.keys.length() - 1;
+            int slot = hash(key) & mask;
+            long slotKey;
+            while ((slotKey = table.keys.get(slot)) != EMPTY) {
+                if (slotKey == key) {
+                    return table.values.get(slot);
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        synchronized void put(long key, TableRecord record) {
+            view = null;
+            long offset = key - lowerBound;
+            if (offset >= 0 && offset < dense.length()) {
+                dense.set((int) offset, record);
+                return;
+            }
+            Overflow table = overflow;
+            if (table == null) {
+                table = new Overflow(16);
+            } else if ((overflowSize + 1) * 2 > table.keys.length()) {
+                table = table.rehash(table.keys.length() << 1);
+            }
+            if (table.insert(key, record)) {
+                overflowSize++;
+            }
+            overflow = table;
+        }
+
+        synchronized HashMap<String, TableRecord> view() {
+            if (view == null) {
+                view = new HashMap<>();
+                for (TableRecord record : records()) {
+                    view.put(record.record_.GetPrimaryKey(), record);
+                }
+            }
+            return view;
+        }
+
+        List<TableRecord> records() {
+            List<TableRecord> records = new ArrayList<>();
+            for (int i = 0; i < dense.length(); i++) {
+                TableRecord record = dense.get(i);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            Overflow table = overflow;
+            if (table != null) {
+                for (int i = 0; i < table.values.length(); i++) {
+                    TableRecord record = table.values.get(i);
+                    if (record != null) {
+                        records.add(record);
+                    }
+                }
+            }
+            return records;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Keys and values of the open-addressing table, never resized in place.
+     */
+    private static final class Overflow {
+        final AtomicLongArray keys;
+        final AtomicReferenceArray<TableRecord> values;
+
+        Overflow(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            for (int i = 0; i < capacity; i++) {
+                keys.lazySet(i, EMPTY);//published with the table.
+            }
+        }
+
+        Overflow rehash(int capacity) {
+            Overflow table = new Overflow(capacity);
+            for (int i = 0; i < keys.length(); i++) {
+                long key = keys.get(i);
+                if (key != EMPTY) {
+                    table.insert(key, values.get(i));
+                }
+            }
+            return table;
+        }
+
+        /**
+         * @return true if the key is new.
+         */
+        boolean insert(long key, TableRecord record) {
+            int mask = keys.length() - 1;
+            int slot = Partition.hash(key) & mask;
+            long slotKey;
+            while ((slotKey = keys.get(slot)) != EMPTY) {
+                if (slotKey == key) {
+                    values.set(slot, record);
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            values.set(slot, record);//before the key, a lookup finding the key finds its record.
+            keys.set(slot, key);
+            return true;
+        }
+    }
+}
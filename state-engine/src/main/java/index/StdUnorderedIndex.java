@@ -15,6 +15,11 @@ public class StdUnorderedIndex extends BaseUnorderedIndex {
         return null;
     }
 
+    @Override
+    public TableRecord SearchRecord(long primary_key) {
+        return null;
+    }
+
     @Override
     public boolean InsertRecord(String s, TableRecord record, int partition_id) {
         return false;
@@ -1,5 +1,7 @@
 package lock;
 
+import common.util.wait.BusySpinWaitStrategy;
+import common.util.wait.WaitStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +25,7 @@ public class OrderLock implements Serializable {
     boolean wasSignalled = false;//to fight with missing signals.
     //	private transient HashMap<Integer, HashMap<Integer, Boolean>> executors_ready;//<FID, ExecutorID, true/false>
     private int end_fid;
+    private WaitStrategy waitStrategy = new BusySpinWaitStrategy();
 
     private OrderLock() {
     }
@@ -34,6 +37,10 @@ public class OrderLock implements Serializable {
     //	public int getFID() {
 //		return fid;
 //	}
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
     public long getBID() {
         return counter.get();
     }
@@ -102,10 +109,11 @@ public class OrderLock implements Serializable {
         //clear signal and continue running.
         wasSignalled = false;
 */
-        //busy waiting with sleep.
-        while (!this.counter.compareAndSet(bid, bid)) {
+        //waiting through the wait strategy, woken up by advance.
+        int spin = WaitStrategy.SPIN_TRIES;
+        while (this.counter.get() != bid) {
             //not ready for this batch to proceed! Wait for previous batch to finish execution.
-//            Thread.sleep(1);
+            spin = waitStrategy.idle(spin);
             if (Thread.currentThread().isInterrupted()) {
                 throw new InterruptedException();
 //                return false;
@@ -132,6 +140,7 @@ public class OrderLock implements Serializable {
         }
 */
         long value = counter.incrementAndGet();//allow next batch to proceed.
+        waitStrategy.signalAll();
         if (enable_log)
             if (enable_log) LOG.info("ADVANCE BID to:" + value + " Thread:" + Thread.currentThread().getName());
 //		//if (enable_log) LOG.DEBUG(Thread.currentThread().getName() + " advance counter to: " + counter+ " @ "+ DateTime.now());
@@ -1,5 +1,7 @@
 package lock;
 
+import common.util.wait.BusySpinWaitStrategy;
+import common.util.wait.WaitStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +15,7 @@ public class PartitionedOrderLock implements Serializable {
     private static final PartitionedOrderLock ourInstance = new PartitionedOrderLock();
     HashMap<Integer, LOCK> locks = new HashMap<>();
     boolean initilize = false;
+    private WaitStrategy waitStrategy = new BusySpinWaitStrategy();
 
     private PartitionedOrderLock() {
     }
@@ -21,6 +24,16 @@ public class PartitionedOrderLock implements Serializable {
         return ourInstance;
     }
 
+    /**
+     * Every partition waits on its own instance of waitStrategy, so advancing a partition does not wake the others.
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+        for (LOCK lock : locks.values()) {
+            lock.waitStrategy = waitStrategy.newInstance();
+        }
+    }
+
     public LOCK get(int pid) {
         return locks.get(pid);
     }
@@ -42,12 +55,15 @@ public class PartitionedOrderLock implements Serializable {
 
     public class LOCK {
         public volatile AtomicLong bid = new AtomicLong();
+        private volatile WaitStrategy waitStrategy = PartitionedOrderLock.this.waitStrategy.newInstance();
 
         public boolean blocking_wait(final long bid, long _bid) {
 //            if (!this.counter.compareAndSet(counter, counter))
 //                if (enable_log) LOG.info("not ready for this batch to proceed:" + counter + " lock_ratio @" + this);
-            while (!this.bid.compareAndSet(bid, bid)) {
+            int spin = WaitStrategy.SPIN_TRIES;
+            while (this.bid.get() != bid) {
                 //not ready for this batch to proceed! Wait for previous batch to finish execution.
+                spin = waitStrategy.idle(spin);
                 if (Thread.currentThread().isInterrupted()) {
 //				 throw new InterruptedException();
                     return false;
@@ -58,6 +74,7 @@ public class PartitionedOrderLock implements Serializable {
 
         public void advance() {
             bid.incrementAndGet();//allow next batch to proceed.
+            waitStrategy.signalAll();
         }
 
         public void reset() {
@@ -414,6 +414,19 @@ public class MeasureTools {
         if (CONTROL.enable_profile && !Thread.currentThread().isInterrupted())
             RuntimePerformance.LogSize[thread_id].addValue(size);
     }
+    public static void setRetainedVersions(int thread_id, double versions) {
+        if (CONTROL.enable_profile && !Thread.currentThread().isInterrupted())
+            RuntimePerformance.RetainedVersions[thread_id].addValue(versions);
+    }
+    // NUMA Specific.
+    public static void NUMA_ACCESS_MEASURE(int thread_id, int executorNode, int recordNode) {
+        if (CONTROL.enable_profile && !Thread.currentThread().isInterrupted()) {
+            if (executorNode == recordNode)
+                RuntimePerformance.LocalAccess[thread_id]++;
+            else
+                RuntimePerformance.RemoteAccess[thread_id]++;
+        }
+    }
     // Recovery Time Specific.
     public static void BEGIN_RECOVERY_TIME_MEASURE(int thread_id) {
         if (CONTROL.enable_profile && !Thread.currentThread().isInterrupted())
@@ -625,6 +638,24 @@ public class MeasureTools {
                 }
                 fileWriter.write("CommandLoggingSize (KB): " + totalSize + "\n");
             }
+            if (RuntimePerformance.RetainedVersions[0].getN() != 0) {
+                fileWriter.write("RetainedVersionsPerRecord: " + "\n");
+                fileWriter.write("thread_id" + "\t" + "versions" + "\n");
+                for (int i = 0; i < tthread; i ++) {
+                    fileWriter.write(i + "\t"+ RuntimePerformance.RetainedVersions[i].getMean() + "\n");
+                }
+            }
+            long remoteAccesses = 0;
+            for (int i = 0; i < tthread; i ++) {
+                remoteAccesses = remoteAccesses + RuntimePerformance.RemoteAccess[i];
+            }
+            if (remoteAccesses != 0) {
+                fileWriter.write("CrossSocketAccesses: " + "\n");
+                fileWriter.write("thread_id" + "\t" + "local" + "\t" + "remote" + "\n");
+                for (int i = 0; i < tthread; i ++) {
+                    fileWriter.write(i + "\t" + RuntimePerformance.LocalAccess[i] + "\t" + RuntimePerformance.RemoteAccess[i] + "\n");
+                }
+            }
             fileWriter.close();
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -661,6 +661,9 @@ public class Metrics {
         public static DescriptiveStatistics[] Throughput = new DescriptiveStatistics[kMaxThreadNum];
         public static DescriptiveStatistics[] SnapshotSize = new DescriptiveStatistics[kMaxThreadNum];
         public static DescriptiveStatistics[] LogSize = new DescriptiveStatistics[kMaxThreadNum];
+        public static DescriptiveStatistics[] RetainedVersions = new DescriptiveStatistics[kMaxThreadNum];
+        public static long[] LocalAccess = new long[kMaxThreadNum];//record accesses on the socket of the executor.
+        public static long[] RemoteAccess = new long[kMaxThreadNum];//record accesses across sockets.
         public static long[] count = new long[kMaxThreadNum];
         public static long[] lastTasks = new long[kMaxThreadNum];
 
@@ -670,6 +673,9 @@ public class Metrics {
                 Throughput[i] = new DescriptiveStatistics();
                 SnapshotSize[i] = new DescriptiveStatistics();
                 LogSize[i] = new DescriptiveStatistics();
+                RetainedVersions[i] = new DescriptiveStatistics();
+                LocalAccess[i] = 0;
+                RemoteAccess[i] = 0;
                 count[i] = 0;
                 lastTasks[i] = -1;
             }
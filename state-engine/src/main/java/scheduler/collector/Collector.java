@@ -1,7 +1,6 @@
 package scheduler.collector;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -11,98 +10,66 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Collector {
     /*
-    Num of TD,LD,PD
+    Num of TD,LD,PD, Vertex Degree Distribution, Is Cyclic Dependency, Computation Complexity and Rate of Aborting Vertexes
      */
-    private HashMap<Integer,Integer> Num_of_dependency;
-    private double B_TD;
-    private double B_LD;
-    private double B_PD;
-    private double B_SUM_D;
-    /*
-    Vertex Degree Distribution
-     */
-    private double VDD;
-    private double B_VDD;
-    /*
-    Is Cyclic Dependency
-     */
-    private boolean isCyclicDependency;
-    /*
-    Computation Complexity, if high return true
-     */
-    private boolean isComputationComplexity;
-    /*
-    Rate of Aborting Vertexes
-     */
-    private double R_of_A;
-    private double B_R_of_A;
+    private final WorkloadFeatures features = new WorkloadFeatures();
+    private DecisionTreeSelector decisionTree;
+    private SchedulerSelector selector;
+    private String runtimeDecision;
     private boolean isRuntime = true;
     private int threadCount;
     private int maxThreadCount;
     private int delta = 0;
     private final List<String[]> workloadConfig = new ArrayList<>();
     private final ConcurrentHashMap<Integer,Integer> currentWorkload = new ConcurrentHashMap<>();//<threadId,phase>
+    private final long[] statistics = new long[RuntimeStatistics.COUNTERS];
+    private long collectedMarkId = -1;
 
     /**
      *  Init the collector
      */
-    public void InitCollector(int threadCount, int maxThreadCount){
+    public void InitCollector(String defaultScheduler, String[] schedulers, int threadCount, int maxThreadCount){
         this.threadCount = threadCount;
         this.maxThreadCount = maxThreadCount;
         this.delta = maxThreadCount / threadCount;
         for (int i = 0; i < threadCount; i++){
             currentWorkload.put(i,0);
         }
+        this.runtimeDecision = defaultScheduler;
+        this.selector = new CostModelSelector(schedulers);
+        RuntimeStatistics.initialize(threadCount);
     }
     /**
      * Configure the bottom line for triggering scheduler switching
      */
     public void setBottomLine(String bottomLine){
-        String b_ls[] = bottomLine.split(",");
-        this.B_TD = Double.parseDouble(b_ls[0]);
-        this.B_LD = Double.parseDouble(b_ls[1]);
-        this.B_PD = Double.parseDouble(b_ls[2]);
-        this.B_SUM_D = Double.parseDouble(b_ls[3]);
-        this.B_VDD = Double.parseDouble(b_ls[4]);
-        this.B_R_of_A = Double.parseDouble(b_ls[5]);
+        this.decisionTree = new DecisionTreeSelector(bottomLine);
+    }
+    /**
+     * Configure the policy choosing the scheduler from runtime information. [costModel, decisionTree]
+     */
+    public void setSchedulerSelector(String type){
+        switch (type) {
+            case "costModel":
+                break;
+            case "decisionTree":
+                this.selector = decisionTree;
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported scheduler selector: " + type);
+        }
     }
     /**
      * Load the workload config if not collecting information runtime
      */
     public void setWorkloadConfig(String config){
         isRuntime = false;
+        RuntimeStatistics.disable();
         String configs[] = config.split(";");
         for (String c:configs){
            workloadConfig.add(c.split(","));
         }
     }
-    /**
-     * Implement the decision tree
-     * Return the decision of the scheduler switching
-     * Abort(Eager:1,Lazy:0)(first bit)
-     * Units(OP:1,OG:0)(second bit)
-     * Exploration(Non:00,BF:01,DF:10)(the highest bit)
-     * "OG_NS","OG_NS_A","OP_NS","OP_NS_A","OG_BFS","OG_BFS_A","OP_BFS","OP_BFS_A", "OG_DFS","OG_DFS_A","OP_DFS","OP_DFS_A"
-     *  0000     0001     0010     0011     0100     0101       0110     0111        1000     1001       1010     1011
-     * @return
-     */
-    private String decisionTree(double TD,double LD,double PD,double VDD,boolean isCyclicDependency,boolean isComputationComplexity,double R_of_A){
-        String schedulers[]={"OG_NS","OG_NS_A","OP_NS","OP_NS_A","OG_BFS","OG_BFS_A","OP_BFS","OP_BFS_A","OG_DFS","OG_DFS_A","OP_DFS","OP_DFS_A"};
-        int flag=0;
-        if((TD+PD+LD)>B_SUM_D){
-            if(VDD<B_VDD){
-                //TODO:Switch the DFS(+8) and BFS(+4)
-                flag=flag+4;
-            }
-        }
-        if(isCyclicDependency||TD<B_TD||PD>B_PD){
-            flag=flag+2;
-        }
-        if(isComputationComplexity || R_of_A < B_R_of_A){
-            flag = flag + 1;
-        }
-        return schedulers[flag];
-    }
 
     private String getDecisionFromConf(int threadId){
         int workloadId = currentWorkload.get(threadId);
@@ -119,11 +86,38 @@ public class Collector {
         if(para[6].equals("1")){
             isCC=true;
         }
-        return decisionTree(TD,LD,PD,VDD,isCD,isCC,R_of_A);
+        return decisionTree.decide(new WorkloadFeatures(TD,LD,PD,VDD,isCD,isCC,R_of_A));
     }
 
-    private String getDecisionFromRuntimeInfo(){
-        return decisionTree(Num_of_dependency.get(0),Num_of_dependency.get(1),Num_of_dependency.get(2),VDD,isCyclicDependency,isComputationComplexity,R_of_A);
+    private synchronized String getDecisionFromRuntimeInfo(){
+        return runtimeDecision;
+    }
+
+    /**
+     * Merge the runtime statistics of the batch ended by markId and choose the scheduler of the next batch, once for all threads.
+     * Every thread passes here before it constructs the next batch, so the counters only cover the batch of markId.
+     * TD, LD and PD are averaged per thread as the bottom line, VDD is the share of operations on keys already accessed in the batch.
+     * The cost model gets the time the scheduler spent on the batch, from the pre to the post state access barrier, with profiling disabled as well.
+     */
+    private synchronized void collectRuntimeInfo(long markId, String currentScheduler, long evaluationTime){
+        if (markId == collectedMarkId){
+            return;
+        }
+        collectedMarkId = markId;
+        RuntimeStatistics.mergeAndClear(statistics);
+        long operations = statistics[RuntimeStatistics.OPERATION];
+        long transactions = statistics[RuntimeStatistics.TRANSACTION];
+        features.operations = operations / (double) threadCount;
+        features.TD = statistics[RuntimeStatistics.TD] / (double) threadCount;
+        features.LD = statistics[RuntimeStatistics.LD] / (double) threadCount;
+        features.PD = statistics[RuntimeStatistics.PD] / (double) threadCount;
+        features.VDD = operations == 0 ? 0 : statistics[RuntimeStatistics.TD] / (double) operations;
+        features.isCyclicDependency = statistics[RuntimeStatistics.CYCLE] > 0;
+        features.R_of_A = transactions == 0 ? 0 : statistics[RuntimeStatistics.ABORT] / (double) transactions;
+        if (operations != 0) {
+            selector.feedback(currentScheduler, features, evaluationTime / features.operations);
+        }
+        runtimeDecision = selector.select(features, currentScheduler);
     }
     public String getDecision(int threadId){
         if(isRuntime){
@@ -133,10 +127,13 @@ public class Collector {
         }
     }
 
-    public boolean timeToSwitch(long markId, int threadId, String currentScheduler){
+    /**
+     * @param evaluationTime ns spent by the current scheduler on the batch of markId.
+     */
+    public boolean timeToSwitch(long markId, int threadId, String currentScheduler, long evaluationTime){
         if(isRuntime){
-            //TODO:collect information runtime
-            return false;
+            collectRuntimeInfo(markId, currentScheduler, evaluationTime);
+            return !getDecision(threadId).equals(currentScheduler);
         } else {
             int workloadId = this.currentWorkload.get(threadId);
             if (workloadId < workloadConfig.size() -1){
@@ -0,0 +1,91 @@
+package scheduler.collector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Choose the scheduler with the lowest expected cost for the current workload, learned from the cost of past batches.
+ * The cost of a scheduler is kept as an exponentially weighted moving average of its time per operation,
+ * both per workload signature (TD, LD, PD shares, VDD and abort ratio quantized into levels) and overall as a fallback for unseen workloads.
+ * The current scheduler is kept until it has been measured, then schedulers of the pool never measured are tried first, afterwards another scheduler is explored from time to time
+ * so that the costs follow the machine and the traffic instead of fixed bottom lines.
+ */
+public class CostModelSelector implements SchedulerSelector {
+    private static final double ALPHA = 0.3;//weight of the latest batch.
+    private static final double EXPLORATION_RATE = 0.05;
+    private static final double SWITCH_MARGIN = 0.05;//switch only if the expected cost drops by more than 5%, switching is not free.
+    private static final int LEVELS = 4;
+    private final String[] candidates;
+    private final Map<Integer, Map<String, Double>> costs = new HashMap<>();//workload signature -> scheduler -> cost per operation.
+    private final Map<String, Double> overallCosts = new HashMap<>();
+    private final Random random = new Random(0);
+
+    /**
+     * @param candidates schedulers of the pool.
+     */
+    public CostModelSelector(String[] candidates) {
+        this.candidates = candidates;
+    }
+
+    @Override
+    public String select(WorkloadFeatures features, String currentScheduler) {
+        if (candidates.length <= 1 || overallCosts.isEmpty()) {
+            return currentScheduler;
+        }
+        for (String candidate : candidates) {
+            if (!overallCosts.containsKey(candidate)) {
+                return candidate;
+            }
+        }
+        if (random.nextDouble() < EXPLORATION_RATE) {
+            String candidate = candidates[random.nextInt(candidates.length - 1)];
+            return candidate.equals(currentScheduler) ? candidates[candidates.length - 1] : candidate;
+        }
+        Map<String, Double> workloadCosts = costs.get(signature(features));
+        String best = currentScheduler;
+        double bestCost = expectedCost(currentScheduler, workloadCosts) * (1 - SWITCH_MARGIN);
+        for (String candidate : candidates) {
+            double cost = expectedCost(candidate, workloadCosts);
+            if (cost < bestCost) {
+                best = candidate;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void feedback(String scheduler, WorkloadFeatures features, double costPerOperation) {
+        update(costs.computeIfAbsent(signature(features), s -> new HashMap<>()), scheduler, costPerOperation);
+        update(overallCosts, scheduler, costPerOperation);
+    }
+
+    private double expectedCost(String scheduler, Map<String, Double> workloadCosts) {
+        Double cost = workloadCosts == null ? null : workloadCosts.get(scheduler);
+        if (cost == null) {
+            cost = overallCosts.get(scheduler);
+        }
+        return cost == null ? Double.MAX_VALUE : cost;
+    }
+
+    private static void update(Map<String, Double> costs, String scheduler, double cost) {
+        Double average = costs.get(scheduler);
+        costs.put(scheduler, average == null ? cost : ALPHA * cost + (1 - ALPHA) * average);
+    }
+
+    private static int signature(WorkloadFeatures features) {
+        double operations = Math.max(features.operations, 1);
+        int signature = level(features.TD / operations);
+        signature = signature * LEVELS + level(features.LD / operations);
+        signature = signature * LEVELS + level(features.PD / operations);
+        signature = signature * LEVELS + level(features.VDD);
+        signature = signature * LEVELS + level(Math.sqrt(features.R_of_A));//spread the small abort ratios.
+        signature = signature * 2 + (features.isCyclicDependency ? 1 : 0);
+        return signature * 2 + (features.isComputationComplexity ? 1 : 0);
+    }
+
+    private static int level(double share) {
+        return Math.max(0, Math.min(LEVELS - 1, (int) (share * LEVELS)));
+    }
+}
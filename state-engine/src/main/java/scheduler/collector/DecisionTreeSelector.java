@@ -0,0 +1,63 @@
+package scheduler.collector;
+
+/**
+ * Choose the scheduler by a decision tree over hand-set bottom lines.
+ */
+public class DecisionTreeSelector implements SchedulerSelector {
+    private static final String[] schedulers = {"OG_NS", "OG_NS_A", "OP_NS", "OP_NS_A", "OG_BFS", "OG_BFS_A", "OP_BFS", "OP_BFS_A", "OG_DFS", "OG_DFS_A", "OP_DFS", "OP_DFS_A"};
+    private final double B_TD;
+    private final double B_LD;
+    private final double B_PD;
+    private final double B_SUM_D;
+    private final double B_VDD;
+    private final double B_R_of_A;
+
+    /**
+     * @param bottomLine TD,LD,PD,SUM,VDD,R_of_A
+     */
+    public DecisionTreeSelector(String bottomLine) {
+        String[] b_ls = bottomLine.split(",");
+        this.B_TD = Double.parseDouble(b_ls[0]);
+        this.B_LD = Double.parseDouble(b_ls[1]);
+        this.B_PD = Double.parseDouble(b_ls[2]);
+        this.B_SUM_D = Double.parseDouble(b_ls[3]);
+        this.B_VDD = Double.parseDouble(b_ls[4]);
+        this.B_R_of_A = Double.parseDouble(b_ls[5]);
+    }
+
+    /**
+     * Implement the decision tree
+     * Return the decision of the scheduler switching
+     * Abort(Eager:1,Lazy:0)(first bit)
+     * Units(OP:1,OG:0)(second bit)
+     * Exploration(Non:00,BF:01,DF:10)(the highest bit)
+     * "OG_NS","OG_NS_A","OP_NS","OP_NS_A","OG_BFS","OG_BFS_A","OP_BFS","OP_BFS_A", "OG_DFS","OG_DFS_A","OP_DFS","OP_DFS_A"
+     *  0000     0001     0010     0011     0100     0101       0110     0111        1000     1001       1010     1011
+     * @return
+     */
+    public String decide(WorkloadFeatures features) {
+        int flag = 0;
+        if ((features.TD + features.PD + features.LD) > B_SUM_D) {
+            if (features.VDD < B_VDD) {
+                //TODO:Switch the DFS(+8) and BFS(+4)
+                flag = flag + 4;
+            }
+        }
+        if (features.isCyclicDependency || features.TD < B_TD || features.PD > B_PD) {
+            flag = flag + 2;
+        }
+        if (features.isComputationComplexity || features.R_of_A < B_R_of_A) {
+            flag = flag + 1;
+        }
+        return schedulers[flag];
+    }
+
+    @Override
+    public String select(WorkloadFeatures features, String currentScheduler) {
+        return decide(features);
+    }
+
+    @Override
+    public void feedback(String scheduler, WorkloadFeatures features, double costPerOperation) {
+    }
+}
@@ -0,0 +1,86 @@
+package scheduler.collector;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread counters of the TPG properties used by the decision tree, collected while the TPG is constructed and executed.
+ * Every thread only writes its own slot, slots are padded to a cache line so that counting stays a plain increment.
+ * The counters of all threads are merged and cleared once per marker by the Collector.
+ */
+public final class RuntimeStatistics {
+    static final int OPERATION = 0;
+    static final int TD = 1;//operations on a key already accessed in the batch.
+    static final int LD = 2;//operations depending on the header of their transaction.
+    static final int PD = 3;//conditions on other keys.
+    static final int CYCLE = 4;//operation chains resolved from a circle.
+    static final int TRANSACTION = 5;
+    static final int ABORT = 6;
+    static final int COUNTERS = 7;
+    private static final int SLOT = 8;//8 longs per thread, one cache line.
+    private static volatile boolean enabled = false;
+    private static long[] counters = new long[0];
+
+    private RuntimeStatistics() {}
+
+    public static void initialize(int threadCount) {
+        counters = new long[(threadCount + 1) * SLOT];//one extra slot as the head padding.
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static void onOperation(int threadId, boolean isNewKey) {
+        if (enabled) {
+            int slot = (threadId + 1) * SLOT;
+            counters[slot + OPERATION]++;
+            if (!isNewKey) {
+                counters[slot + TD]++;
+            }
+        }
+    }
+
+    public static void onTransaction(int threadId, int operations) {
+        if (enabled) {
+            int slot = (threadId + 1) * SLOT;
+            counters[slot + TRANSACTION]++;
+            counters[slot + LD] += operations - 1;
+        }
+    }
+
+    public static void onParametricDependency(int threadId) {
+        if (enabled) {
+            counters[(threadId + 1) * SLOT + PD]++;
+        }
+    }
+
+    public static void onCycles(int threadId, int circularOCs) {
+        if (enabled) {
+            counters[(threadId + 1) * SLOT + CYCLE] += circularOCs;
+        }
+    }
+
+    public static void onAbort(int threadId) {
+        if (enabled) {
+            counters[(threadId + 1) * SLOT + ABORT]++;
+        }
+    }
+
+    /**
+     * Sum the counters of all threads into merged and clear them.
+     * Must be called while no thread is constructing or executing the TPG, i.e., between two batches.
+     *
+     * @param merged one total per counter.
+     */
+    static void mergeAndClear(long[] merged) {
+        long[] counters = RuntimeStatistics.counters;
+        Arrays.fill(merged, 0);
+        for (int slot = SLOT; slot < counters.length; slot += SLOT) {
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += counters[slot + i];
+                counters[slot + i] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package scheduler.collector;
+
+/**
+ * Policy to choose the scheduler of the next batch, consulted by the Collector once per marker.
+ */
+public interface SchedulerSelector {
+    /**
+     * @param features         properties of the batch just processed, expected to hold for the next one.
+     * @param currentScheduler scheduler of the batch just processed.
+     * @return the scheduler of the next batch.
+     */
+    String select(WorkloadFeatures features, String currentScheduler);
+
+    /**
+     * Report the cost of a batch processed by scheduler.
+     *
+     * @param costPerOperation epoch time of the batch divided by its number of operations per thread, in ns.
+     */
+    void feedback(String scheduler, WorkloadFeatures features, double costPerOperation);
+}
@@ -0,0 +1,29 @@
+package scheduler.collector;
+
+/**
+ * TPG properties of one batch, the input of a SchedulerSelector.
+ * TD, LD and PD are numbers of dependencies per thread, VDD and R_of_A are ratios.
+ */
+public class WorkloadFeatures {
+    public double TD;
+    public double LD;
+    public double PD;
+    public double VDD;
+    public boolean isCyclicDependency;
+    public boolean isComputationComplexity;
+    public double R_of_A;
+    public double operations;//number of operations per thread.
+
+    public WorkloadFeatures() {
+    }
+
+    public WorkloadFeatures(double TD, double LD, double PD, double VDD, boolean isCyclicDependency, boolean isComputationComplexity, double R_of_A) {
+        this.TD = TD;
+        this.LD = LD;
+        this.PD = PD;
+        this.VDD = VDD;
+        this.isCyclicDependency = isCyclicDependency;
+        this.isComputationComplexity = isComputationComplexity;
+        this.R_of_A = R_of_A;
+    }
+}
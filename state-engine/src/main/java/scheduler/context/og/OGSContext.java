@@ -41,6 +41,7 @@ public class OGSContext extends OGSchedulerContext {
     @Override
     public OperationChain createTask(String tableName, String pKey, long bid) {
         OperationChain oc = new OperationChain(tableName, pKey, bid);
+        oc.setContext(this);
 //        operationChains.add(oc);
         return oc;
     }
@@ -0,0 +1,65 @@
+package scheduler.context.og;
+
+import scheduler.struct.og.OperationChain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Context of the structured scheduler releasing OCs by dependency counters instead of level barriers.
+ * OCs made ready by other threads arrive in the inbox, ready OCs are executed by ascending dependency level.
+ */
+public class OGSDCContext extends OGSContext {
+    public final Queue<OperationChain> inbox;//many producers, only the owner consumes.
+    public final PriorityQueue<OperationChain> readyOCs;
+
+    public OGSDCContext(int thisThreadId, int totalThreads) {
+        super(thisThreadId, totalThreads);
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.readyOCs = new PriorityQueue<>(Comparator.comparingInt(OperationChain::getDependencyLevel));
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        inbox.clear();
+        readyOCs.clear();
+    }
+
+    @Override
+    public void redo() {
+        super.redo();
+        inbox.clear();
+        readyOCs.clear();
+    }
+
+    /**
+     * Queue the OCs without parents, the others are released by their last parent.
+     */
+    public void submitRoots() {
+        for (ArrayList<OperationChain> ocs : allocatedLayeredOCBucket.values()) {
+            for (OperationChain oc : ocs) {
+                if (!oc.hasParents()) {
+                    readyOCs.add(oc);
+                }
+            }
+        }
+    }
+
+    public OperationChain nextReady() {
+        OperationChain oc = inbox.poll();
+        while (oc != null) {
+            readyOCs.add(oc);
+            oc = inbox.poll();
+        }
+        return readyOCs.poll();
+    }
+
+    @Override
+    public boolean finished() {
+        return scheduledOPs == totalOsToSchedule && busyWaitQueue.isEmpty();
+    }
+}
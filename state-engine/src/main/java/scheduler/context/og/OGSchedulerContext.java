@@ -1,7 +1,9 @@
 package scheduler.context.og;
 
+import common.platform.NumaTopology;
 import scheduler.Request;
 import scheduler.context.SchedulerContext;
+import scheduler.struct.og.Operation;
 import scheduler.struct.og.OperationChain;
 
 import java.util.*;
@@ -10,15 +12,19 @@ import java.util.*;
 public abstract class OGSchedulerContext implements SchedulerContext {
     public final ArrayDeque<OperationChain> busyWaitQueue;
     public int thisThreadId;
+    public final int numaNode;//NUMA node of the cpu the creating executor is bound to, -1 if unknown.
     public ArrayDeque<Request> requests;
     public int scheduledOPs;//current number of operations processed per thread.
     public int totalOsToSchedule;//total number of operations to process per thread.
     public Set<OperationChain> operationChains = new HashSet<>(); // TODO: For test purpose. Can be further removed
     public int fd = 0;
+    private final ArrayList<Operation> operationPool = new ArrayList<>();//operations submitted by this thread, reused by the next batch.
+    private int pooledOperations = 0;
 
 
     protected OGSchedulerContext(int thisThreadId) {
         this.thisThreadId = thisThreadId;
+        this.numaNode = NumaTopology.currentNode();//contexts are created by their executor after it is bound.
         requests = new ArrayDeque<>();
         busyWaitQueue = new ArrayDeque<>(); // this is used to store those ocs that does not finished
     }
@@ -33,6 +39,25 @@ public abstract class OGSchedulerContext implements SchedulerContext {
         operationChains.clear();
     }
 
+    /**
+     * Rewind the operation pool so that the next batch reuses the operations of this thread.
+     * The operations sit in the OCs of other threads until they reset the TPG, so it must only be called after all threads passed tpg.reset().
+     */
+    public void releaseOperations() {
+        pooledOperations = 0;
+    }
+
+    /**
+     * Take an operation of the pool for the transaction being submitted, it must be initialized by {@link Operation#init}.
+     * The operations of a batch are released together in releaseOperations().
+     */
+    public Operation allocateOperation() {
+        if (pooledOperations == operationPool.size()) {
+            operationPool.add(new Operation());
+        }
+        return operationPool.get(pooledOperations++);
+    }
+
     public void redo() {
         scheduledOPs = 0;
         busyWaitQueue.clear();
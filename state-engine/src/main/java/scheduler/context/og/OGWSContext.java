@@ -0,0 +1,31 @@
+package scheduler.context.og;
+
+import scheduler.statemanager.og.OperationChainStateListener;
+import scheduler.statemanager.og.WorkStealingStateManager;
+
+public class OGWSContext extends OGNSContext {
+
+    public final WorkStealingStateManager workStealingStateManager;
+
+    public OGWSContext(int thisThreadId, int totalThreads) {
+        super(thisThreadId, totalThreads);
+        workStealingStateManager = new WorkStealingStateManager();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        workStealingStateManager.clear();
+    }
+
+    @Override
+    public void redo() {
+        super.redo();
+        workStealingStateManager.clear();
+    }
+
+    @Override
+    public OperationChainStateListener getListener() {
+        return workStealingStateManager;
+    }
+}
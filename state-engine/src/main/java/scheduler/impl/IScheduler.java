@@ -3,6 +3,8 @@ package scheduler.impl;
 import durability.logging.LoggingStrategy.LoggingManager;
 import scheduler.Request;
 
+import java.util.List;
+
 public interface IScheduler<Context> {
     void INITIALIZE(Context threadId);
 
@@ -24,7 +26,13 @@ public interface IScheduler<Context> {
 
     void start_evaluation(Context context, long mark_ID, int num_events);
 
-    void initTPG(int offset);
+    /**
+     * Register the holder of operation chains for each table.
+     *
+     * @param offset the first thread of this scheduler.
+     * @param tables the tables of the storage manager.
+     */
+    void initTPG(int offset, List<String> tables);
 
     void setLoggingManager(LoggingManager loggingManager);
 }
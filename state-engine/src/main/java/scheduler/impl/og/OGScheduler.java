@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import profiler.MeasureTools;
 import scheduler.Request;
+import scheduler.collector.RuntimeStatistics;
 import scheduler.context.og.OGSchedulerContext;
 import scheduler.impl.IScheduler;
 import scheduler.struct.MetaTypes;
@@ -24,9 +25,6 @@ import storage.datatype.DataBox;
 import storage.datatype.DoubleDataBox;
 import storage.datatype.IntDataBox;
 import transaction.function.AVG;
-import transaction.function.DEC;
-import transaction.function.INC;
-import transaction.function.SUM;
 import transaction.impl.ordered.MyList;
 import utils.AppConfig;
 import utils.SOURCE_CONTROL;
@@ -52,8 +50,8 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
     }
 
     @Override
-    public void initTPG(int offset) {
-        tpg.initTPG(offset);
+    public void initTPG(int offset, List<String> tables) {
+        tpg.initTPG(offset, tables);
     }
 
     @Override
@@ -83,22 +81,14 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
      * @param delta
      * @return
      */
-    public static int getTaskId(String key, Integer delta) {
-        Integer _key = Integer.valueOf(key);
-        return _key / delta;
+    public static int getTaskId(long key, int delta) {
+        return (int) (key / delta);
     }
 
     public Context getTargetContext(TableRecord d_record) {
         // the thread to submit the operation may not be the thread to execute it.
         // we need to find the target context this thread is mapped to.
-        int threadId = getTaskId(d_record.record_.GetPrimaryKey(), delta);
-        return tpg.threadToContextMap.get(threadId);
-    }
-
-    public Context getTargetContext(String key) {
-        // the thread to submit the operation may not be the thread to execute it.
-        // we need to find the target context this thread is mapped to.
-        int threadId =  Integer.parseInt(key) / delta;
+        int threadId = getTaskId(d_record.getLongKey(), delta);
         return tpg.threadToContextMap.get(threadId);
     }
 
@@ -132,19 +122,14 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
         MeasureTools.BEGIN_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
         int success = operation.success[0];
         SchemaRecord preValues = operation.condition_records[0].content_.readPreValues(operation.bid);
-        final long sourceAccountBalance = preValues.getValues().get(1).getLong();
+        final long sourceAccountBalance = preValues.getLong(1);
         AppConfig.randomDelay();
         if (sourceAccountBalance > operation.condition.arg1
                 && sourceAccountBalance > operation.condition.arg2) {
             // read
             SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
-            if (operation.function instanceof INC) {
-                tempo_record.getValues().get(1).incLong(sourceAccountBalance, operation.function.delta_long);//compute.
-            } else if (operation.function instanceof DEC) {
-                tempo_record.getValues().get(1).decLong(sourceAccountBalance, operation.function.delta_long);//compute.
-            } else
-                throw new UnsupportedOperationException();
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
+            tempo_record = tempo_record.withLong(1, operation.function.apply(sourceAccountBalance));//compute.
             operation.d_record.content_.updateMultiValues(operation.bid, previous_mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
             synchronized (operation.success) {
                 operation.success[0] ++;
@@ -160,7 +145,7 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
         if (!operation.isFailed) {
             if (isLogging == LOGOption_path && !operation.pKey.equals(preValues.GetPrimaryKey()) && !operation.isCommit) {
                 MeasureTools.BEGIN_SCHEDULE_TRACKING_TIME_MEASURE(operation.context.thisThreadId);
-                int id = getTaskId(operation.pKey, delta);
+                int id = operation.context.thisThreadId;// the owner of the record of the operation.
                 this.loggingManager.addLogRecord(new HistoryLog(id, operation.table_name, operation.pKey, preValues.GetPrimaryKey(), operation.bid, sourceAccountBalance));
                 operation.isCommit = true;
                 MeasureTools.END_SCHEDULE_TRACKING_TIME_MEASURE(operation.context.thisThreadId);
@@ -170,6 +155,8 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
 
     /**
      * Deposite event processing
+     * The deposits following this one in the OC are folded into one read-compute-write, only the version of the last deposit is written.
+     * A run stops at a deposit whose version is read by conditioned operations, the folded deposits are skipped by execute.
      *
      * @param operation
      * @param mark_ID
@@ -178,16 +165,39 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
     protected void Depo_Fun(Operation operation, long mark_ID, boolean clean) {
         MeasureTools.BEGIN_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
         SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-        List<DataBox> values = srcRecord.getValues();
         AppConfig.randomDelay();
         //apply function to modify..
-        SchemaRecord tempo_record;
-        tempo_record = new SchemaRecord(values);//tempo record
-        tempo_record.getValues().get(1).incLong(operation.function.delta_long);//compute.
-        operation.s_record.content_.updateMultiValues(operation.bid, mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
+        long value = operation.function.apply(srcRecord.getLong(1));
+        Operation last = operation;
+        if (isLogging != LOGOption_wal && canFold(operation)) {//wal logs the pre-values of every operation.
+            Operation next;
+            while (last.fd_children.isEmpty() && (next = last.getOC().getOperations().higher(last)) != null && isFoldable(next)) {
+                AppConfig.randomDelay();
+                value = next.function.apply(value);
+                next.isFolded = true;
+                last = next;
+            }
+        }
+        SchemaRecord tempo_record = srcRecord.withLong(1, value);//tempo record, copied on write.
+        last.s_record.content_.updateMultiValues(last.bid, mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
         MeasureTools.END_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
     }
 
+    /**
+     * Intermediate versions may only be skipped when no other OC reads this chain: fd_children links a reader to the
+     * latest op present at submission, so a reader submitted before the deposits it depends on is not linked to them.
+     */
+    static boolean canFold(Operation operation) {
+        return !operation.getOC().hasChildren();
+    }
+
+    private boolean isFoldable(Operation operation) {
+        return operation.accessType.equals(READ_WRITE)
+                && !operation.isFailed
+                && !operation.getOperationState().equals(MetaTypes.OperationStateType.EXECUTED)
+                && !operation.getOperationState().equals(MetaTypes.OperationStateType.ABORTED);
+    }
+
     protected void GrepSum_Fun(Operation operation, long previous_mark_ID, boolean clean) {
         MeasureTools.BEGIN_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
         int success = operation.success[0];
@@ -197,16 +207,13 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
         AppConfig.randomDelay();
         for (int i = 0; i < keysLength; i++) {
             preValues[i] = operation.condition_records[i].content_.readPreValues(operation.bid);
-            sum += preValues[i].getValues().get(1).getLong();
+            sum += preValues[i].getLong(1);
         }
         sum /= keysLength;
         if (operation.function.delta_long != -1) {
             SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
-            if (operation.function instanceof SUM) {
-                tempo_record.getValues().get(1).setLong(sum);//compute.
-            } else
-                throw new UnsupportedOperationException();
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
+            tempo_record = tempo_record.withLong(1, operation.function.apply(sum));//compute.
             operation.d_record.content_.updateMultiValues(operation.bid, previous_mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
             synchronized (operation.success) {
                 operation.success[0]++;
@@ -224,7 +231,7 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
                 for (int i = 0; i < keysLength; i++) {
                     if (!operation.pKey.equals(operation.condition_records[i].record_.GetPrimaryKey())) {
                         MeasureTools.BEGIN_SCHEDULE_TRACKING_TIME_MEASURE(operation.context.thisThreadId);
-                        int id = getTaskId(operation.pKey, delta);
+                        int id = operation.context.thisThreadId;// the owner of the record of the operation.
                         this.loggingManager.addLogRecord(new HistoryLog(id, operation.table_name, operation.pKey, operation.condition_records[i].record_.GetPrimaryKey(), operation.bid, sum));
                         operation.isCommit = true;
                         MeasureTools.END_SCHEDULE_TRACKING_TIME_MEASURE(operation.context.thisThreadId);
@@ -281,6 +288,11 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
             commitLog(operation);
             return; // return if the operation is already aborted
         }
+        if (operation.isFolded) {
+            operation.isFolded = false;
+            commitLog(operation);
+            return; // return if the operation is already applied by the preceding deposit
+        }
         if (operation.accessType.equals(READ_WRITE_COND_READ)) {
             Transfer_Fun(operation, mark_ID, clean);
         } else if (operation.accessType.equals(READ_WRITE_COND)) {
@@ -294,7 +306,7 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
                 long bidPrice = operation.condition.arg1;
                 long bid_qty = operation.condition.arg2;
                 if (bidPrice > askPrice || bid_qty < left_qty) {
-                    d_record.get(2).setLong(left_qty - operation.function.delta_long);//new quantity.
+                    d_record.get(2).setLong(operation.function.apply(left_qty));//new quantity.
                     operation.success[0] ++;
                 }
             }
@@ -305,10 +317,7 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
                 AppConfig.randomDelay();
                 SchemaRecord srcRecord = operation.s_record.content_.ReadAccess(operation.bid,mark_ID,clean,operation.accessType);
                 List<DataBox> values = srcRecord.getValues();
-                if (operation.function instanceof INC) {
-                    values.get(2).setLong(values.get(2).getLong() + operation.function.delta_long);
-                } else
-                    throw new UnsupportedOperationException();
+                values.get(2).setLong(operation.function.apply(values.get(2).getLong()));
             }
         } else if (operation.accessType.equals(READ_WRITE_COND_READN)) {
             GrepSum_Fun(operation, mark_ID, clean);
@@ -319,7 +328,7 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
         } else if (operation.accessType.equals(WRITE_ONLY)) {
             //OB-Alert
             AppConfig.randomDelay();
-            operation.d_record.record_.getValues().get(1).setLong(operation.value);
+            operation.d_record.record_.setLong(1, operation.value);
         } else {
             throw new UnsupportedOperationException();
         }
@@ -379,6 +388,7 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
             if (!operation.isFailed && !operation.getOperationState().equals(MetaTypes.OperationStateType.ABORTED)) {
                 operation.stateTransition(MetaTypes.OperationStateType.EXECUTED);
             } else {
+                RuntimeStatistics.onAbort(context.thisThreadId);
                 checkTransactionAbort(operation, operationChain);
             }
         }
@@ -424,6 +434,9 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
         MeasureTools.END_SCHEDULE_WAIT_TIME_MEASURE(context.thisThreadId);
         context.reset();
         tpg.reset(context);
+        //the OCs reclaimed and cleared in tpg.reset() still read operations pooled by other threads.
+        SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId);
+        context.releaseOperations();
     }
 
     @Override
@@ -440,7 +453,7 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
         Operation headerOperation = null;
         Operation set_op;
         for (Request request : context.requests) {
-             set_op = constructOp(operationGraph, request);
+             set_op = constructOp(operationGraph, request, context);
             if (txnOpId == 0)
                 headerOperation = set_op;
             // addOperation an operation id for the operation for the purpose of temporal dependency construction
@@ -448,32 +461,34 @@ public abstract class OGScheduler<Context extends OGSchedulerContext> implements
             set_op.addHeader(headerOperation);
             headerOperation.addDescendant(set_op);
         }
+        if (txnOpId != 0)
+            RuntimeStatistics.onTransaction(context.thisThreadId, txnOpId);
         // set logical dependencies among all operation in the same transaction
         MeasureTools.END_TPG_CONSTRUCTION_TIME_MEASURE(context.thisThreadId);
     }
 
-    private Operation constructOp(List<Operation> operationGraph, Request request) {
+    private Operation constructOp(List<Operation> operationGraph, Request request, Context context) {
         long bid = request.txn_context.getBID();
         Operation set_op;
-        Context targetContext = getTargetContext(request.src_key);
+        Context targetContext = getTargetContext(request.d_record);
         switch (request.accessType) {
             case WRITE_ONLY:
-                set_op = new Operation(request.src_key, null, request.table_name, null, null, null,
+                set_op = context.allocateOperation().init(request.src_key, null, request.table_name, null, null, null,
                         null, request.txn_context, request.accessType, null, request.d_record, bid, targetContext);
                 set_op.value = request.value;
                 break;
             case READ_WRITE_COND: // they can use the same method for processing
             case READ_WRITE:
-                set_op = new Operation(request.src_key, request.function, request.table_name, null, request.condition_records, request.condition,
+                set_op = context.allocateOperation().init(request.src_key, request.function, request.table_name, null, request.condition_records, request.condition,
                         request.success, request.txn_context, request.accessType, request.d_record, request.d_record, bid, targetContext);
                 break;
             case READ_WRITE_COND_READ:
             case READ_WRITE_COND_READN:
-                set_op = new Operation(request.src_key, request.function, request.table_name, request.record_ref, request.condition_records, request.condition,
+                set_op = context.allocateOperation().init(request.src_key, request.function, request.table_name, request.record_ref, request.condition_records, request.condition,
                         request.success, request.txn_context, request.accessType, request.d_record, request.d_record, bid, targetContext);
                 break;
             case READ_WRITE_READ:
-                set_op = new Operation(request.src_key, request.function, request.table_name, request.record_ref, null, null,
+                set_op = context.allocateOperation().init(request.src_key, request.function, request.table_name, request.record_ref, null, null,
                         request.success, request.txn_context, request.accessType, request.d_record, request.d_record, bid, targetContext);
                 break;
             default:
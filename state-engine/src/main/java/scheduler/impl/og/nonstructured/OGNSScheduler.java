@@ -11,6 +11,8 @@ import scheduler.struct.og.OperationChain;
 import utils.FaultToleranceConstants;
 import utils.SOURCE_CONTROL;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static common.CONTROL.enable_log;
@@ -24,6 +26,7 @@ public class OGNSScheduler extends AbstractOGNSScheduler<OGNSContext> {
     public ExecutableTaskListener executableTaskListener = new ExecutableTaskListener();
 
     public AtomicBoolean needAbortHandling = new AtomicBoolean(false);
+    protected final Queue<Operation> failedOperations = new ConcurrentLinkedQueue<>();// operations failed in this batch, their transactions are redone.
 
     public OGNSScheduler(int totalThreads, int NUM_ITEMS, int app) {
         super(totalThreads, NUM_ITEMS, app);
@@ -40,8 +43,13 @@ public class OGNSScheduler extends AbstractOGNSScheduler<OGNSContext> {
         SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId);
     }
 
+    /**
+     * Roll back and redo only the transactions aborted in this batch and the OCs depending on them.
+     *
+     * @param context
+     */
     public void REINITIALIZE(OGNSContext context) {
-        tpg.secondTimeExploreTPG(context);
+        tpg.partialExploreTPG(context, failedOperations);
         SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId);
         needAbortHandling.compareAndSet(true, false);
     }
@@ -57,7 +65,7 @@ public class OGNSScheduler extends AbstractOGNSScheduler<OGNSContext> {
         if (needAbortHandling.get()) {
             BEGIN_SCHEDULE_ABORT_TIME_MEASURE(context.thisThreadId);
             if (enable_log) {
-                log.info("need abort handling, rollback and redo");
+                log.info("need abort handling, rollback and redo the affected ocs");
             }
             REINITIALIZE(context);
             do {
@@ -69,6 +77,12 @@ public class OGNSScheduler extends AbstractOGNSScheduler<OGNSContext> {
         RESET(context);
     }
 
+    @Override
+    public void RESET(OGNSContext context) {
+        super.RESET(context);
+        failedOperations.clear();
+    }
+
     /**
      * fast explore dependencies in TPG and put ready/speculative operations into task queues.
      *
@@ -93,7 +107,8 @@ public class OGNSScheduler extends AbstractOGNSScheduler<OGNSContext> {
             this.tpg.threadToPathRecord.get(operationChain.context.thisThreadId).addAbortBid(operation.bid);
             MeasureTools.END_SCHEDULE_TRACKING_TIME_MEASURE(operation.context.thisThreadId);
         }
-        // save the abort information and redo the batch.
+        // save the abort information and redo the affected ocs.
+        failedOperations.add(operation);
         needAbortHandling.compareAndSet(false, true);
     }
 
@@ -0,0 +1,124 @@
+package scheduler.impl.og.nonstructured;
+
+import durability.struct.FaultToleranceRelax;
+import scheduler.context.og.OGNSContext;
+import scheduler.context.og.OGWSContext;
+import scheduler.struct.og.OperationChain;
+import utils.SOURCE_CONTROL;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static utils.FaultToleranceConstants.LOGOption_path;
+
+/**
+ * Non-structured exploration with work stealing.
+ * OCs are still placed on the thread owning their key range, but a thread running out of ready OCs steals from the deque of a random victim
+ * on its own socket first instead of idling at the batch barrier. Aborted transactions are redone as in OGNSScheduler.
+ */
+public class OGWSScheduler extends OGNSScheduler {
+    private final AtomicInteger pendingOPs = new AtomicInteger(0);
+    private volatile OGWSContext[] victims = new OGWSContext[0];
+
+    public OGWSScheduler(int totalThreads, int NUM_ITEMS, int app) {
+        super(totalThreads, NUM_ITEMS, app);
+    }
+
+    @Override
+    public synchronized void AddContext(int threadId, OGNSContext context) {
+        super.AddContext(threadId, context);
+        OGWSContext[] contexts = Arrays.copyOf(victims, victims.length + 1);
+        contexts[victims.length] = (OGWSContext) context;
+        victims = contexts;
+    }
+
+    @Override
+    public void INITIALIZE(OGNSContext context) {
+        needAbortHandling.compareAndSet(true, false);
+        ((OGWSContext) context).workStealingStateManager.initialize(pendingOPs);
+        tpg.firstTimeExploreTPG(context);
+        if (tpg.isLogging == LOGOption_path && FaultToleranceRelax.isSelectiveLogging) {
+            this.loggingManager.selectiveLoggingPartition(context.thisThreadId);
+        }
+        pendingOPs.addAndGet(context.totalOsToSchedule);
+        SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId);//no thread steals before all roots are submitted.
+    }
+
+    /**
+     * Only the operations of the redone OCs are pending again, they are added before the barrier so that no thread finishes early.
+     *
+     * @param context
+     */
+    @Override
+    public void REINITIALIZE(OGNSContext context) {
+        tpg.partialExploreTPG(context, failedOperations);
+        pendingOPs.addAndGet(context.totalOsToSchedule - context.scheduledOPs);
+        SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId);
+        needAbortHandling.compareAndSet(true, false);
+    }
+
+    /**
+     * Ready OCs are pushed by the thread executing their last parent, there is no signal to drain.
+     *
+     * @param context
+     */
+    @Override
+    public void EXPLORE(OGNSContext context) {
+    }
+
+    @Override
+    protected void NOTIFY(OperationChain task, OGNSContext context) {
+        ((OGWSContext) context).workStealingStateManager.onOcExecuted(task);
+    }
+
+    /**
+     * Take the latest ready OC of the local deque, otherwise steal the oldest one of a random victim.
+     *
+     * @param context
+     * @return
+     */
+    @Override
+    protected OperationChain next(OGNSContext context) {
+        OperationChain operationChain = ((OGWSContext) context).workStealingStateManager.pollLocal();
+        if (operationChain == null) {
+            operationChain = steal(context);
+        }
+        return operationChain;
+    }
+
+    /**
+     * Victims on the socket of the thief are tried first, so that stolen OCs mostly touch records placed on the local node.
+     */
+    private OperationChain steal(OGNSContext context) {
+        OGWSContext[] victims = this.victims;
+        int start = ThreadLocalRandom.current().nextInt(victims.length);
+        OperationChain operationChain = steal(context, victims, start, true);
+        if (operationChain == null) {
+            operationChain = steal(context, victims, start, false);
+        }
+        return operationChain;
+    }
+
+    private OperationChain steal(OGNSContext context, OGWSContext[] victims, int start, boolean sameNode) {
+        for (int i = 0; i < victims.length; i++) {
+            OGWSContext victim = victims[(start + i) % victims.length];
+            if (victim == context || (victim.numaNode == context.numaNode) != sameNode) {
+                continue;
+            }
+            OperationChain operationChain = victim.workStealingStateManager.steal();
+            if (operationChain != null) {
+                return operationChain;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A thread keeps stealing until the operations of all threads are executed.
+     */
+    @Override
+    public boolean FINISHED(OGNSContext context) {
+        return pendingOPs.get() == 0;
+    }
+}
@@ -0,0 +1,53 @@
+package scheduler.impl.og.structured;
+
+import scheduler.context.og.OGSDCContext;
+import scheduler.struct.og.OperationChain;
+import utils.SOURCE_CONTROL;
+
+/**
+ * Structured BFS scheduler without level barriers.
+ * Every OC keeps the counter of its unexecuted parent OCs, the thread executing the last parent hands the OC over to the inbox of its owner.
+ * A thread executes its ready OCs by ascending dependency level, so the layered order is kept per thread
+ * while a thread never waits for the other threads to finish the current level.
+ */
+public class OGBFSDCScheduler extends AbstractOGBFSScheduler<OGSDCContext> {
+
+    public OGBFSDCScheduler(int totalThreads, int NUM_ITEMS, int app) {
+        super(totalThreads, NUM_ITEMS, app);
+    }
+
+    @Override
+    public void INITIALIZE(OGSDCContext context) {
+        needAbortHandling = false;
+        tpg.firstTimeExploreTPG(context);
+        selectiveLoggingPartition(context);
+        context.submitRoots();//before any thread releases the children of a root.
+        SOURCE_CONTROL.getInstance().exploreTPGBarrier(context.thisThreadId);
+    }
+
+    @Override
+    public void REINITIALIZE(OGSDCContext context) {
+        tpg.secondTimeExploreTPG(context);
+        context.submitRoots();
+        SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId);
+    }
+
+    @Override
+    public void EXPLORE(OGSDCContext context) {
+        OperationChain next = context.nextReady();
+        if (next != null) {
+            context.scheduledOPs += next.getOperations().size();
+        }
+        DISTRIBUTE(next, context);
+    }
+
+    @Override
+    protected void NOTIFY(OperationChain operationChain, OGSDCContext context) {
+        operationChain.isExecuted = true;
+        for (OperationChain child : operationChain.getChildren()) {
+            if (child.ocParentsCount.get() > 0 && child.ocParentsCount.decrementAndGet() == 0) {//OCs resolved from a circle have no parents left.
+                ((OGSDCContext) child.context).inbox.add(child);
+            }
+        }
+    }
+}
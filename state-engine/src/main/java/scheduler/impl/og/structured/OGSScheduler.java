@@ -34,10 +34,14 @@ public abstract class OGSScheduler<Context extends OGSContext> extends OGSchedul
         needAbortHandling = false;
         int threadId = context.thisThreadId;
         tpg.firstTimeExploreTPG(context);
+        selectiveLoggingPartition(context);
+        SOURCE_CONTROL.getInstance().exploreTPGBarrier(threadId);//sync for all threads to come to this line to ensure chains are constructed for the current batch.
+    }
+
+    protected void selectiveLoggingPartition(Context context) {
         if (tpg.isLogging == LOGOption_path && FaultToleranceRelax.isSelectiveLogging) {
             this.loggingManager.selectiveLoggingPartition(context.thisThreadId);
         }
-        SOURCE_CONTROL.getInstance().exploreTPGBarrier(threadId);//sync for all threads to come to this line to ensure chains are constructed for the current batch.
     }
 
     public void REINITIALIZE(Context context) {
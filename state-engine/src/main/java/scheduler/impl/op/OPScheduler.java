@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import profiler.MeasureTools;
 import scheduler.Request;
+import scheduler.collector.RuntimeStatistics;
 import scheduler.impl.IScheduler;
 import scheduler.context.op.OPSchedulerContext;
 import scheduler.struct.MetaTypes;
@@ -23,9 +24,6 @@ import storage.datatype.DataBox;
 import storage.datatype.DoubleDataBox;
 import storage.datatype.IntDataBox;
 import transaction.function.AVG;
-import transaction.function.DEC;
-import transaction.function.INC;
-import transaction.function.SUM;
 import utils.AppConfig;
 import utils.SOURCE_CONTROL;
 
@@ -48,8 +46,8 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
         this.tpg = new TaskPrecedenceGraph<>(totalThreads, delta, NUM_ITEMS, app);
     }
     @Override
-    public void initTPG(int offset) {
-        tpg.initTPG(offset);
+    public void initTPG(int offset, List<String> tables) {
+        tpg.initTPG(offset, tables);
     }
 
     @Override
@@ -84,6 +82,10 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
         return _key / delta;
     }
 
+    public static int getTaskId(long key, int delta) {
+        return (int) (key / delta);
+    }
+
     public Context getTargetContext(String key) {
         // the thread to submit the operation may not be the thread to execute it.
         // we need to find the target context this thread is mapped to.
@@ -94,7 +96,7 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
     public Context getTargetContext(TableRecord d_record) {
         // the thread to submit the operation may not be the thread to execute it.
         // we need to find the target context this thread is mapped to.
-        int threadId = getTaskId(d_record.record_.GetPrimaryKey(), delta);
+        int threadId = getTaskId(d_record.getLongKey(), delta);
         return tpg.threadToContextMap.get(threadId);
     }
 
@@ -126,7 +128,7 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
             GrepSum_Fun(operation, mark_ID, clean);
         } else if (operation.accessType.equals(WRITE_ONLY)) {
             AppConfig.randomDelay();
-            operation.d_record.record_.getValues().get(1).setLong(operation.value);
+            operation.d_record.record_.setLong(1, operation.value);
         } else if (operation.accessType.equals(READ_WRITE_READ)){
             assert operation.record_ref != null;
             if (this.tpg.getApp() == 2)
@@ -143,21 +145,16 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
         MeasureTools.BEGIN_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
         int success = operation.success[0];
         SchemaRecord preValues = operation.condition_records[0].content_.readPreValues(operation.bid);
-        final long sourceAccountBalance = preValues.getValues().get(1).getLong();
+        final long sourceAccountBalance = preValues.getLong(1);
         AppConfig.randomDelay();
 
         if (sourceAccountBalance > operation.condition.arg1
                 && sourceAccountBalance > operation.condition.arg2) {
             // read
             SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
 
-            if (operation.function instanceof INC) {
-                tempo_record.getValues().get(1).incLong(sourceAccountBalance, operation.function.delta_long);//compute.
-            } else if (operation.function instanceof DEC) {
-                tempo_record.getValues().get(1).decLong(sourceAccountBalance, operation.function.delta_long);//compute.
-            } else
-                throw new UnsupportedOperationException();
+            tempo_record = tempo_record.withLong(1, operation.function.apply(sourceAccountBalance));//compute.
             operation.d_record.content_.updateMultiValues(operation.bid, previous_mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
             synchronized (operation.success) {
                 operation.success[0] ++;
@@ -168,6 +165,7 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
         }
         if (operation.success[0] == success) {
             operation.isFailed = true;
+            RuntimeStatistics.onAbort(operation.context.thisThreadId);
         }
         MeasureTools.END_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
         if (!operation.isFailed) {
@@ -184,11 +182,9 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
     protected void Depo_Fun(Operation operation, long mark_ID, boolean clean) {
         MeasureTools.BEGIN_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
         SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-        List<DataBox> values = srcRecord.getValues();
         AppConfig.randomDelay();
         SchemaRecord tempo_record;
-        tempo_record = new SchemaRecord(values);//tempo record
-        tempo_record.getValues().get(1).incLong(operation.function.delta_long);//compute.
+        tempo_record = srcRecord.withLong(1, operation.function.apply(srcRecord.getLong(1)));//tempo record, copied on write.
         operation.s_record.content_.updateMultiValues(operation.bid, mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
         MeasureTools.END_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
     }
@@ -202,17 +198,14 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
         AppConfig.randomDelay();
         for (int i = 0; i < keysLength; i++) {
             preValues[i] = operation.condition_records[i].content_.readPreValues(operation.bid);
-            sum += preValues[i].getValues().get(1).getLong();
+            sum += preValues[i].getLong(1);
         }
         sum /= keysLength;
         if (operation.function.delta_long != -1) {
             // read
             SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
-            if (operation.function instanceof SUM) {
-                tempo_record.getValues().get(1).setLong(sum);//compute.
-            } else
-                throw new UnsupportedOperationException();
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
+            tempo_record = tempo_record.withLong(1, operation.function.apply(sum));//compute.
             operation.d_record.content_.updateMultiValues(operation.bid, previous_mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
             synchronized (operation.success) {
                 operation.success[0]++;
@@ -223,6 +216,7 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
         }
         if (operation.success[0] == success) {
             operation.isFailed = true;
+            RuntimeStatistics.onAbort(operation.context.thisThreadId);
         }
         MeasureTools.END_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
         if (!operation.isFailed) {
@@ -271,6 +265,7 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
         }
         if (operation.success[0] == success) {
             operation.isFailed = true;
+            RuntimeStatistics.onAbort(operation.context.thisThreadId);
         }
         MeasureTools.END_SCHEDULE_USEFUL_TIME_MEASURE(operation.context.thisThreadId);
     }
@@ -318,22 +313,22 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
             Operation set_op;
             switch (request.accessType) {
                 case WRITE_ONLY:
-                    set_op = new Operation(request.src_key, getTargetContext(request.src_key), request.table_name, request.txn_context, bid, request.accessType,
+                    set_op = new Operation(request.src_key, getTargetContext(request.d_record), request.table_name, request.txn_context, bid, request.accessType,
                             request.d_record, null, null, null, request.success);
                     set_op.value = request.value;
                     break;
                 case READ_WRITE: // they can use the same method for processing
                 case READ_WRITE_COND:
-                    set_op = new Operation(request.src_key, getTargetContext(request.src_key), request.table_name, request.txn_context, bid, request.accessType,
+                    set_op = new Operation(request.src_key, getTargetContext(request.d_record), request.table_name, request.txn_context, bid, request.accessType,
                             request.d_record, request.function, request.condition, request.condition_records, request.success);
                     break;
                 case READ_WRITE_COND_READ:
                 case READ_WRITE_COND_READN:
-                    set_op = new Operation(request.src_key, getTargetContext(request.src_key), request.table_name, request.txn_context, bid, request.accessType,
+                    set_op = new Operation(request.src_key, getTargetContext(request.d_record), request.table_name, request.txn_context, bid, request.accessType,
                             request.d_record, request.record_ref, request.function, request.condition, request.condition_records, request.success);
                     break;
                 case READ_WRITE_READ:
-                    set_op = new Operation(request.src_key, getTargetContext(request.src_key), request.table_name, request.txn_context, bid, request.accessType,
+                    set_op = new Operation(request.src_key, getTargetContext(request.d_record), request.table_name, request.txn_context, bid, request.accessType,
                             request.d_record, request.record_ref, request.function, null, null, request.success);
                     break;
                 default:
@@ -348,6 +343,8 @@ public abstract class OPScheduler<Context extends OPSchedulerContext, Task> impl
             set_op.addHeader(headerOperation);
             headerOperation.addDescendant(set_op);
         }
+        if (txnOpId != 0)
+            RuntimeStatistics.onTransaction(context.thisThreadId, txnOpId);
         MeasureTools.END_TPG_CONSTRUCTION_TIME_MEASURE(context.thisThreadId);
     }
 
@@ -22,9 +22,6 @@ import storage.datatype.DataBox;
 import storage.datatype.DoubleDataBox;
 import storage.datatype.IntDataBox;
 import transaction.function.AVG;
-import transaction.function.DEC;
-import transaction.function.INC;
-import transaction.function.SUM;
 import utils.AppConfig;
 import utils.SOURCE_CONTROL;
 
@@ -49,8 +46,8 @@ public class RScheduler<Context extends RSContext> implements IScheduler<Context
         this.tpg = new TaskPrecedenceGraph<>(totalThreads, delta, NUM_ITEMS, app);
     }
     @Override
-    public void initTPG(int offset) {
-        tpg.initTPG(offset);
+    public void initTPG(int offset, List<String> tables) {
+        tpg.initTPG(offset, tables);
     }
     @Override
     public void setLoggingManager(LoggingManager loggingManager) {
@@ -297,7 +294,7 @@ public class RScheduler<Context extends RSContext> implements IScheduler<Context
         final long sourceAccountBalance;
         if (op.historyView == null) {
             SchemaRecord preValues = operation.condition_records[0].content_.readPreValues(operation.bid);
-            sourceAccountBalance = preValues.getValues().get(1).getLong();
+            sourceAccountBalance = preValues.getLong(1);
         } else {
             sourceAccountBalance = Long.parseLong(String.valueOf(op.historyView));
         }
@@ -308,14 +305,9 @@ public class RScheduler<Context extends RSContext> implements IScheduler<Context
                 && sourceAccountBalance > operation.condition.arg2) {
             // read
             SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-            SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
+            SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
 
-            if (operation.function instanceof INC) {
-                tempo_record.getValues().get(1).incLong(sourceAccountBalance, operation.function.delta_long);//compute.
-            } else if (operation.function instanceof DEC) {
-                tempo_record.getValues().get(1).decLong(sourceAccountBalance, operation.function.delta_long);//compute.
-            } else
-                throw new UnsupportedOperationException();
+            tempo_record = tempo_record.withLong(1, operation.function.apply(sourceAccountBalance));//compute.
             operation.d_record.content_.updateMultiValues(operation.bid, previous_mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
             synchronized (operation.success) {
                 operation.success[0]++;
@@ -326,12 +318,10 @@ public class RScheduler<Context extends RSContext> implements IScheduler<Context
     }
     protected void Depo_Fun(AbstractOperation operation, long mark_ID, boolean clean) {
         SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-        List<DataBox> values = srcRecord.getValues();
         //apply function to modify..
         AppConfig.randomDelay();
         SchemaRecord tempo_record;
-        tempo_record = new SchemaRecord(values);//tempo record
-        tempo_record.getValues().get(1).incLong(operation.function.delta_long);//compute.
+        tempo_record = srcRecord.withLong(1, operation.function.apply(srcRecord.getLong(1)));//tempo record, copied on write.
         operation.s_record.content_.updateMultiValues(operation.bid, mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
     }
     protected void GrepSum_Fun(Operation operation, long previous_mark_ID, boolean clean) {
@@ -344,17 +334,14 @@ public class RScheduler<Context extends RSContext> implements IScheduler<Context
         } else {
             for (int i = 0; i < keysLength; i++) {
                 preValues[i] = operation.condition_records[i].content_.readPreValues(operation.bid);
-                sum += preValues[i].getValues().get(1).getLong();
+                sum += preValues[i].getLong(1);
             }
         }
         sum /= keysLength;
         SchemaRecord srcRecord = operation.s_record.content_.readPreValues(operation.bid);
-        SchemaRecord tempo_record = new SchemaRecord(srcRecord);//tempo record
+        SchemaRecord tempo_record = srcRecord;//tempo record, copied on write
         if (operation.function.delta_long != -1) {
-            if (operation.function instanceof SUM) {
-                tempo_record.getValues().get(1).setLong(sum);//compute.
-            } else
-                throw new UnsupportedOperationException();
+            tempo_record = tempo_record.withLong(1, operation.function.apply(sum));//compute.
             operation.d_record.content_.updateMultiValues(operation.bid, previous_mark_ID, clean, tempo_record);//it may reduce NUMA-traffic.
         } else {
             operation.isFailed = true;
@@ -0,0 +1,154 @@
+package scheduler.signal;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pre-allocated multi-producer single-consumer inbox of signals, local to every TPG scheduler context.
+ * A signal is stored as a primitive record (target, signalType, argument) in parallel arrays, so posting a signal does not allocate.
+ * Producers claim a slot by CAS on the tail and publish it through the sequence of the slot, the owner drains the published slots in order.
+ * When the ring is full a signal spills into an overflow queue instead of blocking, as the owner may be posting to its own inbox while draining.
+ * A spilled signal is stamped with the ring position it was refused at and is taken once the owner reaches that position,
+ * before the ring entries claimed after it, so the signals of one producer are always taken in the order they were posted.
+ */
+public class SignalInbox<T> {
+    private final int mask;
+    private final Object[] targets;
+    private final int[] signalTypes;
+    private final int[] arguments;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;//only read and written by the owner.
+    private final AtomicLong spills = new AtomicLong();//orders the signals spilled at the same position.
+    private final PriorityBlockingQueue<Spilled> overflow = new PriorityBlockingQueue<>(16, Spilled.ORDER);
+    private T polledTarget;
+    private int polledSignalType;
+    private int polledArgument;
+
+    public SignalInbox(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.mask = size - 1;
+        this.targets = new Object[size];
+        this.signalTypes = new int[size];
+        this.arguments = new int[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Post a signal, called by any thread.
+     */
+    public void post(T target, int signalType, int argument) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {//the ring is full.
+                overflow.add(new Spilled(position, spills.getAndIncrement(), target, signalType, argument));//later posts claim positions from here on.
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+        targets[index] = target;
+        signalTypes[index] = signalType;
+        arguments[index] = argument;
+        sequences.lazySet(index, position + 1);//publish
+    }
+
+    /**
+     * Take the next signal, called by the owner only. The signal is read through target(), signalType() and argument().
+     *
+     * @return false if no signal is published.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean poll() {
+        Spilled spilled = overflow.peek();
+        if (spilled != null && spilled.position <= head) {
+            spilled = overflow.poll();//a signal spilled meanwhile is stamped at most at the peeked position.
+            polledTarget = (T) spilled.target;
+            polledSignalType = spilled.signalType;
+            polledArgument = spilled.argument;
+            return true;
+        }
+        int index = (int) (head & mask);
+        if (sequences.get(index) == head + 1) {
+            polledTarget = (T) targets[index];
+            polledSignalType = signalTypes[index];
+            polledArgument = arguments[index];
+            targets[index] = null;
+            sequences.lazySet(index, head + mask + 1);//release the slot for the next round.
+            head++;
+            return true;
+        }
+        return false;//if a spilled signal waits, the positions before its stamp are claimed and about to be published.
+    }
+
+    public T target() {
+        return polledTarget;
+    }
+
+    public int signalType() {
+        return polledSignalType;
+    }
+
+    public int argument() {
+        return polledArgument;
+    }
+
+    public boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1 && overflow.isEmpty();
+    }
+
+    /**
+     * Drop the pending signals, only when no thread is posting.
+     */
+    public void clear() {
+        while (poll()) {
+            polledTarget = null;
+        }
+        polledTarget = null;
+    }
+
+    /**
+     * Pack two enum ordinals into an argument.
+     */
+    public static int pack(int first, int second) {
+        return (first << 16) | (second & 0xFFFF);
+    }
+
+    public static int first(int argument) {
+        return argument >>> 16;
+    }
+
+    public static int second(int argument) {
+        return argument & 0xFFFF;
+    }
+
+    private static final class Spilled {
+        static final Comparator<Spilled> ORDER = Comparator.<Spilled>comparingLong(spilled -> spilled.position).thenComparingLong(spilled -> spilled.sequence);
+        final long position;
+        final long sequence;
+        final Object target;
+        final int signalType;
+        final int argument;
+
+        Spilled(long position, long sequence, Object target, int signalType, int argument) {
+            this.position = position;
+            this.sequence = sequence;
+            this.target = target;
+            this.signalType = signalType;
+            this.argument = argument;
+        }
+    }
+}
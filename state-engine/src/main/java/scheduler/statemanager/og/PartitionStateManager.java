@@ -2,25 +2,24 @@ package scheduler.statemanager.og;
 
 import scheduler.context.og.OGNSContext;
 import scheduler.impl.og.nonstructured.OGNSScheduler;
-import scheduler.signal.oc.OnExecutedSignal;
-import scheduler.signal.oc.OnParentExecutedSignal;
-import scheduler.signal.oc.OnRootSignal;
-import scheduler.signal.oc.OperationChainSignal;
+import scheduler.signal.SignalInbox;
 import scheduler.struct.MetaTypes.DependencyType;
 import scheduler.struct.og.OperationChain;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
 /**
  * Local to every TPGScheduler context.
+ * Signals are posted to a pre-allocated inbox as (operationChain, signalType, argument) records instead of signal objects.
  */
 public class PartitionStateManager implements Runnable, OperationChainStateListener {
-    public final Queue<OperationChainSignal> ocSignalQueue;
+    public static final int INBOX_CAPACITY = 1 << 14;
+    private static final int ROOT = 0;
+    private static final int EXECUTED = 1;
+    private static final int PARENT_EXECUTED = 2;
+    public final SignalInbox<OperationChain> ocSignalInbox;
     private OGNSScheduler.ExecutableTaskListener executableTaskListener;
 
     public PartitionStateManager() {
-        this.ocSignalQueue = new ConcurrentLinkedQueue<>();
+        this.ocSignalInbox = new SignalInbox<>(INBOX_CAPACITY);
     }
 
     public void run() {
@@ -31,32 +30,34 @@ public class PartitionStateManager implements Runnable, OperationChainStateListe
 
     @Override
     public void onOcRootStart(OperationChain operationChain) {
-        ocSignalQueue.add(new OnRootSignal(operationChain));
+        ocSignalInbox.post(operationChain, ROOT, 0);
     }
 
     @Override
     public void onOcExecuted(OperationChain operationChain) {
-        ocSignalQueue.add(new OnExecutedSignal(operationChain));
+        ocSignalInbox.post(operationChain, EXECUTED, 0);
     }
 
     @Override
     public void onOcParentExecuted(OperationChain operationChain, DependencyType dependencyType) {
-        ocSignalQueue.add(new OnParentExecutedSignal(operationChain, dependencyType));
+        ocSignalInbox.post(operationChain, PARENT_EXECUTED, dependencyType.ordinal());
     }
 
 
     public void handleStateTransitions() {
-        OperationChainSignal ocSignal = ocSignalQueue.poll();
-        while (ocSignal != null) {
-            OperationChain operationChain = ocSignal.getTargetOperationChain();
-            if (ocSignal instanceof OnRootSignal) {
-                ocRootStartTransition(operationChain);
-            } else if (ocSignal instanceof OnExecutedSignal) {
-                ocExecutedTransition(operationChain);
-            } else if (ocSignal instanceof OnParentExecutedSignal) {
-                ocParentExecutedTransition(operationChain);
+        while (ocSignalInbox.poll()) {
+            OperationChain operationChain = ocSignalInbox.target();
+            switch (ocSignalInbox.signalType()) {
+                case ROOT:
+                    ocRootStartTransition(operationChain);
+                    break;
+                case EXECUTED:
+                    ocExecutedTransition(operationChain);
+                    break;
+                case PARENT_EXECUTED:
+                    ocParentExecutedTransition(operationChain);
+                    break;
             }
-            ocSignal = ocSignalQueue.poll();
         }
     }
 
@@ -0,0 +1,62 @@
+package scheduler.statemanager.og;
+
+import scheduler.struct.MetaTypes.DependencyType;
+import scheduler.struct.og.OperationChain;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local to every TPGScheduler context, used by the work-stealing scheduler.
+ * Only ready OCs are queued: an OC is pushed once its last parent is executed, so an OC taken by another thread is always executable.
+ * The owner takes OCs from the tail of its deque, idle threads steal from the head.
+ * Transitions are applied by the thread executing the OC instead of being signalled to the owner of the child OC,
+ * so ready children stay on the deque of the thread that produced their input.
+ */
+public class WorkStealingStateManager implements OperationChainStateListener {
+    public final ConcurrentLinkedDeque<OperationChain> readyOCs;
+    private AtomicInteger pendingOPs;//operations of the batch not executed yet, shared by all threads.
+
+    public WorkStealingStateManager() {
+        this.readyOCs = new ConcurrentLinkedDeque<>();
+    }
+
+    @Override
+    public void onOcRootStart(OperationChain operationChain) {
+        readyOCs.addLast(operationChain);
+    }
+
+    @Override
+    public void onOcExecuted(OperationChain operationChain) {
+        operationChain.isExecuted = true;
+        for (OperationChain child : operationChain.getChildren()) {
+            if (child.ocParentsCount.get() > 0) {//OCs resolved from a circle have no parents left.
+                onOcParentExecuted(child, DependencyType.FD);
+            }
+        }
+        pendingOPs.addAndGet(-operationChain.getOperations().size());
+    }
+
+    @Override
+    public void onOcParentExecuted(OperationChain operationChain, DependencyType dependencyType) {
+        if (operationChain.ocParentsCount.decrementAndGet() == 0 && !operationChain.isExecuted) {
+            readyOCs.addLast(operationChain);
+        }
+    }
+
+    public OperationChain pollLocal() {
+        return readyOCs.pollLast();
+    }
+
+    public OperationChain steal() {
+        return readyOCs.pollFirst();
+    }
+
+    public void initialize(AtomicInteger pendingOPs) {
+        this.pendingOPs = pendingOPs;
+    }
+
+    public void clear() {
+        readyOCs.clear();
+    }
+}
@@ -1,47 +1,53 @@
 package scheduler.statemanager.op;
 
 import scheduler.impl.op.nonstructured.OPNSScheduler;
+import scheduler.signal.SignalInbox;
 import scheduler.struct.MetaTypes;
 import scheduler.struct.op.Operation;
-import scheduler.signal.op.*;
-
-import java.util.Deque;
-import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
  * Local to every TPGscheduler context.
+ * Signals are posted to a pre-allocated inbox as (operation, signalType, argument) records instead of signal objects.
  */
 public class PartitionStateManager implements OperationStateListener, Runnable {
-    public final Deque<OperationSignal> opSignalQueue;
+    public static final int INBOX_CAPACITY = 1 << 14;
+    private static final int ROOT = 0;
+    private static final int PROCESSED = 1;
+    private static final int PARENT_UPDATED = 2;
+    private static final int NEED_ABORT_HANDLING = 3;
+    private static final int HEADER_START_ABORT_HANDLING = 4;
+    private static final MetaTypes.DependencyType[] DEPENDENCY_TYPES = MetaTypes.DependencyType.values();
+    private static final MetaTypes.OperationStateType[] STATE_TYPES = MetaTypes.OperationStateType.values();
+    public final SignalInbox<Operation> opSignalInbox;
     private OPNSScheduler.ExecutableTaskListener executableTaskListener;
 
 
     public PartitionStateManager() {
-        this.opSignalQueue = new ConcurrentLinkedDeque<>();
+        this.opSignalInbox = new SignalInbox<>(INBOX_CAPACITY);
     }
 
     @Override
     public void onOpParentExecuted(Operation operation, MetaTypes.DependencyType dependencyType, MetaTypes.OperationStateType parentState) {
-        opSignalQueue.add(new OnParentUpdatedSignal(operation, dependencyType, parentState));//
+        opSignalInbox.post(operation, PARENT_UPDATED, SignalInbox.pack(dependencyType.ordinal(), parentState.ordinal()));//
     }
 
     @Override
     public void onOpNeedAbortHandling(Operation operation, MetaTypes.OperationStateType headerState) {
-        opSignalQueue.add(new OnNeedAbortHandlingSignal(operation, headerState));//
+        opSignalInbox.post(operation, NEED_ABORT_HANDLING, headerState.ordinal());//
     }
 
     @Override
     public void onHeaderStartAbortHandling(Operation operation, MetaTypes.OperationStateType descendantState) {
-        opSignalQueue.add(new OnHeaderStartAbortHandlingSignal(operation, descendantState));//
+        opSignalInbox.post(operation, HEADER_START_ABORT_HANDLING, descendantState.ordinal());//
     }
 
     @Override
     public void onOpProcessed(Operation operation) {
-        opSignalQueue.add(new OnProcessedSignal(operation, operation.isFailed));//
+        opSignalInbox.post(operation, PROCESSED, operation.isFailed ? 1 : 0);//
     }
 
     public void onRootStart(Operation head) {
-        opSignalQueue.add(new OnRootSignal(head));//
+        opSignalInbox.post(head, ROOT, 0);//
     }
 
     @Override
@@ -56,17 +62,22 @@ public class PartitionStateManager implements OperationStateListener, Runnable {
 
     public void handleStateTransitions() {
         //TODO: log the operations to notify during exploration
-        OperationSignal signal = opSignalQueue.poll();
-        while (signal != null) {
-            Operation operation = signal.getTargetOperation();
-            if (signal instanceof OnProcessedSignal) {
-                onProcessedTransition(operation, (OnProcessedSignal) signal);
-            } else if (signal instanceof OnParentUpdatedSignal) {
-                onParentStateUpdatedTransition(operation, (OnParentUpdatedSignal) signal);
-            } else if (signal instanceof OnRootSignal) {
-                onRootTransition(operation);
+        while (opSignalInbox.poll()) {
+            Operation operation = opSignalInbox.target();
+            switch (opSignalInbox.signalType()) {
+                case PROCESSED:
+                    onProcessedTransition(operation);
+                    break;
+                case PARENT_UPDATED:
+                    int argument = opSignalInbox.argument();
+                    onParentStateUpdatedTransition(operation, DEPENDENCY_TYPES[SignalInbox.first(argument)], STATE_TYPES[SignalInbox.second(argument)]);
+                    break;
+                case ROOT:
+                    onRootTransition(operation);
+                    break;
+                default://abort handling is not supported by the coarse-grained scheduler.
+                    break;
             }
-            signal = opSignalQueue.poll();
         }
     }
 
@@ -76,12 +87,7 @@ public class PartitionStateManager implements OperationStateListener, Runnable {
         blockedToReadyAction(operation);
     }
 
-    private void onHeaderUpdatedTransition(OnNeedAbortHandlingSignal signal) {
-    }
-
-    private void onParentStateUpdatedTransition(Operation operation, OnParentUpdatedSignal signal) {
-        MetaTypes.DependencyType dependencyType = signal.getType();
-        MetaTypes.OperationStateType parentState = signal.getState();
+    private void onParentStateUpdatedTransition(Operation operation, MetaTypes.DependencyType dependencyType, MetaTypes.OperationStateType parentState) {
         operation.updateDependencies(dependencyType, parentState);
         // normal state transition during execution
         // **BLOCKED**
@@ -93,7 +99,7 @@ public class PartitionStateManager implements OperationStateListener, Runnable {
         }
     }
 
-    private void onProcessedTransition(Operation operation, OnProcessedSignal signal) {
+    private void onProcessedTransition(Operation operation) {
         // transit to executed
         operation.stateTransition(MetaTypes.OperationStateType.EXECUTED);
         executedAction(operation);
@@ -25,12 +25,12 @@ import static utils.FaultToleranceConstants.*;
 public abstract class AbstractOperation {
 
     //required by READ_WRITE_and Condition.
-    public final Function function;
-    public final String table_name;
-    public final TxnContext txn_context;
-    public final CommonMetaTypes.AccessType accessType;
-    public final TableRecord d_record;
-    public final long bid;
+    public Function function;
+    public String table_name;
+    public TxnContext txn_context;
+    public CommonMetaTypes.AccessType accessType;
+    public TableRecord d_record;
+    public long bid;
     public volatile TableRecordRef records_ref;//for cross-record dependency.
     public volatile SchemaRecordRef record_ref;//required by read-only: the placeholder of the reading d_record.
     public List<DataBox> value_list;//required by write-only: the value_list to be used to update the d_record.
@@ -47,6 +47,22 @@ public abstract class AbstractOperation {
 
     public AbstractOperation(Function function, String table_name, SchemaRecordRef record_ref, TableRecord[] condition_records, Condition condition, int[] success,
                              TxnContext txn_context, CommonMetaTypes.AccessType accessType, TableRecord s_record, TableRecord d_record, long bid) {
+        initialize(function, table_name, record_ref, condition_records, condition, success, txn_context, accessType, s_record, d_record, bid);
+    }
+
+    /**
+     * Used by pooled operations, which are initialized in place.
+     */
+    protected AbstractOperation() {
+    }
+
+    protected void initialize(Function function, String table_name, SchemaRecordRef record_ref, TableRecord[] condition_records, Condition condition, int[] success,
+                              TxnContext txn_context, CommonMetaTypes.AccessType accessType, TableRecord s_record, TableRecord d_record, long bid) {
+        this.records_ref = null;
+        this.value_list = null;
+        this.value = 0;
+        this.logRecord = null;
+        this.isCommit = true;
         this.function = function;
         this.table_name = table_name;
         this.record_ref = record_ref;//this holds events' record_ref.
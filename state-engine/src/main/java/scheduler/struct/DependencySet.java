@@ -0,0 +1,124 @@
+package scheduler.struct;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact set of the parent or child operation chains of an operation chain, used instead of a concurrent map per chain.
+ * Members are kept by identity in an open-addressing array, which is allocated at the first insertion and kept across batches,
+ * so most of the pre-created chains never allocate one and clearing a set does not release memory allocated again in the next batch.
+ * Insertions are synchronized as the operations of one chain may be submitted by several threads while the TPG is constructed,
+ * reads happen after the TPG is constructed and do not lock.
+ */
+public class DependencySet<T> extends AbstractCollection<T> {
+    private static final int INITIAL_CAPACITY = 4;
+    private static final Object[] EMPTY = new Object[0];
+    private volatile Object[] table = EMPTY;
+    private volatile int size;
+
+    @Override
+    public synchronized boolean add(T member) {
+        Object[] table = this.table;
+        if ((size + 1) << 1 > table.length) {
+            table = resize(table);
+        }
+        int mask = table.length - 1;
+        int index = hash(member) & mask;
+        while (table[index] != null) {
+            if (table[index] == member) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = member;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object member) {
+        Object[] table = this.table;
+        if (table.length == 0) {
+            return false;
+        }
+        int mask = table.length - 1;
+        int index = hash(member) & mask;
+        while (table[index] != null) {
+            if (table[index] == member) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all members and keep the array for the next batch.
+     */
+    @Override
+    public synchronized void clear() {
+        if (size != 0) {
+            Arrays.fill(table, null);
+            size = 0;
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final Object[] table = this.table;
+        return new Iterator<T>() {
+            private int index = advance(0);
+
+            private int advance(int from) {
+                while (from < table.length && table[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < table.length;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public T next() {
+                if (index >= table.length) {
+                    throw new NoSuchElementException();
+                }
+                T member = (T) table[index];
+                index = advance(index + 1);
+                return member;
+            }
+        };
+    }
+
+    private Object[] resize(Object[] old) {
+        Object[] table = new Object[Math.max(INITIAL_CAPACITY, old.length << 1)];
+        int mask = table.length - 1;
+        for (Object member : old) {
+            if (member != null) {
+                int index = hash(member) & mask;
+                while (table[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = member;
+            }
+        }
+        this.table = table;//publish after the members are copied.
+        return table;
+    }
+
+    private static int hash(Object member) {
+        int h = System.identityHashCode(member) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
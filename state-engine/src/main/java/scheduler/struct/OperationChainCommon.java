@@ -1,5 +1,42 @@
 package scheduler.struct;
 
+import content.Content;
+import content.common.VersionWatermark;
+import content.common.VersionedContent;
+import profiler.MeasureTools;
+
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.function.Function;
+
 public class OperationChainCommon {
     public static boolean cleanUp = false;
+
+    /**
+     * Drop versions behind the watermark for the records touched in this batch by the OCs of a thread.
+     * It runs after all threads passed the batch barrier, so the owning thread is the only writer of these records.
+     */
+    public static <OC> void reclaimVersions(int threadId, Collection<OC> ocs, Function<OC, ? extends NavigableSet<? extends AbstractOperation>> operations) {
+        if (cleanUp) {
+            return;// versions are cleaned by OperationChain.clear()
+        }
+        long watermark = VersionWatermark.get();
+        long retained = 0;
+        int records = 0;
+        for (OC oc : ocs) {
+            NavigableSet<? extends AbstractOperation> ops = operations.apply(oc);
+            if (ops.isEmpty()) {
+                continue;
+            }
+            Content content = ops.first().d_record.content_;
+            if (content instanceof VersionedContent) {
+                ((VersionedContent) content).reclaimVersions(watermark);
+                retained += ((VersionedContent) content).getRetainedVersions();
+                records++;
+            }
+        }
+        if (records != 0) {
+            MeasureTools.setRetainedVersions(threadId, retained / (double) records);
+        }
+    }
 }
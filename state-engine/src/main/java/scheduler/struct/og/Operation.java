@@ -22,14 +22,15 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 public class Operation extends AbstractOperation implements Comparable<Operation>  {
 
     //required by READ_WRITE_and Condition.
-    public final String pKey;
-    public final OGSchedulerContext context;
+    public String pKey;
+    public OGSchedulerContext context;
     protected final Queue<Operation> ld_descendant_operations;
     //required by READ_WRITE.
 //    public String[] condition_sourceTable = null;
 //    public String[] condition_source = null;
     private OperationStateType operationState;
     public boolean isFailed = false; // whether the operation is failed, this is used to detect transaction abort
+    public boolean isFolded = false; // whether the operation is already applied by a preceding operation of its OC
 
 //    public volatile Operation[] fdParentOps; // parent ops that accessing conditioned records and has smaller
 //    public volatile List<Operation> fd_parents; // parent ops that accessing conditioned records and has smaller
@@ -59,13 +60,44 @@ public class Operation extends AbstractOperation implements Comparable<Operation
         fd_children = new ConcurrentLinkedDeque<>();
     }
 
+    /**
+     * An empty operation of the operation pool of a context, see {@link #init}.
+     */
+    public Operation() {
+        fd_parents = new ConcurrentLinkedDeque<>();
+        fd_children = new ConcurrentLinkedDeque<>();
+        ld_descendant_operations = new ArrayDeque<>();
+    }
+
+    /**
+     * Initialize a pooled operation in place, same as the constructor.
+     */
+    public <Context extends OGSchedulerContext> Operation init(String pKey, Function function, String table_name, SchemaRecordRef record_ref, TableRecord[] condition_records, Condition condition, int[] success,
+                                                               TxnContext txn_context, CommonMetaTypes.AccessType accessType, TableRecord s_record, TableRecord d_record, long bid, Context context) {
+        initialize(function, table_name, record_ref, condition_records, condition, success, txn_context, accessType, s_record, d_record, bid);
+        this.pKey = pKey;
+        this.context = context;
+        fd_parents.clear();
+        fd_children.clear();
+        ld_descendant_operations.clear();
+        operationState = OperationStateType.BLOCKED;
+        isFailed = false;
+        isFolded = false;
+        txnOpId = 0;
+        ld_head_operation = null;
+        oc = null;
+        return this;
+    }
+
     @Override
     public String toString() {
         return bid + "|" + txnOpId + "|" + String.format("%-15s", this.getOperationState());
     }
 
     /**
-     * TODO: make it better.
+     * Operations are ordered by bid, then by table name, then by record.
+     * Operations are only sorted within an OC, which holds a single table, so the table rule only has to be a total order
+     * that every thread agrees on: the lexicographic order of the names is one for any application, without a table registry.
      * It has an assumption that no duplicate keys for the same BID. --> This helps a lot!
      *
      * @param operation
@@ -75,10 +107,7 @@ public class Operation extends AbstractOperation implements Comparable<Operation
     public int compareTo(Operation operation) {
         if (this.bid == (operation.bid)) {
             if (!this.table_name.equals(operation.table_name)) {
-                if (this.table_name.equals("accounts"))
-                    return 1;
-                else
-                    return -1;
+                return this.table_name.compareTo(operation.table_name);
             }
             return this.d_record.getID() - operation.d_record.getID();
         } else
@@ -1,8 +1,8 @@
 package scheduler.struct.og;
 
 import scheduler.context.og.OGSchedulerContext;
+import scheduler.struct.DependencySet;
 import transaction.impl.ordered.MyList;
-import utils.lib.ConcurrentHashMap;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -20,9 +20,8 @@ public class OperationChain implements Comparable<OperationChain> {
     public final long bid;
     protected final MyList<Operation> operations;
     public final AtomicInteger ocParentsCount;
-    // OperationChain -> ChildOp that depend on the parent OC in cur OC
-    public final ConcurrentHashMap<OperationChain, Operation> ocParents;
-    public final ConcurrentHashMap<OperationChain, Operation> ocChildren;
+    public final DependencySet<OperationChain> ocParents;
+    public final DependencySet<OperationChain> ocChildren;
     private final ConcurrentLinkedQueue<PotentialChildrenInfo> potentialChldrenInfo = new ConcurrentLinkedQueue<>();
     public boolean isExecuted = false;
 
@@ -44,8 +43,8 @@ public class OperationChain implements Comparable<OperationChain> {
         this.bid = bid;
         this.operations = new MyList<>(tableName, primaryKey);
         this.ocParentsCount = new AtomicInteger(0);
-        this.ocParents = new ConcurrentHashMap<>();
-        this.ocChildren = new ConcurrentHashMap<>();
+        this.ocParents = new DependencySet<>();
+        this.ocChildren = new DependencySet<>();
     }
 
     public String getTableName() {
@@ -78,13 +77,13 @@ public class OperationChain implements Comparable<OperationChain> {
     protected void setupDependency(Operation targetOp, OperationChain parentOC, Operation parentOp) {
 //        if (circularDetection(targetOp, parentOC, parentOp)) return;
         assert parentOC.getOperations().size() > 0;
-        if (this.ocParents.putIfAbsent(parentOC, parentOp) == null) {
+        if (this.ocParents.add(parentOC)) {
             this.ocParentsCount.incrementAndGet(); // there might have mulitple operations dependent on the same oc, eliminate those redundant here.
         }
         // add child for parent OC
-        parentOC.ocChildren.put(this, targetOp);
-        assert this.ocParents.containsKey(parentOC);
-        assert parentOC.ocChildren.containsKey(this);
+        parentOC.ocChildren.add(this);
+        assert this.ocParents.contains(parentOC);
+        assert parentOC.ocChildren.contains(this);
 //        assert this.ocParents.size() == this.ocParentsCount.get();
     }
 
@@ -115,7 +114,7 @@ public class OperationChain implements Comparable<OperationChain> {
 
     public boolean isCircular(OperationChain parentOC) {
         boolean isCircular = false;
-        if (parentOC.ocParents.containsKey(this)) {
+        if (parentOC.ocParents.contains(this)) {
             isCircular = true;
         }
 //        else {
@@ -127,7 +126,7 @@ public class OperationChain implements Comparable<OperationChain> {
     }
 
     public boolean isCircularAffected(HashSet<OperationChain> scannedOCs, HashSet<OperationChain> circularOCs) {
-        for (OperationChain parent : ocParents.keySet()) {
+        for (OperationChain parent : ocParents) {
             if (!scannedOCs.contains(parent)) { // if the oc is not traversed before, no circular.
                 scannedOCs.add(parent);
                 if (parent.isCircularAffected(scannedOCs, circularOCs)) {
@@ -142,7 +141,7 @@ public class OperationChain implements Comparable<OperationChain> {
 
     public void dfs(OperationChain oc, HashSet<OperationChain> affectedOCs) {
         affectedOCs.add(oc);
-        for (OperationChain childOC : oc.ocChildren.keySet()) {
+        for (OperationChain childOC : oc.ocChildren) {
             if (!affectedOCs.contains(childOC)) {
                 dfs(childOC, affectedOCs);
             }
@@ -194,11 +193,11 @@ public class OperationChain implements Comparable<OperationChain> {
     }
 
     public <T extends OperationChain> Collection<T> getParents() {
-        return (Collection<T>) ocParents.keySet();
+        return (Collection<T>) ocParents;
     }
 
     public <T extends OperationChain> Collection<T> getChildren() {
-        return (Collection<T>) ocChildren.keySet();
+        return (Collection<T>) ocChildren;
     }
 
     public boolean hasParents() {
@@ -1,17 +1,22 @@
 package scheduler.struct.og;
 
+import common.platform.NumaTopology;
 import common.util.graph.Graph;
+import content.common.VersionedContent;
 import durability.logging.LoggingEntry.LVLogRecord;
 import durability.logging.LoggingEntry.PathRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import profiler.MeasureTools;
 import scheduler.Request;
+import scheduler.collector.RuntimeStatistics;
 import scheduler.context.og.AbstractOGNSContext;
 import scheduler.context.og.OGNSContext;
 import scheduler.context.og.OGSContext;
 import scheduler.context.og.OGSchedulerContext;
 import scheduler.struct.MetaTypes;
+import scheduler.struct.OperationChainCommon;
+import storage.TableRecord;
 import transaction.impl.ordered.MyList;
 import utils.AppConfig;
 import utils.SOURCE_CONTROL;
@@ -21,6 +26,7 @@ import java.util.*;
 import java.util.concurrent.CyclicBarrier;
 
 import static common.CONTROL.enable_log;
+import static common.CONTROL.enable_profile;
 import static utils.FaultToleranceConstants.LOGOption_no;
 import static utils.FaultToleranceConstants.LOGOption_path;
 
@@ -48,10 +54,12 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
     protected final int delta;//range of each partition. depends on the number of op in the stage.
     private final int NUM_ITEMS;
     private final ConcurrentHashMap<String, TableOCs<OperationChain>> operationChains;//shared data structure.
+    private final List<String> tables = new ArrayList<>();//tables registered by the storage manager.
     private final ConcurrentHashMap<Integer, Deque<OperationChain>> threadToOCs;
     public ConcurrentHashMap<Integer, PathRecord> threadToPathRecord;// Used path logging
     CyclicBarrier barrier;
     private int maxLevel = 0; // just for layered scheduling
+    private final Set<OperationChain> affectedOCs = Collections.newSetFromMap(new ConcurrentHashMap<>());// OCs to redo after abort, shared by all threads.
     private final int app;
 
     public int isLogging = LOGOption_no;
@@ -74,6 +82,10 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
 //            oc.clear();
 //        }
 //        this.setOCs(context);
+        OperationChainCommon.reclaimVersions(context.thisThreadId, threadToOCs.get(context.thisThreadId), OperationChain::getOperations);
+        if (context.thisThreadId == 0) {
+            affectedOCs.clear();
+        }
         for (OperationChain oc : threadToOCs.get(context.thisThreadId)) {
             oc.clear(); // only need to clear all operations from all ocs
         }
@@ -97,18 +109,11 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
         //create holder.
         operationChains = new ConcurrentHashMap<>();
     }
-    public void initTPG(int offset) {
-        if (app == 0) {//GS
-            operationChains.put("MicroTable", new TableOCs<>(totalThreads,offset));
-        } else if (app == 1) {//SL
-            operationChains.put("accounts", new TableOCs<>(totalThreads,offset));
-            operationChains.put("bookEntries", new TableOCs<>(totalThreads,offset));
-        } else if(app == 2) {//TP
-            operationChains.put("segment_speed",new TableOCs<>(totalThreads,offset));
-            operationChains.put("segment_cnt",new TableOCs<>(totalThreads,offset));
-        } else if (app == 3) {
-            operationChains.put("goods",new TableOCs<>(totalThreads,offset));
+    public void initTPG(int offset, List<String> tables) {
+        for (String table : tables) {
+            operationChains.put(table, new TableOCs<>(totalThreads, offset));
         }
+        this.tables.addAll(tables);
     }
 
     /**
@@ -129,43 +134,17 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
         resetOCs(context);
         for (int key = left_bound; key < right_bound; key++) {
             _key = String.valueOf(key);
-            if (app == 0) {
-                OperationChain gsOC = context.createTask("MicroTable", _key, 0);
-                operationChains.get("MicroTable").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, gsOC);
-                ocs.add(gsOC);
-            } else if (app == 1) {
-                OperationChain accOC = context.createTask("accounts", _key, 0);
-                OperationChain beOC = context.createTask("bookEntries", _key, 0);
-                operationChains.get("accounts").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, accOC);
-                operationChains.get("bookEntries").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, beOC);
-                ocs.add(accOC);
-                ocs.add(beOC);
-            } else if( app == 2) {
-                OperationChain speedOC=context.createTask("segment_speed",_key,0);
-                OperationChain cntOC=context.createTask("segment_cnt",_key,0);
-                operationChains.get("segment_speed").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, speedOC);
-                operationChains.get("segment_cnt").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, cntOC);
-                ocs.add(speedOC);
-                ocs.add(cntOC);
-            } else if (app == 3){
-                OperationChain gsOC = context.createTask("goods", _key, 0);
-                operationChains.get("goods").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, gsOC);
-                ocs.add(gsOC);
+            for (String table : tables) {
+                OperationChain oc = context.createTask(table, _key, 0);
+                operationChains.get(table).threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, oc);
+                ocs.add(oc);
             }
         }
         threadToOCs.put(context.thisThreadId, ocs);
     }
     private void resetOCs(Context context) {
-        if (app == 0) {
-            operationChains.get("MicroTable").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if (app == 1) {
-            operationChains.get("accounts").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-            operationChains.get("bookEntries").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if( app == 2) {
-            operationChains.get("segment_speed").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-            operationChains.get("segment_cnt").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if (app == 3){
-            operationChains.get("goods").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
+        for (String table : tables) {
+            operationChains.get(table).threadOCsMap.get(context.thisThreadId).holder_v1.clear();
         }
     }
 
@@ -180,9 +159,12 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
     public void setupOperationTDFD(Operation operation, Request request, Context targetContext) {
         // TD
         OperationChain oc = addOperationToChain(operation, targetContext.thisThreadId);
+        if (enable_profile) {// the submitting thread appends to the OC of the owner, remote if the owner is placed on another socket.
+            MeasureTools.NUMA_ACCESS_MEASURE(operation.txn_context.thread_Id, NumaTopology.currentNode(), targetContext.numaNode);
+        }
         // FD
         if (request.condition_source != null)
-            checkFD(oc, operation, operation.table_name, operation.d_record.record_.GetPrimaryKey(), request.condition_sourceTable, request.condition_source);
+            checkFD(targetContext, oc, operation, operation.table_name, operation.d_record.record_.GetPrimaryKey(), request.condition_sourceTable, request.condition_source, request.condition_records);
     }
 
 
@@ -264,7 +246,7 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
         SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId); // wait until all threads find the circular ocs.
         int counter = 0;
         for (OperationChain oc : circularOCs) {
-            if (Integer.parseInt(oc.primaryKey) / delta == context.thisThreadId) {
+            if (oc.context == context) {
                 oc.ocParentsCount.set(0);
                 oc.ocParents.clear();
                 oc.ocChildren.clear();
@@ -272,6 +254,7 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
                 counter++;
             }
         }
+        RuntimeStatistics.onCycles(context.thisThreadId, counter);
         if (enable_log) LOG.info(context.thisThreadId + " : " + counter);
     }
 
@@ -308,6 +291,7 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
     private void resetOC(OperationChain oc) {
         oc.reset();
         for (Operation op : oc.getOperations()) {
+            op.isFolded = false;
             op.stateTransition(MetaTypes.OperationStateType.BLOCKED);
             if (op.isFailed) { // transit state to aborted.
                 op.stateTransition(MetaTypes.OperationStateType.ABORTED);
@@ -315,6 +299,100 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
         }
     }
 
+    /**
+     * Redo only the OCs affected by the aborted transactions instead of the whole batch.
+     * An OC is affected if it holds an operation of an aborted transaction, or depends on an affected OC transitively, see {@link #collectDependents}.
+     * The versions written by affected OCs are rolled back and the operations of aborted transactions are aborted,
+     * the other OCs keep their results and are counted as scheduled.
+     *
+     * @param context
+     * @param failedOperations operations failed in this batch, from all threads.
+     */
+    public void partialExploreTPG(Context context, Collection<Operation> failedOperations) {
+        context.redo();
+        HashSet<Operation> abortedHeaders = new HashSet<>();
+        ArrayDeque<OperationChain> toVisit = new ArrayDeque<>();
+        for (Operation failedOperation : failedOperations) {
+            if (!abortedHeaders.add(failedOperation.getHeader())) {
+                continue;
+            }
+            for (Operation operation : failedOperation.getHeader().getDescendants()) {
+                if (operation.getOC().context == context) {// only the owner touches the state of an operation.
+                    operation.stateTransition(MetaTypes.OperationStateType.ABORTED);
+                    if (affectedOCs.add(operation.getOC())) {
+                        toVisit.add(operation.getOC());
+                    }
+                }
+            }
+        }
+        collectDependents(toVisit, affectedOCs);
+        SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId);// wait until all threads find the affected ocs.
+        MeasureTools.BEGIN_FIRST_EXPLORE_TIME_MEASURE(context.thisThreadId);
+        ArrayDeque<OperationChain> roots = new ArrayDeque<>();
+        for (OperationChain oc : threadToOCs.get(context.thisThreadId)) {
+            if (oc.getOperations().isEmpty()) {
+                continue;
+            }
+            if (!affectedOCs.contains(oc)) {
+                context.scheduledOPs += oc.getOperations().size();
+                continue;
+            }
+            rollbackOC(oc);
+            if (!oc.hasParents()) {
+                roots.add(oc);
+            }
+        }
+        for (OperationChain oc : roots) {
+            ((AbstractOGNSContext) context).getListener().onOcRootStart(oc);
+        }
+        MeasureTools.END_FIRST_EXPLORE_TIME_MEASURE(context.thisThreadId);
+    }
+
+    /**
+     * Add the OCs depending on the OCs to visit to affected, transitively.
+     * The OC-level children of circular OCs are cleared once their cycle is resolved, so the children are also found through the operation-level fd_children.
+     */
+    static void collectDependents(Deque<OperationChain> toVisit, Set<OperationChain> affected) {
+        while (!toVisit.isEmpty()) {
+            OperationChain oc = toVisit.poll();
+            for (OperationChain child : oc.<OperationChain>getChildren()) {
+                if (affected.add(child)) {
+                    toVisit.add(child);
+                }
+            }
+            for (Operation op : oc.getOperations()) {
+                for (Operation child : op.fd_children) {
+                    if (affected.add(child.getOC())) {
+                        toVisit.add(child.getOC());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Only the parents to be redone will notify the OC again.
+     */
+    private void rollbackOC(OperationChain oc) {
+        int affectedParents = 0;
+        for (OperationChain parent : oc.getParents()) {
+            if (affectedOCs.contains(parent)) {
+                affectedParents++;
+            }
+        }
+        oc.isExecuted = false;
+        oc.ocParentsCount.set(affectedParents);
+        for (Operation op : oc.getOperations()) {
+            if (op.d_record.content_ instanceof VersionedContent) {
+                ((VersionedContent) op.d_record.content_).rollbackVersion(op.bid);
+            }
+            op.isFolded = false;
+            if (op.getOperationState() != MetaTypes.OperationStateType.ABORTED) {
+                op.stateTransition(MetaTypes.OperationStateType.BLOCKED);
+            }
+        }
+    }
+
     public void Explore(Context context) {
         int threadId = context.thisThreadId;
         MeasureTools.BEGIN_FIRST_EXPLORE_TIME_MEASURE(threadId);
@@ -341,7 +419,7 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
         SOURCE_CONTROL.getInstance().waitForOtherThreads(context.thisThreadId); // wait until all threads find the circular ocs.
         int counter = 0;
         for (OperationChain oc : circularOCs) {
-            if (Integer.parseInt(oc.primaryKey) / delta == context.thisThreadId) {
+            if (oc.context == context) {
                 counter ++;
                 oc.ocParentsCount.set(0);
                 oc.ocParents.clear();
@@ -422,7 +500,7 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
         stack.push(oc);
         inStack.put(oc, true);
 
-        for (OperationChain parentOC : oc.ocParents.keySet()) {
+        for (OperationChain parentOC : oc.ocParents) {
             if (!dfn.containsKey(parentOC)) {
                 tarjanDfs((OperationChain) parentOC, dfn, low, inStack, stack, ts, circularOCs);
                 low.put(oc, Math.min(low.get(oc), low.get(parentOC)));
@@ -458,7 +536,7 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
 
     public void dfs(OperationChain oc, HashSet<OperationChain> affectedOCs) {
         affectedOCs.add(oc);
-        for (OperationChain childOC : oc.ocChildren.keySet()) {
+        for (OperationChain childOC : oc.ocChildren) {
             if (!affectedOCs.contains(childOC)) {
                 dfs((OperationChain) childOC, affectedOCs);
             }
@@ -487,7 +565,9 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
         String table_name = operation.table_name;
         String primaryKey = operation.d_record.record_.GetPrimaryKey();
         OperationChain retOc = getOC(table_name, primaryKey, targetThreadId);
+        boolean isNewKey = retOc.getOperations().isEmpty();
         retOc.addOperation(operation);
+        RuntimeStatistics.onOperation(operation.txn_context.thread_Id, isNewKey);
         return retOc;
     }
 
@@ -497,20 +577,22 @@ public class TaskPrecedenceGraph<Context extends OGSchedulerContext> {
 //        return holder.get(pKey);
     }
 
-    private OperationChain getOC(String tableName, String pKey) {
-        int threadId = Integer.parseInt(pKey) / delta;
-        ConcurrentHashMap<String, OperationChain> holder = getTableOCs(tableName).threadOCsMap.get(threadId).holder_v1;
-        return holder.computeIfAbsent(pKey, s -> threadToContextMap.get(threadId).createTask(tableName, pKey, 0));
-//        return holder.get(pKey);
+    private OperationChain getOC(String tableName, TableRecord record) {
+        int threadId = (int) (record.getLongKey() / delta);
+        return getOC(tableName, record.record_.GetPrimaryKey(), threadId);
     }
 
-    private void checkFD(OperationChain curOC, Operation op, String table_name,
-                         String key, String[] condition_sourceTable, String[] condition_source) {
+    private void checkFD(Context targetContext, OperationChain curOC, Operation op, String table_name,
+                         String key, String[] condition_sourceTable, String[] condition_source, TableRecord[] condition_records) {
         if (condition_source != null) {
             for (int index = 0; index < condition_source.length; index++) {
                 if (table_name.equals(condition_sourceTable[index]) && key.equals(condition_source[index]))
                     continue;// no need to check data dependency on a key itself.
-                OperationChain OCFromConditionSource = getOC(condition_sourceTable[index], condition_source[index]);
+                RuntimeStatistics.onParametricDependency(op.txn_context.thread_Id);
+                OperationChain OCFromConditionSource = getOC(condition_sourceTable[index], condition_records[index]);
+                if (enable_profile) {// the condition record is read by the executor of op, remote if its owner is placed on another socket.
+                    MeasureTools.NUMA_ACCESS_MEASURE(op.txn_context.thread_Id, targetContext.numaNode, OCFromConditionSource.context.numaNode);
+                }
                 // dependency.getOperations().first().bid >= bid -- Check if checking only first ops bid is enough.
                 MyList<Operation> conditionedOps = OCFromConditionSource.getOperations();
                 if (OCFromConditionSource.getOperations().isEmpty() || conditionedOps.first().bid >= op.bid) {
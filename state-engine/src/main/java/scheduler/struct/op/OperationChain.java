@@ -1,8 +1,8 @@
 package scheduler.struct.op;
 
+import scheduler.struct.DependencySet;
 import scheduler.struct.MetaTypes.DependencyType;
 import transaction.impl.ordered.MyList;
-import utils.lib.ConcurrentHashMap;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -24,7 +24,7 @@ public class OperationChain implements Comparable<OperationChain> {
     public boolean isExecuted = false;
 
     // layered OC related
-    public final ConcurrentHashMap<OperationChain, Operation> ocParents; // for layered TPG building
+    public final DependencySet<OperationChain> ocParents; // for layered TPG building
     private boolean isDependencyLevelCalculated = false; // we only do this once before executing all OCs.
     private int dependencyLevel = -1;
 
@@ -33,7 +33,7 @@ public class OperationChain implements Comparable<OperationChain> {
         this.tableName = tableName;
         this.primaryKey = primaryKey;
         this.operations = new MyList<>(tableName, primaryKey);
-        this.ocParents = new ConcurrentHashMap<>();
+        this.ocParents = new DependencySet<>();
     }
 
     public String getTableName() {
@@ -91,7 +91,7 @@ public class OperationChain implements Comparable<OperationChain> {
             if (parentOp.bid < targetOp.bid) { // find the exact operation in parent OC that this target OP depends on.
                 targetOp.addParent(parentOp, DependencyType.FD);
                 parentOp.addChild(targetOp, DependencyType.FD);
-                ocParents.put(parentOC, parentOp);
+                ocParents.add(parentOC);
                 break;
             }
         }
@@ -178,7 +178,7 @@ public class OperationChain implements Comparable<OperationChain> {
         if (isDependencyLevelCalculated)
             return;
         dependencyLevel = 0;
-        for (OperationChain parent : ocParents.keySet()) {
+        for (OperationChain parent : ocParents) {
             if (!parent.hasValidDependencyLevel()) {
                 parent.updateDependencyLevel();
             }
@@ -7,10 +7,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import profiler.MeasureTools;
 import scheduler.Request;
+import scheduler.collector.RuntimeStatistics;
 import scheduler.context.op.OPNSContext;
 import scheduler.context.op.OPSContext;
 import scheduler.context.op.OPSchedulerContext;
 import scheduler.struct.MetaTypes;
+import scheduler.struct.OperationChainCommon;
 import utils.SOURCE_CONTROL;
 import utils.lib.ConcurrentHashMap;
 
@@ -44,6 +46,7 @@ public class TaskPrecedenceGraph<Context extends OPSchedulerContext> {
     private final int app;
     CyclicBarrier barrier;
     public final ConcurrentHashMap<Integer, Context> threadToContextMap;
+    private final List<String> tables = new ArrayList<>();//tables registered by the storage manager.
     private final ConcurrentHashMap<String, TableOCs> operationChains;//shared data structure.
     public final ConcurrentHashMap<Integer, Deque<OperationChain>> threadToOCs;
     public ConcurrentHashMap<Integer, PathRecord> threadToPathRecord;//Used by path logging
@@ -52,6 +55,7 @@ public class TaskPrecedenceGraph<Context extends OPSchedulerContext> {
     public int isLogging = LOGOption_no;
     public void reset(Context context) {
         //TODO: the short cut should be reset, but will take some time.
+        OperationChainCommon.reclaimVersions(context.thisThreadId, threadToOCs.get(context.thisThreadId), OperationChain::getOperations);
         for (OperationChain oc : threadToOCs.get(context.thisThreadId)) {
             oc.clear();// only need to clear all operations from all ocs
         }
@@ -70,18 +74,11 @@ public class TaskPrecedenceGraph<Context extends OPSchedulerContext> {
         //create holder.
         operationChains = new ConcurrentHashMap<>();
     }
-    public void initTPG(int offset) {
-        if (app == 0) {//GS
-            operationChains.put("MicroTable", new TableOCs(totalThreads,offset));
-        } else if (app == 1) {//SL
-            operationChains.put("accounts", new TableOCs(totalThreads,offset));
-            operationChains.put("bookEntries", new TableOCs(totalThreads,offset));
-        } else if (app == 2){//TP
-            operationChains.put("segment_speed",new TableOCs(totalThreads,offset));
-            operationChains.put("segment_cnt",new TableOCs(totalThreads,offset));
-        } else if (app == 3) {//OB
-            operationChains.put("goods",new TableOCs(totalThreads,offset));
+    public void initTPG(int offset, List<String> tables) {
+        for (String table : tables) {
+            operationChains.put(table, new TableOCs(totalThreads, offset));
         }
+        this.tables.addAll(tables);
     }
 
     /**
@@ -102,43 +99,17 @@ public class TaskPrecedenceGraph<Context extends OPSchedulerContext> {
         String _key;
         for (int key = left_bound; key < right_bound; key++) {
             _key = String.valueOf(key);
-            if (app == 0) {
-                OperationChain gsOC = context.createTask("MicroTable", _key);
-                operationChains.get("MicroTable").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, gsOC);
-                ocs.add(gsOC);
-            } else if (app == 1) {
-                OperationChain accOC = context.createTask("accounts", _key);
-                OperationChain beOC = context.createTask("bookEntries", _key);
-                operationChains.get("accounts").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, accOC);
-                operationChains.get("bookEntries").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, beOC);
-                ocs.add(accOC);
-                ocs.add(beOC);
-            } else if (app == 2) {
-                OperationChain speedOC=context.createTask("segment_speed",_key);
-                OperationChain cntOC=context.createTask("segment_cnt",_key);
-                operationChains.get("segment_speed").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, speedOC);
-                operationChains.get("segment_cnt").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, cntOC);
-                ocs.add(speedOC);
-                ocs.add(cntOC);
-            } else if (app == 3) {
-                OperationChain gsOC = context.createTask("goods", _key);
-                operationChains.get("goods").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, gsOC);
-                ocs.add(gsOC);
+            for (String table : tables) {
+                OperationChain oc = context.createTask(table, _key);
+                operationChains.get(table).threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, oc);
+                ocs.add(oc);
             }
         }
         threadToOCs.put(context.thisThreadId, ocs);
     }
     private void resetOCs(Context context) {
-        if (app == 0) {
-            operationChains.get("MicroTable").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if (app == 1) {
-            operationChains.get("accounts").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-            operationChains.get("bookEntries").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if( app == 2) {
-            operationChains.get("segment_speed").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-            operationChains.get("segment_cnt").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if (app == 3){
-            operationChains.get("goods").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
+        for (String table : tables) {
+            operationChains.get(table).threadOCsMap.get(context.thisThreadId).holder_v1.clear();
         }
     }
 
@@ -308,7 +279,9 @@ public class TaskPrecedenceGraph<Context extends OPSchedulerContext> {
         String table_name = operation.table_name;
         String primaryKey = operation.pKey;
         OperationChain retOc = getOC(table_name, primaryKey, operation.context.thisThreadId);
+        boolean isNewKey = retOc.getOperations().isEmpty();
         retOc.addOperation(operation);
+        RuntimeStatistics.onOperation(operation.txn_context.thread_Id, isNewKey);
         return retOc;
     }
 
@@ -332,6 +305,7 @@ public class TaskPrecedenceGraph<Context extends OPSchedulerContext> {
             for (int index = 0; index < condition_source.length; index++) {
                 if (table_name.equals(condition_sourceTable[index]) && key.equals(condition_source[index]))
                     continue;// no need to check data dependency on a key itself.
+                RuntimeStatistics.onParametricDependency(op.txn_context.thread_Id);
                 OperationChain OCFromConditionSource = getOC(condition_sourceTable[index], condition_source[index]);
                 // dependency.getOperations().first().bid >= bid -- Check if checking only first ops bid is enough.
                 if (OCFromConditionSource.getOperations().isEmpty() || OCFromConditionSource.getOperations().first().bid >= op.bid) {
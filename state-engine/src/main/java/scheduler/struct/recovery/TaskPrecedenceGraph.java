@@ -7,7 +7,9 @@ import scheduler.context.recovery.RSContext;
 import utils.lib.ConcurrentHashMap;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 
 
 public class TaskPrecedenceGraph <Context extends RSContext>{
@@ -19,6 +21,7 @@ public class TaskPrecedenceGraph <Context extends RSContext>{
     public int isLogging;
     public final ConcurrentHashMap<Integer, Context> threadToContextMap;
     private final ConcurrentHashMap<String, TableOCs> operationChains;//shared data structure.
+    private final List<String> tables = new ArrayList<>();//tables registered by the storage manager.
     public final ConcurrentHashMap<Integer, Deque<OperationChain>> threadToOCs;//Exactly which OCs are executed by each thread.
     public ConcurrentHashMap<Integer, PathRecord> threadToPathRecord;// Used by fault tolerance
 
@@ -32,18 +35,11 @@ public class TaskPrecedenceGraph <Context extends RSContext>{
         this.operationChains = new ConcurrentHashMap<>();
         this.threadToOCs = new ConcurrentHashMap<>();
     }
-    public void initTPG(int offset) {
-        if (app == 0) {//GS
-            operationChains.put("MicroTable", new TableOCs(totalThreads,offset));
-        } else if (app == 1) {//SL
-            operationChains.put("accounts", new TableOCs(totalThreads,offset));
-            operationChains.put("bookEntries", new TableOCs(totalThreads,offset));
-        } else if (app == 2){//TP
-            operationChains.put("segment_speed",new TableOCs(totalThreads,offset));
-            operationChains.put("segment_cnt",new TableOCs(totalThreads,offset));
-        } else if (app == 3) {//OB
-            operationChains.put("goods",new TableOCs(totalThreads,offset));
+    public void initTPG(int offset, List<String> tables) {
+        for (String table : tables) {
+            operationChains.put(table, new TableOCs(totalThreads, offset));
         }
+        this.tables.addAll(tables);
     }
     public void setOCs(Context context) {
         ArrayDeque<OperationChain> ocs = new ArrayDeque<>();
@@ -58,43 +54,17 @@ public class TaskPrecedenceGraph <Context extends RSContext>{
         String _key;
         for (int key = left_bound; key < right_bound; key++) {
             _key = String.valueOf(key);
-            if (app == 0) {
-                OperationChain gsOC = context.createTask("MicroTable", _key);
-                operationChains.get("MicroTable").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, gsOC);
-                ocs.add(gsOC);
-            } else if (app == 1) {
-                OperationChain accOC = context.createTask("accounts", _key);
-                OperationChain beOC = context.createTask("bookEntries", _key);
-                operationChains.get("accounts").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, accOC);
-                operationChains.get("bookEntries").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, beOC);
-                ocs.add(accOC);
-                ocs.add(beOC);
-            } else if (app == 2) {
-                OperationChain speedOC = context.createTask("segment_speed",_key);
-                OperationChain cntOC = context.createTask("segment_cnt",_key);
-                operationChains.get("segment_speed").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, speedOC);
-                operationChains.get("segment_cnt").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, cntOC);
-                ocs.add(speedOC);
-                ocs.add(cntOC);
-            } else if (app == 3) {
-                OperationChain gsOC = context.createTask("goods", _key);
-                operationChains.get("goods").threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, gsOC);
-                ocs.add(gsOC);
+            for (String table : tables) {
+                OperationChain oc = context.createTask(table, _key);
+                operationChains.get(table).threadOCsMap.get(context.thisThreadId).holder_v1.put(_key, oc);
+                ocs.add(oc);
             }
         }
         threadToOCs.put(context.thisThreadId, ocs);//Init task placing
     }
     private void resetOCs(Context context){
-        if (app == 0) {
-            operationChains.get("MicroTable").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if (app == 1) {
-            operationChains.get("accounts").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-            operationChains.get("bookEntries").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if( app == 2) {
-            operationChains.get("segment_speed").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-            operationChains.get("segment_cnt").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
-        } else if (app == 3){
-            operationChains.get("goods").threadOCsMap.get(context.thisThreadId).holder_v1.clear();
+        for (String table : tables) {
+            operationChains.get(table).threadOCsMap.get(context.thisThreadId).holder_v1.clear();
         }
     }
     public TableOCs getTableOCs(String tableName) {
@@ -1,57 +1,238 @@
 package storage;
 
+import storage.datatype.ColumnDataBox;
 import storage.datatype.DataBox;
+import storage.datatype.DoubleDataBox;
+import storage.datatype.LongDataBox;
+import storage.datatype.StringDataBox;
 import storage.table.RecordSchema;
 import storage.table.RowID;
-import utils.Utils;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * A wrapper class for an individual d_record. Simply stores a list of DataBoxes.
+ * A wrapper class for an individual d_record.
+ * Values are kept column by column: long and double columns live in a primitive slab indexed by the column offset of the RecordSchema,
+ * the other columns keep their own DataBox. The DataBox of a slab column is only a view over the slab.
  */
 public class SchemaRecord {
+    private static final byte BOXED = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
     private final DataBox single_value;//only used by TSTREAM.
     public boolean is_visible_;
     public RecordSchema schema_ptr_;
     private RowID id;
-    private volatile List<DataBox> values;//TODO: Note that, I'm not following the pointer based implementation in Cavalia (C++ based). This may or may not be suitable...
+    private byte[] layout;//kind of each column, shared by all the copies of a record.
+    private volatile long[] slab;//long and double (raw bits) columns.
+    private volatile DataBox[] boxes;//other columns, null for slab columns.
+    private List<DataBox> view;
 
     public SchemaRecord(DataBox values) {
         this.single_value = values;
     }
 
     public SchemaRecord(List<DataBox> values) {
-        this.values = values;
         single_value = null;
+        pack(values, false);
     }
 
     public SchemaRecord(SchemaRecord _record_ptr) {
         this.id = _record_ptr.id;
-        this.values = Utils.memcpy(_record_ptr.values);//memcpy( * data, data_ptr_, data_size_);
+        this.layout = _record_ptr.layout;
+        this.slab = _record_ptr.slab.clone();//memcpy( * data, data_ptr_, data_size_);
+        this.boxes = cloneBoxes(_record_ptr.boxes);
         single_value = null;
     }
 
+    /**
+     * Copy-on-write delta: only the slab is copied, boxed columns are shared with the source.
+     */
+    private SchemaRecord(SchemaRecord _record_ptr, long[] slab) {
+        this.id = _record_ptr.id;
+        this.layout = _record_ptr.layout;
+        this.slab = slab;
+        this.boxes = _record_ptr.boxes;
+        single_value = null;
+    }
+
+    private static DataBox[] cloneBoxes(DataBox[] boxes) {
+        DataBox[] copy = new DataBox[boxes.length];
+        for (int i = 0; i < boxes.length; i++) {
+            DataBox box = boxes[i];
+            if (box == null || box instanceof StringDataBox) {
+                copy[i] = box;//keys are never updated in place.
+            } else {
+                copy[i] = box.clone();
+            }
+        }
+        return copy;
+    }
+
+    private void pack(List<DataBox> values, boolean copy) {
+        if (values instanceof ColumnView) {
+            SchemaRecord src = ((ColumnView) values).owner();
+            if (!Arrays.equals(this.layout, src.layout)) {
+                view = null;
+            }
+            this.layout = src.layout;
+            this.boxes = copy ? cloneBoxes(src.boxes) : src.boxes.clone();
+            this.slab = src.slab.clone();
+            return;
+        }
+        int size = values.size();
+        byte[] layout = new byte[size];
+        long[] slab = new long[size];
+        DataBox[] boxes = new DataBox[size];
+        int i = 0;
+        for (DataBox value : values) {
+            if (value instanceof LongDataBox || value instanceof ColumnDataBox && !((ColumnDataBox) value).isDouble()) {
+                layout[i] = LONG;
+                slab[i] = value.getLong();
+            } else if (value instanceof DoubleDataBox || value instanceof ColumnDataBox) {
+                layout[i] = DOUBLE;
+                slab[i] = Double.doubleToRawLongBits(value.getDouble());
+            } else {
+                layout[i] = BOXED;
+                boxes[i] = value;
+            }
+            i++;
+        }
+        if (!Arrays.equals(this.layout, layout)) {
+            this.layout = layout;
+            view = null;
+        }
+        this.boxes = copy ? cloneBoxes(boxes) : boxes;
+        this.slab = slab;
+    }
+
+    /**
+     * @return a list view over the columns, or null if the record holds a single value or has been cleaned.
+     */
     public List<DataBox> getValues() {
-        return this.values;
+        if (boxes == null) {
+            return null;
+        }
+        if (view == null) {
+            view = new ColumnView();
+        }
+        return view;
     }
 
     public DataBox getValue() {
         return this.single_value;
     }
 
+    public int size() {
+        return layout.length;
+    }
+
+    public long getLong(int column) {
+        if (layout[column] == LONG) {
+            return slab[column];
+        }
+        return getColumn(column).getLong();
+    }
+
+    public void setLong(int column, long value) {
+        if (layout[column] == LONG) {
+            slab[column] = value;
+        } else {
+            getColumn(column).setLong(value);
+        }
+    }
+
+    public double getDouble(int column) {
+        if (layout[column] == DOUBLE) {
+            return Double.longBitsToDouble(slab[column]);
+        }
+        return getColumn(column).getDouble();
+    }
+
+    public void setDouble(int column, double value) {
+        if (layout[column] == DOUBLE) {
+            slab[column] = Double.doubleToRawLongBits(value);
+        } else {
+            getColumn(column).setDouble(value);
+        }
+    }
+
+    /**
+     * Replace a boxed column, slab columns take the value of the DataBox.
+     */
+    public void setColumn(int column, DataBox value) {
+        if (layout[column] == LONG) {
+            slab[column] = value.getLong();
+        } else if (layout[column] == DOUBLE) {
+            slab[column] = Double.doubleToRawLongBits(value.getDouble());
+        } else {
+            boxes[column] = value;
+        }
+    }
+
+    public boolean isDoubleColumn(int column) {
+        return layout[column] == DOUBLE;
+    }
+
+    /**
+     * @return a new version of this record that differs only by the given long column.
+     */
+    public SchemaRecord withLong(int column, long value) {
+        if (layout[column] != LONG) {
+            SchemaRecord copy = new SchemaRecord(this);
+            copy.setLong(column, value);
+            return copy;
+        }
+        long[] delta = slab.clone();
+        delta[column] = value;
+        return new SchemaRecord(this, delta);
+    }
+
+    /**
+     * @return a new version of this record that differs only by the given double column.
+     */
+    public SchemaRecord withDouble(int column, double value) {
+        if (layout[column] != DOUBLE) {
+            SchemaRecord copy = new SchemaRecord(this);
+            copy.setDouble(column, value);
+            return copy;
+        }
+        long[] delta = slab.clone();
+        delta[column] = Double.doubleToRawLongBits(value);
+        return new SchemaRecord(this, delta);
+    }
+
+    /**
+     * @return the DataBox of a column, a view for slab columns.
+     */
+    public DataBox getColumn(int column) {
+        DataBox box = boxes[column];
+        if (box == null) {
+            return getValues().get(column);
+        }
+        return box;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (!(other instanceof SchemaRecord)) {
             return false;
         }
         SchemaRecord otherRecord = (SchemaRecord) other;
-        if (values.size() != otherRecord.values.size()) {
+        if (layout.length != otherRecord.layout.length) {
             return false;
         }
-        for (int i = 0; i < values.size(); i++) {
-            if (!(values.get(i).equals(otherRecord.values.get(i)))) {
+        for (int i = 0; i < layout.length; i++) {
+            if (layout[i] != otherRecord.layout[i]) {
+                return false;
+            }
+            if (layout[i] == BOXED) {
+                if (!(boxes[i].equals(otherRecord.boxes[i]))) {
+                    return false;
+                }
+            } else if (slab[i] != otherRecord.slab[i]) {
                 return false;
             }
         }
@@ -60,9 +241,9 @@ public class SchemaRecord {
 
     @Override
     public String toString() {
-        if (values != null) {
+        if (boxes != null) {
             StringBuilder s = new StringBuilder();
-            for (DataBox d : values) {
+            for (DataBox d : getValues()) {
                 s.append(d.toString().trim());
                 s.append(",");
             }
@@ -87,23 +268,56 @@ public class SchemaRecord {
      * @return
      */
     public String GetPrimaryKey() {
-        return values.get(0).getString();
+        return getColumn(0).getString();
     }
 
     public String GetSecondaryKey(int i) {
-        return values.get(i).getString();
+        return getColumn(i).getString();
     }
 
     public void clean() {
-        values = null;
+        boxes = null;
+        slab = null;
     }
 
     public void CopyFrom(SchemaRecord src_record) {
         this.id = src_record.id;
-        this.values = new ArrayList<>(src_record.values);
+        this.layout = src_record.layout;
+        this.boxes = src_record.boxes.clone();
+        this.slab = src_record.slab.clone();
     }
 
     public void updateValues(List<DataBox> value) {
-        this.values = Utils.memcpy(value);
+        pack(value, true);
+    }
+
+    /**
+     * List of the columns, slab columns are exposed through views created on first access.
+     */
+    private final class ColumnView extends AbstractList<DataBox> {
+        private final DataBox[] columns = new DataBox[layout.length];
+
+        SchemaRecord owner() {
+            return SchemaRecord.this;
+        }
+
+        @Override
+        public DataBox get(int index) {
+            DataBox box = boxes[index];
+            if (box != null) {
+                return box;
+            }
+            DataBox column = columns[index];
+            if (column == null) {
+                column = new ColumnDataBox(SchemaRecord.this, index, layout[index] == DOUBLE);
+                columns[index] = column;
+            }
+            return column;
+        }
+
+        @Override
+        public int size() {
+            return layout.length;
+        }
     }
 }
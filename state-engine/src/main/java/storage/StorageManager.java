@@ -6,7 +6,9 @@ import db.DatabaseException;
 import durability.ftmanager.FTManager;
 import durability.snapshot.SnapshotOptions;
 import durability.snapshot.SnapshotResult.SnapshotResult;
+import durability.snapshot.SnapshotStrategy.ImplSnapshotStrategy.InMemoryIncrementalSnapshotStrategy;
 import durability.snapshot.SnapshotStrategy.ImplSnapshotStrategy.InMemorySnapshotStrategy;
+import durability.snapshot.SnapshotStrategy.SnapshotStrategy;
 import storage.datatype.DataBox;
 import storage.table.BaseTable;
 import storage.table.RecordSchema;
@@ -21,15 +23,20 @@ public class StorageManager {
     /**
      * Add for snapshot
      * */
-    private final InMemorySnapshotStrategy snapshotStrategy;
+    private final SnapshotStrategy<?> snapshotStrategy;
     public Map<String, BaseTable> tables;
+    private final List<String> tableNames = new ArrayList<>();//in the order of creation.
     int table_count;
 
     public StorageManager(Configuration configuration) {
         tables = new ConcurrentHashMap<>();
-        snapshotStrategy = new InMemorySnapshotStrategy(tables,
-                new SnapshotOptions(configuration.getInt("parallelNum"), "None"),
-                configuration.getString("rootFilePath") + OsUtils.OS_wrapper("snapshot"));
+        SnapshotOptions snapshotOptions = new SnapshotOptions(configuration.getInt("parallelNum"), "None");
+        String snapshotPath = configuration.getString("rootFilePath") + OsUtils.OS_wrapper("snapshot");
+        if (configuration.getString("snapshotStrategy", "Full").equals("Incremental")) {
+            snapshotStrategy = new InMemoryIncrementalSnapshotStrategy(tables, snapshotOptions, snapshotPath, configuration.getInt("maxDeltaChain", 8));
+        } else {
+            snapshotStrategy = new InMemorySnapshotStrategy(tables, snapshotOptions, snapshotPath);
+        }
     }
 
     public BaseTable getTable(String tableName) throws DatabaseException {
@@ -56,6 +63,7 @@ public class StorageManager {
             throw new DatabaseException("Table name already exists");
         }
         tables.put(tableName, new ShareTable(s, tableName, true, partition_num, num_items));//here we decide which table to use.
+        tableNames.add(tableName);
         this.snapshotStrategy.registerTable(tableName, s);
         table_count++;
     }
@@ -89,6 +97,7 @@ public class StorageManager {
             schemaColIndex.add(schemaColNames.indexOf(col));
         }
         tables.put(tableName, new ShareTable(s, tableName, true, partition_num, num_items));
+        tableNames.add(tableName);
         for (int i : schemaColIndex) {
             String colName = schemaColNames.get(i);
             DataBox colType = schemaColType.get(i);
@@ -109,9 +118,18 @@ public class StorageManager {
         }
         tables.get(tableName).close();
         tables.remove(tableName);
+        tableNames.remove(tableName);
         return true;
     }
 
+    /**
+     * The names of the tables in this database, in the order of creation.
+     * The schedulers create the operation chains of these tables, so they must be created before the schedulers.
+     */
+    public synchronized List<String> getTableNames() {
+        return new ArrayList<>(tableNames);
+    }
+
     /**
      * Delete all tables from this database.
      */
@@ -9,6 +9,7 @@ import storage.table.RowID;
 import static content.LVTStreamContent.LVTSTREAM_CONTENT;
 import static content.LWMContentImpl.LWM_CONTENT;
 import static content.LockContentImpl.LOCK_CONTENT;
+import static content.TStreamArrayContentImpl.T_STREAM_ARRAY_CONTENT;
 import static content.TStreamContentImpl.T_STREAMCONTENT;
 import static content.ToContentImpl.TO_CONTENT;
 import static content.common.ContentCommon.content_type;
@@ -18,6 +19,7 @@ public class TableRecord implements Comparable<TableRecord> {
     final int size;
     public Content content_;
     public SchemaRecord record_;//this record may be changed by multiple threads.
+    private long longKey = Long.MIN_VALUE;//primary key parsed once, used to route operations.
 
     public TableRecord(SchemaRecord record, int tthread) {
         switch (content_type) {
@@ -37,6 +39,11 @@ public class TableRecord implements Comparable<TableRecord> {
                 content_.updateValues(0, 0, false, record);//mvcc, value_list @ts=0
                 content_.updateMultiValues(0, 0, false, record);//mvcc, value_list @ts=0
                 break;
+            case T_STREAM_ARRAY_CONTENT:
+                content_ = new TStreamArrayContentImpl();
+                content_.updateValues(0, 0, false, record);//mvcc, value_list @ts=0
+                content_.updateMultiValues(0, 0, false, record);//mvcc, value_list @ts=0
+                break;
             case LVTSTREAM_CONTENT:
                 content_ = new LVTStreamContentImpl();
                 content_.updateValues(0, 0, false, record);//mvcc, value_list @ts=0
@@ -74,6 +81,17 @@ public class TableRecord implements Comparable<TableRecord> {
         this.record_.setID(ID);
     }
 
+    public long getLongKey() {
+        if (longKey == Long.MIN_VALUE) {
+            longKey = Long.parseLong(record_.GetPrimaryKey());
+        }
+        return longKey;
+    }
+
+    public void setLongKey(long longKey) {
+        this.longKey = longKey;
+    }
+
     public String toSerializableString(long snapshotId) {
         StringBuilder stringBuilder = new StringBuilder();
         SchemaRecord snapshotRecord = this.content_.ReadAccess(snapshotId, false);
@@ -0,0 +1,150 @@
+package storage.datatype;
+
+import storage.SchemaRecord;
+
+import java.nio.ByteBuffer;
+
+/**
+ * View over a long or double column of a SchemaRecord, reads and writes go to the record slab.
+ * Behaves as LongDataBox or DoubleDataBox respectively; clone() detaches the value from the record.
+ */
+public class ColumnDataBox extends DataBox {
+    private final SchemaRecord record;
+    private final int column;
+    private final boolean isDouble;
+
+    public ColumnDataBox(SchemaRecord record, int column, boolean isDouble) {
+        this.record = record;
+        this.column = column;
+        this.isDouble = isDouble;
+    }
+
+    public boolean isDouble() {
+        return isDouble;
+    }
+
+    @Override
+    public DataBox clone() {
+        if (isDouble) {
+            return new DoubleDataBox(getDouble());
+        }
+        return new LongDataBox(getLong());
+    }
+
+    @Override
+    public long getLong() {
+        if (isDouble) {
+            throw new DataBoxException("not long type");
+        }
+        return record.getLong(column);
+    }
+
+    @Override
+    public void setLong(long i) {
+        if (isDouble) {
+            throw new DataBoxException("not long type");
+        }
+        record.setLong(column, i);
+    }
+
+    @Override
+    public void incLong(SchemaRecord s_record, long delta) {
+        setLong(s_record.getLong(1) + delta);
+    }
+
+    @Override
+    public void incLong(long current_value, long delta) {
+        setLong(current_value + delta);
+    }
+
+    @Override
+    public void incLong(long delta) {
+        setLong(getLong() + delta);
+    }
+
+    @Override
+    public void decLong(SchemaRecord s_record, long delta) {
+        setLong(s_record.getLong(1) + delta);
+    }
+
+    @Override
+    public void decLong(long current_value, long delta) {
+        setLong(current_value - delta);
+    }
+
+    @Override
+    public double getDouble() {
+        if (!isDouble) {
+            throw new DataBoxException("not double type");
+        }
+        return record.getDouble(column);
+    }
+
+    @Override
+    public void setDouble(double d) {
+        if (!isDouble) {
+            throw new DataBoxException("not double type");
+        }
+        record.setDouble(column, d);
+    }
+
+    @Override
+    public float getFloat() {
+        if (!isDouble) {
+            throw new DataBoxException("not float type");
+        }
+        return (float) getDouble();
+    }
+
+    @Override
+    public String getString() {
+        return toString();
+    }
+
+    @Override
+    public Types type() {
+        return isDouble ? Types.FLOAT : Types.LONG;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DataBox)) {
+            return false;
+        }
+        return clone().equals(obj instanceof ColumnDataBox ? ((ColumnDataBox) obj).clone() : obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return clone().hashCode();
+    }
+
+    public int compareTo(Object obj) {
+        DataBox other = obj instanceof ColumnDataBox ? ((ColumnDataBox) obj).clone() : (DataBox) obj;
+        return clone().compareTo(other);
+    }
+
+    @Override
+    public byte[] getBytes() {
+        if (isDouble) {
+            return ByteBuffer.allocate(8).putDouble(getDouble()).array();
+        }
+        return ByteBuffer.allocate(8).putLong(getLong()).array();
+    }
+
+    @Override
+    public int getSize() {
+        return 8;
+    }
+
+    @Override
+    public String toString() {
+        if (isDouble) {
+            return "" + getDouble();
+        }
+        return "" + getLong();
+    }
+}
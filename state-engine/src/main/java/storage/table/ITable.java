@@ -12,5 +12,11 @@ public interface ITable extends Iterable<TableRecord>, Closeable {
      */
     TableRecord SelectKeyRecord(String primary_key);
 
+    /**
+     * @param primary_key numeric primary key, avoids String hashing on the hot path.
+     * @return the d_record, or null if absent.
+     */
+    TableRecord SelectKeyRecord(long primary_key);
+
     void SelectRecords(int idx_id, String secondary_key, TableRecords records);
 }
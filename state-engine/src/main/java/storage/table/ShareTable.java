@@ -2,7 +2,7 @@ package storage.table;
 
 import db.DatabaseException;
 import index.BaseUnorderedIndex;
-import index.HashTableIndex;
+import index.PartitionedLongIndex;
 import index.StdUnorderedIndex;
 import storage.SchemaRecord;
 import storage.TableRecord;
@@ -25,7 +25,7 @@ public class ShareTable extends BaseTable {
 //#else
 //			primary_index_ = new StdUnorderedIndexMT();
 //#endif
-            primary_index_ = new HashTableIndex(partition_num, num_items);//here, we decide which index to use.
+            primary_index_ = new PartitionedLongIndex(partition_num, num_items);//here, we decide which index to use.
 //            secondary_indexes_ = new BaseOrderedIndex[secondary_count_];
 //            for (int i = 0; i < secondary_count_; ++i) {
 //                secondary_indexes_[i] = new StdOrderedIndexMT();
@@ -44,6 +44,11 @@ public class ShareTable extends BaseTable {
         return primary_index_.SearchRecord(primary_key);
     }
 
+    @Override
+    public TableRecord SelectKeyRecord(long primary_key) {
+        return primary_index_.SearchRecord(primary_key);
+    }
+
     @Override
     public void SelectRecords(int idx_id, String secondary_key, TableRecords records) {
 //        secondary_indexes_[idx_id].SearchRecords(secondary_key, records);
@@ -109,10 +109,12 @@ public interface ITxnManager {
     enum SCHEDULER_TYPE {
         OG_BFS,
         OG_BFS_A,
+        OG_BFS_DC,
         OG_DFS,
         OG_DFS_A,
         OG_NS,
         OG_NS_A,
+        OG_WS,
         OP_NS,
         OP_NS_A,
         OP_BFS,
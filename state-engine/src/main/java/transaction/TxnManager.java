@@ -8,10 +8,12 @@ import scheduler.collector.Collector;
 import scheduler.impl.IScheduler;
 import scheduler.impl.og.structured.OGBFSScheduler;
 import scheduler.impl.og.structured.OGBFSAScheduler;
+import scheduler.impl.og.structured.OGBFSDCScheduler;
 import scheduler.impl.og.structured.OGDFSScheduler;
 import scheduler.impl.og.structured.OGDFSAScheduler;
 import scheduler.impl.og.nonstructured.OGNSScheduler;
 import scheduler.impl.og.nonstructured.OGNSAScheduler;
+import scheduler.impl.og.nonstructured.OGWSScheduler;
 import scheduler.impl.og.nonstructured.TStreamScheduler;
 import scheduler.impl.op.nonstructured.OPNSAScheduler;
 import scheduler.impl.op.nonstructured.OPNSScheduler;
@@ -21,7 +23,9 @@ import scheduler.impl.op.structured.OPDFSAScheduler;
 import scheduler.impl.op.structured.OPDFSScheduler;
 import scheduler.impl.recovery.RScheduler;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static common.CONTROL.enable_log;
@@ -52,6 +56,14 @@ public abstract class TxnManager implements ITxnManager {
     public static int groupNum;
 
     public static LoggingManager loggingManager;
+    /**
+     * Tables of the storage manager, each scheduler pre-creates the operation chains of these tables
+     */
+    protected static List<String> tables = new ArrayList<>();
+
+    public static void registerTables(List<String> tableNames) {
+        tables = new ArrayList<>(tableNames);
+    }
 
     public static void CreateSchedulerByGroup(String schedulerType, int threadCount,int numberOfStates, int app){
         schedulerByGroup = new HashMap<>();
@@ -60,7 +72,7 @@ public abstract class TxnManager implements ITxnManager {
         for (int i = 0; i<scheduler.length; i++ ) {
             TxnManager.schedulerByGroup.put(i,CreateSchedulerByType(scheduler[i], threadCount / scheduler.length, numberOfStates / scheduler.length, app));
             TxnManager.schedulerTypeByGroup.put(i, scheduler[i]);
-            TxnManager.schedulerByGroup.get(i).initTPG(i * (threadCount / scheduler.length));
+            TxnManager.schedulerByGroup.get(i).initTPG(i * (threadCount / scheduler.length), tables);
             if (loggingManager != null) {
                 TxnManager.schedulerByGroup.get(i).setLoggingManager(loggingManager);
             }
@@ -77,6 +89,9 @@ public abstract class TxnManager implements ITxnManager {
             case "OG_BFS_A": // Group of operation + Structured BFS exploration strategy + fine-grained
                 scheduler = new OGBFSAScheduler(threadCount, numberOfStates, app);
                 break;
+            case "OG_BFS_DC": // Group of operation + Structured BFS exploration strategy with dependency counters + coarse-grained
+                scheduler = new OGBFSDCScheduler(threadCount, numberOfStates, app);
+                break;
             case "OG_DFS": // Group of operation + Structured DFS exploration strategy + coarse-grained
                 scheduler = new OGDFSScheduler(threadCount, numberOfStates, app);
                 break;
@@ -89,6 +104,9 @@ public abstract class TxnManager implements ITxnManager {
             case "OG_NS_A": // Group of operation + Non-structured exploration strategy + fine-grained
                 scheduler = new OGNSAScheduler(threadCount, numberOfStates, app);
                 break;
+            case "OG_WS": // Group of operation + Non-structured exploration strategy with work stealing + coarse-grained
+                scheduler = new OGWSScheduler(threadCount, numberOfStates, app);
+                break;
             case "OP_NS": // Single operation + Non-structured exploration strategy + coarse-grained
                 scheduler = new OPNSScheduler<>(threadCount, numberOfStates, app);
                 break;
@@ -113,7 +131,7 @@ public abstract class TxnManager implements ITxnManager {
             default:
                 throw new UnsupportedOperationException("unsupported scheduler type: " + schedulerType);
         }
-        scheduler.initTPG(0);
+        scheduler.initTPG(0, tables);
     }
 
     /**
@@ -131,7 +149,7 @@ public abstract class TxnManager implements ITxnManager {
         switch (FTOption) {
             case 3:
                 recoveryScheduler = new RScheduler(threadCount, numberOfStates, app);
-                recoveryScheduler.initTPG(0);
+                recoveryScheduler.initTPG(0, tables);
                 if (loggingManager != null) {
                     recoveryScheduler.setLoggingManager(loggingManager);
                 }
@@ -155,6 +173,13 @@ public abstract class TxnManager implements ITxnManager {
         collector.setWorkloadConfig(config);
     }
 
+    /**
+     * Configure the policy choosing the scheduler from runtime information
+     */
+    public static void setSchedulerSelector(String type){
+        collector.setSchedulerSelector(type);
+    }
+
     /**
      * Configure the scheduler pool
      */
@@ -163,7 +188,7 @@ public abstract class TxnManager implements ITxnManager {
         String[] scheduler = schedulerPool.split(",");
         for (int i = 0; i < scheduler.length; i++) {
             TxnManager.schedulerPool.put(scheduler[i], CreateSchedulerByType(scheduler[i], threadCount, numberOfStates, app));
-            TxnManager.schedulerPool.get(scheduler[i]).initTPG(0);
+            TxnManager.schedulerPool.get(scheduler[i]).initTPG(0, tables);
             if (loggingManager != null) {
                 TxnManager.schedulerPool.get(scheduler[i]).setLoggingManager(loggingManager);
             }
@@ -171,7 +196,7 @@ public abstract class TxnManager implements ITxnManager {
         for (int i = 0; i < threadCount; i++) {
             TxnManager.currentSchedulerType.put(i, defaultScheduler);
         }
-        collector.InitCollector(threadCount, maxThreads);
+        collector.InitCollector(defaultScheduler, scheduler, threadCount, maxThreads);
         TxnManager.scheduler = TxnManager.schedulerPool.get(defaultScheduler);
         log.info("Current Scheduler is " + defaultScheduler + " markId: " + 0);
         enableDynamic = true;
@@ -191,6 +216,8 @@ public abstract class TxnManager implements ITxnManager {
                 return new OGBFSScheduler(threadCount, numberOfStates, app);
             case "OG_BFS_A": // Group of operation + Structured BFS exploration strategy + fine-grained
                 return new OGBFSAScheduler(threadCount, numberOfStates, app);
+            case "OG_BFS_DC": // Group of operation + Structured BFS exploration strategy with dependency counters + coarse-grained
+                return new OGBFSDCScheduler(threadCount, numberOfStates, app);
             case "OG_DFS": // Group of operation + Structured DFS exploration strategy + coarse-grained
                 return new OGDFSScheduler(threadCount, numberOfStates, app);
             case "OG_DFS_A": // Group of operation + Structured DFS exploration strategy + fine-grained
@@ -199,6 +226,8 @@ public abstract class TxnManager implements ITxnManager {
                 return new OGNSScheduler(threadCount, numberOfStates, app);
             case "OG_NS_A": // Group of operation + Non-structured exploration strategy + fine-grained
                 return new OGNSAScheduler(threadCount, numberOfStates, app);
+            case "OG_WS": // Group of operation + Non-structured exploration strategy with work stealing + coarse-grained
+                return new OGWSScheduler(threadCount, numberOfStates, app);
             case "OP_NS": // Single operation + Non-structured exploration strategy + coarse-grained
                 return new OPNSScheduler<>(threadCount, numberOfStates, app);
             case "OP_NS_A": // Single operation + Non-structured exploration strategy + fine-grained
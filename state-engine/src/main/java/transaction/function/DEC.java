@@ -9,6 +9,11 @@ public class DEC extends Function {
         this.delta_long = delta;
     }
 
+    @Override
+    public long apply(long value) {
+        return value - delta_long;
+    }
+
     @Override
     public String toString() {
         return String.valueOf(delta_long);
@@ -10,4 +10,15 @@ public abstract class Function implements Serializable {
     public long delta_long;
     public double delta_double;
     public double[] new_value;
+
+    /**
+     * The user defined computation of the function, called by the schedulers with the value read from the state.
+     * Workloads supply their semantics by overriding it instead of being recognized by the schedulers.
+     *
+     * @param value the value read from the state, or the aggregate of the conditions.
+     * @return the value to write.
+     */
+    public long apply(long value) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not apply to a long value");
+    }
 }
@@ -5,4 +5,9 @@ public class SUM extends Function {
     public SUM(long delta) {
         this.delta_long = delta;
     }
+
+    @Override
+    public long apply(long value) {
+        return value;//the sum is aggregated from the conditions.
+    }
 }
@@ -87,6 +87,9 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
             case OG_DFS_A:
                 schedulerContext = new OGSAContext(thisTaskId, thread_count);
                 break;
+            case OG_BFS_DC:
+                schedulerContext = new OGSDCContext(thisTaskId, thread_count);
+                break;
             case OG_NS:
             case TStream: // original tstream is the same as using GS scheduler..
                 schedulerContext = new OGNSContext(thisTaskId, thread_count);
@@ -94,6 +97,9 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
             case OG_NS_A:
                 schedulerContext = new OGNSAContext(thisTaskId, thread_count);
                 break;
+            case OG_WS:
+                schedulerContext = new OGWSContext(thisTaskId, thread_count);
+                break;
             case OP_NS:
                 schedulerContext = new OPNSContext(thisTaskId);
                 break;
@@ -139,7 +145,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     @Override
     public boolean Asy_WriteRecord(TxnContext txn_context, String srcTable, String primary_key, List<DataBox> value, double[] enqueue_time) throws DatabaseException {
         AccessType accessType = AccessType.WRITE_ONLY;
-        TableRecord t_record = storageManager_.getTable(srcTable).SelectKeyRecord(primary_key);
+        TableRecord t_record = selectKeyRecord(srcTable, primary_key);
         if (t_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable, enqueue_time));
@@ -155,7 +161,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     @Override
     public boolean Asy_WriteRecord(TxnContext txn_context, String srcTable, String primary_key, long value, int column_id) throws DatabaseException {
         AccessType accessType = AccessType.WRITE_ONLY;
-        TableRecord t_record = storageManager_.getTable(srcTable).SelectKeyRecord(primary_key);
+        TableRecord t_record = selectKeyRecord(srcTable, primary_key);
         if (t_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType,primary_key,srcTable,t_record,value));
@@ -170,7 +176,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
 
     public boolean Asy_ReadRecord(TxnContext txn_context, String srcTable, String primary_key, SchemaRecordRef record_ref, double[] enqueue_time) throws DatabaseException {
         AccessType accessType = AccessType.READ_ONLY;
-        TableRecord t_record = storageManager_.getTable(srcTable).SelectKeyRecord(primary_key);
+        TableRecord t_record = selectKeyRecord(srcTable, primary_key);
         if (t_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable, enqueue_time));
@@ -186,7 +192,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     @Override
     public boolean Asy_ReadRecords(TxnContext txn_context, String srcTable, String primary_key, TableRecordRef record_ref, double[] enqueue_time) throws DatabaseException {
         AccessType accessType = AccessType.READS_ONLY;//read multiple versions.
-        TableRecord t_record = storageManager_.getTable(srcTable).SelectKeyRecord(primary_key);
+        TableRecord t_record = selectKeyRecord(srcTable, primary_key);
         if (t_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable));
@@ -202,7 +208,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     @Override
     public boolean Asy_ModifyRecord(TxnContext txn_context, String srcTable, String source_key, Function function, int column_id) throws DatabaseException {
         AccessType accessType = AccessType.READ_WRITE;
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(source_key);
+        TableRecord s_record = selectKeyRecord(srcTable, source_key);
         if (s_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable,
@@ -221,7 +227,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     @Override
     public boolean Asy_ModifyRecord(TxnContext txn_context, String srcTable, String key, Function function) throws DatabaseException {
         AccessType accessType = AccessType.READ_WRITE;
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(key);
+        TableRecord s_record = selectKeyRecord(srcTable, key);
         if (s_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable,
@@ -239,7 +245,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     public boolean Asy_ModifyRecord(TxnContext txn_context, String srcTable, String key, Function function, Condition condition, int[] success) throws DatabaseException {
         AccessType accessType = AccessType.READ_WRITE_COND;
         TableRecord[] condition_records = new TableRecord[1];
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(key);
+        TableRecord s_record = selectKeyRecord(srcTable, key);
         condition_records[0] = s_record;
         if (s_record != null) {
             if (enableGroup) {
@@ -265,9 +271,9 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
         AccessType accessType = AccessType.READ_WRITE_COND;
         TableRecord[] condition_records = new TableRecord[condition_source.length];
         for (int i = 0; i < condition_source.length; i++) {
-            condition_records[i] = storageManager_.getTable(condition_sourceTable[i]).SelectKeyRecord(condition_source[i]);//TODO: improve this later.
+            condition_records[i] = selectKeyRecord(condition_sourceTable[i], condition_source[i]);//TODO: improve this later.
         }
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(key);
+        TableRecord s_record = selectKeyRecord(srcTable, key);
         if (s_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable,
@@ -285,7 +291,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     @Override
     public boolean Asy_ModifyRecord_Read(TxnContext txn_context, String srcTable, String key, SchemaRecordRef record_ref, Function function, int[] success) throws DatabaseException {
         AccessType accessType = AccessType.READ_WRITE_READ;
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(key);
+        TableRecord s_record = selectKeyRecord(srcTable, key);
         if (s_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable,
@@ -302,7 +308,7 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
     @Override
     public boolean Asy_ModifyRecord_Read(TxnContext txn_context, String srcTable, String key, SchemaRecordRef record_ref, Function function, Condition condition, int[] success) throws DatabaseException {
         AccessType accessType = AccessType.READ_WRITE_READ;
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(key);
+        TableRecord s_record = selectKeyRecord(srcTable, key);
         if (s_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable,
@@ -326,13 +332,13 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
         AccessType accessType = AccessType.READ_WRITE_COND_READ;
         TableRecord[] condition_records = new TableRecord[condition_source.length];
         for (int i = 0; i < condition_source.length; i++) {
-            condition_records[i] = storageManager_.getTable(condition_sourceTable[i]).SelectKeyRecord(condition_source[i]);//TODO: improve this later.
+            condition_records[i] = selectKeyRecord(condition_sourceTable[i], condition_source[i]);//TODO: improve this later.
             if (condition_records[i] == null) {
                 if (enable_log) log.info("No record is found for condition source:" + condition_source[i]);
                 return false;
             }
         }
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(key);
+        TableRecord s_record = selectKeyRecord(srcTable, key);
         if (s_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable,
@@ -355,13 +361,13 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
         AccessType accessType = AccessType.READ_WRITE_COND_READN;
         TableRecord[] condition_records = new TableRecord[condition_source.length];
         for (int i = 0; i < condition_source.length; i++) {
-            condition_records[i] = storageManager_.getTable(condition_sourceTable[i]).SelectKeyRecord(condition_source[i]);//TODO: improve this later.
+            condition_records[i] = selectKeyRecord(condition_sourceTable[i], condition_source[i]);//TODO: improve this later.
             if (condition_records[i] == null) {
                 if (enable_log) log.info("No record is found for condition source:" + condition_source[i]);
                 return false;
             }
         }
-        TableRecord s_record = storageManager_.getTable(srcTable).SelectKeyRecord(key);
+        TableRecord s_record = selectKeyRecord(srcTable, key);
         if (s_record != null) {
             if (enableGroup) {
                 return schedulerByGroup.get(getGroupId(txn_context.thread_Id)).SubmitRequest(context, new Request(txn_context, accessType, srcTable,
@@ -416,6 +422,13 @@ public abstract class TxnManagerDedicatedAsy extends TxnManager {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Parse the key once and go through the primitive index, no String hashing on the submission path.
+     */
+    protected TableRecord selectKeyRecord(String table_name, String primary_key) throws DatabaseException {
+        return storageManager_.getTable(table_name).SelectKeyRecord(Long.parseLong(primary_key));
+    }
+
     public int getGroupId(int thisTaskId){
         int groupId = thisTaskId / dalta;
         return groupId;
@@ -1,5 +1,6 @@
 package transaction.impl.ordered;
 
+import content.common.VersionWatermark;
 import db.DatabaseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,8 +61,10 @@ public class TxnManagerTStream extends TxnManagerDedicatedAsy {
     @Override
     public void start_evaluate(int thread_Id, long mark_ID, int num_events) throws InterruptedException, BrokenBarrierException {
         SOURCE_CONTROL.getInstance().preStateAccessBarrier(thread_Id);//sync for all threads to come to this line to ensure chains are constructed for the current batch.
+        long evaluationStart = System.nanoTime();
         MeasureTools.BEGIN_TXN_TIME_MEASURE(thread_Id);
         MeasureTools.BEGIN_SCHEDULE_EXPLORE_TIME_MEASURE(thread_Id);
+        VersionWatermark.onMarker(mark_ID);//no transaction of later batches reads below the marker.
         if (enableGroup) {
             schedulerByGroup.get(getGroupId(thread_Id)).start_evaluation(context, mark_ID, num_events);
         } else {
@@ -71,9 +74,10 @@ public class TxnManagerTStream extends TxnManagerDedicatedAsy {
         MeasureTools.SCHEDULE_TIME_RECORD(thread_Id, num_events);
         MeasureTools.END_TXN_TIME_MEASURE(thread_Id);
         SOURCE_CONTROL.getInstance().postStateAccessBarrier(thread_Id);
+        long evaluationTime = System.nanoTime() - evaluationStart;//the same for all threads, they leave both barriers together.
         //Sync to switch scheduler(more overhead) decide by the mark_ID or runtime information
         MeasureTools.BEGIN_SCHEDULER_SWITCH_TIME_MEASURE(thread_Id);
-        if (enableDynamic && collector.timeToSwitch(mark_ID, thread_Id, currentSchedulerType.get(thread_Id))) {
+        if (enableDynamic && collector.timeToSwitch(mark_ID, thread_Id, currentSchedulerType.get(thread_Id), evaluationTime)) {
             if (loggingRecord_type != LOGOption_path || Metrics.RecoveryPerformance.stopRecovery[thread_Id]) {
                 String schedulerType = collector.getDecision(thread_Id);
                 this.SwitchScheduler(schedulerType, thread_Id, mark_ID);
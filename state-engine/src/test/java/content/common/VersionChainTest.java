@@ -0,0 +1,91 @@
+package content.common;
+
+import org.junit.Test;
+import storage.SchemaRecord;
+import storage.datatype.DataBox;
+import storage.datatype.LongDataBox;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VersionChainTest {
+
+    @Test
+    public void testReadsTheVersionBeforeTs() {
+        VersionChain chain = new VersionChain();
+        SchemaRecord v0 = value(0);
+        SchemaRecord v5 = value(5);
+        SchemaRecord v9 = value(9);
+        chain.put(0, v0);
+        chain.put(5, v5);
+        chain.put(9, v9);//grows over the initial capacity afterwards.
+        chain.put(12, value(12));
+        chain.put(15, value(15));
+
+        assertEquals(5, chain.size());
+        assertNull(chain.lower(0));
+        assertSame(v0, chain.lowerOrEqual(0));
+        assertSame(v0, chain.lower(5));
+        assertSame(v5, chain.lower(6));
+        assertSame(v9, chain.lowerOrEqual(10));
+        assertEquals(9, chain.lowerBid(10));
+        assertEquals(Long.MIN_VALUE, chain.lowerBid(0));
+        assertEquals(15, chain.latest().getLong(0));
+    }
+
+    @Test
+    public void testOverwriteAndOutOfOrderPut() {
+        VersionChain chain = new VersionChain();
+        chain.put(0, value(0));
+        chain.put(10, value(10));
+        SchemaRecord redone = value(100);
+        chain.put(10, redone);//same bid, overwritten in place.
+        assertEquals(2, chain.size());
+        assertSame(redone, chain.latest());
+
+        SchemaRecord v5 = value(5);
+        chain.put(5, v5);//an aborted batch is redone.
+        assertEquals(3, chain.size());
+        assertSame(v5, chain.lower(10));
+        assertSame(redone, chain.latest());
+    }
+
+    @Test
+    public void testTruncateKeepsTheVisibleVersion() {
+        VersionChain chain = new VersionChain();
+        for (long bid = 0; bid < 10; bid++) {
+            chain.put(bid, value(bid));
+        }
+        assertEquals(5, chain.truncate(6));//versions 0..4 are dropped, 5 is still visible at 6.
+        assertEquals(5, chain.size());
+        assertEquals(5, chain.lower(6).getLong(0));
+        assertNull(chain.lower(5));
+        assertEquals(0, chain.truncate(6));
+
+        chain.truncateToLatest();
+        assertEquals(1, chain.size());
+        assertEquals(9, chain.latest().getLong(0));
+    }
+
+    @Test
+    public void testRemoveKeepsTheBaseVersion() {
+        VersionChain chain = new VersionChain();
+        chain.put(0, value(0));
+        chain.put(3, value(3));
+        chain.put(7, value(7));
+        assertTrue(chain.remove(3));
+        assertFalse(chain.remove(3));
+        assertFalse(chain.remove(0));//the base of the record.
+        assertEquals(2, chain.size());
+        assertEquals(0, chain.lower(7).getLong(0));
+    }
+
+    private static SchemaRecord value(long value) {
+        return new SchemaRecord(Collections.<DataBox>singletonList(new LongDataBox(value)));
+    }
+}
@@ -0,0 +1,97 @@
+package durability.snapshot;
+
+import common.io.ByteIO.DataInputView;
+import common.io.ByteIO.DataOutputView;
+import common.io.ByteIO.InputWithDecompression.NativeDataInputView;
+import common.io.ByteIO.OutputWithCompression.NativeDataOutputView;
+import content.common.ContentCommon;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import storage.SchemaRecord;
+import storage.TableRecord;
+import storage.datatype.DataBox;
+import storage.datatype.LongDataBox;
+import storage.datatype.StringDataBox;
+import storage.table.RecordSchema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static content.TStreamContentImpl.T_STREAMCONTENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BinarySnapshotFormatTest {
+    private static final RecordSchema SCHEMA = new RecordSchema(Arrays.asList("key", "value"),
+            Arrays.<DataBox>asList(new StringDataBox(), new LongDataBox()));
+
+    @BeforeClass
+    public static void setUp() {
+        ContentCommon.content_type = T_STREAMCONTENT;
+    }
+
+    @Test
+    public void testLaterSnapshotReplacesEarlierRecords() throws IOException {
+        byte[] base = table(0, 3000, 1);
+        byte[] delta = table(2000, 2500, 2);
+        byte[] last = table(4999, 5001, 3);
+        assertEquals(3002, BinarySnapshotFormat.countMergedRecords(readers(base, delta, last)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputView out = new NativeDataOutputView(bytes);
+        BinarySnapshotFormat.writeMergedTable(out, readers(base, delta, last), 3002);
+        out.close();
+
+        BinarySnapshotFormat.RawTableReader merged = readers(bytes.toByteArray())[0];
+        for (long key = 0; key < 3000; key++) {
+            assertEquals(key, merged.key());
+            assertEquals(key >= 2000 && key < 2500 ? 2 : 1, value(merged));
+            merged.advance();
+        }
+        for (long key = 4999; key < 5001; key++) {
+            assertEquals(key, merged.key());
+            assertEquals(3, value(merged));
+            merged.advance();
+        }
+        assertFalse(merged.hasRecord());
+    }
+
+    @Test
+    public void testMergeEmptyTables() throws IOException {
+        byte[] empty = table(0, 0, 1);
+        assertEquals(0, BinarySnapshotFormat.countMergedRecords(readers(empty, empty)));
+    }
+
+    private static long value(BinarySnapshotFormat.RawTableReader reader) {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        reader.copyRecord(record);
+        return ByteBuffer.wrap(record.toByteArray()).getLong(8);//after the key.
+    }
+
+    private static BinarySnapshotFormat.RawTableReader[] readers(byte[]... tables) throws IOException {
+        BinarySnapshotFormat.RawTableReader[] readers = new BinarySnapshotFormat.RawTableReader[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            DataInputView in = new NativeDataInputView(new ByteArrayInputStream(tables[i]));
+            readers[i] = new BinarySnapshotFormat.RawTableReader(in, SCHEMA, "accounts");
+        }
+        return readers;
+    }
+
+    private static byte[] table(long from, long to, long value) throws IOException {
+        List<TableRecord> records = new ArrayList<>();
+        for (long key = from; key < to; key++) {
+            String pKey = String.valueOf(key);
+            records.add(new TableRecord(new SchemaRecord(Arrays.<DataBox>asList(new StringDataBox(pKey, pKey.length()), new LongDataBox(value))), 1));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputView out = new NativeDataOutputView(bytes);
+        BinarySnapshotFormat.writeTable(out, SCHEMA, records, 1);//the loaded version is at bid 0.
+        out.close();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,157 @@
+package durability.struct.Logging;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LogRecordCodecTest {
+    private static final String[] KEYS = {"0", "1", "-1", "42", "-42", "007", "-0", "-007", "+1", "", "abc", "12a",
+            "999999999999999999", "-999999999999999999", "1000000000000000000", "9223372036854775807", "-9223372036854775808", "键"};
+
+    @Test
+    public void testCommandLogKeys() throws Exception {
+        List<NativeCommandLog> logs = new ArrayList<>();
+        for (int i = 0; i < KEYS.length; i++) {
+            logs.add(commandLog(100 + i, i % 3, "accounts", KEYS[i], new String[]{KEYS[(i + 1) % KEYS.length], KEYS[i]}, "Deposit", String.valueOf(i)));
+        }
+        List<NativeCommandLog> decoded = LogRecordCodec.decodeCommandLogs(LogRecordCodec.encodeCommandLogs(logs));
+        assertEquals(logs.size(), decoded.size());
+        for (int i = 0; i < logs.size(); i++) {
+            assertCommandEquals(logs.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    public void testCommandLogBidDeltas() throws Exception {
+        long[] bids = {0, Long.MAX_VALUE, 0, Long.MIN_VALUE, 5, 5, 3, Long.MAX_VALUE, Long.MIN_VALUE};
+        List<NativeCommandLog> logs = new ArrayList<>();
+        for (long bid : bids) {
+            logs.add(commandLog(bid, Integer.MAX_VALUE, "t", "1", new String[0], "Deposit", "p"));
+        }
+        List<NativeCommandLog> decoded = LogRecordCodec.decodeCommandLogs(LogRecordCodec.encodeCommandLogs(logs));
+        assertEquals(logs.size(), decoded.size());
+        for (int i = 0; i < logs.size(); i++) {
+            assertCommandEquals(logs.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    public void testAbortedCommandLogsAreSkipped() throws Exception {
+        NativeCommandLog aborted = commandLog(1, 0, "t", "1", new String[0], "Deposit", "p");
+        aborted.isAborted = true;
+        NativeCommandLog committed = commandLog(2, 0, "t", "2", new String[0], "Deposit", "p");
+        List<NativeCommandLog> decoded = LogRecordCodec.decodeCommandLogs(LogRecordCodec.encodeCommandLogs(Arrays.asList(aborted, committed)));
+        assertEquals(1, decoded.size());
+        assertCommandEquals(committed, decoded.get(0));
+    }
+
+    @Test
+    public void testDictionaryInternsNames() throws Exception {
+        String tableName = "a_rather_long_table_name";
+        String function = "a_rather_long_operation_function";
+        List<NativeCommandLog> logs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            logs.add(commandLog(i, 0, i % 2 == 0 ? tableName : "other", String.valueOf(i), new String[0], i % 2 == 0 ? function : "other", "p"));
+        }
+        byte[] unit = LogRecordCodec.encodeCommandLogs(logs);
+        assertEquals(1, occurrences(unit, tableName));
+        assertEquals(1, occurrences(unit, function));
+        List<NativeCommandLog> decoded = LogRecordCodec.decodeCommandLogs(unit);
+        for (int i = 0; i < logs.size(); i++) {
+            assertCommandEquals(logs.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    public void testEmptyUnit() throws Exception {
+        assertTrue(LogRecordCodec.decodeCommandLogs(LogRecordCodec.encodeCommandLogs(new ArrayList<>())).isEmpty());
+        assertTrue(LogRecordCodec.decodeDependencyLogs(LogRecordCodec.encodeDependencyLogs(new ArrayList<>(), 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void testDependencyLogEdges() throws Exception {
+        List<DependencyLog> logs = new ArrayList<>();
+        DependencyLog first = dependencyLog(10, 0, "007", new String[]{"-0"});
+        first.addOutEdge("11.1");
+        first.addOutEdge(Long.MAX_VALUE + ".0");
+        DependencyLog second = dependencyLog(11, 1, "-5", new String[]{"12345678901234567890", "5"});
+        second.addInEdge("10.0");
+        second.addInEdge(Long.MIN_VALUE + "." + Integer.MAX_VALUE);
+        second.addOutEdge("3");//an edge without operation id.
+        second.isAborted = true;
+        DependencyLog third = dependencyLog(Long.MAX_VALUE, 0, "1", new String[0]);
+        third.addInEdge("0.0");
+        logs.add(dependencyLog(0, 0, "ignored", new String[0]));
+        logs.add(first);
+        logs.add(second);
+        logs.add(third);
+        List<DependencyLog> decoded = LogRecordCodec.decodeDependencyLogs(LogRecordCodec.encodeDependencyLogs(logs, 1, logs.size()));
+        assertEquals(3, decoded.size());
+        for (int i = 0; i < decoded.size(); i++) {
+            DependencyLog expected = logs.get(i + 1);
+            DependencyLog actual = decoded.get(i);
+            assertCommandEquals(expected, actual);
+            assertEquals(expected.id, actual.id);
+            assertEquals(expected.isAborted, actual.isAborted);
+            assertEquals(normalize(expected.getInEdges()), actual.getInEdges());
+            assertEquals(normalize(expected.getOutEdges()), actual.getOutEdges());
+        }
+    }
+
+    @Test
+    public void testIdParsing() {
+        assertEquals(12, LogRecordCodec.bidOf("12.3"));
+        assertEquals(3, LogRecordCodec.opIdOf("12.3"));
+        assertEquals(12, LogRecordCodec.bidOf("12"));
+        assertEquals(0, LogRecordCodec.opIdOf("12"));
+    }
+
+    private static NativeCommandLog commandLog(long bid, int opId, String tableName, String key, String[] conditions, String function, String parameter) {
+        NativeCommandLog log = new NativeCommandLog(0, tableName, key, function, conditions, parameter);
+        log.setId(bid, opId);
+        return log;
+    }
+
+    private static DependencyLog dependencyLog(long bid, int opId, String key, String[] conditions) {
+        DependencyLog log = new DependencyLog(0, "accounts", key, "Transfer", conditions, "10");
+        log.setId(bid, opId);
+        return log;
+    }
+
+    private static void assertCommandEquals(CommandLog expected, CommandLog actual) {
+        assertEquals(expected.tableName, actual.tableName);
+        assertEquals(expected.key, actual.key);
+        assertEquals(expected.OperationFunction, actual.OperationFunction);
+        assertArrayEquals(expected.condition, actual.condition);
+        assertEquals(expected.parameter, actual.parameter);
+        assertEquals(0, expected.compareTo(actual));
+    }
+
+    /**
+     * Edges are decoded as "bid.opId", an edge written without operation id gets ".0".
+     */
+    private static List<String> normalize(List<String> edges) {
+        List<String> normalized = new ArrayList<>();
+        for (String edge : edges) {
+            normalized.add(LogRecordCodec.bidOf(edge) + "." + LogRecordCodec.opIdOf(edge));
+        }
+        return normalized;
+    }
+
+    private static int occurrences(byte[] unit, String value) {
+        String content = new String(unit, StandardCharsets.ISO_8859_1);
+        String pattern = new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+        int count = 0;
+        for (int i = content.indexOf(pattern); i >= 0; i = content.indexOf(pattern, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,61 @@
+package index;
+
+import content.common.ContentCommon;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import storage.SchemaRecord;
+import storage.TableRecord;
+import storage.datatype.DataBox;
+import storage.datatype.LongDataBox;
+import storage.datatype.StringDataBox;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static content.TStreamContentImpl.T_STREAMCONTENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PartitionedLongIndexTest {
+
+    @BeforeClass
+    public static void setUp() {
+        ContentCommon.content_type = T_STREAMCONTENT;
+    }
+
+    @Test
+    public void testOverflowKeysSurviveRehash() {
+        PartitionedLongIndex index = new PartitionedLongIndex(2, 100);
+        TableRecord[] records = new TableRecord[100];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = record(1000 + i);
+            index.InsertRecord(1000 + i, records[i], index.getPartitionId(1000 + i));//outside of the range of the last partition.
+        }
+        for (int i = 0; i < records.length; i++) {
+            assertSame(records[i], index.SearchRecord(1000 + i));
+        }
+        assertNull(index.SearchRecord(999));
+    }
+
+    @Test
+    public void testViewIsCachedUntilThePartitionChanges() {
+        PartitionedLongIndex index = new PartitionedLongIndex(2, 100);
+        index.InsertRecord(1, record(1), 0);
+        HashMap<String, TableRecord> view = index.getTableIndexByPartitionId(0);
+        assertSame(view, index.getTableIndexByPartitionId(0));
+        assertEquals(1, view.size());
+
+        index.InsertRecord(2, record(2), 0);
+        HashMap<String, TableRecord> updated = index.getTableIndexByPartitionId(0);
+        assertNotSame(view, updated);
+        assertEquals(2, updated.size());
+        assertEquals(0, index.getTableIndexByPartitionId(1).size());
+    }
+
+    private static TableRecord record(long key) {
+        String pKey = String.valueOf(key);
+        return new TableRecord(new SchemaRecord(Arrays.<DataBox>asList(new StringDataBox(pKey, pKey.length()), new LongDataBox(0))), 1);
+    }
+}
@@ -0,0 +1,70 @@
+package scheduler.collector;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CostModelSelectorTest {
+
+    @Test
+    public void testKeepsCurrentSchedulerBeforeFeedback() {
+        CostModelSelector selector = new CostModelSelector(new String[]{"OG_BFS", "OG_DFS"});
+        assertEquals("OG_BFS", selector.select(features(), "OG_BFS"));
+    }
+
+    @Test
+    public void testConvergesToCheaperScheduler() {
+        CostModelSelector selector = new CostModelSelector(new String[]{"OG_BFS", "OG_DFS", "OP_BFS"});
+        WorkloadFeatures features = features();
+        String current = "OG_BFS";
+        int cheaper = 0;
+        for (int batch = 0; batch < 200; batch++) {
+            selector.feedback(current, features, cost(current));
+            current = selector.select(features, current);
+            if (batch >= 100 && current.equals("OG_DFS")) {
+                cheaper++;
+            }
+        }
+        assertTrue("Chose the cheaper scheduler " + cheaper + " times out of 100", cheaper >= 80);//the others are still explored from time to time.
+    }
+
+    @Test
+    public void testFollowsCostChanges() {
+        CostModelSelector selector = new CostModelSelector(new String[]{"OG_BFS", "OG_DFS"});
+        WorkloadFeatures features = features();
+        String current = "OG_BFS";
+        for (int batch = 0; batch < 100; batch++) {
+            selector.feedback(current, features, current.equals("OG_BFS") ? 1.0 : 2.0);
+            current = selector.select(features, current);
+        }
+        int dfs = 0;
+        for (int batch = 0; batch < 200; batch++) {//OG_BFS becomes expensive.
+            selector.feedback(current, features, current.equals("OG_BFS") ? 4.0 : 2.0);
+            current = selector.select(features, current);
+            if (batch >= 100 && current.equals("OG_DFS")) {
+                dfs++;
+            }
+        }
+        assertTrue("Chose the cheaper scheduler " + dfs + " times out of 100", dfs >= 80);
+    }
+
+    private static double cost(String scheduler) {
+        switch (scheduler) {
+            case "OG_DFS":
+                return 1.0;
+            case "OG_BFS":
+                return 2.0;
+            default:
+                return 3.0;
+        }
+    }
+
+    private static WorkloadFeatures features() {
+        WorkloadFeatures features = new WorkloadFeatures();
+        features.operations = 1000;
+        features.TD = 100;
+        features.LD = 200;
+        return features;
+    }
+}
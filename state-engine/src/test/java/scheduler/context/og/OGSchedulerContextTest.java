@@ -0,0 +1,46 @@
+package scheduler.context.og;
+
+import content.common.CommonMetaTypes;
+import org.junit.Test;
+import scheduler.struct.og.Operation;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OGSchedulerContextTest {
+
+    @Test
+    public void testOperationsAreReusedAfterRelease() {
+        OGSContext context = new OGSContext(0, 1);
+        Operation first = context.allocateOperation();
+        Operation second = context.allocateOperation();
+        assertNotSame(first, second);
+
+        context.releaseOperations();
+        assertSame(first, context.allocateOperation());
+        assertSame(second, context.allocateOperation());
+        Operation third = context.allocateOperation();//the pool grows when a batch submits more operations.
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+    }
+
+    @Test
+    public void testInitResetsAPooledOperation() {
+        OGSContext context = new OGSContext(0, 1);
+        Operation operation = context.allocateOperation();
+        Operation parent = context.allocateOperation();
+        operation.init("1", null, "accounts", null, null, null, null, null, CommonMetaTypes.AccessType.READ_WRITE, null, null, 1, context);
+        operation.addFDParent(parent);
+        parent.addFDChild(operation);
+        operation.isFailed = true;
+
+        context.releaseOperations();
+        Operation reused = context.allocateOperation();
+        reused.init("2", null, "accounts", null, null, null, null, null, CommonMetaTypes.AccessType.READ_WRITE, null, null, 2, context);
+        assertSame(operation, reused);
+        assertTrue(reused.fd_parents.isEmpty());
+        assertTrue(!reused.isFailed);
+        assertSame(context, reused.context);
+    }
+}
@@ -0,0 +1,67 @@
+package scheduler.impl.og;
+
+import content.common.CommonMetaTypes;
+import content.common.ContentCommon;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scheduler.struct.og.Operation;
+import scheduler.struct.og.OperationChain;
+import storage.SchemaRecord;
+import storage.TableRecord;
+import storage.datatype.DataBox;
+import storage.datatype.LongDataBox;
+import storage.datatype.StringDataBox;
+import storage.table.RowID;
+
+import java.util.Arrays;
+
+import static content.TStreamContentImpl.T_STREAMCONTENT;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OGSchedulerTest {
+
+    @BeforeClass
+    public static void setUp() {
+        ContentCommon.content_type = T_STREAMCONTENT;
+    }
+
+    @Test
+    public void testReaderSubmittedBeforeDepositsDisablesFolding() {
+        OperationChain accounts = new OperationChain("accounts", "1", 0);
+        OperationChain reader = new OperationChain("accounts", "2", 0);
+        Operation read5 = operation(reader, 5);
+        accounts.addPotentialFDChildren(reader, read5);// the reader arrives before any deposit on its condition record.
+        Operation deposit3 = operation(accounts, 3);
+        accounts.checkPotentialFDChildrenOnNewArrival(deposit3);
+        Operation deposit4 = operation(accounts, 4);
+        accounts.checkPotentialFDChildrenOnNewArrival(deposit4);
+
+        assertTrue(deposit3.fd_children.contains(read5));
+        assertTrue(deposit4.fd_children.isEmpty());// read5 reads the version of deposit4, but is not linked to it.
+        assertFalse(OGScheduler.canFold(deposit3));
+        assertFalse(OGScheduler.canFold(deposit4));
+    }
+
+    @Test
+    public void testChainWithoutReadersCanFold() {
+        OperationChain accounts = new OperationChain("accounts", "1", 0);
+        Operation deposit3 = operation(accounts, 3);
+        operation(accounts, 4);
+        assertTrue(OGScheduler.canFold(deposit3));
+    }
+
+    private static Operation operation(OperationChain oc, long bid) {
+        TableRecord record = record(oc.primaryKey);
+        Operation operation = new Operation(oc.primaryKey, null, oc.getTableName(), null, null, null, null,
+                null, CommonMetaTypes.AccessType.READ_WRITE, record, record, bid, null);
+        oc.addOperation(operation);
+        return operation;
+    }
+
+    private static TableRecord record(String key) {
+        SchemaRecord schemaRecord = new SchemaRecord(Arrays.<DataBox>asList(new StringDataBox(key, key.length()), new LongDataBox(100)));
+        schemaRecord.setID(new RowID(Integer.parseInt(key)));
+        return new TableRecord(schemaRecord, 1);
+    }
+}
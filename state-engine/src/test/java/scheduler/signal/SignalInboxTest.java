@@ -0,0 +1,77 @@
+package scheduler.signal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SignalInboxTest {
+
+    @Test
+    public void testSignalsAreTakenInOrder() {
+        SignalInbox<String> inbox = new SignalInbox<>(4);
+        assertTrue(inbox.isEmpty());
+        inbox.post("a", 1, 10);
+        inbox.post("b", 2, 20);
+        assertFalse(inbox.isEmpty());
+
+        assertTrue(inbox.poll());
+        assertEquals("a", inbox.target());
+        assertEquals(1, inbox.signalType());
+        assertEquals(10, inbox.argument());
+        assertTrue(inbox.poll());
+        assertEquals("b", inbox.target());
+        assertFalse(inbox.poll());
+        assertTrue(inbox.isEmpty());
+    }
+
+    @Test
+    public void testRingIsReusedAcrossRounds() {
+        SignalInbox<Integer> inbox = new SignalInbox<>(4);
+        for (int i = 0; i < 20; i++) {
+            inbox.post(i, 0, 0);
+            assertTrue(inbox.poll());
+            assertEquals(i, (int) inbox.target());
+        }
+        assertTrue(inbox.isEmpty());
+    }
+
+    @Test
+    public void testSpilledSignalsKeepTheOrderOfTheProducer() {
+        SignalInbox<Integer> inbox = new SignalInbox<>(4);
+        for (int i = 0; i < 6; i++) {//the last two spill.
+            inbox.post(i, 0, 0);
+        }
+        assertTrue(inbox.poll());
+        assertEquals(0, (int) inbox.target());
+        inbox.post(6, 0, 0);//fits in the ring again, but must follow the spilled ones.
+        inbox.post(7, 0, 0);//spills again.
+        for (int i = 1; i < 8; i++) {
+            assertTrue(inbox.poll());
+            assertEquals(i, (int) inbox.target());
+        }
+        assertFalse(inbox.poll());
+        assertTrue(inbox.isEmpty());
+    }
+
+    @Test
+    public void testClearDropsRingAndOverflow() {
+        SignalInbox<Integer> inbox = new SignalInbox<>(4);
+        for (int i = 0; i < 10; i++) {
+            inbox.post(i, 0, 0);
+        }
+        inbox.clear();
+        assertTrue(inbox.isEmpty());
+        inbox.post(42, 0, 0);
+        assertTrue(inbox.poll());
+        assertEquals(42, (int) inbox.target());
+    }
+
+    @Test
+    public void testPackArguments() {
+        int argument = SignalInbox.pack(3, 7);
+        assertEquals(3, SignalInbox.first(argument));
+        assertEquals(7, SignalInbox.second(argument));
+    }
+}
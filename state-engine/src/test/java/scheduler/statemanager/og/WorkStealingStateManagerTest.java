@@ -0,0 +1,83 @@
+package scheduler.statemanager.og;
+
+import content.common.CommonMetaTypes;
+import content.common.ContentCommon;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scheduler.struct.og.Operation;
+import scheduler.struct.og.OperationChain;
+import storage.SchemaRecord;
+import storage.TableRecord;
+import storage.datatype.DataBox;
+import storage.datatype.LongDataBox;
+import storage.datatype.StringDataBox;
+import storage.table.RowID;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static content.TStreamContentImpl.T_STREAMCONTENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WorkStealingStateManagerTest {
+
+    @BeforeClass
+    public static void setUp() {
+        ContentCommon.content_type = T_STREAMCONTENT;
+    }
+
+    @Test
+    public void testOwnerTakesTheTailAndThievesTheHead() {
+        WorkStealingStateManager manager = new WorkStealingStateManager();
+        OperationChain a = new OperationChain("accounts", "1", 0);
+        OperationChain b = new OperationChain("accounts", "2", 0);
+        OperationChain c = new OperationChain("accounts", "3", 0);
+        manager.onOcRootStart(a);
+        manager.onOcRootStart(b);
+        manager.onOcRootStart(c);
+        assertSame(c, manager.pollLocal());
+        assertSame(a, manager.steal());
+        assertSame(b, manager.steal());
+        assertNull(manager.pollLocal());
+        assertNull(manager.steal());
+    }
+
+    @Test
+    public void testChildIsReadyOnceItsLastParentIsExecuted() {
+        WorkStealingStateManager manager = new WorkStealingStateManager();
+        AtomicInteger pendingOPs = new AtomicInteger(3);
+        manager.initialize(pendingOPs);
+        OperationChain a = new OperationChain("accounts", "1", 0);
+        OperationChain b = new OperationChain("accounts", "2", 0);
+        OperationChain c = new OperationChain("accounts", "3", 0);
+        operation(a, 1);
+        operation(b, 2);
+        Operation c3 = operation(c, 3);
+        c.addParent(c3, a);
+        c.addParent(c3, b);
+        assertEquals(2, c.ocParentsCount.get());
+
+        manager.onOcExecuted(a);
+        assertTrue(a.isExecuted);
+        assertNull(manager.pollLocal());//c still waits for b.
+        manager.onOcExecuted(b);
+        assertSame(c, manager.pollLocal());
+        assertEquals(1, pendingOPs.get());
+        manager.onOcExecuted(c);
+        assertEquals(0, pendingOPs.get());
+    }
+
+    private static Operation operation(OperationChain oc, long bid) {
+        String key = oc.primaryKey;
+        SchemaRecord schemaRecord = new SchemaRecord(Arrays.<DataBox>asList(new StringDataBox(key, key.length()), new LongDataBox(100)));
+        schemaRecord.setID(new RowID(Integer.parseInt(key)));
+        TableRecord record = new TableRecord(schemaRecord, 1);
+        Operation operation = new Operation(key, null, oc.getTableName(), null, null, null, null,
+                null, CommonMetaTypes.AccessType.READ_WRITE, record, record, bid, null);
+        oc.addOperation(operation);
+        return operation;
+    }
+}
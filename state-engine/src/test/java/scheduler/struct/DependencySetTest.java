@@ -0,0 +1,59 @@
+package scheduler.struct;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DependencySetTest {
+
+    @Test
+    public void testMembersAreKeptByIdentity() {
+        DependencySet<String> set = new DependencySet<>();
+        String a = new String("a");
+        String otherA = new String("a");
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(a));
+        assertTrue(set.add(a));
+        assertFalse(set.add(a));
+        assertTrue(set.add(otherA));//equal, but another chain.
+        assertEquals(2, set.size());
+        assertTrue(set.contains(a));
+        assertTrue(set.contains(otherA));
+    }
+
+    @Test
+    public void testGrowsAndIteratesOverEveryMember() {
+        DependencySet<Object> set = new DependencySet<>();
+        Set<Object> expected = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            Object member = new Object();
+            expected.add(member);
+            assertTrue(set.add(member));
+        }
+        assertEquals(100, set.size());
+        Set<Object> iterated = new HashSet<>();
+        for (Object member : set) {
+            iterated.add(member);
+        }
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testClearIsReusable() {
+        DependencySet<Object> set = new DependencySet<>();
+        Object member = new Object();
+        set.add(member);
+        set.add(new Object());
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(member));
+        assertFalse(set.iterator().hasNext());
+        assertTrue(set.add(member));
+        assertEquals(1, set.size());
+    }
+}
@@ -0,0 +1,90 @@
+package scheduler.struct.og;
+
+import content.common.CommonMetaTypes;
+import content.common.ContentCommon;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import storage.SchemaRecord;
+import storage.TableRecord;
+import storage.datatype.DataBox;
+import storage.datatype.LongDataBox;
+import storage.datatype.StringDataBox;
+import storage.table.RowID;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static content.TStreamContentImpl.T_STREAMCONTENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskPrecedenceGraphTest {
+
+    @BeforeClass
+    public static void setUp() {
+        ContentCommon.content_type = T_STREAMCONTENT;
+    }
+
+    @Test
+    public void testAbortInsideResolvedCycle() {
+        OperationChain a = new OperationChain("accounts", "1", 0);
+        OperationChain b = new OperationChain("accounts", "2", 0);
+        OperationChain c = new OperationChain("accounts", "3", 0);
+        Operation a1 = operation(a, 1);
+        Operation b2 = operation(b, 2);
+        Operation a3 = operation(a, 3);
+        Operation c4 = operation(c, 4);
+        b.addParent(b2, a);// b2 reads the version written by a1.
+        a.addParent(a3, b);// a3 reads the version written by b2, a and b form a cycle.
+        c.addParent(c4, b);// c4 is affected by the cycle.
+        for (OperationChain oc : new OperationChain[]{a, b, c}) {// as circularDetect does once the cycle is resolved.
+            oc.ocParentsCount.set(0);
+            oc.ocParents.clear();
+            oc.ocChildren.clear();
+        }
+        assertEquals(a1, b2.fd_parents.peek());
+
+        Set<OperationChain> affected = new HashSet<>();
+        ArrayDeque<OperationChain> toVisit = new ArrayDeque<>();
+        affected.add(a);// a1 is aborted.
+        toVisit.add(a);
+        TaskPrecedenceGraph.collectDependents(toVisit, affected);
+        assertEquals(3, affected.size());
+        assertTrue(affected.contains(b));
+        assertTrue(affected.contains(c));
+    }
+
+    @Test
+    public void testIndependentOCsAreNotAffected() {
+        OperationChain a = new OperationChain("accounts", "1", 0);
+        OperationChain b = new OperationChain("accounts", "2", 0);
+        OperationChain c = new OperationChain("accounts", "3", 0);
+        operation(a, 1);
+        Operation b2 = operation(b, 2);
+        operation(c, 3);
+        b.addParent(b2, a);
+
+        Set<OperationChain> affected = new HashSet<>();
+        ArrayDeque<OperationChain> toVisit = new ArrayDeque<>();
+        affected.add(b);
+        toVisit.add(b);
+        TaskPrecedenceGraph.collectDependents(toVisit, affected);
+        assertEquals(1, affected.size());
+    }
+
+    private static Operation operation(OperationChain oc, long bid) {
+        TableRecord record = record(oc.primaryKey);
+        Operation operation = new Operation(oc.primaryKey, null, oc.getTableName(), null, null, null, null,
+                null, CommonMetaTypes.AccessType.READ_WRITE, record, record, bid, null);
+        oc.addOperation(operation);
+        return operation;
+    }
+
+    static TableRecord record(String key) {
+        SchemaRecord schemaRecord = new SchemaRecord(Arrays.<DataBox>asList(new StringDataBox(key, key.length()), new LongDataBox(100)));
+        schemaRecord.setID(new RowID(Integer.parseInt(key)));
+        return new TableRecord(schemaRecord, 1);
+    }
+}
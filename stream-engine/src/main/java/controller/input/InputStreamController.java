@@ -1,7 +1,12 @@
 package controller.input;
 
+import common.util.wait.BusySpinWaitStrategy;
+import common.util.wait.WaitStrategy;
 import execution.runtime.tuple.JumboTuple;
+import execution.runtime.tuple.impl.Tuple;
+import org.jctools.queues.MessagePassingQueue;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Queue;
 import java.util.Set;
@@ -12,6 +17,7 @@ import java.util.TreeSet;
  */
 public abstract class InputStreamController implements IISC {
     private static final long serialVersionUID = 3675914097463516987L;
+    protected static final int DRAIN_LIMIT = 64;
     /**
      * for an executor (except spout's executor), there's a receive queue
      * for *each* upstream executor's *each* stream output (if subscribed).
@@ -23,22 +29,116 @@ public abstract class InputStreamController implements IISC {
     private final HashMap<String, HashMap<Integer, Queue>> RQ = new HashMap<>();
     protected Set<String> keySet;
     TreeSet<JumboTuple> tuples = new TreeSet<>();//temporarily holds all retrieved tuples.
+    private DrainBuffer buffer = new DrainBuffer(DRAIN_LIMIT);//tuples drained but not fetched yet.
+    private DrainBuffer markerBuffer = new DrainBuffer(DRAIN_LIMIT);//drained segments ending with a marker, fetched first.
+    private final Object[] segment = new Object[DRAIN_LIMIT];
+    private WaitStrategy waitStrategy = new BusySpinWaitStrategy();
+    private int lowWatermark = Integer.MAX_VALUE;
 
     protected InputStreamController() {
     }
 
     public abstract Object fetchResults();
 
+    /**
+     * The wait object of the consuming executor: producers signal it after an offer and wait on it while a queue is full,
+     * and they are signalled once a drain takes the queue below lowWatermark.
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy, int lowWatermark) {
+        this.waitStrategy = waitStrategy;
+        this.lowWatermark = lowWatermark;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Drain up to DRAIN_LIMIT tuples of the queue at once and hand them out one by one,
+     * the tuples left from a previous drain are returned first so that the order of each queue is kept.
+     */
     protected Object fetchFromqueue(Queue queue) {
+        if (hasBuffered()) {
+            return pollBuffered();
+        }
+        if (drain(queue, DRAIN_LIMIT) == 0) {
+            return null;
+        }
+        return pollBuffered();
+    }
+
+    /**
+     * Append up to limit tuples of the queue to the buffer, which must have room for them.
+     *
+     * @return the number of drained tuples.
+     */
+    @SuppressWarnings("unchecked")
+    protected int drain(Queue queue, int limit) {
+        if (!(queue instanceof MessagePassingQueue)) {
+            int drained = 0;
+            Object tuple;
+            while (drained < limit && (tuple = queue.poll()) != null) {
+                buffer.accept(tuple);
+                drained++;
+            }
+            return drained;
+        }
+        int drained = ((MessagePassingQueue<Object>) queue).drain(buffer, limit);
+        signalProducers(queue, drained);
+        return drained;
+    }
+
+    /**
+     * Poll up to limit (at most DRAIN_LIMIT) tuples of the queue like drain, but stop right after a marker. A segment ending with a marker is fetched
+     * before all other buffered tuples, the tuples behind the marker stay in the queue, so the order of each queue is kept.
+     *
+     * @return the number of drained tuples.
+     */
+    protected int drainToMarker(Queue queue, int limit) {
+        int polled = 0;
+        boolean marker = false;
         Object tuple;
-        tuple = queue.poll();
-        if (tuple != null) {
-            synchronized (queue) {
-                queue.notifyAll();
+        while (polled < limit && (tuple = queue.poll()) != null) {
+            segment[polled++] = tuple;
+            if (tuple instanceof Tuple && ((Tuple) tuple).isMarker()) {
+                marker = true;
+                break;
             }
-            return tuple;
         }
-        return null;
+        DrainBuffer target = marker ? markerBuffer : buffer;
+        for (int i = 0; i < polled; i++) {
+            target.accept(segment[i]);
+            segment[i] = null;
+        }
+        signalProducers(queue, polled);
+        return polled;
+    }
+
+    private void signalProducers(Queue queue, int drained) {
+        if (drained != 0 && queue instanceof MessagePassingQueue) {
+            int remaining = ((MessagePassingQueue) queue).size();
+            if (remaining <= lowWatermark && remaining + drained > lowWatermark) {
+                waitStrategy.signalAll();
+            }
+        }
+    }
+
+    /**
+     * Make room for capacity drained tuples, only when nothing is buffered.
+     */
+    protected void reserveBuffer(int capacity) {
+        if (capacity > buffer.capacity() && !hasBuffered()) {
+            buffer = new DrainBuffer(capacity);
+            markerBuffer = new DrainBuffer(capacity);
+        }
+    }
+
+    protected boolean hasBuffered() {
+        return !markerBuffer.isEmpty() || !buffer.isEmpty();
+    }
+
+    protected Object pollBuffered() {
+        return markerBuffer.isEmpty() ? buffer.poll() : markerBuffer.poll();
     }
 
     public HashMap<String, HashMap<Integer, Queue>> getRQ() {
@@ -68,4 +168,41 @@ public abstract class InputStreamController implements IISC {
         integerP1C1QueueHashMap.put(executorID, q);
         RQ.put(streamId, integerP1C1QueueHashMap);
     }
+
+    /**
+     * Reusable buffer the queues are drained into, only touched by the executor owning the controller.
+     */
+    private static final class DrainBuffer implements MessagePassingQueue.Consumer<Object>, Serializable {
+        private static final long serialVersionUID = -1525834287305418843L;
+        private final Object[] tuples;
+        private int head = 0;
+        private int size = 0;
+
+        DrainBuffer(int capacity) {
+            this.tuples = new Object[capacity];
+        }
+
+        @Override
+        public void accept(Object tuple) {
+            tuples[size++] = tuple;
+        }
+
+        boolean isEmpty() {
+            return head == size;
+        }
+
+        int capacity() {
+            return tuples.length;
+        }
+
+        Object poll() {
+            Object tuple = tuples[head];
+            tuples[head++] = null;
+            if (head == size) {
+                head = 0;
+                size = 0;
+            }
+            return tuple;
+        }
+    }
 }
@@ -1,52 +1,78 @@
 package controller.input.scheduler;
 
-import common.util.CompactHashMap.QuickHashMap;
 import controller.input.InputStreamController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Queue;
 
 /**
- * TODO: The over head is still too large.
  * Created by shuhaozhang on 17/7/16.
+ * Fetches from all input queues in rounds. A round marks the non-empty queues in an occupancy bitmap and drains up to DRAIN_LIMIT tuples
+ * of each marked queue into one buffer, which is handed out before the next round, so empty queues cost one probe per round.
+ * If prioritizeMarkers is set, the drain of a queue stops at a marker and the tuples of that queue are handed out before the rest of the round,
+ * so that epoch boundaries do not wait behind the data of the other queues. The order of each queue is kept.
  */
 public class UniformedScheduler extends InputStreamController {
     private static final Logger LOG = LoggerFactory.getLogger(UniformedScheduler.class);
     private static final long serialVersionUID = -8233684569637244620L;
-    private final QuickHashMap<String, Integer[]> queues = new QuickHashMap<>();
-    private String[] streams;
-    private int stream_index = 0;
-    private int queue_index = 0;
+    private final boolean prioritizeMarkers;
+    private Queue[] queues = new Queue[0];
+    private long[] occupancy = new long[0];
+
+    public UniformedScheduler() {
+        this(true);
+    }
+
+    public UniformedScheduler(boolean prioritizeMarkers) {
+        this.prioritizeMarkers = prioritizeMarkers;
+    }
+
+    public boolean isPrioritizeMarkers() {
+        return prioritizeMarkers;
+    }
 
     public void initialize() {
         super.initialize();
-        this.streams = Arrays.copyOf(getRQ().keySet().toArray(), getRQ().keySet().size(), String[].class);
+        ArrayList<Queue> all = new ArrayList<>();
         for (String streamId : getRQ().keySet()) {
-            queues.put(streamId, Arrays.copyOf(getRQ().get(streamId).keySet().toArray(), getRQ().get(streamId).size(), Integer[].class));
+            all.addAll(getRQ().get(streamId).values());
         }
+        queues = all.toArray(new Queue[0]);
+        occupancy = new long[(queues.length + 63) >>> 6];
+        reserveBuffer(DRAIN_LIMIT * queues.length);
     }
 
     @Override
     public Object fetchResults() {
-//        JumboTuple[] t = new JumboTuple[batch];
-        for (int i = stream_index++; i < streams.length + stream_index; i++) {
-            String streamId = streams[i % streams.length];
-            //assert RQ != null;
-            //final HashMap<Integer, P1C1Queue<JumboTuple>> integerP1C1QueueHashMap = RQ.GetAndUpdate(streamId);
-            Integer[] qids = queues.get(streamId);
-            int queueIdLength = qids.length;
-            for (int j = queue_index++; j < queueIdLength + queue_index; ) {
-                //Integer[] queueId = Arrays.copyOf(integerP1C1QueueHashMap.keySet().toArray(),integerP1C1QueueHashMap.fieldSize(),Integer[].class);
-                int q_index = qids[j % queueIdLength];
-                if (queueIdLength > 1)
-                    //if (enable_log) LOG.DEBUG("Uniformed shoulder, queue index:" + q_index);
-//                for (int b = 0; b < batch; b++) {
-//                    t[b] = fetchFromqueue((P1C1Queue) getRQ().GetAndUpdate(streamId).GetAndUpdate(q_index));
-//                }
-                    return fetchFromqueue(getRQ().get(streamId).get(q_index));
+        if (!hasBuffered()) {
+            round();
+            if (!hasBuffered()) {
+                return null;
+            }
+        }
+        return pollBuffered();
+    }
+
+    private void round() {
+        for (int i = 0; i < queues.length; i++) {
+            if (!queues[i].isEmpty()) {
+                occupancy[i >>> 6] |= 1L << i;
+            }
+        }
+        for (int word = 0; word < occupancy.length; word++) {
+            long bits = occupancy[word];
+            while (bits != 0) {
+                Queue queue = queues[(word << 6) | Long.numberOfTrailingZeros(bits)];
+                if (prioritizeMarkers) {
+                    drainToMarker(queue, DRAIN_LIMIT);
+                } else {
+                    drain(queue, DRAIN_LIMIT);
+                }
+                bits &= bits - 1;
             }
+            occupancy[word] = 0;
         }
-        return null;
     }
 }
@@ -1,9 +1,11 @@
 package controller.output;
 
 import common.collections.Configuration;
+import common.util.wait.WaitStrategy;
 import common.util.datatypes.StreamValues;
 import components.TopologyComponent;
 import components.context.TopologyContext;
+import controller.input.InputStreamController;
 import execution.ExecutionNode;
 import execution.runtime.collector.impl.BIDGenerator;
 import execution.runtime.collector.impl.Meta;
@@ -16,6 +18,7 @@ import execution.runtime.tuple.impl.msgs.IntDoubleDoubleMsg;
 import execution.runtime.tuple.impl.msgs.StringLongMsg;
 import execution.runtime.tuple.impl.msgs.StringMsg;
 import org.jctools.queues.MpscArrayQueue;
+import org.jctools.queues.SpscArrayQueue;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import queue.MPSCController;
@@ -32,7 +35,8 @@ import static common.CONTROL.enable_log;
  */
 public abstract class PartitionController implements IPartitionController, Serializable {
     private static final long serialVersionUID = 28L;
-    private static final int SPIN_TRIES = 100;
+    private static final int POOL_SIZE = 128;
+    private static final int GROW_AFTER = 4;//consecutive flushes finding the consumer busy before a batch grows.
     private static boolean profile;
     protected final int batch;
     /**
@@ -52,7 +56,10 @@ public abstract class PartitionController implements IPartitionController, Seria
     private final ExecutionNode executionNode;
     private final Logger LOG;
     private final QueueController controller;
+    private final WaitStrategy waitStrategy;//for consumers without input controller.
     private final Collections[] collections;//this may be shared by multiple producers.
+    private final boolean adaptiveBatch;
+    private final long lingerNs;//a partially filled batch older than this is flushed, 0 to wait until it is full.
     protected Integer[] targetTasks;
     int threashold;
     private int firt_executor_Id;
@@ -88,6 +95,9 @@ public abstract class PartitionController implements IPartitionController, Seria
         targetTasks = setID.toArray(new Integer[setID.size()]);
         updateExtendedTargetId();
         downTaskSize = targetTasks.length;
+        final boolean pooling = conf.getBoolean("tuplePooling", true);
+        adaptiveBatch = conf.getBoolean("adaptiveBatch", false);
+        lingerNs = conf.getInt("batchLingerUs", 0) * 1000L;
         final ExecutionNode first = operator.getExecutorList().get(0);
         firt_executor_Id = first.getExecutorID();
         if (executionNode == null) {//shared.
@@ -95,7 +105,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             collections = new Collections[operator.getExecutorList().size()];
             context = new TopologyContext[operator.getExecutorList().size()];
             for (ExecutionNode src : operator.getExecutorList()) {
-                collections[(src.getExecutorID() - firt_executor_Id)] = new Collections(src.getExecutorID(), downExecutor_list, batch_size);
+                collections[(src.getExecutorID() - firt_executor_Id)] = new Collections(src.getExecutorID(), downExecutor_list, batch_size, pooling);
             }
             if (enable_log)
                 LOG.trace("MPSC implementation -- Queue is shared among multiple executors of the same producer.");
@@ -104,13 +114,14 @@ public abstract class PartitionController implements IPartitionController, Seria
             firt_executor_Id = executionNode.getExecutorID();
             collections = new Collections[1];
             context = new TopologyContext[1];
-            collections[0] = new Collections(firt_executor_Id, downExecutor_list, batch_size);
+            collections[0] = new Collections(firt_executor_Id, downExecutor_list, batch_size, pooling);
 
             if (enable_log) LOG.trace("SPSC implementation -- Queue is unique to each producer and consumer");
             controller = new SPSCController(downExecutor_list);
         }
         PartitionController.profile = profile;
         threashold = conf.getInt("queue_size") - 1;//leave one space for watermark filling!
+        waitStrategy = conf.getWaitStrategy();
     }
 
     public String toString() {
@@ -121,6 +132,26 @@ public abstract class PartitionController implements IPartitionController, Seria
         return sb.toString();
     }
 
+    /**
+     * Flush the lingering partial batches of the producer srcId, no-op unless batchLingerUs is configured.
+     */
+    public void flushLingering(int srcId) {
+        if (lingerNs != 0) {
+            collections[srcId - firt_executor_Id].flushLingering();
+        }
+    }
+
+    /**
+     * @return the average number of messages per jumbo tuple emitted by the producer srcId.
+     */
+    public double getAverageBatchSize(int srcId) {
+        return collections[srcId - firt_executor_Id].getAverageBatchSize();
+    }
+
+    public String getChildId() {
+        return childOP.getId();
+    }
+
     public TopologyContext[] getContext() {
         return context;
     }
@@ -216,23 +247,22 @@ public abstract class PartitionController implements IPartitionController, Seria
         return downExecutor_list;
     }
 
-    private int applyWaitMethod(int counter) {
-        if (0 == counter) {
-            Thread.yield();
-//			Thread.sleep(0,1);
-        } else {
-            --counter;
-        }
-        return counter;
+    /**
+     * @return the wait object of the consumer targetId, read on every offer as the consumer may start after the producer.
+     */
+    private WaitStrategy waitOf(int targetId) {
+        InputStreamController consumer = downExecutor_list.get(targetId).getInputStreamController();
+        return consumer == null ? waitStrategy : consumer.getWaitStrategy();
     }
 
-    private boolean offer_marker(Queue queue, final Object e) {
+    private boolean offer_marker(Queue queue, final Object e, WaitStrategy consumerWait) {
+        int spin = WaitStrategy.SPIN_TRIES;
         do {
             if (queue.offer(e)) {// it should always success
+                consumerWait.signalAll();//wake up the consumer if it is idle.
                 return true;
             }
-            int timestamp_counter = SPIN_TRIES;
-            applyWaitMethod(timestamp_counter);
+            spin = consumerWait.idle(spin);
         } while (!Thread.interrupted()); //clear interrupted flag
 //		throw new InterruptedException();
 //        while (!queue.offer(e)) {
@@ -245,13 +275,14 @@ public abstract class PartitionController implements IPartitionController, Seria
 //		throw new InterruptedException();
     }
 
-    private boolean bounded_offer(Queue queue, final Object e) {
+    private boolean bounded_offer(Queue queue, final Object e, WaitStrategy consumerWait) {
+        int spin = WaitStrategy.SPIN_TRIES;
         do {
             if (((MpscArrayQueue) queue).offerIfBelowThreshold(e, threashold)) {
+                consumerWait.signalAll();//wake up the consumer if it is idle.
                 return true;
             }
-            int timestamp_counter = SPIN_TRIES;
-            applyWaitMethod(timestamp_counter);
+            spin = consumerWait.idle(spin);
         } while (!Thread.interrupted()); //clear interrupted flag
 //		throw new InterruptedException();
 //        while (!queue.offer(e)) {
@@ -271,8 +302,12 @@ public abstract class PartitionController implements IPartitionController, Seria
      * @return
      * @throws InterruptedException
      */
-    private boolean nonbounded_offer(Queue queue, final Object e) {
-        return queue.offer(e);
+    private boolean nonbounded_offer(Queue queue, final Object e, WaitStrategy consumerWait) {
+        if (queue.offer(e)) {
+            consumerWait.signalAll();
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -288,7 +323,7 @@ public abstract class PartitionController implements IPartitionController, Seria
         JumboTuple tuple = collections[srcId - firt_executor_Id].add(targetId, streamId, 0, context[srcId - firt_executor_Id], output);//does not care order. set bid to 0.
         if (tuple != null) {
             Queue queue = get_queue(targetId);
-            return nonbounded_offer(queue, tuple);
+            return nonbounded_offer(queue, tuple, waitOf(targetId));
         }
         return false;
     }
@@ -519,7 +554,7 @@ public abstract class PartitionController implements IPartitionController, Seria
     private boolean _try_offer(Object tuple, int targetId) {
         Queue queue = get_queue(targetId);
 //		if (profile) {
-        return nonbounded_offer(queue, tuple);
+        return nonbounded_offer(queue, tuple, waitOf(targetId));
 //		} else {
 //		return bounded_offer(queue, tuple);
 //		}
@@ -530,7 +565,7 @@ public abstract class PartitionController implements IPartitionController, Seria
 //		if (profile) {
 //			return nonbounded_offer(queue, tuple);
 //		} else {
-        return bounded_offer(queue, tuple);
+        return bounded_offer(queue, tuple, waitOf(targetId));
 //		}
     }
 
@@ -539,7 +574,7 @@ public abstract class PartitionController implements IPartitionController, Seria
 //		if (profile) {
 //			return nonbounded_offer(queue, tuple);
 //		} else {
-        return offer_marker(queue, tuple);
+        return offer_marker(queue, tuple, waitOf(targetId));
 //		}
     }
 
@@ -615,12 +650,33 @@ public abstract class PartitionController implements IPartitionController, Seria
         final int src_Id;
         final int[] pointer;
         private final JumboTuple[] buffers;//maintains a list of JumboTuple for each consumer
+        private final Queue<JumboTuple>[] pools;//free-list of the consumed tuples of each consumer, null if tuples are not pooled.
+        private final int[] limit;//current batch size of each consumer, at most batch_size.
+        private final int[] busyFlushes;
+        private final long[] firstAdded;//time the first message of the current batch of each consumer is added.
+        private final long[] flushes;
+        private final long[] flushedMessages;
         private int base = Integer.MAX_VALUE;
 
-        Collections(int src_Id, HashMap<Integer, ExecutionNode> DownExecutor_list, int batch_size) {
+        @SuppressWarnings("unchecked")
+        Collections(int src_Id, HashMap<Integer, ExecutionNode> DownExecutor_list, int batch_size, boolean pooling) {
             this.batch_size = batch_size;
             pointer = new int[DownExecutor_list.size()];
             buffers = new JumboTuple[DownExecutor_list.size()];
+            limit = new int[DownExecutor_list.size()];
+            Arrays.fill(limit, batch_size);
+            busyFlushes = new int[DownExecutor_list.size()];
+            firstAdded = new long[DownExecutor_list.size()];
+            flushes = new long[DownExecutor_list.size()];
+            flushedMessages = new long[DownExecutor_list.size()];
+            if (pooling) {
+                pools = new Queue[DownExecutor_list.size()];
+                for (int i = 0; i < pools.length; i++) {
+                    pools[i] = new SpscArrayQueue<>(POOL_SIZE);//only the consumer returns and only this producer takes.
+                }
+            } else {
+                pools = null;
+            }
             for (int e : DownExecutor_list.keySet()) {
                 if (e < base) {
                     base = e;
@@ -633,16 +689,77 @@ public abstract class PartitionController implements IPartitionController, Seria
             this.src_Id = src_Id;
         }
 
+        /**
+         * Take a tuple consumed by the consumer of index for a new batch, allocate one if none is returned yet.
+         */
+        private JumboTuple newTuple(final int index, final long bid, TopologyContext context) {
+            if (lingerNs != 0) {
+                firstAdded[index] = System.nanoTime();
+            }
+            if (pools == null) {
+                return new JumboTuple(src_Id, bid, batch_size, context);
+            }
+            JumboTuple tuple = pools[index].poll();
+            if (tuple == null) {
+                return new JumboTuple(src_Id, bid, batch_size, context, pools[index]);
+            }
+            tuple.reuse(bid, batch_size, context);
+            return tuple;
+        }
+
         private JumboTuple getTuple(final int p, final int index) {
-            if (p + 1 == batch_size) {//batch is full
-                pointer[index] = 0;
-                return buffers[index];
+            if (p + 1 == limit[index] || (lingerNs != 0 && System.nanoTime() - firstAdded[index] >= lingerNs)) {//batch is full or has lingered
+                return flush(p + 1, index);
             } else {
                 pointer[index]++;
                 return null;
             }
         }
 
+        /**
+         * Close the current batch of the consumer of index with size messages.
+         * With adaptive batching, the batch of a consumer shrinks by half whenever its queue is found empty, i.e., the consumer is starved,
+         * and doubles up to batch_size once the queue is found non-empty by GROW_AFTER flushes in a row.
+         */
+        private JumboTuple flush(final int size, final int index) {
+            pointer[index] = 0;
+            JumboTuple tuple = buffers[index];
+            tuple.length = size;
+            flushes[index]++;
+            flushedMessages[index] += size;
+            if (adaptiveBatch) {
+                if (get_queue(index + base).isEmpty()) {
+                    limit[index] = Math.max(1, limit[index] >> 1);
+                    busyFlushes[index] = 0;
+                } else if (++busyFlushes[index] == GROW_AFTER) {
+                    limit[index] = Math.min(batch_size, limit[index] << 1);
+                    busyFlushes[index] = 0;
+                }
+            }
+            return tuple;
+        }
+
+        /**
+         * Offer the partially filled batches that have lingered, called by the producer when it has nothing to emit.
+         */
+        void flushLingering() {
+            long now = System.nanoTime();
+            for (int index = 0; index < pointer.length; index++) {
+                if (pointer[index] != 0 && now - firstAdded[index] >= lingerNs) {
+                    _offer(flush(pointer[index], index), index + base);
+                }
+            }
+        }
+
+        double getAverageBatchSize() {
+            long flushes = 0, messages = 0;
+            for (int index = 0; index < this.flushes.length; index++) {
+                flushes += this.flushes[index];
+                messages += flushedMessages[index];
+            }
+            return flushes == 0 ? 0 : messages / (double) flushes;
+        }
+
         private JumboTuple getTuple_single(final int index) {
             return buffers[index];
         }
@@ -674,7 +791,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             }
             buffers[index].add(p, package_message(streamId, value));
@@ -686,7 +803,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             }
             buffers[index].add(p, package_message(streamId, value));
@@ -698,7 +815,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             }
             buffers[index].add(p, package_message(streamId, value));
@@ -710,7 +827,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             }
             buffers[index].add(p, package_message(streamId, value));
@@ -722,7 +839,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             }
             buffers[index].add(p, package_message(streamId, deviceID, nextDouble, movingAvergeInstant));
@@ -734,7 +851,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             }
             buffers[index].add(p, package_message(streamId, key, value));
@@ -745,7 +862,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int index = targetId - base;
 //			Tuple tuple = buffers[index];
             if (pointer[index] == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             } else {
                 long cbid = buffers[index].getBID();
@@ -753,7 +870,7 @@ public abstract class PartitionController implements IPartitionController, Seria
                     buffers[index].length = pointer[index];
 //				JumboTuple transferTuple = new JumboTuple(buffers[index]);
                     _inorder_offer(buffers[index], cbid, gap, targetId);//enforce emit a partial-complete tuple. It is guaranteed that this tuple will have smaller batch id
-                    buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                    buffers[index] = newTuple(index, bid, context);
                     pointer[index] = 0;
                 }
             }
@@ -770,13 +887,13 @@ public abstract class PartitionController implements IPartitionController, Seria
         JumboTuple add_inorder(int targetId, String streamId, long bid, LinkedList<Long> gap, TopologyContext context, char[] value) {
             final int index = targetId - base;
             if (pointer[index] == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
             } else {
                 long cbid = buffers[index].getBID();
                 if (bid != cbid) {//different bid comes.
                     buffers[index].length = pointer[index];
                     _inorder_offer(buffers[index], cbid, gap, targetId);//enforce emit a partial-complete tuple. It is guaranteed that this tuple will have smaller batch id
-                    buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                    buffers[index] = newTuple(index, bid, context);
                     pointer[index] = 0;
                 }
             }
@@ -795,14 +912,14 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {//first tuple comes.
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             } else {
                 long cbid = buffers[index].getBID();
                 if (bid != cbid) {//different bid comes.
                     buffers[index].length = pointer[index];
                     _inorder_offer(buffers[index], cbid, gap, targetId);//enforce emit a partial-complete tuple. It is guaranteed that this tuple will have smaller batch id
-                    buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                    buffers[index] = newTuple(index, bid, context);
                     pointer[index] = 0;
                 }
             }
@@ -813,7 +930,7 @@ public abstract class PartitionController implements IPartitionController, Seria
         JumboTuple add_inorder_single(int targetId, String streamId, long bid, LinkedList<Long> gap, TopologyContext context, StreamValues value) {
             final int index = targetId - base;
 //			Tuple tuple = buffers[index];
-            buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+            buffers[index] = newTuple(index, bid, context);
 //				buffers[index] = tuple;
             buffers[index].length = 1;
             buffers[index].add(0, package_message(streamId, value));
@@ -832,17 +949,11 @@ public abstract class PartitionController implements IPartitionController, Seria
 //			Tuple tuple = buffers[index];
             if (p == 0) {
                 long bid = BIDGenerator.getInstance().getAndIncrement();
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
                 if (enable_log) LOG.info("A tuple with bid: " + bid + " created @ " + DateTime.now());
             }
             buffers[index].add(p, package_message(streamId, value));
-            if (p + 1 == batch_size) {
-                pointer[index] = 0;
-                return buffers[index];
-            } else {
-                pointer[index]++;
-                return null;
-            }
+            return getTuple(p, index);
         }
 
         JumboTuple add_bid(int targetId, String streamId, TopologyContext context, StreamValues value) {
@@ -850,16 +961,10 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int p = pointer[index];
 //			Tuple tuple = buffers[index];
             if (p == 0) {
-                buffers[index] = new JumboTuple(src_Id, BIDGenerator.getInstance().getAndIncrement(), batch_size, context);
+                buffers[index] = newTuple(index, BIDGenerator.getInstance().getAndIncrement(), context);
             }
             buffers[index].add(p, package_message(streamId, value));
-            if (p + 1 == batch_size) {
-                pointer[index] = 0;
-                return buffers[index];
-            } else {
-                pointer[index]++;
-                return null;
-            }
+            return getTuple(p, index);
         }
 
         JumboTuple add_bid(int targetId, String streamId, TopologyContext context, char[] value) {
@@ -868,24 +973,18 @@ public abstract class PartitionController implements IPartitionController, Seria
 //			Tuple tuple = buffers[index];
             if (p == 0) {
                 long bid = BIDGenerator.getInstance().getAndIncrement();
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
 //				if (enable_log) LOG.info("A tuple with bid: " + bid + " created @ " + DateTime.now());
             }
             buffers[index].add(p, package_message(streamId, value));
-            if (p + 1 == batch_size) {
-                pointer[index] = 0;
-                return buffers[index];
-            } else {
-                pointer[index]++;
-                return null;
-            }
+            return getTuple(p, index);
         }
 
         JumboTuple spout_add_marker(int targetId, String streamId, long timestamp, long bid, int myiteration, TopologyContext context) {
             final int index = targetId - base;
             final int p = pointer[index];
             if (p == 0) {
-                buffers[index] = new JumboTuple(src_Id, BIDGenerator.getInstance().getAndIncrement(), batch_size, context);
+                buffers[index] = newTuple(index, BIDGenerator.getInstance().getAndIncrement(), context);
             }
             buffers[index].add(p, package_marker(streamId, timestamp, bid, myiteration));
             buffers[index].length = p + 1;
@@ -897,7 +996,7 @@ public abstract class PartitionController implements IPartitionController, Seria
             final int index = targetId - base;
             final int p = pointer[index];
             if (p == 0) {
-                buffers[index] = new JumboTuple(src_Id, bid, batch_size, context);
+                buffers[index] = newTuple(index, bid, context);
             }
             buffers[index].add(p, package_marker(streamId, marker));
             buffers[index].length = p + 1;
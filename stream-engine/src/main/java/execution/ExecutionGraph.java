@@ -346,7 +346,7 @@ public class ExecutionGraph extends RawExecutionGraph {
                 if (global_tuple_scheduler instanceof SequentialScheduler) {
                     executor.setInputStreamController(new SequentialScheduler());
                 } else if (global_tuple_scheduler instanceof UniformedScheduler) {
-                    executor.setInputStreamController(new UniformedScheduler());
+                    executor.setInputStreamController(new UniformedScheduler(((UniformedScheduler) global_tuple_scheduler).isPrioritizeMarkers()));
                 } else {
                     if (enable_log) LOG.error("Unknown input scheduler!");
                 }
@@ -11,6 +11,8 @@ import durability.logging.LoggingStrategy.ImplLoggingManager.DependencyLoggingMa
 import execution.runtime.boltThread;
 import execution.runtime.executorThread;
 import execution.runtime.spoutThread;
+import lock.OrderLock;
+import lock.PartitionedOrderLock;
 import optimization.OptimizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -124,6 +126,7 @@ public class ExecutionManager {
                 String schedulerType = conf.getString("scheduler");
                 int app = conf.getInt("app");
                 TxnManager.loggingManager = db.getLoggingManager();
+                TxnManager.registerTables(db.getStorageManager().getTableNames());
                 if (conf.getBoolean("isDynamic")) {
                     String schedulers=conf.getString("schedulersPool");
                     TxnManager.initSchedulerPool(conf.getString("defaultScheduler"), schedulers, totalThread, numberOfStates, app, conf.getInt("maxThreads"));
@@ -131,6 +134,8 @@ public class ExecutionManager {
                     TxnManager.setBottomLine(conf.getString("bottomLine"));
                     if (!conf.getBoolean("isRuntime")) {
                         TxnManager.setWorkloadConfig(conf.getString("WorkloadConfig"));
+                    } else {
+                        TxnManager.setSchedulerSelector(conf.getString("schedulerSelector", "costModel"));
                     }
                 } else if (conf.getBoolean("isGroup")) {
                     TxnManager.CreateSchedulerByGroup(conf.getString("SchedulersForGroup"), totalThread, numberOfStates, app);
@@ -142,6 +147,8 @@ public class ExecutionManager {
                 }
             }
         }
+        OrderLock.getInstance().setWaitStrategy(conf.getWaitStrategy().newInstance());
+        PartitionedOrderLock.getInstance().setWaitStrategy(conf.getWaitStrategy());
         executorThread thread = null;
         long start = System.currentTimeMillis();
         for (ExecutionNode e : g.getExecutionNodeArrayList()) {
@@ -235,9 +242,25 @@ public class ExecutionManager {
     public void exist() {
         if (enable_log) LOG.info("Execution stops.");
         this.getSinkThread().getContext().Sequential_stopAll();
+        this.closeLogging();
         this.closeFTM();
     }
 
+    /**
+     * Wait for the logs submitted before the stop to be durable, the log writer forces them whatever the fsync policy.
+     */
+    private void closeLogging() {
+        Database db = this.getSinkThread().getContext().getDb();
+        if (db != null && db.getLoggingManager() != null) {
+            try {
+                db.getLoggingManager().close();
+            } catch (InterruptedException e) {
+                LOG.warn("Interrupted while closing the logging manager");
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     public void closeFTM() {
         if (this.ftManager != null) {
             this.ftManager.running = false;
@@ -6,6 +6,7 @@ import components.operators.executor.IExecutor;
 import components.operators.executor.SpoutExecutor;
 import controller.input.InputStreamController;
 import controller.output.OutputController;
+import controller.output.PartitionController;
 import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -263,6 +264,11 @@ public class ExecutionNode implements Serializable {
 
     public void display() {
         op.display();
+        if (enable_log && getController() != null) {
+            for (PartitionController partitionController : getController().getPartitionController()) {
+                LOG.info(getOP_full() + " average batch size to " + partitionController.getChildId() + ": " + partitionController.getAverageBatchSize(executorID));
+            }
+        }
     }
 
 }
\ No newline at end of file
@@ -52,6 +52,7 @@ public class boltThread extends executorThread {
         super(e, conf, context, cpu, node, latch, threadMap);
         bolt = (BoltExecutor) e.op;
         scheduler = e.getInputStreamController();
+        scheduler.setWaitStrategy(waitStrategy, conf.getInt("queue_size") / 2);
         this.collector = new OutputCollector(e, context, conf.getInt("totalEvents"));
         batch = conf.getInt("batch", 100);
         bolt.setExecutionNode(e);
@@ -91,6 +92,7 @@ public class boltThread extends executorThread {
         Object tuple = fetchResult();
         if (tuple instanceof Tuple) {
             if (tuple != null) {
+                busy();
                 bolt.execute((Tuple) tuple);
                 cnt += 1;
             } else {
@@ -98,10 +100,13 @@ public class boltThread extends executorThread {
             }
         } else {
             if (tuple != null) {
+                busy();
                 bolt.execute((JumboTuple) tuple);
-                cnt += batch;
+                cnt += ((JumboTuple) tuple).length;//batches may be adaptive or flushed partially.
+                ((JumboTuple) tuple).recycle();//bolts do not keep the jumbo tuple after execution.
             } else {
                 miss++;
+                idle();
             }
         }
     }
@@ -1,8 +1,11 @@
 package execution.runtime;
 
 import common.collections.Configuration;
+import common.platform.NumaTopology;
+import common.util.wait.WaitStrategy;
 import components.TopologyComponent;
 import components.context.TopologyContext;
+import controller.output.PartitionController;
 import db.DatabaseException;
 import execution.ExecutionNode;
 import org.slf4j.Logger;
@@ -38,6 +41,9 @@ public abstract class executorThread extends Thread {
     int batch;
     private boolean start = true;
     private volatile boolean ready = false;
+    protected final WaitStrategy waitStrategy;//signalled by the producers of the executor.
+    private int idleSpin = WaitStrategy.SPIN_TRIES;
+    private final boolean lingering;//partial batches are flushed after batchLingerUs.
 
     protected executorThread(ExecutionNode e, Configuration conf, TopologyContext context
             , long[] cpu, int node, CountDownLatch latch, HashMap<Integer, executorThread> threadMap) {
@@ -47,7 +53,8 @@ public abstract class executorThread extends Thread {
         this.cpu = cpu;
         this.node = node;
         this.latch = latch;
-
+        this.waitStrategy = conf.getWaitStrategy().newInstance();
+        this.lingering = conf.getInt("batchLingerUs", 0) != 0;
         this.threadMap = threadMap;
         if (executor != null && !this.executor.isLeafNode()) {
             this.executor.getController().setContext(this.executor.getExecutorID(), context);
@@ -153,6 +160,22 @@ public abstract class executorThread extends Thread {
         end_emit = System.nanoTime();
     }
 
+    /**
+     * Called by the executor after it finds no input, waits on its own wait object until a producer signals it.
+     */
+    protected void idle() {
+        if (lingering && !executor.isLeafNode()) {
+            for (PartitionController partitionController : executor.getController().getPartitionController()) {
+                partitionController.flushLingering(executor.getExecutorID());
+            }
+        }
+        idleSpin = waitStrategy.idle(idleSpin);
+    }
+
+    protected void busy() {
+        idleSpin = WaitStrategy.SPIN_TRIES;
+    }
+
     protected abstract void _execute_noControl() throws InterruptedException, DatabaseException, BrokenBarrierException, IOException;
 
     protected abstract void _execute() throws InterruptedException, DatabaseException, BrokenBarrierException, IOException;
@@ -185,6 +208,7 @@ public abstract class executorThread extends Thread {
     protected void binding() {
         int cpu = next_cpu();
         setAffinity(cpu);
-        LOG.info("Successfully bind " + executor.getOP() + " on cpu: " + cpu);
+        NumaTopology.bindCurrentThread(cpu);//the scheduler context created by this thread is placed on the node of the cpu.
+        LOG.info("Successfully bind " + executor.getOP() + " on cpu: " + cpu + " of node: " + NumaTopology.nodeOf(cpu));
     }
 }
@@ -7,6 +7,9 @@ import execution.runtime.tuple.impl.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Queue;
+
 /**
  * Created by shuhaozhang on 10/7/16.
  * TODO:Make it generic!!
@@ -19,8 +22,9 @@ public class JumboTuple implements Comparable<JumboTuple> {
     private static final Logger LOG = LoggerFactory.getLogger(JumboTuple.class);
     public final Message[] msg;
     protected final int sourceId;
-    private final TopologyContext context;//context given by producer
-    private final long bid;
+    private TopologyContext context;//context given by producer
+    private long bid;
+    private final Queue<JumboTuple> pool;//free-list of the producer the tuple is returned to, null if not pooled.
     //	private final int targetTasks;//this is no longer required as we avoid the usage of multi-consumer based implementation.
     public int length;//length of batch
 
@@ -32,15 +36,21 @@ public class JumboTuple implements Comparable<JumboTuple> {
         this.context = clone.context;
         msg = new Message[length];
         System.arraycopy(clone.msg, 0, msg, 0, length);
+        this.pool = null;
     }
 
     public JumboTuple(int sourceId, long bid, int length, TopologyContext context) {
+        this(sourceId, bid, length, context, (Queue<JumboTuple>) null);
+    }
+
+    public JumboTuple(int sourceId, long bid, int length, TopologyContext context, Queue<JumboTuple> pool) {
         this.sourceId = sourceId;
 //		this.targetTasks = targetTasks;
         this.length = length;
         this.msg = new Message[length];
         this.context = context;
         this.bid = bid;
+        this.pool = pool;
     }
 
     public JumboTuple(int sourceId, long bid, int msg_size, TopologyContext context, Message... msg) {
@@ -50,6 +60,7 @@ public class JumboTuple implements Comparable<JumboTuple> {
         this.length = msg_size;//the actual batch size in this tuple
         this.msg = msg;
         this.bid = bid;
+        this.pool = null;
     }
 
     /**
@@ -66,6 +77,27 @@ public class JumboTuple implements Comparable<JumboTuple> {
         this.context = context;
         this.msg = new Message[1];
         this.msg[0] = message;
+        this.pool = null;
+    }
+
+    /**
+     * Take a recycled tuple of the pool for a new batch, called by the producer only.
+     */
+    public void reuse(long bid, int length, TopologyContext context) {
+        this.bid = bid;
+        this.length = length;
+        this.context = context;
+    }
+
+    /**
+     * Return the tuple to the free-list of its producer, called by the consumer once it has executed all messages.
+     * The messages are dropped so that the pooled tuple does not keep them alive, the tuple must not be accessed afterwards.
+     */
+    public void recycle() {
+        if (pool != null) {
+            Arrays.fill(msg, null);
+            pool.offer(this);//dropped if the free-list is full.
+        }
     }
 
     public int getSourceTask() {
@@ -17,7 +17,7 @@ public class Tuple {
     //context is not going to be serialized.
     private final TopologyContext context;
     //	private boolean tickerMark = false;
-    private final long bid;
+    private long bid;
     public final Message message;
     private long[] partition_bid;
 
@@ -157,6 +157,13 @@ public class Tuple {
         return bid;
     }
 
+    /**
+     * Only for a producer handing the same tuple over again once its consumer is done with it.
+     */
+    public void setBID(long bid) {
+        this.bid = bid;
+    }
+
     public long[] getPartitionBID() {
         return partition_bid;
     }
@@ -26,6 +26,13 @@ public class GeneralMsg<T> extends Message {
         this.values.add(values);
     }
 
+    /**
+     * Replace a value of a message that is handed over again.
+     */
+    public void setValue(int index_fields, T value) {
+        values.set(index_fields, value);
+    }
+
     @Override
     public Marker getMarker() {
         return null;